@@ -0,0 +1,32 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AccountSnapshotExecutorConfig {
+
+    /**
+     * Bounded pool that loads the wallets and the trade history of an account snapshot at the same time. When the
+     * pool and its queue are saturated a load is rejected, and the snapshot leaves its section out, instead of
+     * running on the request thread past the latency budget.
+     */
+    @Bean(name = "accountSnapshotExecutor")
+    public ThreadPoolTaskExecutor accountSnapshotExecutor(@Value("${dce.account-snapshot.pool-size:8}") int poolSize,
+                                                          @Value("${dce.account-snapshot.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("account-snapshot-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        return executor;
+    }
+}
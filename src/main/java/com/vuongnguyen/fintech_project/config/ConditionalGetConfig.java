@@ -0,0 +1,66 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.WalletVersions;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import com.vuongnguyen.fintech_project.service.PriceSnapshotService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+
+/**
+ * Registers conditional GET handling for the endpoints that clients poll:
+ * <ul>
+ *     <li>latest prices, tagged with the price snapshot sequence, which every aggregated price advances;</li>
+ *     <li>a user's wallets, tagged with the count, version sum and last update time of the user's wallet rows; users
+ *     without wallets are not tagged.</li>
+ * </ul>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(pathVariables -> priceValidators(),
+                        meterRegistry.counter("dce.http.not-modified", "resource", "prices")))
+                .addPathPatterns("/api/v1/prices/latest", "/api/v1/prices/latest/all");
+        registry.addInterceptor(new ConditionalGetInterceptor(pathVariables -> walletValidators(pathVariables.get("userId")),
+                        meterRegistry.counter("dce.http.not-modified", "resource", "wallets")))
+                .addPathPatterns("/api/v1/wallets/user/*");
+    }
+
+    private ConditionalGetInterceptor.Validators priceValidators() {
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+
+        return new ConditionalGetInterceptor.Validators(priceSnapshotService.eTagOf(snapshot), snapshot.getPublishedAt());
+    }
+
+    private ConditionalGetInterceptor.Validators walletValidators(String userId) {
+        long id;
+        try {
+            id = Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        WalletVersions versions = walletBalanceRepository.findWalletVersions(id);
+        if (versions.getWallets() == 0) {
+            return null;
+        }
+
+        // The update time keeps tags apart when versions restart from zero after the database was recreated.
+        long lastUpdatedAt = versions.getLastUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String eTag = id + "-" + versions.getWallets() + "-" + versions.getVersionSum() + "-" + Long.toString(lastUpdatedAt, 36);
+
+        return new ConditionalGetInterceptor.Validators(eTag, versions.getLastUpdatedAt());
+    }
+}
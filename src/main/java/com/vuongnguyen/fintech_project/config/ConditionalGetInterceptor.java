@@ -0,0 +1,74 @@
+package com.vuongnguyen.fintech_project.config;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Answers conditional GETs before the handler runs. The validators of the requested resource are computed from
+ * the request's path variables, typically from a version number that is much cheaper to read than the resource;
+ * a request whose {@code If-None-Match} (or, without it, {@code If-Modified-Since}) still matches gets
+ * {@code 304 Not Modified} without the handler loading or serializing anything. Other requests proceed with the
+ * {@code ETag} and {@code Last-Modified} headers set.
+ * <p>
+ * Validators are read before the handler reads the resource, so a response is never older than its validators.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final Function<Map<String, String>, Validators> validators;
+    private final Counter notModified;
+
+    /**
+     * @param validators  computes the validators of a resource from its path variables, or returns null to skip
+     *                    conditional handling of the request
+     * @param notModified counts the requests answered with 304
+     */
+    public ConditionalGetInterceptor(Function<Map<String, String>, Validators> validators, Counter notModified) {
+        this.validators = validators;
+        this.notModified = notModified;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Validators current = validators.apply(Objects.isNull(pathVariables) ? Map.of() : pathVariables);
+        if (Objects.isNull(current)) {
+            return true;
+        }
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        boolean unchanged = Objects.isNull(current.lastModified())
+                ? webRequest.checkNotModified(current.eTag())
+                : webRequest.checkNotModified(current.eTag(),
+                current.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (unchanged) {
+            notModified.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param eTag         the strong entity tag, without quotes
+     * @param lastModified when the resource last changed, or null if unknown
+     */
+    public record Validators(String eTag, LocalDateTime lastModified) {
+    }
+}
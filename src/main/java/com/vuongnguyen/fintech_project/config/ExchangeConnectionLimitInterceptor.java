@@ -0,0 +1,109 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps concurrent requests per exchange host and counts the requests sent to it. A permit is held from send
+ * until the response is closed, which bounds the number of connections the client opens to that host.
+ * Requests to hosts without a limit pass through unchanged.
+ */
+class ExchangeConnectionLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Map<String, HostLimit> limitsByHost;
+
+    ExchangeConnectionLimitInterceptor(Map<String, HostLimit> limitsByHost) {
+        this.limitsByHost = limitsByHost;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HostLimit limit = limitsByHost.get(request.getURI().getHost());
+        if (Objects.isNull(limit)) {
+            return execution.execute(request, body);
+        }
+
+        limit.acquire(request);
+        limit.requests().incrementAndGet();
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), limit.permits());
+        } catch (IOException | RuntimeException e) {
+            limit.permits().release();
+            throw e;
+        }
+    }
+
+    record HostLimit(Semaphore permits, Duration acquireTimeout, AtomicLong requests) {
+
+        void acquire(HttpRequest request) throws IOException {
+            try {
+                if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IOException("No free connection to " + request.getURI().getHost()
+                            + " within " + acquireTimeout.toMillis() + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a connection to " + request.getURI().getHost());
+            }
+        }
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableConfigurationProperties(MarketDataSourceProperties.class)
+public class ExchangeExecutorConfig {
+
+    /**
+     * Bounded pool used to query every exchange concurrently within one aggregation tick.
+     * When the pool and its queue are saturated the submitting thread runs the fetch itself,
+     * so a tick never silently drops an exchange.
+     */
+    @Bean(name = "exchangeFetchExecutor")
+    public ThreadPoolTaskExecutor exchangeFetchExecutor(@Value("${dce.fan-out.pool-size:4}") int poolSize,
+                                                        @Value("${dce.fan-out.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("exchange-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        return executor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * HTTP client settings for exchange REST calls, bound from {@code dce.http}.
+ * Each exchange gets its own connection pool; hosts without an entry use {@link #defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "dce.http")
+public class ExchangeHttpClientProperties {
+
+    /**
+     * Send {@code Accept-Encoding: gzip} and decompress responses transparently.
+     */
+    private boolean compression = true;
+
+    private Client defaults = new Client();
+
+    private Map<DCESource, Client> exchanges = new EnumMap<>(DCESource.class);
+
+    public Client forExchange(DCESource source) {
+        return exchanges.getOrDefault(source, defaults);
+    }
+
+    @Data
+    public static class Client {
+
+        /**
+         * Maximum concurrent requests, and so open HTTP/1.1 connections, to the exchange host.
+         */
+        private int maxConnections = 4;
+
+        /**
+         * How long a request waits for a free connection before failing.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Sends each request through the client of the exchange that owns the target host, so every exchange keeps
+ * its own connection pool and timeouts behind the single {@code RestTemplate}.
+ */
+class ExchangeRoutingRequestFactory implements ClientHttpRequestFactory {
+
+    private final Map<String, ClientHttpRequestFactory> factoriesByHost;
+    private final ClientHttpRequestFactory defaultFactory;
+
+    ExchangeRoutingRequestFactory(Map<String, ClientHttpRequestFactory> factoriesByHost,
+                                  ClientHttpRequestFactory defaultFactory) {
+        this.factoriesByHost = factoriesByHost;
+        this.defaultFactory = defaultFactory;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return factoriesByHost.getOrDefault(uri.getHost(), defaultFactory).createRequest(uri, httpMethod);
+    }
+}
@@ -0,0 +1,95 @@
+package com.vuongnguyen.fintech_project.config;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SSLContext} that delegates to another context and counts the {@link SSLEngine}s it creates.
+ * The JDK {@code HttpClient} creates one engine per new TLS connection, so the count is the number of
+ * TLS handshakes; requests served on a kept-alive or multiplexed connection do not add to it.
+ */
+class HandshakeCountingSslContext extends SSLContext {
+
+    private final AtomicLong handshakes;
+
+    private HandshakeCountingSslContext(SSLContext delegate, AtomicLong handshakes) {
+        super(new CountingSpi(delegate, handshakes), delegate.getProvider(), delegate.getProtocol());
+        this.handshakes = handshakes;
+    }
+
+    static HandshakeCountingSslContext wrap(SSLContext delegate) {
+        return new HandshakeCountingSslContext(delegate, new AtomicLong());
+    }
+
+    long getHandshakeCount() {
+        return handshakes.get();
+    }
+
+    private static final class CountingSpi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+        private final AtomicLong handshakes;
+
+        private CountingSpi(SSLContext delegate, AtomicLong handshakes) {
+            this.delegate = delegate;
+            this.handshakes = handshakes;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+            delegate.init(km, tm, sr);
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            handshakes.incrementAndGet();
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            handshakes.incrementAndGet();
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Endpoints and polling settings for each market data source, bound from {@code dce.market-data}.
+ * Sources without an entry use {@link #defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "dce.market-data")
+public class MarketDataSourceProperties {
+
+    private Source defaults = new Source();
+
+    private Map<DCESource, Source> sources = new EnumMap<>(DCESource.class);
+
+    public Source forSource(DCESource source) {
+        return sources.getOrDefault(source, defaults);
+    }
+
+    @Data
+    public static class Source {
+
+        private boolean enabled = true;
+
+        /**
+         * The REST endpoint the source is polled at. Its host gets its own HTTP client, see {@code dce.http}.
+         */
+        private String url;
+
+        /**
+         * The WebSocket endpoint of the source's market data stream; unset means the source is only polled.
+         */
+        private String streamUrl;
+
+        /**
+         * How often the source is polled. Ticks in between reuse its last polled quotes; zero polls every tick.
+         */
+        private Duration pollInterval = Duration.ZERO;
+
+        /**
+         * How long a tick waits for the source in fan-out mode; unset uses {@code dce.fan-out.timeout}.
+         */
+        private Duration timeout;
+    }
+}
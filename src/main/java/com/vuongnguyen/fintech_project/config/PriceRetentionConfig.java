@@ -0,0 +1,12 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the {@code aggregated_prices} retention settings used by the purge service and its scheduler.
+ */
+@Configuration
+@EnableConfigurationProperties(PriceRetentionProperties.class)
+public class PriceRetentionConfig {
+}
@@ -0,0 +1,40 @@
+package com.vuongnguyen.fintech_project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retention of the raw {@code aggregated_prices} history, bound from {@code dce.retention.aggregated-prices}.
+ * Symbols without an entry in {@link #symbols} keep {@link #maxAge} of history.
+ */
+@Data
+@ConfigurationProperties(prefix = "dce.retention.aggregated-prices")
+public class PriceRetentionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Time between the end of one purge and the start of the next.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    private Duration maxAge = Duration.ofHours(24);
+
+    /**
+     * Most rows deleted by one statement; each chunk is its own short transaction.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Maximum age per symbol, overriding {@link #maxAge}.
+     */
+    private Map<String, Duration> symbols = new HashMap<>();
+
+    public Duration maxAgeFor(String symbol) {
+        return symbols.getOrDefault(symbol, maxAge);
+    }
+}
@@ -1,19 +1,105 @@
 package com.vuongnguyen.fintech_project.config;
 
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the exchange {@link RestTemplate} on the JDK {@link HttpClient}: one client per exchange, with pooled
+ * keep-alive connections, HTTP/2 when the server negotiates it, transparent gzip and per-exchange timeouts.
+ * An exchange's host is taken from its {@code dce.market-data.sources.<exchange>.url}.
+ */
 @Configuration
+@EnableConfigurationProperties(ExchangeHttpClientProperties.class)
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(10000);
+    public RestTemplate restTemplate(ExchangeHttpClientProperties properties,
+                                     MarketDataSourceProperties marketDataSourceProperties,
+                                     MeterRegistry meterRegistry) throws NoSuchAlgorithmException {
+        Map<DCESource, String> hosts = new EnumMap<>(DCESource.class);
+        for (DCESource source : DCESource.values()) {
+            String url = marketDataSourceProperties.forSource(source).getUrl();
+            if (Objects.nonNull(url)) {
+                hosts.put(source, URI.create(url).getHost());
+            }
+        }
+
+        Map<String, ClientHttpRequestFactory> factoriesByHost = new HashMap<>();
+        Map<String, ExchangeConnectionLimitInterceptor.HostLimit> limitsByHost = new HashMap<>();
+
+        for (Map.Entry<DCESource, String> entry : hosts.entrySet()) {
+            String exchange = entry.getKey().name();
+            ExchangeHttpClientProperties.Client client = properties.forExchange(entry.getKey());
+            HandshakeCountingSslContext sslContext = HandshakeCountingSslContext.wrap(SSLContext.getDefault());
+            Semaphore permits = new Semaphore(client.getMaxConnections(), true);
+            AtomicLong requests = new AtomicLong();
+
+            factoriesByHost.put(entry.getValue(), requestFactory(client, sslContext, properties.isCompression()));
+            limitsByHost.put(entry.getValue(),
+                    new ExchangeConnectionLimitInterceptor.HostLimit(permits, client.getAcquireTimeout(), requests));
+
+            FunctionCounter.builder("dce.http.requests", requests, AtomicLong::get)
+                    .description("Requests sent to the exchange host")
+                    .tag("exchange", exchange)
+                    .register(meterRegistry);
+            FunctionCounter.builder("dce.http.connections.reused", requests,
+                            r -> Math.max(0, r.get() - sslContext.getHandshakeCount()))
+                    .description("Requests served on an existing connection without a new TLS handshake")
+                    .tag("exchange", exchange)
+                    .register(meterRegistry);
+            FunctionCounter.builder("dce.http.tls.handshakes", sslContext, HandshakeCountingSslContext::getHandshakeCount)
+                    .description("TLS handshakes, i.e. new connections, to the exchange host")
+                    .tag("exchange", exchange)
+                    .register(meterRegistry);
+            Gauge.builder("dce.http.connections.in-use", permits,
+                            p -> client.getMaxConnections() - p.availablePermits())
+                    .description("Requests to the exchange host currently holding a connection")
+                    .tag("exchange", exchange)
+                    .register(meterRegistry);
+        }
+
+        ClientHttpRequestFactory defaultFactory = requestFactory(properties.getDefaults(),
+                SSLContext.getDefault(), properties.isCompression());
+
+        RestTemplate restTemplate = new RestTemplate(new ExchangeRoutingRequestFactory(factoriesByHost, defaultFactory));
+        restTemplate.setInterceptors(List.of(new ExchangeConnectionLimitInterceptor(limitsByHost)));
+
+        return restTemplate;
+    }
+
+    private ClientHttpRequestFactory requestFactory(ExchangeHttpClientProperties.Client client, SSLContext sslContext,
+                                                    boolean compression) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(client.getConnectTimeout())
+                .sslContext(sslContext)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(client.getReadTimeout());
+        factory.enableCompression(compression);
 
-        return new RestTemplate(factory);
+        return factory;
     }
 }
@@ -0,0 +1,31 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.dto.RetentionReport;
+import com.vuongnguyen.fintech_project.service.PriceRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/retention}: {@code GET} returns the report of the last price history purge, {@code POST} runs a
+ * purge now and returns its report. Both return no content if there is no report.
+ */
+@Component
+@Endpoint(id = "retention")
+@RequiredArgsConstructor
+public class RetentionEndpoint {
+
+    private final PriceRetentionService priceRetentionService;
+
+    @ReadOperation
+    public RetentionReport lastReport() {
+        return priceRetentionService.getLastReport().orElse(null);
+    }
+
+    @WriteOperation
+    public RetentionReport purge() {
+        return priceRetentionService.purge().orElse(null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.vuongnguyen.fintech_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class StreamExecutorConfig {
+
+    /**
+     * Pool that writes conflated price updates to SSE subscribers. Each subscriber has at most one write task
+     * queued or running, so the queue never holds more tasks than there are subscribers, and a slow subscriber
+     * holds up at most one thread until its write is evicted after {@code dce.price-stream.send-timeout}.
+     */
+    @Bean(name = "priceStreamExecutor")
+    public ThreadPoolTaskExecutor priceStreamExecutor(@Value("${dce.price-stream.threads:4}") int threads) {
+        return streamExecutor(threads, "price-stream-");
+    }
+
+    /**
+     * Pool that writes trade events and heartbeats to per-user SSE subscribers, with the same one task per
+     * subscriber bound as the price stream pool.
+     */
+    @Bean(name = "userStreamExecutor")
+    public ThreadPoolTaskExecutor userStreamExecutor(@Value("${dce.user-stream.threads:4}") int threads) {
+        return streamExecutor(threads, "user-stream-");
+    }
+
+    private ThreadPoolTaskExecutor streamExecutor(int threads, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        return executor;
+    }
+}
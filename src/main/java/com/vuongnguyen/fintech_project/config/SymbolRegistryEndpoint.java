@@ -0,0 +1,41 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.dto.SymbolsReloadedEvent;
+import com.vuongnguyen.fintech_project.service.SymbolRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/symbols}: {@code GET} lists the registered symbols, {@code POST} reloads them from
+ * {@code dce.symbols.location} and publishes a {@link SymbolsReloadedEvent}, on which the exchange streams reconnect
+ * with the new subscriptions.
+ */
+@Component
+@Endpoint(id = "symbols")
+@RequiredArgsConstructor
+public class SymbolRegistryEndpoint {
+
+    private final SymbolRegistry symbolRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @ReadOperation
+    public List<SymbolInfo> symbols() {
+        return symbolRegistry.getAll();
+    }
+
+    @WriteOperation
+    public Map<String, Integer> reload() {
+        int symbols = symbolRegistry.reload();
+        eventPublisher.publishEvent(new SymbolsReloadedEvent(symbols));
+
+        return Map.of("symbols", symbols);
+    }
+}
@@ -0,0 +1,52 @@
+package com.vuongnguyen.fintech_project.controller;
+
+import com.vuongnguyen.fintech_project.dto.AccountSnapshotResponse;
+import com.vuongnguyen.fintech_project.dto.ApiResponse;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.service.AccountSnapshotService;
+import com.vuongnguyen.fintech_project.service.PortfolioService;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountController {
+
+    private final AccountSnapshotService accountSnapshotService;
+    private final PortfolioService portfolioService;
+
+    @GetMapping("/{userId}/snapshot")
+    public ResponseEntity<ApiResponse<AccountSnapshotResponse>> getAccountSnapshot(
+            @PathVariable @NotNull @Positive Long userId) {
+
+        log.info("Received request for account snapshot of user: {}", userId);
+
+        AccountSnapshotResponse snapshot = accountSnapshotService.getAccountSnapshot(userId);
+
+        if (!snapshot.getMissingSections().isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success("Account snapshot partially retrieved", snapshot));
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Account snapshot retrieved successfully", snapshot));
+    }
+
+    @GetMapping("/{userId}/portfolio")
+    public ResponseEntity<ApiResponse<PortfolioValuation>> getPortfolioValuation(
+            @PathVariable @NotNull @Positive Long userId) {
+
+        log.info("Received request for portfolio valuation of user: {}", userId);
+
+        PortfolioValuation valuation = portfolioService.getValuation(userId);
+
+        return ResponseEntity.ok(ApiResponse.success("Portfolio valuation retrieved successfully", valuation));
+    }
+}
@@ -2,16 +2,27 @@ package com.vuongnguyen.fintech_project.controller;
 
 import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
 import com.vuongnguyen.fintech_project.dto.ApiResponse;
+import com.vuongnguyen.fintech_project.dto.PriceCandle;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshotResponse;
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import com.vuongnguyen.fintech_project.service.PriceCandleService;
 import com.vuongnguyen.fintech_project.service.PriceService;
+import com.vuongnguyen.fintech_project.service.PriceStreamService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -21,6 +32,8 @@ import java.util.Optional;
 public class PriceController {
 
     private final PriceService priceService;
+    private final PriceCandleService priceCandleService;
+    private final PriceStreamService priceStreamService;
 
     @GetMapping("/latest")
     public ResponseEntity<ApiResponse<AggregatedPriceResponse>> getLatestPrice(
@@ -36,4 +49,56 @@ public class PriceController {
                 .orElseGet(() -> ResponseEntity.notFound()
                 .build());
     }
+
+    @GetMapping(path = "/latest", params = "symbols")
+    public ResponseEntity<ApiResponse<PriceSnapshotResponse>> getLatestPrices(@RequestParam List<String> symbols) {
+
+        log.info("Received request for latest prices of symbols: {}", symbols);
+
+        List<String> normalizedSymbols = symbols.stream().map(symbol -> symbol.toUpperCase().trim()).toList();
+
+        return ResponseEntity.ok(ApiResponse.success("Latest prices retrieved successfully",
+                priceService.getLatestPrices(normalizedSymbols)));
+    }
+
+    @GetMapping("/latest/all")
+    public ResponseEntity<ApiResponse<PriceSnapshotResponse>> getAllLatestPrices() {
+
+        log.info("Received request for latest prices of all symbols");
+
+        return ResponseEntity.ok(ApiResponse.success("Latest prices retrieved successfully",
+                priceService.getAllLatestPrices()));
+    }
+
+    @GetMapping("/candles")
+    public ResponseEntity<ApiResponse<List<PriceCandle>>> getCandles(
+            @RequestParam @NotBlank(message = "Symbol is required") String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("Received request for {} candles of symbol: {}, from: {}, to: {}", interval, symbol, from, to);
+
+        List<PriceCandle> candles = priceCandleService.getCandles(symbol.toUpperCase().trim(),
+                CandleInterval.from(interval), from, to);
+
+        return ResponseEntity.ok(ApiResponse.success("Candles retrieved successfully", candles));
+    }
+
+    /**
+     * Streams aggregated prices as Server-Sent Events named {@code price}, starting with the latest price of
+     * every requested symbol.
+     *
+     * @param symbols the symbols to stream, or none for every supported symbol
+     * @return the event stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam(required = false) List<String> symbols) {
+        List<String> normalizedSymbols = Objects.isNull(symbols) ? List.of()
+                : symbols.stream().map(symbol -> symbol.toUpperCase().trim()).toList();
+
+        log.info("Received price stream subscription for symbols: {}", normalizedSymbols);
+
+        return priceStreamService.subscribe(normalizedSymbols);
+    }
 }
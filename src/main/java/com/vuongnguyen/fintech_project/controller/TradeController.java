@@ -1,10 +1,18 @@
 package com.vuongnguyen.fintech_project.controller;
 
 import com.vuongnguyen.fintech_project.dto.ApiResponse;
+import com.vuongnguyen.fintech_project.dto.TradeBatchRequest;
+import com.vuongnguyen.fintech_project.dto.TradeBatchResponse;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryCursorResponse;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
 import com.vuongnguyen.fintech_project.dto.TradeRequest;
 import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.enums.TradeExportFormat;
+import com.vuongnguyen.fintech_project.service.TradeBatchService;
+import com.vuongnguyen.fintech_project.service.TradeEngine;
+import com.vuongnguyen.fintech_project.service.TradeExportService;
 import com.vuongnguyen.fintech_project.service.TradingService;
+import com.vuongnguyen.fintech_project.service.UserStreamService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -12,6 +20,9 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +31,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/trades")
@@ -27,14 +40,18 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class TradeController {
 
+    private final TradeEngine tradeEngine;
     private final TradingService tradingService;
+    private final TradeBatchService tradeBatchService;
+    private final TradeExportService tradeExportService;
+    private final UserStreamService userStreamService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<TradeResponse>> executeTrade(@Valid @RequestBody TradeRequest request) {
         log.info("Received trade request: userId={}, symbol={}, side={}, quantity={}",
                 request.getUserId(), request.getSymbol(), request.getSide(), request.getQuantity());
 
-        TradeResponse tradeResponse = tradingService.executeUserTrading(request);
+        TradeResponse tradeResponse = tradeEngine.execute(request);
 
         log.info("Trade executed successfully: tradeId={}, userId={}, symbol={}",
                 tradeResponse.getTradeId(), tradeResponse.getUserId(), tradeResponse.getSymbol());
@@ -42,6 +59,22 @@ public class TradeController {
         return ResponseEntity.ok(ApiResponse.success("Trade executed successfully", tradeResponse));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<TradeBatchResponse>> executeTradeBatch(@Valid @RequestBody TradeBatchRequest request) {
+        log.info("Received trade batch request: trades={}, allOrNothing={}",
+                request.getTrades().size(), request.isAllOrNothing());
+
+        TradeBatchResponse batchResponse = tradeBatchService.executeBatch(request);
+
+        if (batchResponse.getFailed() == 0) {
+            return ResponseEntity.ok(ApiResponse.success("Trade batch executed successfully", batchResponse));
+        }
+
+        String message = request.isAllOrNothing() ? "Trade batch rolled back"
+                : String.format("Trade batch executed with %d failed trades", batchResponse.getFailed());
+        return ResponseEntity.ok(new ApiResponse<>(false, message, batchResponse));
+    }
+
     @GetMapping("/history/user/{userId}")
     public ResponseEntity<ApiResponse<TradeHistoryResponse>> getUserTradeHistory(
             @PathVariable @NotNull @Positive Long userId,
@@ -73,4 +106,61 @@ public class TradeController {
 
         return ResponseEntity.ok(ApiResponse.success("Trade history retrieved successfully", tradeHistory));
     }
+
+    @GetMapping("/history/user/{userId}/cursor")
+    public ResponseEntity<ApiResponse<TradeHistoryCursorResponse>> getUserTradeHistoryByCursor(
+            @PathVariable @NotNull @Positive Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(required = false) String symbol) {
+
+        log.info("Received request for trade history: userId={}, cursor={}, size={}, symbol={}",
+                userId, cursor, size, symbol);
+
+        if (symbol != null && !symbol.trim().isEmpty()) {
+            symbol = symbol.toUpperCase().trim();
+        }
+
+        TradeHistoryCursorResponse tradeHistory = tradingService.getUserTradeHistoryByCursor(userId, cursor, size, symbol);
+
+        if (tradeHistory.getTrades().isEmpty() && cursor == null) {
+            log.info("No trade history found for user: {}", userId);
+            return ResponseEntity.ok(ApiResponse.success("No trade history found", tradeHistory));
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Trade history retrieved successfully", tradeHistory));
+    }
+
+    @GetMapping("/history/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserTradeHistory(
+            @PathVariable @NotNull @Positive Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String symbol) {
+
+        log.info("Received request for trade history export: userId={}, format={}, symbol={}", userId, format, symbol);
+
+        TradeExportFormat exportFormat = TradeExportFormat.from(format);
+        if (symbol != null && !symbol.trim().isEmpty()) {
+            symbol = symbol.toUpperCase().trim();
+        } else {
+            symbol = null;
+        }
+
+        StreamingResponseBody body = tradeExportService.exportTradeHistory(userId, symbol, exportFormat);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("trades-" + userId + "." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(path = "/stream/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserTrades(@PathVariable @NotNull @Positive Long userId) {
+        log.info("Received request for trade stream: userId={}", userId);
+
+        return userStreamService.subscribe(userId);
+    }
 }
@@ -0,0 +1,25 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One wallet of an account snapshot with its value in the valuation currency. {@code symbol}, {@code price} and
+ * {@code value} are null when the currency has no USDT symbol or the symbol has no price yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHolding {
+
+    private String currency;
+    private BigDecimal balance;
+    private String symbol;
+    private BigDecimal price;
+    private BigDecimal value;
+    private LocalDateTime lastUpdated;
+}
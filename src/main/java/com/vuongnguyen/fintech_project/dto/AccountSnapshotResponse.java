@@ -0,0 +1,27 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything a client shows at launch in one response: wallets valued in {@code valuationCurrency}, the latest
+ * prices of the held assets and the first page of trade history. Sections that could not be loaded within the
+ * latency budget are null and listed in {@code missingSections}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSnapshotResponse {
+
+    private Long userId;
+    private String valuationCurrency;
+    private BigDecimal totalValue;
+    private List<AccountHolding> holdings;
+    private PriceSnapshotResponse prices;
+    private TradeHistoryResponse recentTrades;
+    private List<String> missingSections;
+}
@@ -1,33 +1,26 @@
 package com.vuongnguyen.fintech_project.dto;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
+/**
+ * One Binance book ticker. Bid and ask prices are {@link FixedPoint} values scaled by 10^8, parsed straight
+ * from the response text, or {@link FixedPoint#UNSET} when missing.
+ */
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 public class BinanceTickerResponse {
 
     public BinanceTickerResponse(String symbol, BigDecimal bestBid, BigDecimal bestAsk) {
-        this.symbol = symbol;
-        this.bidPrice = bestBid;
-        this.askPrice = bestAsk;
+        this(symbol, FixedPoint.of(bestBid), FixedPoint.of(bestAsk));
     }
 
-    @JsonProperty("symbol")
     private String symbol;
-
-    @JsonProperty("bidPrice")
-    private BigDecimal bidPrice;
-
-    @JsonProperty("bidQty")
-    private BigDecimal bidQty;
-
-    @JsonProperty("askPrice")
-    private BigDecimal askPrice;
-
-    @JsonProperty("askQty")
-    private BigDecimal askQty;
+    private long bidPrice = FixedPoint.UNSET;
+    private long askPrice = FixedPoint.UNSET;
 }
@@ -0,0 +1,25 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A user's holdings valued in {@code valuationCurrency}, as kept in memory by the portfolio service.
+ * {@code updatedAt} is when a balance or price of the portfolio last changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuation {
+
+    private Long userId;
+    private String valuationCurrency;
+    private BigDecimal totalValue;
+    private List<AccountHolding> holdings;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Open, high, low and close of the mid price ({@code (bestBid + bestAsk) / 2}) of a symbol over one interval.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceCandle {
+
+    private String symbol;
+    private CandleInterval interval;
+    private LocalDateTime openTime;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+}
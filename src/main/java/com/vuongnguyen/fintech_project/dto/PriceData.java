@@ -1,19 +1,28 @@
 package com.vuongnguyen.fintech_project.dto;
 
 import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
+/**
+ * One exchange quote. Bid and ask are {@link FixedPoint} values scaled by 10^8, or {@link FixedPoint#UNSET}
+ * when the exchange did not send them.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PriceData {
 
     private String symbol;
-    private BigDecimal bid;
-    private BigDecimal ask;
+    private long bid;
+    private long ask;
     private DCESource source;
+
+    public PriceData(String symbol, BigDecimal bid, BigDecimal ask, DCESource source) {
+        this(symbol, FixedPoint.of(bid), FixedPoint.of(ask), source);
+    }
 }
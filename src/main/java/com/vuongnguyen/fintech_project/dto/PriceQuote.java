@@ -0,0 +1,30 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.LatestPrice;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable best bid/ask for one symbol, as held in the in-memory {@link PriceSnapshot}.
+ */
+@Value
+public class PriceQuote {
+
+    String symbol;
+    BigDecimal bestBid;
+    BigDecimal bestAsk;
+    LocalDateTime timestamp;
+
+    public static PriceQuote from(AggregatedPrice aggregatedPrice) {
+        return new PriceQuote(aggregatedPrice.getSymbol(), aggregatedPrice.getBestBid(),
+                aggregatedPrice.getBestAsk(), aggregatedPrice.getTimestamp());
+    }
+
+    public static PriceQuote from(LatestPrice latestPrice) {
+        return new PriceQuote(latestPrice.getSymbol(), latestPrice.getBestBid(),
+                latestPrice.getBestAsk(), latestPrice.getTimestamp());
+    }
+}
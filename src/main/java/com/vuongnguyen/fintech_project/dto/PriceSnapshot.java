@@ -0,0 +1,50 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable view of the latest aggregated price of every symbol. A new snapshot with the next sequence
+ * number is built for each publish and swapped in atomically, so readers never see a partially applied tick.
+ */
+@Value
+public class PriceSnapshot {
+
+    public static final PriceSnapshot EMPTY = new PriceSnapshot(0L, null, Map.of());
+
+    long sequence;
+    LocalDateTime publishedAt;
+    Map<String, PriceQuote> quotes;
+
+    public Optional<PriceQuote> getQuote(String symbol) {
+        return Optional.ofNullable(quotes.get(symbol));
+    }
+
+    /**
+     * A quote only replaces the one held for its symbol if its timestamp is newer, so an update computed before
+     * the held quote but published after it is dropped.
+     *
+     * @param updates the quotes to add or replace
+     * @return a new snapshot holding this snapshot's quotes overlaid with the newer updates, or this snapshot if
+     * none of them is newer
+     */
+    public PriceSnapshot with(Collection<PriceQuote> updates) {
+        Map<String, PriceQuote> merged = new HashMap<>(quotes);
+        boolean changed = false;
+        for (PriceQuote quote : updates) {
+            PriceQuote held = merged.get(quote.getSymbol());
+            if (Objects.isNull(held) || quote.getTimestamp().isAfter(held.getTimestamp())) {
+                merged.put(quote.getSymbol(), quote);
+                changed = true;
+            }
+        }
+
+        return changed ? new PriceSnapshot(sequence + 1, LocalDateTime.now(), Map.copyOf(merged)) : this;
+    }
+}
@@ -0,0 +1,22 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Latest prices of several symbols, all read from one {@link PriceSnapshot}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSnapshotResponse {
+
+    private long sequence;
+    private LocalDateTime timestamp;
+    private List<AggregatedPriceResponse> prices;
+    private List<String> missingSymbols;
+}
@@ -0,0 +1,23 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Outcome of one retention purge. {@code bytesReclaimed} is estimated from the number of rows deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionReport {
+
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long rowsPurged;
+    private long bytesReclaimed;
+    private Map<String, Long> rowsPurgedBySymbol;
+}
@@ -0,0 +1,38 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One entry of the symbol definitions file, bound as read. {@link com.vuongnguyen.fintech_project.service.SymbolRegistry}
+ * validates it and registers it as an immutable {@link SymbolInfo}.
+ */
+@Data
+@NoArgsConstructor
+public class SymbolDefinition {
+
+    private String symbol;
+
+    private String baseCurrency;
+
+    private String quoteCurrency;
+
+    /**
+     * The symbol as each exchange spells it, e.g. {@code ethusdt} on Huobi. Exchanges without an entry use
+     * {@link #symbol}.
+     */
+    private Map<DCESource, String> exchangeSymbols = new EnumMap<>(DCESource.class);
+
+    private BigDecimal tickSize;
+
+    private BigDecimal lotSize;
+
+    public String exchangeSymbol(DCESource source) {
+        return exchangeSymbols.getOrDefault(source, symbol);
+    }
+}
@@ -0,0 +1,46 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Immutable reference data of one tradable symbol, as registered in
+ * {@link com.vuongnguyen.fintech_project.service.SymbolRegistry}. The registry hands out the same instances to every
+ * caller, so nothing about a symbol can change until the registry is reloaded.
+ */
+@Value
+public class SymbolInfo {
+
+    String symbol;
+
+    String baseCurrency;
+
+    String quoteCurrency;
+
+    /**
+     * The symbol as each exchange spells it, e.g. {@code ethusdt} on Huobi. Exchanges without an entry use
+     * {@link #symbol}.
+     */
+    Map<DCESource, String> exchangeSymbols;
+
+    BigDecimal tickSize;
+
+    BigDecimal lotSize;
+
+    public SymbolInfo(String symbol, String baseCurrency, String quoteCurrency, Map<DCESource, String> exchangeSymbols,
+                      BigDecimal tickSize, BigDecimal lotSize) {
+        this.symbol = symbol;
+        this.baseCurrency = baseCurrency;
+        this.quoteCurrency = quoteCurrency;
+        this.exchangeSymbols = Map.copyOf(exchangeSymbols);
+        this.tickSize = tickSize;
+        this.lotSize = lotSize;
+    }
+
+    public String exchangeSymbol(DCESource source) {
+        return exchangeSymbols.getOrDefault(source, symbol);
+    }
+}
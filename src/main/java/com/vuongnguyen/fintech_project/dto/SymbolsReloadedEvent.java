@@ -0,0 +1,16 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.Value;
+
+/**
+ * Published after {@code POST /actuator/symbols} replaced the symbol registry, so components that copied symbols
+ * when they started, such as the exchange streams, can pick up the new ones.
+ */
+@Value
+public class SymbolsReloadedEvent {
+
+    /**
+     * The number of symbols now registered.
+     */
+    int symbols;
+}
@@ -0,0 +1,24 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBatchItemResult {
+
+    private int index;
+    private boolean success;
+    private TradeResponse trade;
+    private String error;
+
+    public static TradeBatchItemResult executed(int index, TradeResponse trade) {
+        return new TradeBatchItemResult(index, true, trade, null);
+    }
+
+    public static TradeBatchItemResult failed(int index, String error) {
+        return new TradeBatchItemResult(index, false, null, error);
+    }
+}
@@ -0,0 +1,27 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBatchRequest {
+
+    @NotEmpty(message = "Trades are required")
+    @Size(max = 100, message = "A batch cannot contain more than 100 trades")
+    private List<@Valid @NotNull TradeRequest> trades;
+
+    /**
+     * {@code true} to execute every trade or none of them; {@code false} (default) to execute each trade on its
+     * own and report the failing ones.
+     */
+    private boolean allOrNothing;
+}
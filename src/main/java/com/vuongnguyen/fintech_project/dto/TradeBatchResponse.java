@@ -0,0 +1,17 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBatchResponse {
+
+    private List<TradeBatchItemResult> results;
+    private int succeeded;
+    private int failed;
+}
@@ -1,6 +1,5 @@
 package com.vuongnguyen.fintech_project.dto;
 
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
 import com.vuongnguyen.fintech_project.enums.TradeSide;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +16,7 @@ public class TradeDetails {
     private BigDecimal price;
     private BigDecimal totalAmount;
 
-    public TradeDetails toTradeDetails(TradeSide tradeSide, BigDecimal quantity, AggregatedPrice latestPrice) {
+    public TradeDetails toTradeDetails(TradeSide tradeSide, BigDecimal quantity, PriceQuote latestPrice) {
         BigDecimal price;
         BigDecimal totalAmount;
 
@@ -0,0 +1,16 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.Value;
+
+/**
+ * Published inside the transaction that writes a new trade, by every trade engine. Listeners that must not see
+ * rolled-back trades use {@code @TransactionalEventListener}, which delivers it only after the commit.
+ */
+@Value
+public class TradeExecutedEvent {
+
+    /**
+     * The executed trade with the user's quote and asset wallet balances right after it.
+     */
+    TradeResponse trade;
+}
@@ -0,0 +1,18 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeHistoryCursorResponse {
+
+    private List<TradeHistoryItem> trades;
+    private String nextCursor;
+    private boolean hasMore;
+    private int pageSize;
+}
@@ -0,0 +1,17 @@
+package com.vuongnguyen.fintech_project.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of a user's wallets. Wallets are never deleted and every write increments a wallet's version, so
+ * any change to the wallets changes the count or the version sum.
+ */
+@Value
+public class WalletVersions {
+
+    long wallets;
+    long versionSum;
+    LocalDateTime lastUpdatedAt;
+}
@@ -0,0 +1,37 @@
+package com.vuongnguyen.fintech_project.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Latest aggregated price of one symbol. Upserted on every aggregation tick, while the full history
+ * stays append-only in {@code aggregated_prices}.
+ */
+@Entity
+@Table(name = "latest_prices")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestPrice {
+
+    @Id
+    @Column(length = 20)
+    private String symbol;
+
+    @Column(name = "best_bid", nullable = false, precision = 20, scale = 8)
+    private BigDecimal bestBid;
+
+    @Column(name = "best_ask", nullable = false, precision = 20, scale = 8)
+    private BigDecimal bestAsk;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,47 @@
+package com.vuongnguyen.fintech_project.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@RequiredArgsConstructor
+public enum CandleInterval {
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("1d", Duration.ofDays(1));
+
+    @JsonValue
+    private final String code;
+    private final Duration duration;
+
+    /**
+     * @param time a point in time
+     * @return the open time of the candle of this interval that contains {@code time}; candles are aligned to
+     * midnight, so a {@code 5m} candle opens at :00, :05, :10 and so on
+     */
+    public LocalDateTime openTimeOf(LocalDateTime time) {
+        long secondOfDay = time.toLocalTime().toSecondOfDay();
+
+        return time.truncatedTo(ChronoUnit.DAYS).plusSeconds(secondOfDay - secondOfDay % duration.toSeconds());
+    }
+
+    /**
+     * @param value the interval code, such as {@code 5m}
+     * @return the matching interval
+     * @throws IllegalArgumentException if the interval is not supported
+     */
+    public static CandleInterval from(String value) {
+        for (CandleInterval interval : values()) {
+            if (interval.code.equals(value.trim())) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported candle interval: " + value);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vuongnguyen.fintech_project.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum TradeExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    /**
+     * @param value the format name, case-insensitive
+     * @return the matching format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static TradeExportFormat from(String value) {
+        for (TradeExportFormat format : values()) {
+            if (format.name().equals(value.trim().toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
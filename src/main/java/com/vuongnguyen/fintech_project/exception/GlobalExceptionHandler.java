@@ -79,6 +79,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("Trade failed due to high concurrency. Please try again."));
     }
 
+    @ExceptionHandler(TradeEngineBusyException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTradeEngineBusy(TradeEngineBusyException ex) {
+        log.warn("Trade engine busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<Object>> handleTradingException(ResourceNotFoundException ex) {
         log.error("The resource not found error: {}", ex.getMessage());
@@ -0,0 +1,20 @@
+package com.vuongnguyen.fintech_project.exception;
+
+import lombok.Getter;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+
+/**
+ * Thrown when a version-checked wallet write finds rows changed by another writer.
+ */
+@Getter
+public class StaleWalletBalanceException extends OptimisticLockingFailureException {
+
+    private final List<Long> walletIds;
+
+    public StaleWalletBalanceException(List<Long> walletIds) {
+        super("Wallet balances " + walletIds + " were changed concurrently");
+        this.walletIds = List.copyOf(walletIds);
+    }
+}
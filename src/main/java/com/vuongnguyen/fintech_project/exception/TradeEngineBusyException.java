@@ -0,0 +1,16 @@
+package com.vuongnguyen.fintech_project.exception;
+
+/**
+ * Thrown when the trade engine cannot take or confirm a trade right now, e.g. its queue is full, the trade was not
+ * confirmed in time or the engine is shutting down. Clients may retry later.
+ */
+public class TradeEngineBusyException extends TradingException {
+
+    public TradeEngineBusyException(String message) {
+        super(message);
+    }
+
+    public TradeEngineBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AggregatedPriceRepositoryCustom {
+
+    /**
+     * Stores the prices aggregated in one tick: appends them to the {@code aggregated_prices} history with a
+     * single multi-row insert and upserts them into {@code latest_prices}, in one transaction. A {@code latest_prices}
+     * row is only replaced by a price with a newer timestamp, so writers finishing out of order keep the newest.
+     *
+     * @param aggregatedPrices the aggregated prices of one tick, at most one per symbol
+     */
+    void saveTick(List<AggregatedPrice> aggregatedPrices);
+
+    /**
+     * @return every symbol that has rows in {@code aggregated_prices}
+     */
+    List<String> findHistorySymbols();
+
+    /**
+     * Deletes up to {@code limit} rows of {@code symbol} older than {@code cutoff} in their own transaction.
+     *
+     * @param symbol the symbol
+     * @param cutoff rows with an earlier timestamp are deleted
+     * @param limit  most rows to delete
+     * @return the number of rows deleted; less than {@code limit} once no older rows are left
+     */
+    int deleteHistoryOlderThan(String symbol, LocalDateTime cutoff, int limit);
+}
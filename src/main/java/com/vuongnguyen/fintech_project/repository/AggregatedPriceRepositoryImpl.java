@@ -0,0 +1,67 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AggregatedPriceRepositoryImpl implements AggregatedPriceRepositoryCustom {
+
+    private static final String INSERT_HISTORY =
+            "INSERT INTO aggregated_prices (symbol, best_bid, best_ask, timestamp) VALUES ";
+    private static final String UPSERT_LATEST_SOURCE =
+            "MERGE INTO latest_prices t USING (VALUES ";
+    private static final String UPSERT_LATEST_MATCH = ") AS s (symbol, best_bid, best_ask, timestamp) ON t.symbol = s.symbol "
+            + "WHEN MATCHED AND s.timestamp > t.timestamp THEN "
+            + "UPDATE SET best_bid = s.best_bid, best_ask = s.best_ask, timestamp = s.timestamp "
+            + "WHEN NOT MATCHED THEN INSERT (symbol, best_bid, best_ask, timestamp) "
+            + "VALUES (s.symbol, s.best_bid, s.best_ask, s.timestamp)";
+    private static final String ROW = "(?, ?, ?, ?)";
+    private static final String DELETE_HISTORY_CHUNK =
+            "DELETE FROM aggregated_prices WHERE symbol = ? AND timestamp < ? FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void saveTick(List<AggregatedPrice> aggregatedPrices) {
+        if (aggregatedPrices.isEmpty()) {
+            return;
+        }
+
+        String rows = String.join(", ", Collections.nCopies(aggregatedPrices.size(), ROW));
+        Object[] args = toArgs(aggregatedPrices);
+
+        jdbcTemplate.update(INSERT_HISTORY + rows, args);
+        jdbcTemplate.update(UPSERT_LATEST_SOURCE + rows + UPSERT_LATEST_MATCH, args);
+    }
+
+    @Override
+    public List<String> findHistorySymbols() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT symbol FROM aggregated_prices", String.class);
+    }
+
+    @Override
+    @Transactional
+    public int deleteHistoryOlderThan(String symbol, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_HISTORY_CHUNK, symbol, Timestamp.valueOf(cutoff), limit);
+    }
+
+    private Object[] toArgs(List<AggregatedPrice> aggregatedPrices) {
+        List<Object> args = new ArrayList<>(aggregatedPrices.size() * 4);
+        for (AggregatedPrice price : aggregatedPrices) {
+            args.add(price.getSymbol());
+            args.add(price.getBestBid());
+            args.add(price.getBestAsk());
+            args.add(Timestamp.valueOf(price.getTimestamp()));
+        }
+        return args.toArray();
+    }
+}
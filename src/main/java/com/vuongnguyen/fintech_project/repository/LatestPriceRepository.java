@@ -0,0 +1,20 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.entity.LatestPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LatestPriceRepository extends JpaRepository<LatestPrice, String> {
+
+    @Query("SELECT lp FROM LatestPrice lp WHERE lp.symbol = :symbol")
+    Optional<LatestPrice> findLatestBySymbol(@Param("symbol") String symbol);
+
+    @Query("SELECT lp FROM LatestPrice lp WHERE lp.symbol IN :symbols")
+    List<LatestPrice> findLatestBySymbolIn(@Param("symbols") List<String> symbols);
+}
@@ -0,0 +1,72 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.dto.PriceCandle;
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads and writes {@code price_candles}. Candles are not JPA entities: they are only ever written in batches
+ * and read by range, both through the {@code (symbol, candle_interval, open_time)} primary key.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceCandleRepository {
+
+    /**
+     * Inserts a candle, or combines it with the stored candle of the same open time: the stored open is kept,
+     * the high and low are widened and the close is replaced. Writing a candle twice therefore does not change it.
+     */
+    private static final String UPSERT_CANDLE = "MERGE INTO price_candles c USING (VALUES (CAST(? AS VARCHAR(20)), "
+            + "CAST(? AS VARCHAR(3)), CAST(? AS TIMESTAMP(6)), CAST(? AS NUMERIC(20, 8)), CAST(? AS NUMERIC(20, 8)), "
+            + "CAST(? AS NUMERIC(20, 8)), CAST(? AS NUMERIC(20, 8)))) "
+            + "AS v (symbol, candle_interval, open_time, open_price, high_price, low_price, close_price) "
+            + "ON c.symbol = v.symbol AND c.candle_interval = v.candle_interval AND c.open_time = v.open_time "
+            + "WHEN MATCHED THEN UPDATE SET high_price = GREATEST(c.high_price, v.high_price), "
+            + "low_price = LEAST(c.low_price, v.low_price), close_price = v.close_price "
+            + "WHEN NOT MATCHED THEN INSERT (symbol, candle_interval, open_time, open_price, high_price, low_price, close_price) "
+            + "VALUES (v.symbol, v.candle_interval, v.open_time, v.open_price, v.high_price, v.low_price, v.close_price)";
+    private static final String SELECT_RANGE = "SELECT symbol, open_time, open_price, high_price, low_price, close_price "
+            + "FROM price_candles WHERE symbol = ? AND candle_interval = ? AND open_time >= ? AND open_time < ? "
+            + "ORDER BY open_time";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the candles with one JDBC batch in one transaction.
+     *
+     * @param candles the candles to write
+     */
+    @Transactional
+    public void saveAll(List<PriceCandle> candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_CANDLE, candles.stream()
+                .map(candle -> new Object[]{candle.getSymbol(), candle.getInterval().getCode(),
+                        Timestamp.valueOf(candle.getOpenTime()), candle.getOpen(), candle.getHigh(), candle.getLow(),
+                        candle.getClose()})
+                .toList());
+    }
+
+    /**
+     * @param symbol   the trading symbol
+     * @param interval the candle interval
+     * @param from     earliest open time, inclusive
+     * @param to       latest open time, exclusive
+     * @return the stored candles in the range, oldest first
+     */
+    public List<PriceCandle> findRange(String symbol, CandleInterval interval, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_RANGE, (rs, rowNum) -> new PriceCandle(rs.getString("symbol"), interval,
+                        rs.getTimestamp("open_time").toLocalDateTime(), rs.getBigDecimal("open_price"),
+                        rs.getBigDecimal("high_price"), rs.getBigDecimal("low_price"), rs.getBigDecimal("close_price")),
+                symbol, interval.getCode(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
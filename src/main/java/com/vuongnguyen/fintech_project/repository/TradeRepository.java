@@ -1,6 +1,7 @@
 package com.vuongnguyen.fintech_project.repository;
 
 import com.vuongnguyen.fintech_project.entity.Trade;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,11 +9,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TradeRepository extends JpaRepository<Trade, Long> {
+public interface TradeRepository extends JpaRepository<Trade, Long>, TradeRepositoryCustom {
 
     List<Trade> findByUserIdOrderByCreatedAtDesc(Long userId);
 
@@ -26,4 +28,28 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
     Page<Trade> findByUserIdAndSymbol(Long userId, String symbol, Pageable pageable);
 
     Page<Trade> findByUserId(Long userId, Pageable pageable);
+
+    /**
+     * First page of a user's trades in keyset order, newest first, without a count query.
+     */
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trade> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * The user's trades strictly after the ({@code createdAt}, {@code id}) cursor in keyset order, newest first.
+     */
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId "
+            + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trade> findPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId AND t.symbol = :symbol ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trade> findFirstPageBySymbol(@Param("userId") Long userId, @Param("symbol") String symbol, Limit limit);
+
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId AND t.symbol = :symbol "
+            + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trade> findPageAfterBySymbol(@Param("userId") Long userId, @Param("symbol") String symbol,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,29 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
+import com.vuongnguyen.fintech_project.entity.Trade;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TradeRepositoryCustom {
+
+    /**
+     * Inserts the trades with one JDBC batch and sets the generated ids on them.
+     *
+     * @param trades new trades whose user, symbol, side, amounts and creation time are set
+     */
+    void insertBatch(List<Trade> trades);
+
+    /**
+     * Reads a user's trades, newest first, through a forward-only read-only cursor and hands them to
+     * {@code action} one row at a time, so memory use does not grow with the number of trades.
+     *
+     * @param userId    the user
+     * @param symbol    only trades of this symbol, or {@code null} for all symbols
+     * @param fetchSize rows the driver fetches per round trip
+     * @param action    called for every trade, in order
+     * @return the number of trades read
+     */
+    long forEachTrade(Long userId, String symbol, int fetchSize, Consumer<TradeHistoryItem> action);
+}
@@ -0,0 +1,96 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class TradeRepositoryImpl implements TradeRepositoryCustom {
+
+    private static final String INSERT_TRADE = "INSERT INTO trades "
+            + "(user_id, symbol, side, price, quantity, total_amount, created_at, client_order_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_HISTORY = "SELECT id, symbol, side, price, quantity, total_amount, created_at, "
+            + "client_order_id FROM trades WHERE user_id = ? ";
+
+    private static final String ORDER_HISTORY = "ORDER BY created_at DESC, id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertBatch(List<Trade> trades) {
+        if (trades.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT_TRADE, new String[]{"id"}),
+                (PreparedStatement ps) -> {
+                    for (Trade trade : trades) {
+                        ps.setLong(1, trade.getUser().getId());
+                        ps.setString(2, trade.getSymbol());
+                        ps.setString(3, trade.getSide().name());
+                        ps.setBigDecimal(4, trade.getPrice());
+                        ps.setBigDecimal(5, trade.getQuantity());
+                        ps.setBigDecimal(6, trade.getTotalAmount());
+                        ps.setTimestamp(7, Timestamp.valueOf(trade.getCreatedAt()));
+                        ps.setString(8, trade.getClientOrderId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Trade trade : trades) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated id for trade of user " + trade.getUser().getId());
+                            }
+                            trade.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachTrade(Long userId, String symbol, int fetchSize, Consumer<TradeHistoryItem> action) {
+        String sql = Objects.isNull(symbol) ? SELECT_HISTORY + ORDER_HISTORY
+                : SELECT_HISTORY + "AND symbol = ? " + ORDER_HISTORY;
+        long[] rows = {0};
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            if (Objects.nonNull(symbol)) {
+                ps.setString(2, symbol);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            action.accept(new TradeHistoryItem(
+                    rs.getLong("id"),
+                    rs.getString("symbol"),
+                    TradeSide.valueOf(rs.getString("side")),
+                    rs.getBigDecimal("price"),
+                    rs.getBigDecimal("quantity"),
+                    rs.getBigDecimal("total_amount"),
+                    Objects.isNull(createdAt) ? null : createdAt.toLocalDateTime(),
+                    rs.getString("client_order_id")));
+            rows[0]++;
+        });
+
+        return rows[0];
+    }
+}
@@ -12,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface WalletBalanceRepository extends JpaRepository<WalletBalance, Long> {
+public interface WalletBalanceRepository extends JpaRepository<WalletBalance, Long>, WalletBalanceRepositoryCustom {
 
     List<WalletBalance> findByUserId(Long userId);
 
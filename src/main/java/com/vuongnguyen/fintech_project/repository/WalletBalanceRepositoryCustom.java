@@ -0,0 +1,73 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.dto.WalletVersions;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface WalletBalanceRepositoryCustom {
+
+    /**
+     * Reads a wallet with {@code SELECT ... FOR UPDATE} over plain JDBC. The returned wallet is not managed by the
+     * persistence context, so changing it does not trigger a JPA update; write it back with {@link #updateBalances}.
+     * Must be called inside a transaction, which holds the row lock until it ends.
+     *
+     * @param user the wallet owner, set on the returned wallet
+     * @param currency the wallet currency
+     * @return the locked wallet, or empty if the user has no wallet in that currency
+     */
+    Optional<WalletBalance> lockBalance(User user, String currency);
+
+    /**
+     * Writes the balances of already loaded wallets with one JDBC batch. Each row is only updated while its
+     * {@code version} still matches the wallet's, and the version is incremented, so writers that go through
+     * the JPA {@code @Version} check still detect the change.
+     *
+     * @param walletBalances the wallets to write, each at most once; their versions are incremented on success
+     * @throws com.vuongnguyen.fintech_project.exception.StaleWalletBalanceException if any row was changed by another
+     *                                                                               writer, listing every such row
+     */
+    void updateBalances(List<WalletBalance> walletBalances);
+
+    /**
+     * Subtracts the amount from a wallet with one guarded {@code UPDATE}, only if the wallet holds at least the
+     * amount. The row count decides; the wallet is never loaded.
+     *
+     * @param userId the wallet owner
+     * @param currency the wallet currency
+     * @param amount the amount to take
+     * @return {@code false} if the wallet does not exist or holds less than the amount, in which case nothing changed
+     */
+    boolean debit(Long userId, String currency, BigDecimal amount);
+
+    /**
+     * Adds the amount to a wallet with one {@code UPDATE}, without loading it.
+     *
+     * @param userId the wallet owner
+     * @param currency the wallet currency
+     * @param amount the amount to add
+     * @return {@code false} if the wallet does not exist
+     */
+    boolean credit(Long userId, String currency, BigDecimal amount);
+
+    /**
+     * @param userId the wallet owner
+     * @param currencies the currencies to read
+     * @return the current balance by currency of the user's wallets among {@code currencies}, without locking them
+     */
+    Map<String, BigDecimal> findBalances(Long userId, Collection<String> currencies);
+
+    /**
+     * Reads the fingerprint of a user's wallets with one aggregate query, without loading them.
+     *
+     * @param userId the wallet owner
+     * @return the number of wallets, the sum of their versions and their latest update time, which is null if the
+     * user has no wallets
+     */
+    WalletVersions findWalletVersions(Long userId);
+}
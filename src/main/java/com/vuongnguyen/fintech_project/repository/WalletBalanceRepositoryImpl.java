@@ -0,0 +1,137 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.dto.WalletVersions;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.exception.StaleWalletBalanceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class WalletBalanceRepositoryImpl implements WalletBalanceRepositoryCustom {
+
+    private static final String LOCK_BALANCE = "SELECT id, currency, balance, version, updated_at FROM wallet_balances "
+            + "WHERE user_id = ? AND currency = ? FOR UPDATE";
+
+    private static final String UPDATE_BALANCE =
+            "UPDATE wallet_balances SET balance = ?, version = version + 1, updated_at = ? WHERE id = ? AND version = ?";
+
+    private static final String DEBIT_BALANCE = "UPDATE wallet_balances "
+            + "SET balance = balance - ?, version = version + 1, updated_at = ? "
+            + "WHERE user_id = ? AND currency = ? AND balance >= ?";
+
+    private static final String CREDIT_BALANCE = "UPDATE wallet_balances "
+            + "SET balance = balance + ?, version = version + 1, updated_at = ? "
+            + "WHERE user_id = ? AND currency = ?";
+
+    private static final String WALLET_VERSIONS = "SELECT COUNT(*) AS wallets, COALESCE(SUM(version), 0) AS version_sum, "
+            + "MAX(updated_at) AS last_updated_at FROM wallet_balances WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Optional<WalletBalance> lockBalance(User user, String currency) {
+        List<WalletBalance> wallets = jdbcTemplate.query(LOCK_BALANCE, (rs, rowNum) -> {
+            WalletBalance wallet = new WalletBalance();
+            wallet.setId(rs.getLong("id"));
+            wallet.setUser(user);
+            wallet.setCurrency(rs.getString("currency"));
+            wallet.setBalance(rs.getBigDecimal("balance"));
+            wallet.setVersion(rs.getLong("version"));
+            wallet.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            return wallet;
+        }, user.getId(), currency);
+
+        return wallets.stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public void updateBalances(List<WalletBalance> walletBalances) {
+        if (walletBalances.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE, walletBalances, walletBalances.size(), (ps, wallet) -> {
+            ps.setBigDecimal(1, wallet.getBalance());
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setLong(3, wallet.getId());
+            ps.setLong(4, wallet.getVersion());
+        })[0];
+
+        List<Long> staleWalletIds = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                staleWalletIds.add(walletBalances.get(i).getId());
+            }
+        }
+        if (!staleWalletIds.isEmpty()) {
+            throw new StaleWalletBalanceException(staleWalletIds);
+        }
+
+        for (WalletBalance wallet : walletBalances) {
+            wallet.setVersion(wallet.getVersion() + 1);
+            wallet.setUpdatedAt(now);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean debit(Long userId, String currency, BigDecimal amount) {
+        return jdbcTemplate.update(DEBIT_BALANCE, amount, Timestamp.valueOf(LocalDateTime.now()), userId, currency, amount) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean credit(Long userId, String currency, BigDecimal amount) {
+        return jdbcTemplate.update(CREDIT_BALANCE, amount, Timestamp.valueOf(LocalDateTime.now()), userId, currency) > 0;
+    }
+
+    @Override
+    @Transactional
+    public Map<String, BigDecimal> findBalances(Long userId, Collection<String> currencies) {
+        if (currencies.isEmpty()) {
+            return Map.of();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(currencies.size(), "?"));
+        Object[] args = new Object[currencies.size() + 1];
+        args[0] = userId;
+        int i = 1;
+        for (String currency : currencies) {
+            args[i++] = currency;
+        }
+
+        Map<String, BigDecimal> balances = new HashMap<>();
+        jdbcTemplate.query("SELECT currency, balance FROM wallet_balances WHERE user_id = ? AND currency IN (" + placeholders + ")",
+                rs -> {
+                    balances.put(rs.getString("currency"), rs.getBigDecimal("balance"));
+                }, args);
+
+        return balances;
+    }
+
+    @Override
+    public WalletVersions findWalletVersions(Long userId) {
+        return jdbcTemplate.queryForObject(WALLET_VERSIONS, (rs, rowNum) -> {
+            Timestamp lastUpdatedAt = rs.getTimestamp("last_updated_at");
+            return new WalletVersions(rs.getLong("wallets"), rs.getLong("version_sum"),
+                    Objects.isNull(lastUpdatedAt) ? null : lastUpdatedAt.toLocalDateTime());
+        }, userId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.vuongnguyen.fintech_project.scheduler;
+
+import com.vuongnguyen.fintech_project.service.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioEvictionScheduler {
+
+    private final PortfolioService portfolioService;
+
+    @Scheduled(initialDelayString = "${dce.portfolio.eviction-interval:1m}",
+            fixedDelayString = "${dce.portfolio.eviction-interval:1m}")
+    public void evictIdlePortfolios() {
+        try {
+            portfolioService.evictIdle();
+        } catch (Exception e) {
+            log.error("Error evicting idle portfolios: {}", e.getMessage(), e);
+        }
+    }
+}
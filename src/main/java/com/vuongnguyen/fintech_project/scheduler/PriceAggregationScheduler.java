@@ -13,7 +13,7 @@ public class PriceAggregationScheduler {
 
     private final PriceAggregationService priceAggregationService;
 
-    @Scheduled(fixedRate = 10000)
+    @Scheduled(fixedRateString = "${dce.aggregation.tick-interval:10s}")
     public void aggregatePrices() {
         log.debug("Starting scheduled price aggregation");
 
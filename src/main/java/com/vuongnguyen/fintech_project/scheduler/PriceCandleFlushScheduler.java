@@ -0,0 +1,24 @@
+package com.vuongnguyen.fintech_project.scheduler;
+
+import com.vuongnguyen.fintech_project.service.PriceCandleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCandleFlushScheduler {
+
+    private final PriceCandleService priceCandleService;
+
+    @Scheduled(initialDelayString = "${dce.candles.flush-interval:5s}", fixedDelayString = "${dce.candles.flush-interval:5s}")
+    public void flushCandles() {
+        try {
+            priceCandleService.flush();
+        } catch (Exception e) {
+            log.error("Error flushing price candles: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.vuongnguyen.fintech_project.scheduler;
+
+import com.vuongnguyen.fintech_project.service.PriceRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "dce.retention.aggregated-prices.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PriceRetentionScheduler {
+
+    private final PriceRetentionService priceRetentionService;
+
+    @Scheduled(initialDelayString = "${dce.retention.aggregated-prices.interval:1m}",
+            fixedDelayString = "${dce.retention.aggregated-prices.interval:1m}")
+    public void purgeExpiredPrices() {
+        log.debug("Starting scheduled price retention purge");
+
+        try {
+            priceRetentionService.purge();
+        } catch (Exception e) {
+            log.error("Error during scheduled price retention purge: {}", e.getMessage(), e);
+        }
+    }
+}
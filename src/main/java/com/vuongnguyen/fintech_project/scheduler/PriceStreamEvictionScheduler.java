@@ -0,0 +1,25 @@
+package com.vuongnguyen.fintech_project.scheduler;
+
+import com.vuongnguyen.fintech_project.service.PriceStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceStreamEvictionScheduler {
+
+    private final PriceStreamService priceStreamService;
+
+    @Scheduled(initialDelayString = "${dce.price-stream.eviction-interval:1s}",
+            fixedDelayString = "${dce.price-stream.eviction-interval:1s}")
+    public void evictStalledSubscribers() {
+        try {
+            priceStreamService.evictStalled();
+        } catch (Exception e) {
+            log.error("Error evicting stalled price stream subscribers: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.vuongnguyen.fintech_project.scheduler;
+
+import com.vuongnguyen.fintech_project.service.UserStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStreamHeartbeatScheduler {
+
+    private final UserStreamService userStreamService;
+
+    @Scheduled(initialDelayString = "${dce.user-stream.heartbeat-interval:30s}",
+            fixedDelayString = "${dce.user-stream.heartbeat-interval:30s}")
+    public void sendHeartbeats() {
+        try {
+            userStreamService.sendHeartbeats();
+        } catch (Exception e) {
+            log.error("Error sending trade stream heartbeats: {}", e.getMessage(), e);
+        }
+    }
+}
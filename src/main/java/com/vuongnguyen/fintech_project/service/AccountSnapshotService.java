@@ -0,0 +1,155 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AccountHolding;
+import com.vuongnguyen.fintech_project.dto.AccountSnapshotResponse;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Assembles a user's account snapshot from the portfolio valuation, latest prices and the first page of trade
+ * history. The valuation, which reads the wallets on a user's first request, and the trade history run at the same
+ * time on the account snapshot executor and share one latency budget, {@code dce.account-snapshot.timeout}, so the
+ * call costs about as long as the slower read instead of their sum. Holdings are valued by {@link PortfolioService};
+ * prices of the held symbols are read from the in-memory price snapshot as soon as the holdings are known.
+ * <p>
+ * A section that fails, misses the budget or finds the executor saturated is left out and listed in
+ * {@code missingSections} rather than failing the whole response; a read that misses the budget still finishes in
+ * the background.
+ * <p>
+ * Metrics: {@code dce.account-snapshot} (assembly duration) and {@code dce.account-snapshot.missing} (sections
+ * left out, tag: {@code section}).
+ */
+@Service
+@Slf4j
+public class AccountSnapshotService {
+
+    static final String WALLETS = "wallets";
+    static final String TRADES = "trades";
+
+    private final PortfolioService portfolioService;
+    private final TradingService tradingService;
+    private final PriceService priceService;
+    private final Executor accountSnapshotExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Timer snapshotTimer;
+
+    @Value("${dce.account-snapshot.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${dce.account-snapshot.trades:20}")
+    private int tradePageSize;
+
+    public AccountSnapshotService(PortfolioService portfolioService,
+                                  TradingService tradingService,
+                                  PriceService priceService,
+                                  @Qualifier("accountSnapshotExecutor") Executor accountSnapshotExecutor,
+                                  MeterRegistry meterRegistry) {
+        this.portfolioService = portfolioService;
+        this.tradingService = tradingService;
+        this.priceService = priceService;
+        this.accountSnapshotExecutor = accountSnapshotExecutor;
+        this.meterRegistry = meterRegistry;
+        this.snapshotTimer = meterRegistry.timer("dce.account-snapshot");
+    }
+
+    /**
+     * Loads the user's valued holdings and recent trades concurrently.
+     *
+     * @param userId the user ID
+     * @return the snapshot; sections not loaded within the latency budget are null
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public AccountSnapshotResponse getAccountSnapshot(Long userId) {
+        return snapshotTimer.record(() -> assemble(userId));
+    }
+
+    private AccountSnapshotResponse assemble(Long userId) {
+        long timeoutMillis = timeout.toMillis();
+
+        CompletableFuture<PortfolioValuation> wallets = load(() -> portfolioService.getValuation(userId))
+                .completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS);
+        CompletableFuture<TradeHistoryResponse> trades = load(
+                () -> tradingService.getUserTradeHistory(userId, 0, tradePageSize, null))
+                .completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        List<String> missingSections = new ArrayList<>();
+        PortfolioValuation valuation = join(wallets, WALLETS, userId, missingSections);
+        TradeHistoryResponse recentTrades = join(trades, TRADES, userId, missingSections);
+
+        AccountSnapshotResponse response = new AccountSnapshotResponse();
+        response.setUserId(userId);
+        response.setValuationCurrency(PortfolioService.VALUATION_CURRENCY);
+        response.setRecentTrades(recentTrades);
+        response.setMissingSections(missingSections);
+        if (Objects.nonNull(valuation)) {
+            List<String> heldSymbols = valuation.getHoldings().stream()
+                    .map(AccountHolding::getSymbol)
+                    .filter(Objects::nonNull)
+                    .toList();
+            response.setHoldings(valuation.getHoldings());
+            response.setTotalValue(valuation.getTotalValue());
+            response.setPrices(priceService.getLatestPrices(heldSymbols));
+        }
+
+        return response;
+    }
+
+    /**
+     * Starts one section on the account snapshot executor. A saturated executor rejects it rather than running it
+     * on the request thread, which would ignore the budget.
+     */
+    private <T> CompletableFuture<T> load(Supplier<T> loader) {
+        try {
+            return CompletableFuture.supplyAsync(loader, accountSnapshotExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Waits for one section within the budget. A missing user is passed on; any other failure or a timeout leaves
+     * the section out.
+     */
+    private <T> T join(CompletableFuture<T> future, String section, Long userId, List<String> missingSections) {
+        T result;
+        try {
+            result = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResourceNotFoundException notFound) {
+                throw notFound;
+            }
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("No account snapshot thread free to load {} of user {}", section, userId);
+            } else {
+                log.error("Error loading {} of account snapshot for user {}: {}", section, userId, e.getMessage(), e);
+            }
+            result = null;
+        }
+
+        if (Objects.isNull(result)) {
+            log.warn("Account snapshot of user {} is missing {} after {} ms", userId, section, timeout.toMillis());
+            meterRegistry.counter("dce.account-snapshot.missing", "section", section).increment();
+            missingSections.add(section);
+        }
+
+        return result;
+    }
+}
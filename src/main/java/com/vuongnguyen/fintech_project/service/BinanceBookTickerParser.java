@@ -0,0 +1,157 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+@Slf4j
+public class BinanceBookTickerParser {
+
+    private static final String SYMBOL = "symbol";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final DistributionSummary bytesParsed;
+    private final DistributionSummary objectsCreated;
+    private final DistributionSummary objectsSkipped;
+
+    public BinanceBookTickerParser(MeterRegistry meterRegistry) {
+        this.bytesParsed = DistributionSummary.builder("dce.binance.parse.bytes")
+                .description("Bytes of Binance book ticker payload parsed per tick")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.objectsCreated = DistributionSummary.builder("dce.binance.parse.objects")
+                .description("Ticker objects materialized per tick")
+                .register(meterRegistry);
+        this.objectsSkipped = DistributionSummary.builder("dce.binance.parse.skipped")
+                .description("Ticker objects skipped without materializing per tick")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Streams a Binance {@code bookTicker} array and materializes only the entries whose symbol is subscribed.
+     * The {@code symbol} field is read first and every other object is skipped without creating it. A single
+     * ticker object, which Binance sends for a {@code symbol} request, is read the same way.
+     *
+     * @param body the raw response body
+     * @param symbols the subscribed symbols to keep
+     * @return the subscribed tickers in response order, or null if the body is empty
+     * @throws IOException if the body cannot be read or is not valid JSON
+     * @throws IllegalStateException if the body is neither a ticker object nor a JSON array of them
+     */
+    public List<BinanceTickerResponse> parse(InputStream body, Set<String> symbols) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (Objects.isNull(token)) {
+                return null;
+            }
+            if (token != JsonToken.START_ARRAY && token != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Unexpected Binance response, expected an array or an object but got " + token);
+            }
+
+            List<BinanceTickerResponse> tickers = new ArrayList<>(symbols.size());
+            int skipped = 0;
+
+            if (token == JsonToken.START_OBJECT) {
+                BinanceTickerResponse ticker = readTicker(parser, symbols);
+                if (Objects.isNull(ticker)) {
+                    skipped++;
+                } else if (Objects.isNull(ticker.getSymbol())) {
+                    throw new IllegalStateException("Unexpected Binance response, object without a symbol");
+                } else {
+                    tickers.add(ticker);
+                }
+            } else {
+                while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                    BinanceTickerResponse ticker = readTicker(parser, symbols);
+                    if (Objects.isNull(ticker) || Objects.isNull(ticker.getSymbol())) {
+                        skipped++;
+                    } else {
+                        tickers.add(ticker);
+                    }
+                }
+
+                if (token != JsonToken.END_ARRAY) {
+                    throw new IllegalStateException("Unexpected Binance response, expected an object but got " + token);
+                }
+            }
+
+            long bytes = parser.currentLocation().getByteOffset();
+            bytesParsed.record(bytes);
+            objectsCreated.record(tickers.size());
+            objectsSkipped.record(skipped);
+            log.debug("Parsed {} bytes of Binance book tickers: kept {}, skipped {}", bytes, tickers.size(), skipped);
+
+            return tickers;
+        }
+    }
+
+    /**
+     * Reads one ticker object, leaving the parser on its END_OBJECT token. Returns null for an unsubscribed symbol
+     * and a ticker without a symbol for an object that has none, such as a Binance error.
+     * Binance sends {@code symbol} as the first field, so unsubscribed objects are skipped after a single field.
+     * Prices are parsed from the token text straight into fixed-point longs, without a {@link java.math.BigDecimal}.
+     */
+    private BinanceTickerResponse readTicker(JsonParser parser, Set<String> symbols) throws IOException {
+        String symbol = null;
+        long bidPrice = FixedPoint.UNSET;
+        long askPrice = FixedPoint.UNSET;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (SYMBOL.equals(field)) {
+                symbol = parser.getText();
+                if (!symbols.contains(symbol)) {
+                    skipToEndOfObject(parser);
+                    return null;
+                }
+                continue;
+            }
+
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "bidPrice" -> bidPrice = FixedPoint.parse(parser.getText());
+                case "askPrice" -> askPrice = FixedPoint.parse(parser.getText());
+                default -> {
+                    // not part of BinanceTickerResponse
+                }
+            }
+        }
+
+        return new BinanceTickerResponse(symbol, bidPrice, askPrice);
+    }
+
+    private void skipToEndOfObject(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IllegalStateException("Unexpected Binance response, malformed ticker object");
+        }
+    }
+}
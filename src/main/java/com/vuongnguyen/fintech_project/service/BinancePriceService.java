@@ -3,32 +3,48 @@ package com.vuongnguyen.fintech_project.service;
 import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
 import com.vuongnguyen.fintech_project.dto.PriceData;
 import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.stream.BinanceBookTickerStream;
+import com.vuongnguyen.fintech_project.stream.ExchangeStreamClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.net.URI;
 import java.util.List;
-
-import static com.vuongnguyen.fintech_project.utility.Constant.SUPPORTED_SYMBOLS;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class BinancePriceService {
+public class BinancePriceService implements MarketDataSource {
 
     private final ExternalService externalService;
+    private final SymbolRegistry symbolRegistry;
+
+    @Override
+    public DCESource getSource() {
+        return DCESource.BINANCE;
+    }
 
     /**
      * Fetches current price data for supported symbols from Binance.
      *
      * @return List of PriceData containing symbol, bid price, ask price, and source information
      */
+    @Override
     public List<PriceData> fetchPrices() {
         log.debug("Fetching prices from Binance");
-        List<BinanceTickerResponse> binanceTickerResponses = externalService.fetchBinancePrices(SUPPORTED_SYMBOLS);
+        List<BinanceTickerResponse> binanceTickerResponses = externalService.fetchBinancePrices(symbolRegistry.getSymbols());
 
         return binanceTickerResponses.stream()
                 .map(b -> new PriceData(b.getSymbol(), b.getBidPrice(), b.getAskPrice(), DCESource.BINANCE))
                 .toList();
     }
+
+    @Override
+    public Optional<ExchangeStreamClient> createStreamClient(URI uri, ExchangeStreamClient.Settings settings) {
+        return Optional.of(new BinanceBookTickerStream(uri, settings.httpClient(), settings.scheduler(), settings.sink(),
+                symbolRegistry.getExchangeSymbols(DCESource.BINANCE), settings.initialBackoff(), settings.maxBackoff(),
+                settings.staleAfter()));
+    }
 }
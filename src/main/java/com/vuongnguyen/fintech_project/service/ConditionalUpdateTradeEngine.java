@@ -0,0 +1,137 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.dto.TradeDetails;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Applies each wallet leg of a trade as one guarded {@code UPDATE} instead of locking, loading and flushing the
+ * wallet entities. The debit only matches while the wallet covers the amount, so its row count decides whether the
+ * user has enough funds; wallets are never hydrated and no {@code SELECT ... FOR UPDATE} is issued.
+ * <p>
+ * The quote wallet is always updated before the asset wallet, whichever side pays, so concurrent buys and sells of
+ * the same user take the row locks in the same order and cannot deadlock.
+ */
+@Service
+@ConditionalOnProperty(name = "dce.trading.engine", havingValue = "conditional-update")
+@RequiredArgsConstructor
+@Slf4j
+public class ConditionalUpdateTradeEngine implements TradeEngine {
+
+    private final UserRepository userRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final TradeRepository tradeRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public TradeResponse execute(TradeRequest request) {
+        if (Objects.nonNull(request.getClientOrderId())) {
+            Optional<Trade> existingTrade = tradeRepository.findByClientOrderId(request.getClientOrderId());
+            if (existingTrade.isPresent()) {
+                log.warn("Duplicate order detected for clientOrderId: {}", request.getClientOrderId());
+                return new TradeResponse().toTradeResponse(existingTrade.get());
+            }
+        }
+
+        PriceQuote latestPrice = priceSnapshotService.getLatestQuote(request.getSymbol())
+                .orElseThrow(() -> new PriceNotAvailableException("No price data available for symbol: " + request.getSymbol()));
+        SymbolInfo symbolInfo = symbolRegistry.find(request.getSymbol())
+                .orElseThrow(() -> new TradingException("Unsupported symbol: " + request.getSymbol()));
+        String quoteCurrency = symbolInfo.getQuoteCurrency();
+        String assetCurrency = symbolInfo.getBaseCurrency();
+
+        TradeDetails tradeDetails = new TradeDetails().toTradeDetails(request.getSide(), request.getQuantity(), latestPrice);
+        Long userId = request.getUserId();
+
+        if (TradeSide.BUY.equals(request.getSide())) {
+            debit(userId, quoteCurrency, tradeDetails.getTotalAmount());
+            credit(userId, assetCurrency, request.getQuantity());
+        } else {
+            credit(userId, quoteCurrency, tradeDetails.getTotalAmount());
+            debit(userId, assetCurrency, request.getQuantity());
+        }
+
+        User user = userRepository.getReferenceById(userId);
+        Trade trade = new Trade().toEntity(user, request, tradeDetails);
+        tradeRepository.insertBatch(List.of(trade));
+
+        Map<String, BigDecimal> balances = walletBalanceRepository.findBalances(userId, List.of(quoteCurrency, assetCurrency));
+
+        log.info("Trade executed successfully: tradeId={}, userId={}, symbol={}, side={}, price={}, quantity={}, total={}",
+                trade.getId(), userId, request.getSymbol(), request.getSide(),
+                tradeDetails.getPrice(), request.getQuantity(), tradeDetails.getTotalAmount());
+
+        TradeResponse response = new TradeResponse().toTradeResponse(trade);
+        response.setUpdatedUsdtBalance(balances.get(quoteCurrency));
+        response.setUpdatedAssetBalance(balances.get(assetCurrency));
+        response.setAssetCurrency(assetCurrency);
+        eventPublisher.publishEvent(new TradeExecutedEvent(response));
+
+        return response;
+    }
+
+    /**
+     * @throws InsufficientBalanceException if the wallet holds less than the amount
+     * @throws ResourceNotFoundException if the user does not exist
+     * @throws TradingException if the user has no wallet in the currency
+     */
+    private void debit(Long userId, String currency, BigDecimal amount) {
+        if (walletBalanceRepository.debit(userId, currency, amount)) {
+            return;
+        }
+
+        BigDecimal available = walletBalanceRepository.findBalances(userId, List.of(currency)).get(currency);
+        if (Objects.isNull(available)) {
+            throw missingWallet(userId, currency);
+        }
+
+        throw new InsufficientBalanceException(String.format("Insufficient %s balance. Required: %s, Available: %s",
+                currency, amount, available));
+    }
+
+    private void credit(Long userId, String currency, BigDecimal amount) {
+        if (!walletBalanceRepository.credit(userId, currency, amount)) {
+            throw missingWallet(userId, currency);
+        }
+    }
+
+    /**
+     * Only reached once an update matched no row, so the extra lookup stays off the successful path.
+     */
+    private RuntimeException missingWallet(Long userId, String currency) {
+        if (!userRepository.existsById(userId)) {
+            return new ResourceNotFoundException("User not found: " + userId);
+        }
+
+        return new TradingException(currency + " wallet not found for user: " + userId);
+    }
+}
@@ -1,21 +1,35 @@
 package com.vuongnguyen.fintech_project.service;
 
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
 import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
 import com.vuongnguyen.fintech_project.dto.HuobiTicker;
 import com.vuongnguyen.fintech_project.dto.HuobiTickerResponse;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.repository.LatestPriceRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.Arrays;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * REST client of the Binance and Huobi adapters. Request URLs come from
+ * {@code dce.market-data.sources.<exchange>.url}, the same setting that routes them to the exchange's HTTP client.
+ * Each exchange has its own Resilience4j retry and circuit breaker; a new exchange brings its own client and
+ * instances with its {@link MarketDataSource} adapter instead of being added here.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -23,17 +37,32 @@ public class ExternalService {
 
     private final RestTemplate restTemplate;
 
-    private final AggregatedPriceRepository aggregatedPriceRepository;
+    private final LatestPriceRepository latestPriceRepository;
+
+    private final BinanceBookTickerParser binanceBookTickerParser;
+
+    private final SymbolRegistry symbolRegistry;
+
+    private final MarketDataSourceProperties marketDataSourceProperties;
 
-    @Value("${dce.binance.url}")
-    private String binanceUrl;
+    @Value("${dce.binance.symbols-chunk-size:100}")
+    private int binanceSymbolsChunkSize;
 
-    @Value("${dce.huobi.url}")
-    private String huobiUrl;
+    @Value("${dce.binance.weight.single-symbol:2}")
+    private int binanceSingleSymbolWeight;
+
+    @Value("${dce.binance.weight.symbols:4}")
+    private int binanceSymbolsWeight;
+
+    @Value("${dce.binance.weight.full-book:4}")
+    private int binanceFullBookWeight;
 
     /**
      * Fetches current price data from Binance API for the specified symbols.
      * This method is protected by circuit breaker and retry patterns for resilience.
+     * Only the requested symbols are asked for, in chunks when the list is long, unless the chunked requests
+     * would cost more request weight than one full book ticker dump.
+     * The response is streamed and filtered while parsing, so unsubscribed tickers are never materialized.
      *
      * @param symbols List of trading symbols to fetch prices
      * @return List of BinanceTickerResponse containing bid/ask prices for requested symbols
@@ -45,17 +74,79 @@ public class ExternalService {
             fallbackMethod = "fetchBinancePricesFallback"
     )
     public List<BinanceTickerResponse> fetchBinancePrices(List<String> symbols) {
+        Set<String> subscribed = Set.copyOf(symbols);
+        List<BinanceTickerResponse> tickers = new ArrayList<>(symbols.size());
 
-        BinanceTickerResponse[] response =
-                restTemplate.getForObject(binanceUrl, BinanceTickerResponse[].class);
+        for (URI uri : buildBinanceRequestUris(symbols)) {
+            List<BinanceTickerResponse> response = restTemplate.execute(uri, HttpMethod.GET, null,
+                    clientResponse -> binanceBookTickerParser.parse(clientResponse.getBody(), subscribed));
 
-        if (Objects.isNull(response)) {
-            throw new IllegalStateException("Binance response is null");
+            if (Objects.isNull(response)) {
+                throw new IllegalStateException("Binance response is null");
+            }
+            tickers.addAll(response);
         }
 
-        return Arrays.stream(response)
-                .filter(res -> symbols.contains(res.getSymbol()))
-                .toList();
+        return tickers;
+    }
+
+    /**
+     * Builds the Binance book ticker requests for the given symbols.
+     * A single symbol uses the {@code symbol} parameter, longer lists are split into {@code symbols} chunks.
+     * Falls back to one request without parameters (the full book dump) only when the chunked requests
+     * together would cost more request weight than the full dump.
+     *
+     * @param symbols List of trading symbols to request
+     * @return the request URIs to call, in order
+     */
+    List<URI> buildBinanceRequestUris(List<String> symbols) {
+        String binanceUrl = urlOf(DCESource.BINANCE);
+        if (symbols.isEmpty()) {
+            return List.of(URI.create(binanceUrl));
+        }
+
+        if (symbols.size() == 1) {
+            return binanceSingleSymbolWeight > binanceFullBookWeight
+                    ? List.of(URI.create(binanceUrl))
+                    : List.of(binanceUri(binanceUrl, "symbol", symbols.get(0)));
+        }
+
+        int chunkSize = Math.max(1, binanceSymbolsChunkSize);
+        int chunks = (symbols.size() + chunkSize - 1) / chunkSize;
+
+        if ((long) chunks * binanceSymbolsWeight > binanceFullBookWeight) {
+            log.debug("Requesting full Binance book ticker: {} symbol chunks would cost {} weight, full dump costs {}",
+                    chunks, (long) chunks * binanceSymbolsWeight, binanceFullBookWeight);
+            return List.of(URI.create(binanceUrl));
+        }
+
+        List<URI> uris = new ArrayList<>(chunks);
+        for (int from = 0; from < symbols.size(); from += chunkSize) {
+            List<String> chunk = symbols.subList(from, Math.min(from + chunkSize, symbols.size()));
+            String symbolsParam = chunk.stream()
+                    .map(symbol -> "\"" + symbol + "\"")
+                    .collect(Collectors.joining(",", "[", "]"));
+            uris.add(binanceUri(binanceUrl, "symbols", symbolsParam));
+        }
+
+        return uris;
+    }
+
+    private URI binanceUri(String binanceUrl, String name, String value) {
+        return UriComponentsBuilder.fromUriString(binanceUrl)
+                .queryParam(name, value)
+                .encode()
+                .build()
+                .toUri();
+    }
+
+    private String urlOf(DCESource source) {
+        String url = marketDataSourceProperties.forSource(source).getUrl();
+        if (Objects.isNull(url)) {
+            throw new IllegalStateException("No url configured for market data source " + source);
+        }
+
+        return url;
     }
 
     /**
@@ -69,15 +160,16 @@ public class ExternalService {
     private List<BinanceTickerResponse> fetchBinancePricesFallback(List<String> symbols, Throwable ex) {
         log.error("Binance fetch failed, fallback triggered: {}", ex.getMessage());
 
-        return aggregatedPriceRepository.findLatestBySymbolIn(symbols).stream()
-                .map(ap -> new BinanceTickerResponse(ap.getSymbol(), ap.getBestBid(), ap.getBestAsk()))
+        return latestPriceRepository.findLatestBySymbolIn(symbols).stream()
+                .map(lp -> new BinanceTickerResponse(lp.getSymbol(), lp.getBestBid(), lp.getBestAsk()))
                 .toList();
     }
 
     /**
      * Fetches current price data from Huobi API for the specified symbols.
      * This method is protected by circuit breaker and retry patterns for resilience.
-     * Filters response data to only include symbols that match the requested list.
+     * Huobi returns every market; tickers are matched to the requested symbols through the symbol registry
+     * and returned under their symbol ID.
      *
      * @param symbols List of trading symbols to fetch prices
      * @return List of HuobiTicker containing bid/ask prices for requested symbols
@@ -89,15 +181,25 @@ public class ExternalService {
             fallbackMethod = "fetchHoubiPricesFallback"
     )
     public List<HuobiTicker> fetchHuobiPrices(List<String> symbols) {
-        HuobiTickerResponse response = restTemplate.getForObject(huobiUrl, HuobiTickerResponse.class);
+        HuobiTickerResponse response = restTemplate.getForObject(urlOf(DCESource.HUOBI), HuobiTickerResponse.class);
 
         if (Objects.isNull(response) || Objects.isNull(response.getData())) {
             throw new IllegalStateException("Houbi response is null");
         }
 
-        return response.getData().stream()
-                .filter(res -> symbols.contains(res.getSymbol().toUpperCase()))
-                .toList();
+        Set<String> subscribed = Set.copyOf(symbols);
+        List<HuobiTicker> tickers = new ArrayList<>(symbols.size());
+        for (HuobiTicker ticker : response.getData()) {
+            symbolRegistry.findByExchangeSymbol(DCESource.HUOBI, ticker.getSymbol())
+                    .map(SymbolInfo::getSymbol)
+                    .filter(subscribed::contains)
+                    .ifPresent(symbol -> {
+                        ticker.setSymbol(symbol);
+                        tickers.add(ticker);
+                    });
+        }
+
+        return tickers;
     }
 
     /**
@@ -111,8 +213,8 @@ public class ExternalService {
     private List<HuobiTicker> fetchHoubiPricesFallback(List<String> symbols, Throwable ex) {
         log.error("Houbi fetch failed, fallback triggered: {}", ex.getMessage());
 
-        return aggregatedPriceRepository.findLatestBySymbolIn(symbols).stream()
-                .map(ap -> new HuobiTicker(ap.getSymbol(), ap.getBestBid(), ap.getBestAsk()))
+        return latestPriceRepository.findLatestBySymbolIn(symbols).stream()
+                .map(lp -> new HuobiTicker(lp.getSymbol(), lp.getBestBid(), lp.getBestAsk()))
                 .toList();
     }
 }
@@ -0,0 +1,289 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.exception.TradeEngineBusyException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes the trades that arrive within {@code dce.trading.group-commit.window}, up to
+ * {@code dce.trading.group-commit.batch-size} of them, in one shared transaction. Wallet rows are locked once per
+ * batch, trades are settled in memory in arrival order and all changed wallets and new trades are written with
+ * JDBC batches before a single commit.
+ * <p>
+ * A trade that fails its checks is answered with its own error and leaves the wallets untouched, so the rest of
+ * the batch still commits. If the shared write or commit fails, the batch is rolled back and every trade in it is
+ * executed again on its own through {@link TradingService#executeUserTrading}, which isolates the failing trade.
+ */
+@Service
+@ConditionalOnProperty(name = "dce.trading.engine", havingValue = "group-commit")
+@Slf4j
+public class GroupCommitTradeEngine implements TradeEngine {
+
+    private final UserRepository userRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final TradeRepository tradeRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final TradingService tradingService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingTrade> queue;
+    private final Duration window;
+    private final int batchSize;
+    private final Duration responseTimeout;
+    private final Thread committer;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Counter fallbacks;
+    private volatile boolean running = true;
+
+    public GroupCommitTradeEngine(UserRepository userRepository,
+                                  WalletBalanceRepository walletBalanceRepository,
+                                  TradeRepository tradeRepository,
+                                  PriceSnapshotService priceSnapshotService,
+                                  SymbolRegistry symbolRegistry,
+                                  TradingService tradingService,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${dce.trading.group-commit.window:1ms}") Duration window,
+                                  @Value("${dce.trading.group-commit.batch-size:64}") int batchSize,
+                                  @Value("${dce.trading.group-commit.queue-capacity:1024}") int queueCapacity,
+                                  @Value("${dce.trading.group-commit.response-timeout:5s}") Duration responseTimeout) {
+        this.userRepository = userRepository;
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.tradeRepository = tradeRepository;
+        this.priceSnapshotService = priceSnapshotService;
+        this.symbolRegistry = symbolRegistry;
+        this.tradingService = tradingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.window = window;
+        this.batchSize = Math.max(1, batchSize);
+        this.responseTimeout = responseTimeout;
+        this.committer = new Thread(this::run, "trade-group-commit");
+        this.committer.setDaemon(true);
+        this.batchSizes = meterRegistry.summary("dce.trading.group-commit.batch.size");
+        this.commitTimer = meterRegistry.timer("dce.trading.group-commit.commit");
+        this.fallbacks = meterRegistry.counter("dce.trading.group-commit.fallbacks");
+        Gauge.builder("dce.trading.group-commit.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        committer.start();
+        log.info("Started group commit trade engine: window={}, batchSize={}", window, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.join(responseTimeout.toMillis());
+    }
+
+    /**
+     * Queues the trade for the next group commit and waits for it.
+     *
+     * @throws TradeEngineBusyException if the queue is full or the trade is not confirmed within
+     *                                  {@code dce.trading.group-commit.response-timeout}; in the latter case the
+     *                                  trade may still be executed, so clients should check the history before
+     *                                  resubmitting
+     */
+    @Override
+    public TradeResponse execute(TradeRequest request) {
+        PendingTrade pending = new PendingTrade(request, new CompletableFuture<>());
+
+        if (!queue.offer(pending)) {
+            throw new TradeEngineBusyException("Too many pending trades, please retry later");
+        }
+
+        try {
+            return pending.result().get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TradingException("Trade failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new TradeEngineBusyException("Trade was not confirmed within " + responseTimeout.toMillis()
+                    + " ms, check the trade history before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TradingException("Interrupted while waiting for the trade to complete", e);
+        }
+    }
+
+    private record PendingTrade(TradeRequest request, CompletableFuture<TradeResponse> result) {
+    }
+
+    /**
+     * A trade settled in the shared transaction. Requests repeating its client order ID in the same batch wait for
+     * the same response.
+     */
+    @RequiredArgsConstructor
+    private static final class SettledTrade {
+        private final TradeRequest request;
+        private final LockedWalletLedger.Settled settled;
+        private final List<CompletableFuture<TradeResponse>> waiters = new ArrayList<>(1);
+    }
+
+    private void run() {
+        List<PendingTrade> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingTrade first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Group commit failed a batch of {} trades: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+
+        PendingTrade left;
+        while (Objects.nonNull(left = queue.poll())) {
+            left.result().completeExceptionally(new TradeEngineBusyException("Trade engine is shutting down"));
+        }
+    }
+
+    /**
+     * Adds the trades arriving until the window after the first trade closes or the batch is full.
+     */
+    private void collect(List<PendingTrade> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + window.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+
+            PendingTrade next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (Objects.isNull(next)) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Settles the batch and writes it in one transaction. Trades failing their checks are answered right away;
+     * if the transaction fails, the settled trades fall back to one transaction each.
+     */
+    private void processBatch(List<PendingTrade> batch) {
+        batchSizes.record(batch.size());
+        List<SettledTrade> settled = new ArrayList<>(batch.size());
+
+        try {
+            commitTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                LockedWalletLedger ledger = new LockedWalletLedger(userRepository, walletBalanceRepository,
+                        tradeRepository, symbolRegistry, priceSnapshotService::getLatestQuote, eventPublisher);
+                ledger.lockWallets(batch.stream().map(PendingTrade::request).toList());
+                settleAll(batch, settled, ledger);
+                ledger.write();
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} trades failed, executing them one by one: {}", settled.size(), e.getMessage());
+            fallbacks.increment();
+            settled.forEach(this::executeAlone);
+            return;
+        }
+
+        for (SettledTrade trade : settled) {
+            trade.waiters.forEach(waiter -> waiter.complete(trade.settled.response()));
+        }
+    }
+
+    /**
+     * Settles the trades in arrival order against wallets locked for the whole batch. Settlement checks before it
+     * changes a wallet, so a failing trade leaves nothing behind for the trades after it.
+     */
+    private void settleAll(List<PendingTrade> batch, List<SettledTrade> settled, LockedWalletLedger ledger) {
+        Map<String, SettledTrade> settledByClientOrderId = new HashMap<>();
+
+        for (PendingTrade pending : batch) {
+            TradeRequest request = pending.request();
+            try {
+                String clientOrderId = request.getClientOrderId();
+                if (Objects.nonNull(clientOrderId)) {
+                    SettledTrade sameBatch = settledByClientOrderId.get(clientOrderId);
+                    if (Objects.nonNull(sameBatch)) {
+                        sameBatch.waiters.add(pending.result());
+                        continue;
+                    }
+
+                    Optional<Trade> existingTrade = tradeRepository.findByClientOrderId(clientOrderId);
+                    if (existingTrade.isPresent()) {
+                        log.warn("Duplicate order detected for clientOrderId: {}", clientOrderId);
+                        pending.result().complete(new TradeResponse().toTradeResponse(existingTrade.get()));
+                        continue;
+                    }
+                }
+
+                SettledTrade settledTrade = new SettledTrade(request, ledger.settle(request));
+                settledTrade.waiters.add(pending.result());
+                settled.add(settledTrade);
+                if (Objects.nonNull(clientOrderId)) {
+                    settledByClientOrderId.put(clientOrderId, settledTrade);
+                }
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void executeAlone(SettledTrade trade) {
+        try {
+            TradeResponse response = tradingService.executeUserTrading(trade.request);
+            trade.waiters.forEach(waiter -> waiter.complete(response));
+        } catch (RuntimeException e) {
+            trade.waiters.forEach(waiter -> waiter.completeExceptionally(e));
+        }
+    }
+}
@@ -3,32 +3,48 @@ package com.vuongnguyen.fintech_project.service;
 import com.vuongnguyen.fintech_project.dto.HuobiTicker;
 import com.vuongnguyen.fintech_project.dto.PriceData;
 import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.stream.HuobiBboStream;
+import com.vuongnguyen.fintech_project.stream.ExchangeStreamClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.net.URI;
 import java.util.List;
-
-import static com.vuongnguyen.fintech_project.utility.Constant.SUPPORTED_SYMBOLS;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class HuobiPriceService {
+public class HuobiPriceService implements MarketDataSource {
 
     private final ExternalService externalService;
+    private final SymbolRegistry symbolRegistry;
+
+    @Override
+    public DCESource getSource() {
+        return DCESource.HUOBI;
+    }
 
     /**
      * Fetches current price data for supported symbols from Huobi.
      *
      * @return List of PriceData containing symbol, bid price, ask price, and source information
      */
+    @Override
     public List<PriceData> fetchPrices() {
         log.debug("Fetching prices from Huobi");
 
-        List<HuobiTicker> response = externalService.fetchHuobiPrices(SUPPORTED_SYMBOLS);
+        List<HuobiTicker> response = externalService.fetchHuobiPrices(symbolRegistry.getSymbols());
 
         return response.stream().map(ticker -> new PriceData(ticker.getSymbol(), ticker.getBid(), ticker.getAsk(), DCESource.HUOBI))
                 .toList();
     }
+
+    @Override
+    public Optional<ExchangeStreamClient> createStreamClient(URI uri, ExchangeStreamClient.Settings settings) {
+        return Optional.of(new HuobiBboStream(uri, settings.httpClient(), settings.scheduler(), settings.sink(),
+                symbolRegistry.getExchangeSymbols(DCESource.HUOBI), settings.initialBackoff(), settings.maxBackoff(),
+                settings.staleAfter()));
+    }
 }
@@ -0,0 +1,174 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.dto.TradeDetails;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Settles several trades inside one transaction. Each wallet row is locked the first time a trade touches it and
+ * then kept in memory, so later trades of the batch see the balances left by the earlier ones. Nothing is written
+ * until {@link #write()}, which updates all changed wallets and inserts all trades with one JDBC batch each.
+ * <p>
+ * {@link #lockWallets} locks the wallets of several users up front in one fixed order, so two ledgers settling the
+ * same users in a different order cannot deadlock.
+ * <p>
+ * Not thread-safe; create one per transaction.
+ */
+@RequiredArgsConstructor
+final class LockedWalletLedger {
+
+    private final UserRepository userRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final TradeRepository tradeRepository;
+    private final SymbolRegistry symbolRegistry;
+    private final Function<String, Optional<PriceQuote>> prices;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, User> users = new HashMap<>();
+    private final Map<String, WalletBalance> lockedWallets = new HashMap<>();
+    private final Map<Long, WalletBalance> changedWallets = new LinkedHashMap<>();
+    private final List<Settled> settled = new ArrayList<>();
+
+    /**
+     * A trade settled in memory. The response carries the balances right after this trade; its trade ID is set by
+     * {@link #write()}.
+     */
+    record Settled(Trade trade, TradeResponse response) {
+    }
+
+    /**
+     * Locks every wallet the trades will touch before any of them is settled: by user ID, then quote currencies
+     * before the others, as a single trade locks its quote wallet before its asset wallet, then by currency.
+     * Unknown users, symbols and wallets are skipped here and reported by {@link #settle} in trade order.
+     *
+     * @param requests the trades about to be settled
+     */
+    void lockWallets(List<TradeRequest> requests) {
+        Set<String> quoteCurrencies = symbolRegistry.getAll().stream()
+                .map(SymbolInfo::getQuoteCurrency)
+                .collect(Collectors.toSet());
+        Map<Long, Set<String>> currenciesByUser = new TreeMap<>();
+        for (TradeRequest request : requests) {
+            symbolRegistry.find(request.getSymbol()).ifPresent(symbolInfo -> {
+                Set<String> currencies = currenciesByUser.computeIfAbsent(request.getUserId(), userId -> new TreeSet<>(
+                        Comparator.comparing((String currency) -> !quoteCurrencies.contains(currency))
+                                .thenComparing(Comparator.naturalOrder())));
+                currencies.add(symbolInfo.getQuoteCurrency());
+                currencies.add(symbolInfo.getBaseCurrency());
+            });
+        }
+
+        currenciesByUser.forEach((userId, currencies) -> findUser(userId)
+                .ifPresent(user -> currencies.forEach(currency -> findLockedWallet(user, currency))));
+    }
+
+    /**
+     * Checks and settles one trade against the ledger's wallets, in the same order of checks as
+     * {@link TradingService#executeUserTrading}. A failing trade leaves every wallet unchanged.
+     *
+     * @param request the trade request
+     * @return the settled trade
+     * @throws ResourceNotFoundException if the user does not exist
+     * @throws PriceNotAvailableException if the symbol has no price
+     * @throws TradingException if the symbol is not supported or a wallet is missing
+     * @throws InsufficientBalanceException if the paying wallet does not cover the trade
+     */
+    Settled settle(TradeRequest request) {
+        User user = findUser(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + request.getUserId()));
+
+        PriceQuote latestPrice = prices.apply(request.getSymbol())
+                .orElseThrow(() -> new PriceNotAvailableException("No price data available for symbol: " + request.getSymbol()));
+        SymbolInfo symbolInfo = symbolRegistry.find(request.getSymbol())
+                .orElseThrow(() -> new TradingException("Unsupported symbol: " + request.getSymbol()));
+
+        WalletBalance quoteBalance = lockedWallet(user, symbolInfo.getQuoteCurrency());
+        WalletBalance assetBalance = lockedWallet(user, symbolInfo.getBaseCurrency());
+
+        TradeDetails tradeDetails = new TradeDetails().toTradeDetails(request.getSide(), request.getQuantity(), latestPrice);
+        TradeSettlement.settle(request.getSide(), quoteBalance, assetBalance, tradeDetails, request.getQuantity());
+        changedWallets.put(quoteBalance.getId(), quoteBalance);
+        changedWallets.put(assetBalance.getId(), assetBalance);
+
+        Trade trade = new Trade().toEntity(user, request, tradeDetails);
+        Settled result = new Settled(trade, new TradeResponse()
+                .toTradeResponse(trade, quoteBalance, assetBalance, symbolInfo.getBaseCurrency()));
+        settled.add(result);
+
+        return result;
+    }
+
+    /**
+     * Writes every changed wallet and settled trade, then sets the generated trade IDs on the responses and
+     * publishes a {@link TradeExecutedEvent} for each trade.
+     *
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a wallet was changed by another writer
+     */
+    void write() {
+        if (settled.isEmpty()) {
+            return;
+        }
+
+        walletBalanceRepository.updateBalances(new ArrayList<>(changedWallets.values()));
+        tradeRepository.insertBatch(settled.stream().map(Settled::trade).toList());
+        settled.forEach(result -> result.response().setTradeId(result.trade().getId()));
+        settled.forEach(result -> eventPublisher.publishEvent(new TradeExecutedEvent(result.response())));
+    }
+
+    private Optional<User> findUser(Long userId) {
+        User user = users.get(userId);
+        if (Objects.isNull(user)) {
+            Optional<User> found = userRepository.findById(userId);
+            found.ifPresent(value -> users.put(userId, value));
+            return found;
+        }
+
+        return Optional.of(user);
+    }
+
+    private WalletBalance lockedWallet(User user, String currency) {
+        return findLockedWallet(user, currency)
+                .orElseThrow(() -> new TradingException(currency + " wallet not found for user: " + user.getId()));
+    }
+
+    private Optional<WalletBalance> findLockedWallet(User user, String currency) {
+        String key = user.getId() + ":" + currency;
+        WalletBalance wallet = lockedWallets.get(key);
+        if (Objects.isNull(wallet)) {
+            Optional<WalletBalance> locked = walletBalanceRepository.lockBalance(user, currency);
+            locked.ifPresent(value -> lockedWallets.put(key, value));
+            return locked;
+        }
+
+        return Optional.of(wallet);
+    }
+}
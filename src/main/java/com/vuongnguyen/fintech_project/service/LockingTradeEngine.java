@@ -0,0 +1,24 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * The default engine: one transaction per trade that locks both wallet rows with {@code SELECT ... FOR UPDATE}
+ * and retries on optimistic locking failures, see {@link TradingService#executeUserTrading}.
+ */
+@Service
+@ConditionalOnProperty(name = "dce.trading.engine", havingValue = "locking", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LockingTradeEngine implements TradeEngine {
+
+    private final TradingService tradingService;
+
+    @Override
+    public TradeResponse execute(TradeRequest request) {
+        return tradingService.executeUserTrading(request);
+    }
+}
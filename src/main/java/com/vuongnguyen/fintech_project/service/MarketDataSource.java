@@ -0,0 +1,44 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.stream.ExchangeStreamClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An exchange adapter that the aggregator polls for best bid/ask quotes.
+ * <p>
+ * Every bean implementing this interface is picked up by {@link PriceAggregationService} and polled in
+ * parallel with the others. Its poll interval, timeout and on/off switch are read from
+ * {@code dce.market-data.sources.<source>}; retries, circuit breaking and fallbacks are the adapter's own.
+ * An adapter whose exchange offers a market data stream also builds the client for it.
+ */
+public interface MarketDataSource {
+
+    /**
+     * @return the exchange this adapter reads from, used to tag quotes, settings and metrics
+     */
+    DCESource getSource();
+
+    /**
+     * Fetches the current quotes for the supported symbols.
+     *
+     * @return the quotes, one per symbol the exchange answered for
+     */
+    List<PriceData> fetchPrices();
+
+    /**
+     * Builds the client of the exchange's market data stream, when streaming is enabled and the source has a
+     * {@code stream-url}. The client is not started.
+     *
+     * @param uri the stream endpoint
+     * @param settings the settings shared by every stream client
+     * @return the stream client, or empty if the adapter has no stream
+     */
+    default Optional<ExchangeStreamClient> createStreamClient(URI uri, ExchangeStreamClient.Settings settings) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,340 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AccountHolding;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every requested user's holdings valued in USDT in memory, so a valuation is read, not computed, per
+ * request. A portfolio is loaded from {@code wallet_balances} on its first request and from then on kept current
+ * incrementally:
+ * <ul>
+ *     <li>after each committed trade, from the balances the trade carries; a position only takes a balance from a
+ *     trade newer than the one it last applied, so trades committed concurrently cannot roll it back</li>
+ *     <li>on each aggregated price, only for the users holding that symbol, found through a symbol to holders
+ *     index</li>
+ * </ul>
+ * Assets are valued at the bid of their {@code <currency>USDT} symbol; an asset without one, or without a price
+ * yet, has no value and is left out of the total. Wallets are only changed by trades, so no other write needs to
+ * reach this service.
+ * <p>
+ * Only non-zero positions are indexed as holders, and a portfolio not requested for
+ * {@code dce.portfolio.idle-timeout} is dropped by {@link #evictIdle()}, so memory and the work per price update
+ * grow with the users actively asking for valuations rather than with every user who ever did.
+ * <p>
+ * Metrics: {@code dce.portfolio.users} (portfolios in memory), {@code dce.portfolio.revaluations} (positions
+ * revalued on price updates) and {@code dce.portfolio.evictions} (idle portfolios dropped).
+ */
+@Service
+@Slf4j
+public class PortfolioService {
+
+    static final String VALUATION_CURRENCY = "USDT";
+
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final UserRepository userRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final Duration idleTimeout;
+    private final Counter revaluations;
+    private final Counter evictions;
+    private final Map<Long, Portfolio> portfolios = new ConcurrentHashMap<>();
+    private final Map<String, Set<Portfolio>> holdersBySymbol = new ConcurrentHashMap<>();
+
+    public PortfolioService(WalletBalanceRepository walletBalanceRepository,
+                            UserRepository userRepository,
+                            PriceSnapshotService priceSnapshotService,
+                            SymbolRegistry symbolRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${dce.portfolio.idle-timeout:30m}") Duration idleTimeout) {
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.userRepository = userRepository;
+        this.priceSnapshotService = priceSnapshotService;
+        this.symbolRegistry = symbolRegistry;
+        this.idleTimeout = idleTimeout;
+        this.revaluations = meterRegistry.counter("dce.portfolio.revaluations");
+        this.evictions = meterRegistry.counter("dce.portfolio.evictions");
+        meterRegistry.gaugeMapSize("dce.portfolio.users", List.of(), portfolios);
+    }
+
+    /**
+     * Returns the user's current valuation, loading the portfolio from the database on first use.
+     *
+     * @param userId the user ID
+     * @return the holdings and their total value in USDT
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public PortfolioValuation getValuation(Long userId) {
+        Portfolio portfolio = portfolios.computeIfAbsent(userId, Portfolio::new);
+        portfolio.lastReadNanos = System.nanoTime();
+        if (!portfolio.loaded) {
+            load(portfolio);
+        }
+
+        return portfolio.valuation();
+    }
+
+    /**
+     * Applies the balances of a committed trade to the user's portfolio, if it is in memory. A portfolio that is
+     * not loaded yet reads the committed balances when it is.
+     *
+     * @param event the executed trade
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTradeExecuted(TradeExecutedEvent event) {
+        TradeResponse trade = event.getTrade();
+        Portfolio portfolio = portfolios.get(trade.getUserId());
+        if (Objects.isNull(portfolio)) {
+            return;
+        }
+
+        portfolio.apply(VALUATION_CURRENCY, trade.getUpdatedUsdtBalance(), trade.getTradeId(), trade.getCreatedAt());
+        portfolio.apply(trade.getAssetCurrency(), trade.getUpdatedAssetBalance(), trade.getTradeId(), trade.getCreatedAt());
+    }
+
+    /**
+     * Revalues the positions of every user holding one of the symbols.
+     *
+     * @param aggregatedPrices the new prices
+     */
+    public void update(Collection<AggregatedPrice> aggregatedPrices) {
+        for (AggregatedPrice aggregatedPrice : aggregatedPrices) {
+            Set<Portfolio> holders = holdersBySymbol.get(aggregatedPrice.getSymbol());
+            if (Objects.isNull(holders)) {
+                continue;
+            }
+
+            for (Portfolio portfolio : holders) {
+                portfolio.reprice(aggregatedPrice.getSymbol(), aggregatedPrice.getBestBid(), aggregatedPrice.getTimestamp());
+                revaluations.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every portfolio not requested within the idle timeout, together with its holder entries. A dropped
+     * user's next request loads the portfolio from the database again.
+     *
+     * @return the number of portfolios dropped
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Portfolio portfolio : portfolios.values()) {
+            if (now - portfolio.lastReadNanos > idleTimeout.toNanos() && portfolios.remove(portfolio.userId, portfolio)) {
+                portfolio.evict();
+                evicted++;
+            }
+        }
+
+        if (evicted > 0) {
+            evictions.increment(evicted);
+            log.debug("Evicted {} idle portfolios, {} left", evicted, portfolios.size());
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Reads the user's wallets once. Trades committed while they are read are applied by
+     * {@link #onTradeExecuted} as well; a position they already set is not overwritten by the read.
+     */
+    private void load(Portfolio portfolio) {
+        synchronized (portfolio.loadLock) {
+            if (portfolio.loaded) {
+                return;
+            }
+
+            List<WalletBalance> wallets = walletBalanceRepository.findByUserId(portfolio.userId);
+            if (wallets.isEmpty() && !userRepository.existsById(portfolio.userId)) {
+                portfolios.remove(portfolio.userId, portfolio);
+                throw new ResourceNotFoundException("User not found: " + portfolio.userId);
+            }
+
+            PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+            for (WalletBalance wallet : wallets) {
+                portfolio.loadPosition(wallet, snapshot);
+            }
+            portfolio.loaded = true;
+
+            log.debug("Loaded portfolio of user {} with {} wallets", portfolio.userId, wallets.size());
+        }
+    }
+
+    private String valuationSymbolOf(String currency) {
+        return symbolRegistry.findByCurrencies(currency, VALUATION_CURRENCY).map(SymbolInfo::getSymbol).orElse(null);
+    }
+
+    private static BigDecimal valueOf(BigDecimal balance, BigDecimal price) {
+        return Objects.isNull(price) ? null : balance.multiply(price).setScale(8, RoundingMode.HALF_UP).stripTrailingZeros();
+    }
+
+    private static final class Position {
+        private final String currency;
+        private final String symbol;
+        private BigDecimal balance;
+        private BigDecimal price;
+        private BigDecimal value;
+        private long tradeId;
+        private LocalDateTime updatedAt;
+
+        private Position(String currency, String symbol) {
+            this.currency = currency;
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * One user's positions by currency and their running total. Every change adjusts the total by the difference
+     * in the changed position's value, so no change revisits the other positions.
+     */
+    private final class Portfolio {
+        private final Long userId;
+        private final Object loadLock = new Object();
+        private final Map<String, Position> positions = new TreeMap<>();
+        private volatile boolean loaded;
+        private volatile long lastReadNanos = System.nanoTime();
+        private boolean evicted;
+        private BigDecimal totalValue = BigDecimal.ZERO;
+        private LocalDateTime updatedAt;
+
+        private Portfolio(Long userId) {
+            this.userId = userId;
+        }
+
+        private synchronized void loadPosition(WalletBalance wallet, PriceSnapshot snapshot) {
+            if (positions.containsKey(wallet.getCurrency())) {
+                return;
+            }
+
+            Position position = newPosition(wallet.getCurrency());
+            if (Objects.nonNull(position.symbol)) {
+                position.price = snapshot.getQuote(position.symbol).map(PriceQuote::getBestBid).orElse(null);
+            }
+            setBalance(position, wallet.getBalance(), wallet.getUpdatedAt());
+        }
+
+        private synchronized void apply(String currency, BigDecimal balance, Long tradeId, LocalDateTime createdAt) {
+            Position position = positions.get(currency);
+            if (Objects.isNull(position)) {
+                position = newPosition(currency);
+                if (Objects.nonNull(position.symbol)) {
+                    position.price = priceSnapshotService.getLatestQuote(position.symbol).map(PriceQuote::getBestBid).orElse(null);
+                }
+            } else if (tradeId <= position.tradeId) {
+                return;
+            }
+
+            position.tradeId = tradeId;
+            setBalance(position, balance, createdAt);
+        }
+
+        private synchronized void reprice(String symbol, BigDecimal price, LocalDateTime timestamp) {
+            for (Position position : positions.values()) {
+                if (symbol.equals(position.symbol)) {
+                    position.price = price;
+                    setValue(position, valueOf(position.balance, price), timestamp);
+                }
+            }
+        }
+
+        private synchronized void evict() {
+            evicted = true;
+            for (Position position : positions.values()) {
+                if (Objects.nonNull(position.symbol)) {
+                    unindex(position.symbol);
+                }
+            }
+        }
+
+        private synchronized PortfolioValuation valuation() {
+            List<AccountHolding> holdings = new ArrayList<>(positions.size());
+            for (Position position : positions.values()) {
+                holdings.add(new AccountHolding(position.currency, position.balance, position.symbol, position.price,
+                        position.value, position.updatedAt));
+            }
+
+            return new PortfolioValuation(userId, VALUATION_CURRENCY, totalValue, holdings, updatedAt);
+        }
+
+        private Position newPosition(String currency) {
+            String symbol = VALUATION_CURRENCY.equals(currency) ? null : valuationSymbolOf(currency);
+            Position position = new Position(currency, symbol);
+            positions.put(currency, position);
+
+            return position;
+        }
+
+        /**
+         * Registers the portfolio as a holder of the symbol, unless it has been evicted meanwhile.
+         */
+        private void index(String symbol) {
+            if (!evicted) {
+                holdersBySymbol.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(this);
+            }
+        }
+
+        private void unindex(String symbol) {
+            holdersBySymbol.computeIfPresent(symbol, (key, holders) -> {
+                holders.remove(this);
+                return holders.isEmpty() ? null : holders;
+            });
+        }
+
+        private void setBalance(Position position, BigDecimal balance, LocalDateTime timestamp) {
+            position.balance = balance.stripTrailingZeros();
+            position.updatedAt = timestamp;
+            if (Objects.nonNull(position.symbol)) {
+                if (position.balance.signum() == 0) {
+                    unindex(position.symbol);
+                } else {
+                    index(position.symbol);
+                }
+            }
+            setValue(position, VALUATION_CURRENCY.equals(position.currency) ? position.balance
+                    : valueOf(position.balance, position.price), timestamp);
+        }
+
+        private void setValue(Position position, BigDecimal value, LocalDateTime timestamp) {
+            if (Objects.nonNull(position.value)) {
+                totalValue = totalValue.subtract(position.value);
+            }
+            if (Objects.nonNull(value)) {
+                totalValue = totalValue.add(value);
+            }
+            position.value = value;
+            if (Objects.nonNull(timestamp) && (Objects.isNull(updatedAt) || timestamp.isAfter(updatedAt))) {
+                updatedAt = timestamp;
+            }
+        }
+    }
+}
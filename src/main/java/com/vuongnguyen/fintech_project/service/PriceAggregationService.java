@@ -1,42 +1,128 @@
 package com.vuongnguyen.fintech_project.service;
 
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
 import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
 import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.enums.DCESource;
 import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static com.vuongnguyen.fintech_project.utility.Constant.SUPPORTED_SYMBOLS;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PriceAggregationService {
 
-    private final BinancePriceService binancePriceService;
-    private final HuobiPriceService huobiPriceService;
+    private final List<MarketDataSource> marketDataSources;
+    private final MarketDataSourceProperties marketDataSourceProperties;
+    private final SymbolRegistry symbolRegistry;
     private final AggregatedPriceRepository aggregatedPriceRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final PriceCandleService priceCandleService;
+    private final PriceStreamService priceStreamService;
+    private final PortfolioService portfolioService;
+    @Qualifier("exchangeFetchExecutor")
+    private final Executor exchangeFetchExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Map<DCESource, StreamQuote>> streamQuotes = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastStreamPersistNanos = new ConcurrentHashMap<>();
+    private final Map<DCESource, PolledQuotes> lastPolledQuotes = new ConcurrentHashMap<>();
+    private volatile Map<String, Map<DCESource, PriceData>> tickPolledQuotes = Map.of();
+
+    @Value("${dce.fan-out.enabled:true}")
+    private boolean fanOutEnabled;
+
+    @Value("${dce.fan-out.timeout:9s}")
+    private Duration fanOutTimeout;
+
+    @Value("${dce.aggregation.tick-interval:10s}")
+    private Duration tickInterval;
+
+    @Value("${dce.stream.stale-after:30s}")
+    private Duration streamStaleAfter;
 
+    @Value("${dce.stream.persist-interval:1s}")
+    private Duration streamPersistInterval;
+
+    /**
+     * Runs one polling tick over every enabled {@link MarketDataSource}. A source whose streaming connection
+     * currently delivers fresh quotes for every supported symbol is not polled; its latest streamed quotes are
+     * aggregated instead. A source that is not due yet under its poll interval contributes the quotes of its
+     * last successful poll, so they are never older than its poll interval. A symbol is aggregated only when at
+     * least one of its quotes was polled or streamed for this tick; a symbol with nothing but reused quotes keeps
+     * its last price instead of being saved again as new. The tick's prices are stamped with the time its fetches
+     * started, so a stream update arriving while the tick runs is not overwritten by it.
+     */
     public void aggregateAndStorePrices() {
         log.info("Starting price aggregation from external exchanges");
 
-        List<PriceData> binancePrices = binancePriceService.fetchPrices();
-        List<PriceData> huobiPrices = huobiPriceService.fetchPrices();
+        Map<DCESource, MarketDataSource> dueSources = new EnumMap<>(DCESource.class);
+        List<PriceData> streamedPrices = new ArrayList<>();
+        List<PriceData> cachedPrices = new ArrayList<>();
+        long now = System.nanoTime();
+        for (MarketDataSource marketDataSource : marketDataSources) {
+            DCESource source = marketDataSource.getSource();
+            if (!marketDataSourceProperties.forSource(source).isEnabled()) {
+                continue;
+            }
 
-        List<PriceData> allPrices = new ArrayList<>();
-        allPrices.addAll(binancePrices);
-        allPrices.addAll(huobiPrices);
+            if (isStreamLive(source)) {
+                List<PriceData> streamed = new ArrayList<>();
+                symbolRegistry.getSymbols().forEach(symbol -> freshStreamQuote(symbol, source).ifPresent(streamed::add));
+                streamedPrices.addAll(countQuotes(source, "stream", streamed));
+                log.debug("Using streamed quotes for {}, skipping REST poll", source);
+                continue;
+            }
+
+            PolledQuotes polled = lastPolledQuotes.get(source);
+            if (Objects.nonNull(polled) && !isPollDue(source, polled, now)) {
+                cachedPrices.addAll(countQuotes(source, "cached", polled.getPrices()));
+                log.debug("{} is not due for polling yet, reusing its last polled quotes", source);
+                continue;
+            }
+
+            dueSources.put(source, marketDataSource);
+        }
+
+        LocalDateTime tickTimestamp = LocalDateTime.now();
+        long tickStart = System.nanoTime();
+        List<PriceData> allPrices = fanOutEnabled ? fetchAllPricesConcurrently(dueSources) : fetchAllPricesSequentially(dueSources);
+        meterRegistry.timer("dce.aggregation.fetch", "mode", fanOutEnabled ? "fan-out" : "sequential")
+                .record(System.nanoTime() - tickStart, TimeUnit.NANOSECONDS);
+        Set<String> freshSymbols = new HashSet<>();
+        allPrices.forEach(price -> freshSymbols.add(price.getSymbol()));
+        streamedPrices.forEach(price -> freshSymbols.add(price.getSymbol()));
+        allPrices.addAll(cachedPrices);
+        rememberTickPolledQuotes(allPrices);
+        allPrices.addAll(streamedPrices);
 
         if (allPrices.isEmpty()) {
             log.warn("No price data received from any exchange");
@@ -46,19 +132,24 @@ public class PriceAggregationService {
         Map<String, List<PriceData>> pricesBySymbol = allPrices.stream()
                 .collect(Collectors.groupingBy(PriceData::getSymbol));
 
-        for (String symbol : SUPPORTED_SYMBOLS) {
+        List<AggregatedPrice> aggregatedPrices = new ArrayList<>();
+        for (String symbol : symbolRegistry.getSymbols()) {
             List<PriceData> symbolPrices = pricesBySymbol.get(symbol);
 
             if (CollectionUtils.isEmpty(symbolPrices)) {
                 log.warn("No price data available for symbol: {}", symbol);
                 continue;
             }
+            if (!freshSymbols.contains(symbol)) {
+                log.debug("Only reused quotes for {} in this tick, keeping its last aggregated price", symbol);
+                continue;
+            }
 
             try {
-                AggregatedPrice aggregatedPrice = calculateBestPrices(symbol, symbolPrices);
-                aggregatedPriceRepository.save(aggregatedPrice);
+                AggregatedPrice aggregatedPrice = calculateBestPrices(symbol, symbolPrices, tickTimestamp);
+                aggregatedPrices.add(aggregatedPrice);
 
-                log.info("Saved aggregated price for {}: bestBid={}, bestAsk={}, sources={}",
+                log.info("Aggregated price for {}: bestBid={}, bestAsk={}, sources={}",
                         symbol, aggregatedPrice.getBestBid(), aggregatedPrice.getBestAsk(),
                         symbolPrices.stream().map(PriceData::getSource).collect(Collectors.toSet()));
 
@@ -67,37 +158,248 @@ public class PriceAggregationService {
             }
         }
 
-        log.info("Price aggregation completed");
+        if (aggregatedPrices.isEmpty()) {
+            return;
+        }
+
+        try {
+            aggregatedPriceRepository.saveTick(aggregatedPrices);
+        } catch (Exception e) {
+            log.error("Error saving aggregated prices for {}: {}",
+                    aggregatedPrices.stream().map(AggregatedPrice::getSymbol).toList(), e.getMessage(), e);
+            return;
+        }
+        priceSnapshotService.publish(aggregatedPrices);
+        priceCandleService.update(aggregatedPrices);
+        priceStreamService.publish(aggregatedPrices);
+        portfolioService.update(aggregatedPrices);
+
+        log.info("Price aggregation completed, saved {} symbols", aggregatedPrices.size());
     }
 
-    private AggregatedPrice calculateBestPrices(String symbol, List<PriceData> prices) {
-        BigDecimal bestBid = prices.stream()
-                .map(PriceData::getBid)
-                .filter(Objects::nonNull)
-                .max(BigDecimal::compareTo)
-                .orElseThrow(() -> new IllegalStateException("No valid bid prices found for " + symbol));
+    /**
+     * Queries every exchange one after another, so a tick costs the sum of all exchange latencies.
+     * An exception from any exchange aborts the tick.
+     *
+     * @return price data from all exchanges, in exchange order
+     */
+    private List<PriceData> fetchAllPricesSequentially(Map<DCESource, MarketDataSource> sources) {
+        List<PriceData> allPrices = new ArrayList<>();
+        sources.forEach((source, marketDataSource) -> allPrices.addAll(timedFetch(marketDataSource)));
 
-        BigDecimal bestAsk = prices.stream()
-                .map(PriceData::getAsk)
-                .filter(Objects::nonNull)
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new IllegalStateException("No valid ask prices found for " + symbol));
+        return allPrices;
+    }
 
-        if (bestBid.compareTo(bestAsk) > 0) {
-            log.warn("Best bid ({}) is higher than best ask ({}) for {}. This might indicate data issues.",
-                    bestBid, bestAsk, symbol);
+    /**
+     * Queries every exchange at the same time on the bounded exchange executor and joins the results,
+     * so a tick costs as long as the slowest exchange. An exchange that fails or does not answer within
+     * its timeout contributes no prices to this tick; the others are still aggregated.
+     *
+     * @return price data from all exchanges that answered in time, in exchange order
+     */
+    private List<PriceData> fetchAllPricesConcurrently(Map<DCESource, MarketDataSource> sources) {
+        Map<DCESource, CompletableFuture<List<PriceData>>> futures = new EnumMap<>(DCESource.class);
+
+        sources.forEach((source, marketDataSource) -> futures.put(source,
+                CompletableFuture.supplyAsync(() -> timedFetch(marketDataSource), exchangeFetchExecutor)
+                        .completeOnTimeout(null, timeoutFor(source).toMillis(), TimeUnit.MILLISECONDS)
+                        .exceptionally(ex -> {
+                            log.error("Error fetching prices from {}: {}", source, ex.getMessage(), ex);
+                            return Collections.emptyList();
+                        })));
+
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+
+        List<PriceData> allPrices = new ArrayList<>();
+        futures.forEach((source, future) -> {
+            List<PriceData> prices = future.join();
+            if (Objects.isNull(prices)) {
+                log.warn("{} did not respond within {} ms, skipping it for this tick", source, timeoutFor(source).toMillis());
+                meterRegistry.counter("dce.fetch.timeouts", "exchange", source.name()).increment();
+                return;
+            }
+            allPrices.addAll(prices);
+        });
+
+        return allPrices;
+    }
+
+    /**
+     * Runs one exchange fetch, remembers its quotes for the ticks until the source is due again and records
+     * how long it took, tagged by exchange and outcome.
+     */
+    private List<PriceData> timedFetch(MarketDataSource marketDataSource) {
+        DCESource source = marketDataSource.getSource();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            List<PriceData> prices = marketDataSource.fetchPrices();
+            lastPolledQuotes.put(source, new PolledQuotes(prices, start));
+            return countQuotes(source, "poll", prices);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("dce.fetch.duration", "exchange", source.name(), "outcome", outcome)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Fetched prices from {} in {} ms ({})", source, TimeUnit.NANOSECONDS.toMillis(elapsed), outcome);
+        }
+    }
+
+    /**
+     * Keeps the polled quotes aggregated by this tick, so stream updates until the next tick still include the
+     * exchanges that are not streaming.
+     */
+    private void rememberTickPolledQuotes(List<PriceData> polledPrices) {
+        Map<String, Map<DCESource, PriceData>> bySymbol = new HashMap<>();
+        polledPrices.forEach(price -> bySymbol.computeIfAbsent(price.getSymbol(), symbol -> new EnumMap<>(DCESource.class))
+                .put(price.getSource(), price));
+        tickPolledQuotes = bySymbol;
+    }
+
+    /**
+     * Feeds one streamed quote into aggregation as soon as it arrives. The best bid/ask for the symbol is
+     * recomputed across the fresh quotes of every streaming exchange and, for exchanges without a fresh streamed
+     * quote, the quotes polled in the last tick. It is published to the price snapshot, the price candles and the
+     * price stream right away, but persisted at most once per persist interval per symbol, so a busy stream does not
+     * write a history row for every update.
+     *
+     * @param priceData the quote received from an exchange stream
+     */
+    public void onPriceUpdate(PriceData priceData) {
+        String symbol = priceData.getSymbol();
+        streamQuotes.computeIfAbsent(symbol, key -> new ConcurrentHashMap<>())
+                .put(priceData.getSource(), new StreamQuote(priceData, System.nanoTime()));
+
+        Map<DCESource, PriceData> polled = tickPolledQuotes.getOrDefault(symbol, Map.of());
+        List<PriceData> symbolPrices = new ArrayList<>();
+        for (DCESource source : DCESource.values()) {
+            freshStreamQuote(symbol, source)
+                    .or(() -> Optional.ofNullable(polled.get(source)))
+                    .ifPresent(symbolPrices::add);
+        }
+
+        try {
+            AggregatedPrice aggregatedPrice = calculateBestPrices(symbol, symbolPrices, LocalDateTime.now());
+            priceSnapshotService.publish(List.of(aggregatedPrice));
+            priceCandleService.update(List.of(aggregatedPrice));
+            priceStreamService.publish(List.of(aggregatedPrice));
+            portfolioService.update(List.of(aggregatedPrice));
+
+            long now = System.nanoTime();
+            long persistedAt = lastStreamPersistNanos.compute(symbol, (key, previous) ->
+                    Objects.isNull(previous) || now - previous >= streamPersistInterval.toNanos() ? now : previous);
+            if (persistedAt != now) {
+                return;
+            }
+
+            aggregatedPriceRepository.saveTick(List.of(aggregatedPrice));
+
+            log.debug("Saved streamed aggregated price for {}: bestBid={}, bestAsk={}",
+                    symbol, aggregatedPrice.getBestBid(), aggregatedPrice.getBestAsk());
+        } catch (Exception e) {
+            log.error("Error aggregating streamed prices for symbol {}: {}", symbol, e.getMessage(), e);
+        }
+    }
+
+    private boolean isStreamLive(DCESource source) {
+        return symbolRegistry.getSymbols().stream().allMatch(symbol -> freshStreamQuote(symbol, source).isPresent());
+    }
+
+    private Optional<PriceData> freshStreamQuote(String symbol, DCESource source) {
+        Map<DCESource, StreamQuote> quotes = streamQuotes.get(symbol);
+        StreamQuote quote = Objects.isNull(quotes) ? null : quotes.get(source);
+
+        if (Objects.isNull(quote) || System.nanoTime() - quote.getReceivedAtNanos() > streamStaleAfter.toNanos()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(quote.getPriceData());
+    }
+
+    /**
+     * A source is due once its poll interval has passed since its last successful poll. Half a tick of slack
+     * keeps scheduler jitter from pushing a poll to the following tick.
+     */
+    private boolean isPollDue(DCESource source, PolledQuotes polled, long now) {
+        Duration pollInterval = marketDataSourceProperties.forSource(source).getPollInterval();
+
+        return now - polled.getPolledAtNanos() >= pollInterval.toNanos() - tickInterval.toNanos() / 2;
+    }
+
+    private Duration timeoutFor(DCESource source) {
+        Duration timeout = marketDataSourceProperties.forSource(source).getTimeout();
+
+        return Objects.isNull(timeout) ? fanOutTimeout : timeout;
+    }
+
+    private List<PriceData> countQuotes(DCESource source, String origin, List<PriceData> prices) {
+        meterRegistry.counter("dce.fetch.quotes", "exchange", source.name(), "origin", origin).increment(prices.size());
+
+        return prices;
+    }
+
+    /**
+     * Computes the best (highest) bid and best (lowest) ask for a symbol in a single pass over fixed-point
+     * prices, converting to {@link BigDecimal} only for the persisted entity.
+     *
+     * @param symbol the trading symbol
+     * @param prices the quotes of every exchange for the symbol
+     * @param timestamp when the quotes were taken: the start of the tick's fetches, or the arrival of a stream update
+     * @return the aggregated price, not yet saved
+     * @throws IllegalStateException if no exchange sent a bid or an ask
+     */
+    private AggregatedPrice calculateBestPrices(String symbol, List<PriceData> prices, LocalDateTime timestamp) {
+        long bestBid = FixedPoint.UNSET;
+        long bestAsk = FixedPoint.UNSET;
+
+        for (int i = 0, size = prices.size(); i < size; i++) {
+            PriceData price = prices.get(i);
+            if (price.getBid() > bestBid) {
+                bestBid = price.getBid();
+            }
+            if (FixedPoint.isSet(price.getAsk()) && (!FixedPoint.isSet(bestAsk) || price.getAsk() < bestAsk)) {
+                bestAsk = price.getAsk();
+            }
+        }
+
+        if (!FixedPoint.isSet(bestBid)) {
+            throw new IllegalStateException("No valid bid prices found for " + symbol);
+        }
+        if (!FixedPoint.isSet(bestAsk)) {
+            throw new IllegalStateException("No valid ask prices found for " + symbol);
         }
 
         AggregatedPrice aggregatedPrice = new AggregatedPrice();
         aggregatedPrice.setSymbol(symbol);
-        aggregatedPrice.setBestBid(bestBid);
-        aggregatedPrice.setBestAsk(bestAsk);
-        aggregatedPrice.setTimestamp(LocalDateTime.now());
+        aggregatedPrice.setBestBid(FixedPoint.toBigDecimal(bestBid));
+        aggregatedPrice.setBestAsk(FixedPoint.toBigDecimal(bestAsk));
+        aggregatedPrice.setTimestamp(timestamp);
+
+        if (bestBid > bestAsk) {
+            log.warn("Best bid ({}) is higher than best ask ({}) for {}. This might indicate data issues.",
+                    aggregatedPrice.getBestBid(), aggregatedPrice.getBestAsk(), symbol);
+        }
 
         return aggregatedPrice;
     }
 
-    public Optional<AggregatedPrice> getLatestPrice(String symbol) {
-        return aggregatedPriceRepository.findLatestBySymbol(symbol);
+    public Optional<PriceQuote> getLatestPrice(String symbol) {
+        return priceSnapshotService.getLatestQuote(symbol);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class PolledQuotes {
+        private final List<PriceData> prices;
+        private final long polledAtNanos;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class StreamQuote {
+        private final PriceData priceData;
+        private final long receivedAtNanos;
     }
 }
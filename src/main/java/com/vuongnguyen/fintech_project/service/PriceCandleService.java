@@ -0,0 +1,252 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceCandle;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import com.vuongnguyen.fintech_project.repository.PriceCandleRepository;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Maintains open/high/low/close candles of the mid price of every symbol for every {@link CandleInterval} in
+ * memory, updated by {@link PriceAggregationService} with each aggregated price. A candle closes when a price
+ * of a later interval arrives or, at the latest, on the first flush after its interval ended. Closed candles are
+ * queued and written to {@code price_candles} by {@link #flush()}, {@code dce.candles.batch-size} per JDBC batch.
+ * Reads combine the stored candles with the queued and open ones, so the newest candle is always current.
+ * <p>
+ * Metrics: {@code dce.candles.flushed} (candles written) and {@code dce.candles.pending} (closed candles not
+ * written yet).
+ */
+@Service
+@Slf4j
+public class PriceCandleService {
+
+    /**
+     * Candles returned when a read does not give {@code from}.
+     */
+    static final int DEFAULT_CANDLES = 100;
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final PriceCandleRepository priceCandleRepository;
+    private final Counter candlesFlushed;
+    private final Map<String, OpenCandle[]> openCandles = new ConcurrentHashMap<>();
+    private final Queue<PriceCandle> closedCandles = new ConcurrentLinkedQueue<>();
+
+    @Value("${dce.candles.batch-size:500}")
+    private int batchSize;
+
+    @Value("${dce.candles.max-candles:1000}")
+    private int maxCandles;
+
+    public PriceCandleService(PriceCandleRepository priceCandleRepository, MeterRegistry meterRegistry) {
+        this.priceCandleRepository = priceCandleRepository;
+        this.candlesFlushed = meterRegistry.counter("dce.candles.flushed");
+        meterRegistry.gauge("dce.candles.pending", closedCandles, Queue::size);
+    }
+
+    /**
+     * Adds aggregated prices to the open candles of their symbols, closing every candle whose interval the price
+     * has moved past. A price older than the open candle of an interval is ignored for that interval.
+     *
+     * @param aggregatedPrices the prices aggregated in one tick or stream update
+     */
+    public void update(Collection<AggregatedPrice> aggregatedPrices) {
+        for (AggregatedPrice price : aggregatedPrices) {
+            long mid = (FixedPoint.of(price.getBestBid()) + FixedPoint.of(price.getBestAsk())) / 2;
+            LocalDateTime time = price.getTimestamp();
+
+            openCandles.compute(price.getSymbol(), (symbol, candles) -> {
+                OpenCandle[] updated = Objects.isNull(candles) ? new OpenCandle[INTERVALS.length] : candles;
+                for (int i = 0; i < INTERVALS.length; i++) {
+                    LocalDateTime openTime = INTERVALS[i].openTimeOf(time);
+                    OpenCandle candle = updated[i];
+
+                    if (Objects.isNull(candle) || openTime.isAfter(candle.openTime)) {
+                        if (Objects.nonNull(candle)) {
+                            closedCandles.add(candle.toPriceCandle(symbol, INTERVALS[i]));
+                        }
+                        updated[i] = new OpenCandle(openTime, mid);
+                    } else if (openTime.equals(candle.openTime)) {
+                        candle.update(mid);
+                    }
+                }
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Closes the open candles whose interval has ended and writes every closed candle. Candles stay queued until
+     * their batch is written, so a failed write is retried by the next flush.
+     *
+     * @return the number of candles written
+     */
+    public synchronized int flush() {
+        closeEndedCandles(LocalDateTime.now());
+
+        int flushed = 0;
+        while (!closedCandles.isEmpty()) {
+            List<PriceCandle> batch = new ArrayList<>(batchSize);
+            Iterator<PriceCandle> pending = closedCandles.iterator();
+            while (pending.hasNext() && batch.size() < batchSize) {
+                batch.add(pending.next());
+            }
+
+            priceCandleRepository.saveAll(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                closedCandles.poll();
+            }
+            flushed += batch.size();
+            candlesFlushed.increment(batch.size());
+        }
+
+        if (flushed > 0) {
+            log.debug("Flushed {} closed price candles", flushed);
+        }
+        return flushed;
+    }
+
+    /**
+     * Writes the closed candles and the open ones on shutdown. Stored candles are combined with later writes of
+     * the same open time, so the open candles continue after a restart instead of starting over.
+     */
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        try {
+            flush();
+
+            List<PriceCandle> open = new ArrayList<>();
+            for (String symbol : openCandles.keySet()) {
+                open.addAll(openCandlesOf(symbol));
+            }
+            priceCandleRepository.saveAll(open);
+        } catch (Exception e) {
+            log.error("Error flushing price candles on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the candles of a symbol whose open time falls in a range, oldest first. The candle containing
+     * {@code from} is included.
+     *
+     * @param symbol   the trading symbol
+     * @param interval the candle interval
+     * @param from     start of the range, or null for the last {@value #DEFAULT_CANDLES} candles before {@code to}
+     * @param to       end of the range, exclusive, or null for now
+     * @return the candles in the range; intervals without prices have no candle
+     * @throws IllegalArgumentException if {@code from} is not before {@code to} or the range spans more than
+     *                                  {@code dce.candles.max-candles} candles
+     */
+    public List<PriceCandle> getCandles(String symbol, CandleInterval interval, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = Objects.isNull(to) ? LocalDateTime.now() : to;
+        LocalDateTime start = Objects.isNull(from) ? end.minus(interval.getDuration().multipliedBy(DEFAULT_CANDLES)) : from;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).dividedBy(interval.getDuration()) > maxCandles) {
+            throw new IllegalArgumentException("Range spans more than " + maxCandles + " " + interval.getCode() + " candles");
+        }
+
+        LocalDateTime firstOpenTime = interval.openTimeOf(start);
+        Map<LocalDateTime, PriceCandle> candles = new TreeMap<>();
+        priceCandleRepository.findRange(symbol, interval, firstOpenTime, end)
+                .forEach(candle -> candles.put(candle.getOpenTime(), candle));
+
+        List<PriceCandle> recent = new ArrayList<>();
+        closedCandles.stream().filter(candle -> candle.getSymbol().equals(symbol)).forEach(recent::add);
+        recent.addAll(openCandlesOf(symbol));
+        for (PriceCandle candle : recent) {
+            if (candle.getInterval() == interval && !candle.getOpenTime().isBefore(firstOpenTime)
+                    && candle.getOpenTime().isBefore(end)) {
+                candles.merge(candle.getOpenTime(), candle, PriceCandleService::combine);
+            }
+        }
+
+        return new ArrayList<>(candles.values());
+    }
+
+    private void closeEndedCandles(LocalDateTime now) {
+        for (String symbol : openCandles.keySet()) {
+            openCandles.computeIfPresent(symbol, (key, candles) -> {
+                for (int i = 0; i < INTERVALS.length; i++) {
+                    OpenCandle candle = candles[i];
+                    if (Objects.nonNull(candle) && !candle.openTime.plus(INTERVALS[i].getDuration()).isAfter(now)) {
+                        closedCandles.add(candle.toPriceCandle(symbol, INTERVALS[i]));
+                        candles[i] = null;
+                    }
+                }
+                return candles;
+            });
+        }
+    }
+
+    private List<PriceCandle> openCandlesOf(String symbol) {
+        List<PriceCandle> open = new ArrayList<>();
+        openCandles.computeIfPresent(symbol, (key, candles) -> {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                if (Objects.nonNull(candles[i])) {
+                    open.add(candles[i].toPriceCandle(symbol, INTERVALS[i]));
+                }
+            }
+            return candles;
+        });
+        return open;
+    }
+
+    /**
+     * Combines a stored candle with a later, in-memory state of the same candle, the same way the upsert does.
+     */
+    private static PriceCandle combine(PriceCandle stored, PriceCandle recent) {
+        return new PriceCandle(stored.getSymbol(), stored.getInterval(), stored.getOpenTime(), stored.getOpen(),
+                stored.getHigh().max(recent.getHigh()), stored.getLow().min(recent.getLow()), recent.getClose());
+    }
+
+    /**
+     * Mutable candle in fixed-point prices, only touched while its symbol's map entry is locked.
+     */
+    private static final class OpenCandle {
+        private final LocalDateTime openTime;
+        private final long open;
+        private long high;
+        private long low;
+        private long close;
+
+        private OpenCandle(LocalDateTime openTime, long price) {
+            this.openTime = openTime;
+            this.open = price;
+            this.high = price;
+            this.low = price;
+            this.close = price;
+        }
+
+        private void update(long price) {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+        }
+
+        private PriceCandle toPriceCandle(String symbol, CandleInterval interval) {
+            return new PriceCandle(symbol, interval, openTime, FixedPoint.toBigDecimal(open),
+                    FixedPoint.toBigDecimal(high), FixedPoint.toBigDecimal(low), FixedPoint.toBigDecimal(close));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.config.PriceRetentionProperties;
+import com.vuongnguyen.fintech_project.dto.RetentionReport;
+import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes {@code aggregated_prices} rows older than the retention of their symbol. Rows are deleted in chunks of
+ * {@code dce.retention.aggregated-prices.chunk-size}, each in its own transaction, so a purge never holds locks
+ * for long and the tick writer is only ever blocked for one chunk.
+ * <p>
+ * Metrics: {@code dce.retention.rows.purged}, {@code dce.retention.bytes.reclaimed} (estimated) and
+ * {@code dce.retention.purge}, all tagged {@code table=aggregated_prices}.
+ */
+@Service
+@Slf4j
+public class PriceRetentionService {
+
+    /**
+     * Heap held by one {@code aggregated_prices} row in the in-memory H2 store, including its index entries.
+     */
+    static final long ESTIMATED_ROW_BYTES = 300;
+
+    private final AggregatedPriceRepository aggregatedPriceRepository;
+    private final PriceRetentionProperties properties;
+    private final Counter rowsPurged;
+    private final Counter bytesReclaimed;
+    private final Timer purgeTimer;
+    private final ReentrantLock purgeLock = new ReentrantLock();
+    private volatile RetentionReport lastReport;
+
+    public PriceRetentionService(AggregatedPriceRepository aggregatedPriceRepository,
+                                 PriceRetentionProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.aggregatedPriceRepository = aggregatedPriceRepository;
+        this.properties = properties;
+        this.rowsPurged = meterRegistry.counter("dce.retention.rows.purged", "table", "aggregated_prices");
+        this.bytesReclaimed = meterRegistry.counter("dce.retention.bytes.reclaimed", "table", "aggregated_prices");
+        this.purgeTimer = meterRegistry.timer("dce.retention.purge", "table", "aggregated_prices");
+    }
+
+    /**
+     * Purges every symbol's expired history. A purge requested while another one runs returns without purging.
+     *
+     * @return the report of this purge, or empty if another purge is running
+     */
+    public Optional<RetentionReport> purge() {
+        if (!purgeLock.tryLock()) {
+            log.debug("Price retention purge already running, skipping");
+            return Optional.empty();
+        }
+
+        try {
+            RetentionReport report = purgeExpiredHistory();
+            lastReport = report;
+            return Optional.of(report);
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the report of the last completed purge, or empty if none has run yet
+     */
+    public Optional<RetentionReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private RetentionReport purgeExpiredHistory() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        Map<String, Long> purgedBySymbol = new TreeMap<>();
+
+        for (String symbol : aggregatedPriceRepository.findHistorySymbols()) {
+            LocalDateTime cutoff = startedAt.minus(properties.maxAgeFor(symbol));
+            long purged = 0;
+            int deleted;
+            do {
+                deleted = aggregatedPriceRepository.deleteHistoryOlderThan(symbol, cutoff, chunkSize);
+                purged += deleted;
+            } while (deleted == chunkSize);
+
+            if (purged > 0) {
+                purgedBySymbol.put(symbol, purged);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long rows = purgedBySymbol.values().stream().mapToLong(Long::longValue).sum();
+        long bytes = rows * ESTIMATED_ROW_BYTES;
+        rowsPurged.increment(rows);
+        bytesReclaimed.increment(bytes);
+        purgeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (rows > 0) {
+            log.info("Purged expired price history: rows={}, bytesReclaimed~{}, bySymbol={}, durationMs={}",
+                    rows, bytes, purgedBySymbol, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } else {
+            log.debug("No expired price history to purge");
+        }
+
+        return new RetentionReport(startedAt, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, bytes, purgedBySymbol);
+    }
+}
@@ -1,12 +1,17 @@
 package com.vuongnguyen.fintech_project.service;
 
 import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshotResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -14,15 +19,22 @@ import java.util.Optional;
 @Slf4j
 public class PriceService {
 
-    private final AggregatedPriceRepository aggregatedPriceRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
 
+    /**
+     * Reads the latest aggregated price from the in-memory price snapshot.
+     *
+     * @param symbol the trading symbol
+     * @return the latest price, or empty if no price has been aggregated for the symbol
+     */
     public Optional<AggregatedPriceResponse> getLatestPrice(String symbol) {
         log.debug("Fetching latest price for symbol: {}", symbol);
 
-        Optional<AggregatedPrice> latestPrice = aggregatedPriceRepository.findLatestBySymbol(symbol);
+        Optional<PriceQuote> latestPrice = priceSnapshotService.getLatestQuote(symbol);
 
         if (latestPrice.isPresent()) {
-            AggregatedPrice price = latestPrice.get();
+            PriceQuote price = latestPrice.get();
             AggregatedPriceResponse response = new AggregatedPriceResponse(price.getSymbol(), price.getBestBid(),
                     price.getBestAsk(), price.getTimestamp());
 
@@ -35,4 +47,40 @@ public class PriceService {
         log.warn("No price data found for symbol: {}", symbol);
         return Optional.empty();
     }
+
+    /**
+     * Reads the latest prices of several symbols from one price snapshot, so every price in the response and its
+     * sequence and timestamp come from the same published state.
+     *
+     * @param symbols the trading symbols; repeated symbols are returned once
+     * @return the prices in request order, with the symbols that have no price listed separately
+     */
+    public PriceSnapshotResponse getLatestPrices(Collection<String> symbols) {
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+
+        List<AggregatedPriceResponse> prices = new ArrayList<>();
+        List<String> missingSymbols = new ArrayList<>();
+        for (String symbol : new LinkedHashSet<>(symbols)) {
+            Optional<PriceQuote> quote = snapshot.getQuote(symbol);
+            if (quote.isPresent()) {
+                PriceQuote price = quote.get();
+                prices.add(new AggregatedPriceResponse(price.getSymbol(), price.getBestBid(), price.getBestAsk(),
+                        price.getTimestamp()));
+            } else {
+                missingSymbols.add(symbol);
+            }
+        }
+
+        log.debug("Read {} latest prices from snapshot {}, missing: {}", prices.size(), snapshot.getSequence(),
+                missingSymbols);
+
+        return new PriceSnapshotResponse(snapshot.getSequence(), snapshot.getPublishedAt(), prices, missingSymbols);
+    }
+
+    /**
+     * @return the latest prices of every supported symbol, read from one price snapshot
+     */
+    public PriceSnapshotResponse getAllLatestPrices() {
+        return getLatestPrices(symbolRegistry.getSymbols());
+    }
 }
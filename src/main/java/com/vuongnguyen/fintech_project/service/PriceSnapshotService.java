@@ -0,0 +1,97 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.repository.LatestPriceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the latest aggregated price of every symbol in memory so that price reads and trades do not query
+ * {@code latest_prices}. The database is read once, on first access, to seed the snapshot after a restart;
+ * from then on {@link PriceAggregationService} publishes every aggregated price here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceSnapshotService {
+
+    private final LatestPriceRepository latestPriceRepository;
+    private final SymbolRegistry symbolRegistry;
+
+    private final AtomicReference<PriceSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Distinguishes the sequence numbers of this run from those of earlier runs, which started from the same numbers.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * @return the current snapshot, loading it from the database on first access
+     */
+    public PriceSnapshot getSnapshot() {
+        PriceSnapshot current = snapshot.get();
+
+        return Objects.nonNull(current) ? current : loadFromDatabase();
+    }
+
+    /**
+     * @param symbol the trading symbol
+     * @return the latest aggregated price for the symbol, or empty if none has been aggregated yet
+     */
+    public Optional<PriceQuote> getLatestQuote(String symbol) {
+        return getSnapshot().getQuote(symbol);
+    }
+
+    /**
+     * @param priceSnapshot a snapshot returned by {@link #getSnapshot()}
+     * @return a strong entity tag for the snapshot, unique across publishes and restarts
+     */
+    public String eTagOf(PriceSnapshot priceSnapshot) {
+        return epoch + "-" + priceSnapshot.getSequence();
+    }
+
+    /**
+     * Atomically replaces the snapshot with one that includes the given aggregated prices. A price older than the
+     * one already held for its symbol is ignored, so a tick and a stream update finishing out of order cannot
+     * move a symbol back to an older price.
+     *
+     * @param aggregatedPrices the prices aggregated in one tick or stream update
+     */
+    public void publish(Collection<AggregatedPrice> aggregatedPrices) {
+        if (aggregatedPrices.isEmpty()) {
+            return;
+        }
+
+        List<PriceQuote> quotes = aggregatedPrices.stream().map(PriceQuote::from).toList();
+        getSnapshot();
+        PriceSnapshot published = snapshot.updateAndGet(current -> current.with(quotes));
+
+        log.debug("Published price snapshot {} with {} updated symbols", published.getSequence(), quotes.size());
+    }
+
+    private synchronized PriceSnapshot loadFromDatabase() {
+        PriceSnapshot current = snapshot.get();
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+
+        List<PriceQuote> quotes = latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols()).stream()
+                .map(PriceQuote::from)
+                .toList();
+
+        PriceSnapshot loaded = PriceSnapshot.EMPTY.with(quotes);
+        snapshot.set(loaded);
+        log.info("Loaded price snapshot from database with {} symbols", quotes.size());
+
+        return loaded;
+    }
+}
@@ -0,0 +1,248 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes aggregated prices to Server-Sent Events subscribers as {@link PriceAggregationService} produces them.
+ * Every subscriber has a buffer holding only the newest undelivered price per symbol: a price that arrives while
+ * the previous one of its symbol is still waiting replaces it, so a slow subscriber receives fewer updates instead
+ * of a growing backlog, and its buffer never holds more than one price per symbol.
+ * <p>
+ * A subscriber whose write has been blocked for longer than {@code dce.price-stream.send-timeout}, e.g. a client
+ * that stopped reading, is dropped by {@link #evictStalled()} so it cannot keep holding one of the few stream
+ * threads.
+ * <p>
+ * Metrics: {@code dce.price-stream.subscribers}, {@code dce.price-stream.sent} (updates written) and
+ * {@code dce.price-stream.dropped} (updates replaced by a newer price before they were written) and
+ * {@code dce.price-stream.evicted} (subscribers dropped for a stalled write).
+ */
+@Service
+@Slf4j
+public class PriceStreamService {
+
+    static final String EVENT_NAME = "price";
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final Executor priceStreamExecutor;
+    private final Counter updatesSent;
+    private final Counter updatesDropped;
+    private final Counter subscribersEvicted;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${dce.price-stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${dce.price-stream.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    public PriceStreamService(PriceSnapshotService priceSnapshotService,
+                              SymbolRegistry symbolRegistry,
+                              @Qualifier("priceStreamExecutor") Executor priceStreamExecutor,
+                              MeterRegistry meterRegistry) {
+        this.priceSnapshotService = priceSnapshotService;
+        this.symbolRegistry = symbolRegistry;
+        this.priceStreamExecutor = priceStreamExecutor;
+        this.updatesSent = meterRegistry.counter("dce.price-stream.sent");
+        this.updatesDropped = meterRegistry.counter("dce.price-stream.dropped");
+        this.subscribersEvicted = meterRegistry.counter("dce.price-stream.evicted");
+        meterRegistry.gauge("dce.price-stream.subscribers", subscribers, Set::size);
+    }
+
+    /**
+     * Opens a stream of price updates. The latest price of every requested symbol is sent first.
+     *
+     * @param symbols the symbols to stream, or empty for every supported symbol
+     * @return the emitter to return from the controller
+     * @throws IllegalArgumentException if a symbol is not supported
+     */
+    public SseEmitter subscribe(Collection<String> symbols) {
+        return register(new SseEmitter(timeout.toMillis()), symbols);
+    }
+
+    /**
+     * Queues aggregated prices for every subscriber of their symbols.
+     *
+     * @param aggregatedPrices the prices aggregated in one tick or stream update
+     */
+    public void publish(Collection<AggregatedPrice> aggregatedPrices) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        for (AggregatedPrice price : aggregatedPrices) {
+            AggregatedPriceResponse response = new AggregatedPriceResponse(price.getSymbol(), price.getBestBid(),
+                    price.getBestAsk(), price.getTimestamp());
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(response);
+            }
+        }
+    }
+
+    /**
+     * Drops every subscriber whose current write started more than {@code dce.price-stream.send-timeout} ago. It
+     * gets no more updates, its blocked write is interrupted and its stream is completed once the write returns,
+     * so the client reconnects as after a stream timeout.
+     */
+    public void evictStalled() {
+        long startedBefore = System.nanoTime() - sendTimeout.toNanos();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.evictIfStalled(startedBefore)) {
+                subscribersEvicted.increment();
+                log.warn("Price stream subscriber dropped, a write was blocked for more than {}", sendTimeout);
+            }
+        }
+    }
+
+    SseEmitter register(SseEmitter emitter, Collection<String> symbols) {
+        Set<String> subscribed = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbolRegistry.find(symbol).isEmpty()) {
+                throw new IllegalArgumentException("Unsupported symbol: " + symbol);
+            }
+            subscribed.add(symbol);
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, subscribed);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        for (String symbol : subscribed.isEmpty() ? symbolRegistry.getSymbols() : subscribed) {
+            snapshot.getQuote(symbol).ifPresent(quote -> subscriber.offer(new AggregatedPriceResponse(quote.getSymbol(),
+                    quote.getBestBid(), quote.getBestAsk(), quote.getTimestamp())));
+        }
+
+        log.debug("Price stream subscribed to {}, {} subscribers", subscribed.isEmpty() ? "all symbols" : subscribed,
+                subscribers.size());
+        return emitter;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final Map<String, AggregatedPriceResponse> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private Thread drainThread;
+        private long drainStarted;
+
+        private Subscriber(SseEmitter emitter, Set<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        private void offer(AggregatedPriceResponse price) {
+            if (!symbols.isEmpty() && !symbols.contains(price.getSymbol())) {
+                return;
+            }
+
+            if (Objects.nonNull(pending.put(price.getSymbol(), price))) {
+                updatesDropped.increment();
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                priceStreamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("Price stream subscriber dropped, its update could not be scheduled: {}", e.getMessage());
+                draining.set(false);
+                close();
+                emitter.complete();
+            }
+        }
+
+        /**
+         * Writes the pending prices. Only one drain of a subscriber runs at a time; prices offered while it runs
+         * are written by the drain it schedules when it finishes.
+         */
+        private void drain() {
+            drainStarted();
+            try {
+                for (String symbol : pending.keySet()) {
+                    if (closed) {
+                        break;
+                    }
+                    AggregatedPriceResponse price = pending.remove(symbol);
+                    if (Objects.nonNull(price)) {
+                        emitter.send(SseEmitter.event().name(EVENT_NAME).data(price, MediaType.APPLICATION_JSON));
+                        updatesSent.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                if (!closed) {
+                    log.debug("Price stream subscriber disconnected: {}", e.getMessage());
+                    close();
+                }
+            } finally {
+                drainFinished();
+                draining.set(false);
+            }
+
+            if (closed) {
+                emitter.complete();
+            } else if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized void drainStarted() {
+            drainThread = Thread.currentThread();
+            drainStarted = System.nanoTime();
+        }
+
+        /**
+         * Clears the drain thread before it moves on to other work, and any interrupt meant for this drain with it.
+         */
+        private synchronized void drainFinished() {
+            drainThread = null;
+            Thread.interrupted();
+        }
+
+        private synchronized boolean evictIfStalled(long startedBefore) {
+            if (Objects.isNull(drainThread) || drainStarted - startedBefore > 0) {
+                return false;
+            }
+
+            close();
+            drainThread.interrupt();
+            return true;
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+        }
+    }
+}
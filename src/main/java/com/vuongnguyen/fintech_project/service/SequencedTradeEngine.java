@@ -0,0 +1,578 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.dto.TradeDetails;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.exception.OptimisticLockRetryExhaustedException;
+import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.StaleWalletBalanceException;
+import com.vuongnguyen.fintech_project.exception.TradeEngineBusyException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Executes trades without database row locks. Every user is owned by one sequencer thread, picked by hashing the
+ * user ID, which keeps that user's wallets in memory and applies their trades strictly in arrival order. Each
+ * sequencer drains up to {@code dce.trading.sequencer.batch-size} queued trades, settles them in memory and writes
+ * the changed wallets and the new trades in one transaction with JDBC batches.
+ * <p>
+ * Wallet rows are written with a version check, so a wallet changed outside this engine is never overwritten. When
+ * the write finds stale wallets, only their users are reloaded from the database and the whole batch is settled
+ * again; a user whose wallets keep changing is given up on after {@value #MAX_STALE_WRITES} attempts.
+ * <p>
+ * Each sequencer keeps at most {@code dce.trading.sequencer.max-cached-users} users in memory and drops the least
+ * recently trading ones once a batch is written; a dropped user is reloaded from the database on their next trade.
+ */
+@Service
+@ConditionalOnProperty(name = "dce.trading.engine", havingValue = "sequencer")
+@Slf4j
+public class SequencedTradeEngine implements TradeEngine {
+
+    private static final int MAX_STALE_WRITES = 3;
+
+    private final UserRepository userRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final TradeRepository tradeRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxCachedUsers;
+    private final Duration responseTimeout;
+    private final Sequencer[] sequencers;
+
+    public SequencedTradeEngine(UserRepository userRepository,
+                                WalletBalanceRepository walletBalanceRepository,
+                                TradeRepository tradeRepository,
+                                PriceSnapshotService priceSnapshotService,
+                                SymbolRegistry symbolRegistry,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${dce.trading.sequencer.threads:4}") int threads,
+                                @Value("${dce.trading.sequencer.queue-capacity:1024}") int queueCapacity,
+                                @Value("${dce.trading.sequencer.batch-size:64}") int batchSize,
+                                @Value("${dce.trading.sequencer.max-cached-users:10000}") int maxCachedUsers,
+                                @Value("${dce.trading.sequencer.response-timeout:5s}") Duration responseTimeout) {
+        this.userRepository = userRepository;
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.tradeRepository = tradeRepository;
+        this.priceSnapshotService = priceSnapshotService;
+        this.symbolRegistry = symbolRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxCachedUsers = Math.max(1, maxCachedUsers);
+        this.responseTimeout = responseTimeout;
+        this.sequencers = new Sequencer[Math.max(1, threads)];
+        for (int i = 0; i < sequencers.length; i++) {
+            sequencers[i] = new Sequencer(i, queueCapacity);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Sequencer sequencer : sequencers) {
+            Gauge.builder("dce.trading.sequencer.queue", sequencer.queue, BlockingQueue::size)
+                    .tag("sequencer", String.valueOf(sequencer.index))
+                    .register(meterRegistry);
+            sequencer.thread.start();
+        }
+        log.info("Started {} trade sequencers", sequencers.length);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (Sequencer sequencer : sequencers) {
+            sequencer.running = false;
+        }
+        for (Sequencer sequencer : sequencers) {
+            sequencer.thread.join(responseTimeout.toMillis());
+        }
+    }
+
+    /**
+     * Queues the trade on the sequencer that owns the user and waits for it to be persisted.
+     *
+     * @throws TradeEngineBusyException if the sequencer queue is full or the trade is not confirmed within
+     *                                  {@code dce.trading.sequencer.response-timeout}; in the latter case the trade
+     *                                  may still be executed, so clients should check the history before
+     *                                  resubmitting
+     */
+    @Override
+    public TradeResponse execute(TradeRequest request) {
+        CompletableFuture<TradeResponse> result = new CompletableFuture<>();
+        if (!submit(new Submission(List.of(request), priceSnapshotService::getLatestQuote, false, List.of(result)))) {
+            throw queueFull();
+        }
+
+        try {
+            return result.get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TradingException("Trade failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw notConfirmed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TradingException("Interrupted while waiting for the trade to complete", e);
+        }
+    }
+
+    /**
+     * Queues each user's trades on the sequencer that owns the user, in request order. An all-or-nothing batch is
+     * settled as one unit when a single sequencer owns all its users; otherwise it is left to the caller, which
+     * settles it under row locks, and the sequencers reload those users when their next write finds them stale.
+     */
+    @Override
+    public Optional<List<CompletableFuture<TradeResponse>>> executeBatch(List<TradeRequest> trades,
+                                                                         Function<String, Optional<PriceQuote>> prices,
+                                                                         boolean allOrNothing) {
+        List<CompletableFuture<TradeResponse>> results = new ArrayList<>(trades.size());
+        trades.forEach(trade -> results.add(new CompletableFuture<>()));
+
+        if (allOrNothing) {
+            long owners = trades.stream().map(trade -> sequencerOf(trade.getUserId())).distinct().count();
+            if (owners > 1) {
+                return Optional.empty();
+            }
+            submitAll(new Submission(trades, prices, true, results));
+        } else {
+            Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+            for (int i = 0; i < trades.size(); i++) {
+                indexesByUser.computeIfAbsent(trades.get(i).getUserId(), userId -> new ArrayList<>()).add(i);
+            }
+            indexesByUser.values().forEach(indexes -> submitAll(new Submission(
+                    indexes.stream().map(trades::get).toList(), prices, false,
+                    indexes.stream().map(results::get).toList())));
+        }
+
+        awaitAll(results);
+        return Optional.of(results);
+    }
+
+    private Sequencer sequencerOf(Long userId) {
+        return sequencers[Math.floorMod(Long.hashCode(userId), sequencers.length)];
+    }
+
+    /**
+     * Queues a batch submission, or fails its results right away if the sequencer queue is full.
+     */
+    private void submitAll(Submission submission) {
+        if (!submit(submission)) {
+            TradeEngineBusyException full = queueFull();
+            submission.results().forEach(result -> result.completeExceptionally(full));
+        }
+    }
+
+    private boolean submit(Submission submission) {
+        return sequencerOf(submission.requests().get(0).getUserId()).queue.offer(submission);
+    }
+
+    private TradeEngineBusyException queueFull() {
+        return new TradeEngineBusyException("Too many pending trades, please retry later");
+    }
+
+    /**
+     * Waits for every result within one response timeout and fails the ones still pending.
+     */
+    private void awaitAll(List<CompletableFuture<TradeResponse>> results) {
+        long deadline = System.nanoTime() + responseTimeout.toNanos();
+        for (CompletableFuture<TradeResponse> result : results) {
+            try {
+                result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // reported through the result
+            } catch (TimeoutException e) {
+                result.completeExceptionally(notConfirmed());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(new TradingException("Interrupted while waiting for the trade to complete", e));
+            }
+        }
+    }
+
+    private TradeEngineBusyException notConfirmed() {
+        return new TradeEngineBusyException("Trade was not confirmed within " + responseTimeout.toMillis()
+                + " ms, check the trade history before retrying");
+    }
+
+    /**
+     * Trades queued together on the sequencer owning their users. The trades of an atomic submission either all
+     * execute or all fail.
+     */
+    private record Submission(List<TradeRequest> requests, Function<String, Optional<PriceQuote>> prices,
+                              boolean atomic, List<CompletableFuture<TradeResponse>> results) {
+    }
+
+    @RequiredArgsConstructor
+    private static final class Account {
+        private final User user;
+        private final Map<String, WalletBalance> wallets;
+    }
+
+    /**
+     * A trade settled in memory and waiting for its batch to be written.
+     */
+    private record SettledTrade(Trade trade, TradeResponse response) {
+    }
+
+    /**
+     * What a queued trade is answered with once its batch is written: its settled trade, which requests repeating
+     * its client order ID in the same batch share, an already existing trade, or a failure.
+     */
+    private record Outcome(SettledTrade settled, TradeResponse existing, RuntimeException failure) {
+
+        static Outcome failed(RuntimeException failure) {
+            return new Outcome(null, null, failure);
+        }
+
+        void complete(CompletableFuture<TradeResponse> result) {
+            if (Objects.nonNull(failure)) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(Objects.nonNull(settled) ? settled.response() : existing);
+            }
+        }
+    }
+
+    private record BalanceChange(WalletBalance wallet, BigDecimal previous) {
+    }
+
+    /**
+     * One pass of settling a batch in memory. Every balance change is journaled so that a failed submission or a
+     * failed write can put the cached wallets back as they were.
+     */
+    private static final class Attempt {
+        private final Map<String, SettledTrade> settledByClientOrderId = new HashMap<>();
+        private final List<SettledTrade> settled = new ArrayList<>();
+        private final Map<Long, WalletBalance> changedWallets = new LinkedHashMap<>();
+        private final Map<Long, Long> walletOwners = new HashMap<>();
+        private final List<BalanceChange> journal = new ArrayList<>();
+        private final List<Outcome[]> outcomes = new ArrayList<>();
+
+        private void rollBack(int journalMark, int settledMark) {
+            for (int i = journal.size() - 1; i >= journalMark; i--) {
+                BalanceChange change = journal.remove(i);
+                change.wallet().setBalance(change.previous());
+            }
+            while (settled.size() > settledMark) {
+                SettledTrade trade = settled.remove(settled.size() - 1);
+                if (Objects.nonNull(trade.trade().getClientOrderId())) {
+                    settledByClientOrderId.remove(trade.trade().getClientOrderId());
+                }
+            }
+        }
+
+        private Set<Long> ownersOf(Collection<Long> walletIds) {
+            Set<Long> users = new HashSet<>();
+            walletIds.stream().map(walletOwners::get).filter(Objects::nonNull).forEach(users::add);
+            return users;
+        }
+    }
+
+    private final class Sequencer implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Submission> queue;
+        private final Thread thread;
+        private final LinkedHashMap<Long, Account> accounts = new LinkedHashMap<>(16, 0.75f, true);
+        private final DistributionSummary batchSizes;
+        private final Timer persistTimer;
+        private volatile boolean running = true;
+
+        private Sequencer(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            this.thread = new Thread(this, "trade-sequencer-" + index);
+            this.thread.setDaemon(true);
+            this.batchSizes = meterRegistry.summary("dce.trading.sequencer.batch.size", "sequencer", String.valueOf(index));
+            this.persistTimer = meterRegistry.timer("dce.trading.sequencer.persist", "sequencer", String.valueOf(index));
+        }
+
+        @Override
+        public void run() {
+            List<Submission> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (Objects.isNull(first)) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    processBatch(batch);
+                    evictIdleAccounts();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Trade sequencer {} failed a batch of {} submissions: {}", index, batch.size(), e.getMessage(), e);
+                    batch.forEach(submission -> {
+                        submission.requests().forEach(request -> accounts.remove(request.getUserId()));
+                        submission.results().forEach(result -> result.completeExceptionally(e));
+                    });
+                } finally {
+                    batch.clear();
+                }
+            }
+
+            Submission left;
+            while (Objects.nonNull(left = queue.poll())) {
+                TradeEngineBusyException shuttingDown = new TradeEngineBusyException("Trade engine is shutting down");
+                left.results().forEach(result -> result.completeExceptionally(shuttingDown));
+            }
+        }
+
+        /**
+         * Settles every trade of the batch in memory, in queue order, then writes the result in one transaction.
+         * A trade that fails its checks leaves the wallets untouched and is answered once the batch is written.
+         * If the write finds stale wallets, their users are reloaded and the batch is settled again; any other
+         * write failure fails every settled trade and drops the cached wallets of their users.
+         */
+        private void processBatch(List<Submission> batch) {
+            batchSizes.record(batch.stream().mapToInt(submission -> submission.requests().size()).sum());
+
+            Map<Long, Integer> staleWrites = new HashMap<>();
+            Set<Long> givenUp = new HashSet<>();
+            while (true) {
+                Attempt attempt = settleAll(batch, givenUp);
+                try {
+                    persist(attempt);
+                } catch (StaleWalletBalanceException e) {
+                    attempt.rollBack(0, 0);
+                    Set<Long> staleUsers = attempt.ownersOf(e.getWalletIds());
+                    if (staleUsers.isEmpty()) {
+                        fail(batch, attempt, e);
+                        return;
+                    }
+
+                    log.warn("Trade sequencer {} found stale wallets of users {}, settling the batch again", index, staleUsers);
+                    for (Long userId : staleUsers) {
+                        accounts.remove(userId);
+                        if (staleWrites.merge(userId, 1, Integer::sum) >= MAX_STALE_WRITES) {
+                            givenUp.add(userId);
+                        }
+                    }
+                    continue;
+                } catch (RuntimeException e) {
+                    fail(batch, attempt, e);
+                    return;
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    Outcome[] outcomes = attempt.outcomes.get(i);
+                    List<CompletableFuture<TradeResponse>> results = batch.get(i).results();
+                    for (int j = 0; j < outcomes.length; j++) {
+                        outcomes[j].complete(results.get(j));
+                    }
+                }
+                return;
+            }
+        }
+
+        private void persist(Attempt attempt) {
+            if (attempt.settled.isEmpty()) {
+                return;
+            }
+
+            persistTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                walletBalanceRepository.updateBalances(new ArrayList<>(attempt.changedWallets.values()));
+                tradeRepository.insertBatch(attempt.settled.stream().map(SettledTrade::trade).toList());
+                for (SettledTrade trade : attempt.settled) {
+                    trade.response().setTradeId(trade.trade().getId());
+                    eventPublisher.publishEvent(new TradeExecutedEvent(trade.response()));
+                }
+            }));
+        }
+
+        private void fail(List<Submission> batch, Attempt attempt, RuntimeException e) {
+            log.error("Failed to persist {} sequenced trades: {}", attempt.settled.size(), e.getMessage(), e);
+            attempt.ownersOf(attempt.changedWallets.keySet()).forEach(accounts::remove);
+
+            for (int i = 0; i < batch.size(); i++) {
+                Outcome[] outcomes = attempt.outcomes.get(i);
+                List<CompletableFuture<TradeResponse>> results = batch.get(i).results();
+                for (int j = 0; j < outcomes.length; j++) {
+                    if (Objects.nonNull(outcomes[j].failure())) {
+                        outcomes[j].complete(results.get(j));
+                    } else {
+                        results.get(j).completeExceptionally(e);
+                    }
+                }
+            }
+        }
+
+        private Attempt settleAll(List<Submission> batch, Set<Long> givenUp) {
+            Attempt attempt = new Attempt();
+
+            for (Submission submission : batch) {
+                List<TradeRequest> requests = submission.requests();
+                Outcome[] outcomes = new Outcome[requests.size()];
+                attempt.outcomes.add(outcomes);
+                int journalMark = attempt.journal.size();
+                int settledMark = attempt.settled.size();
+
+                for (int i = 0; i < requests.size(); i++) {
+                    try {
+                        outcomes[i] = settle(requests.get(i), submission.prices(), givenUp, attempt);
+                    } catch (RuntimeException e) {
+                        outcomes[i] = Outcome.failed(e);
+                        if (submission.atomic()) {
+                            attempt.rollBack(journalMark, settledMark);
+                            Outcome notExecuted = Outcome.failed(new TradingException("Not executed: trade " + i + " failed"));
+                            for (int j = 0; j < outcomes.length; j++) {
+                                if (j != i) {
+                                    outcomes[j] = notExecuted;
+                                }
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+
+            return attempt;
+        }
+
+        private Outcome settle(TradeRequest request, Function<String, Optional<PriceQuote>> prices, Set<Long> givenUp,
+                               Attempt attempt) {
+            if (givenUp.contains(request.getUserId())) {
+                throw new OptimisticLockRetryExhaustedException("Wallets of user " + request.getUserId()
+                        + " kept changing while the trade was written");
+            }
+
+            String clientOrderId = request.getClientOrderId();
+            if (Objects.nonNull(clientOrderId)) {
+                SettledTrade sameBatch = attempt.settledByClientOrderId.get(clientOrderId);
+                if (Objects.nonNull(sameBatch)) {
+                    return new Outcome(sameBatch, null, null);
+                }
+
+                Optional<Trade> existingTrade = tradeRepository.findByClientOrderId(clientOrderId);
+                if (existingTrade.isPresent()) {
+                    log.warn("Duplicate order detected for clientOrderId: {}", clientOrderId);
+                    return new Outcome(null, new TradeResponse().toTradeResponse(existingTrade.get()), null);
+                }
+            }
+
+            Account account = account(request.getUserId());
+
+            PriceQuote latestPrice = prices.apply(request.getSymbol())
+                    .orElseThrow(() -> new PriceNotAvailableException("No price data available for symbol: " + request.getSymbol()));
+            SymbolInfo symbolInfo = symbolRegistry.find(request.getSymbol())
+                    .orElseThrow(() -> new TradingException("Unsupported symbol: " + request.getSymbol()));
+
+            WalletBalance quoteBalance = wallet(account, symbolInfo.getQuoteCurrency());
+            WalletBalance assetBalance = wallet(account, symbolInfo.getBaseCurrency());
+
+            TradeDetails tradeDetails = new TradeDetails().toTradeDetails(request.getSide(), request.getQuantity(), latestPrice);
+            BigDecimal quoteBefore = quoteBalance.getBalance();
+            BigDecimal assetBefore = assetBalance.getBalance();
+            TradeSettlement.settle(request.getSide(), quoteBalance, assetBalance, tradeDetails, request.getQuantity());
+            attempt.journal.add(new BalanceChange(quoteBalance, quoteBefore));
+            attempt.journal.add(new BalanceChange(assetBalance, assetBefore));
+            attempt.changedWallets.put(quoteBalance.getId(), quoteBalance);
+            attempt.changedWallets.put(assetBalance.getId(), assetBalance);
+            attempt.walletOwners.put(quoteBalance.getId(), account.user.getId());
+            attempt.walletOwners.put(assetBalance.getId(), account.user.getId());
+
+            Trade trade = new Trade().toEntity(account.user, request, tradeDetails);
+            SettledTrade settled = new SettledTrade(trade, new TradeResponse()
+                    .toTradeResponse(trade, quoteBalance, assetBalance, symbolInfo.getBaseCurrency()));
+            attempt.settled.add(settled);
+            if (Objects.nonNull(clientOrderId)) {
+                attempt.settledByClientOrderId.put(clientOrderId, settled);
+            }
+
+            return new Outcome(settled, null, null);
+        }
+
+        /**
+         * Drops the least recently used accounts above the cache limit. Only called between batches, so a wallet
+         * settled but not yet written is never dropped and reloaded with its old balance.
+         */
+        private void evictIdleAccounts() {
+            Iterator<Account> eldest = accounts.values().iterator();
+            while (accounts.size() > maxCachedUsers && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        private Account account(Long userId) {
+            Account account = accounts.get(userId);
+            if (Objects.nonNull(account)) {
+                return account;
+            }
+
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+            Map<String, WalletBalance> wallets = new HashMap<>();
+            walletBalanceRepository.findByUserId(userId).forEach(wallet -> wallets.put(wallet.getCurrency(), wallet));
+
+            account = new Account(user, wallets);
+            accounts.put(userId, account);
+
+            return account;
+        }
+
+        private WalletBalance wallet(Account account, String currency) {
+            WalletBalance wallet = account.wallets.get(currency);
+            if (Objects.isNull(wallet)) {
+                throw new TradingException(currency + " wallet not found for user: " + account.user.getId());
+            }
+
+            return wallet;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vuongnguyen.fintech_project.dto.SymbolDefinition;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The symbols the service ingests and trades, with their base/quote currencies, exchange spellings, tick size
+ * and lot size. Loaded from {@code dce.symbols.location} at startup and swapped atomically by {@link #reload()},
+ * so lookups are plain hash map reads against an immutable index and never block.
+ * <p>
+ * Symbol IDs are interned when loaded, so every quote, snapshot entry and trade refers to the same instance. The
+ * registered {@link SymbolInfo} instances are immutable and shared by all callers. An exchange spelling may belong to
+ * one symbol only, like a symbol ID.
+ */
+@Service
+@Slf4j
+public class SymbolRegistry {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private volatile Index index;
+
+    public SymbolRegistry(ResourceLoader resourceLoader,
+                          @Value("${dce.symbols.location:classpath:symbols.json}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        reload();
+    }
+
+    /**
+     * @return every supported symbol ID, in definition order
+     */
+    public List<String> getSymbols() {
+        return index.getSymbols();
+    }
+
+    /**
+     * @return the reference data of every supported symbol, in definition order
+     */
+    public List<SymbolInfo> getAll() {
+        return List.copyOf(index.getBySymbol().values());
+    }
+
+    /**
+     * @param symbol the symbol ID, e.g. {@code BTCUSDT}
+     * @return the symbol's reference data, or empty if the symbol is not supported
+     */
+    public Optional<SymbolInfo> find(String symbol) {
+        return Objects.isNull(symbol) ? Optional.empty() : Optional.ofNullable(index.getBySymbol().get(symbol));
+    }
+
+    /**
+     * @param baseCurrency the traded asset, e.g. {@code BTC}
+     * @param quoteCurrency the currency it is priced in, e.g. {@code USDT}
+     * @return the first defined symbol trading the pair, or empty if none does
+     */
+    public Optional<SymbolInfo> findByCurrencies(String baseCurrency, String quoteCurrency) {
+        return Optional.ofNullable(index.getByCurrencies().get(baseCurrency + "/" + quoteCurrency));
+    }
+
+    /**
+     * @param source the exchange
+     * @param exchangeSymbol the symbol as the exchange spells it, e.g. {@code btcusdt} on Huobi
+     * @return the symbol's reference data, or empty if the symbol is not supported
+     */
+    public Optional<SymbolInfo> findByExchangeSymbol(DCESource source, String exchangeSymbol) {
+        Map<String, SymbolInfo> byExchangeSymbol = index.getByExchangeSymbol().get(source);
+
+        return Optional.ofNullable(byExchangeSymbol.get(exchangeSymbol));
+    }
+
+    /**
+     * @param source the exchange
+     * @return the exchange's spelling of every supported symbol, mapped to the symbol ID
+     */
+    public Map<String, String> getExchangeSymbols(DCESource source) {
+        Map<String, String> symbols = new HashMap<>();
+        index.getByExchangeSymbol().get(source).forEach((exchangeSymbol, info) -> symbols.put(exchangeSymbol, info.getSymbol()));
+
+        return Map.copyOf(symbols);
+    }
+
+    /**
+     * Reads the symbol definitions again and replaces the registry in one step. When the definitions cannot be
+     * read or are invalid the current registry is kept.
+     *
+     * @return the number of symbols now registered
+     * @throws IllegalStateException if the definitions are missing, unreadable or invalid
+     */
+    public synchronized int reload() {
+        List<SymbolDefinition> definitions;
+        try (InputStream in = resourceLoader.getResource(location).getInputStream()) {
+            definitions = objectMapper.readValue(in, new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read symbol definitions from " + location, e);
+        }
+
+        index = buildIndex(definitions);
+        log.info("Loaded {} symbols from {}", index.getSymbols().size(), location);
+
+        return index.getSymbols().size();
+    }
+
+    private Index buildIndex(List<SymbolDefinition> definitions) {
+        Map<String, SymbolInfo> bySymbol = new LinkedHashMap<>();
+        Map<String, SymbolInfo> byCurrencies = new HashMap<>();
+        Map<DCESource, Map<String, SymbolInfo>> byExchangeSymbol = new EnumMap<>(DCESource.class);
+        for (DCESource source : DCESource.values()) {
+            byExchangeSymbol.put(source, new HashMap<>());
+        }
+
+        for (SymbolDefinition definition : Objects.requireNonNullElse(definitions, List.<SymbolDefinition>of())) {
+            if (Objects.isNull(definition.getSymbol()) || Objects.isNull(definition.getBaseCurrency())
+                    || Objects.isNull(definition.getQuoteCurrency())) {
+                throw new IllegalStateException("Symbol definition needs symbol, baseCurrency and quoteCurrency: " + definition);
+            }
+
+            Map<DCESource, String> exchangeSymbols = new EnumMap<>(DCESource.class);
+            for (DCESource source : DCESource.values()) {
+                exchangeSymbols.put(source, definition.exchangeSymbol(source));
+            }
+            SymbolInfo info = new SymbolInfo(definition.getSymbol().intern(), definition.getBaseCurrency().intern(),
+                    definition.getQuoteCurrency().intern(), exchangeSymbols, definition.getTickSize(), definition.getLotSize());
+
+            if (Objects.nonNull(bySymbol.put(info.getSymbol(), info))) {
+                throw new IllegalStateException("Duplicate symbol definition: " + info.getSymbol());
+            }
+            for (DCESource source : DCESource.values()) {
+                SymbolInfo previous = byExchangeSymbol.get(source).put(info.exchangeSymbol(source), info);
+                if (Objects.nonNull(previous)) {
+                    throw new IllegalStateException("Duplicate " + source + " symbol " + info.exchangeSymbol(source)
+                            + ": " + previous.getSymbol() + " and " + info.getSymbol());
+                }
+            }
+            byCurrencies.putIfAbsent(info.getBaseCurrency() + "/" + info.getQuoteCurrency(), info);
+        }
+
+        byExchangeSymbol.replaceAll((source, symbols) -> Map.copyOf(symbols));
+
+        return new Index(List.copyOf(bySymbol.keySet()), Collections.unmodifiableMap(bySymbol), Map.copyOf(byCurrencies),
+                byExchangeSymbol);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Index {
+        private final List<String> symbols;
+        private final Map<String, SymbolInfo> bySymbol;
+        private final Map<String, SymbolInfo> byCurrencies;
+        private final Map<DCESource, Map<String, SymbolInfo>> byExchangeSymbol;
+    }
+}
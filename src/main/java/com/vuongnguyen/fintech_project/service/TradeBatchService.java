@@ -0,0 +1,208 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.TradeBatchItemResult;
+import com.vuongnguyen.fintech_project.dto.TradeBatchRequest;
+import com.vuongnguyen.fintech_project.dto.TradeBatchResponse;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.OptimisticLockRetryExhaustedException;
+import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Executes a list of trades submitted together. All trades are priced from one price snapshot taken when the batch
+ * starts. In per-item mode each user's trades share one transaction, a trade failing its checks is reported on its
+ * own and the user's other trades still execute. In all-or-nothing mode the whole batch is one transaction that
+ * rolls back on the first failure.
+ * <p>
+ * Wallet rows are locked once per transaction, all before the first trade is settled and in one fixed order, so
+ * concurrent batches over the same users never wait on each other in a cycle. All wallet updates and trade inserts
+ * are written with JDBC batches. Engines that keep wallets in memory execute the batch themselves instead, see {@link TradeEngine#executeBatch}.
+ */
+@Service
+@Slf4j
+public class TradeBatchService {
+
+    private final UserRepository userRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final TradeRepository tradeRepository;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SymbolRegistry symbolRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TradeEngine tradeEngine;
+
+    public TradeBatchService(UserRepository userRepository,
+                             WalletBalanceRepository walletBalanceRepository,
+                             TradeRepository tradeRepository,
+                             PriceSnapshotService priceSnapshotService,
+                             SymbolRegistry symbolRegistry,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             TradeEngine tradeEngine) {
+        this.userRepository = userRepository;
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.tradeRepository = tradeRepository;
+        this.priceSnapshotService = priceSnapshotService;
+        this.symbolRegistry = symbolRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.eventPublisher = eventPublisher;
+        this.tradeEngine = tradeEngine;
+    }
+
+    /**
+     * @param request the trades and the atomicity mode
+     * @return one result per trade, in request order
+     */
+    public TradeBatchResponse executeBatch(TradeBatchRequest request) {
+        List<TradeRequest> trades = request.getTrades();
+        log.info("Executing trade batch: trades={}, allOrNothing={}", trades.size(), request.isAllOrNothing());
+
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        TradeBatchItemResult[] results = new TradeBatchItemResult[trades.size()];
+
+        Optional<List<CompletableFuture<TradeResponse>>> executedByEngine =
+                tradeEngine.executeBatch(trades, snapshot::getQuote, request.isAllOrNothing());
+
+        if (executedByEngine.isPresent()) {
+            List<CompletableFuture<TradeResponse>> responses = executedByEngine.get();
+            for (int i = 0; i < results.length; i++) {
+                results[i] = result(i, responses.get(i));
+            }
+        } else if (request.isAllOrNothing()) {
+            List<Integer> indexes = new ArrayList<>(trades.size());
+            for (int i = 0; i < trades.size(); i++) {
+                indexes.add(i);
+            }
+            executeGroup(trades, indexes, snapshot, results, true);
+        } else {
+            Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+            for (int i = 0; i < trades.size(); i++) {
+                indexesByUser.computeIfAbsent(trades.get(i).getUserId(), userId -> new ArrayList<>()).add(i);
+            }
+            indexesByUser.values().forEach(indexes -> executeGroup(trades, indexes, snapshot, results, false));
+        }
+
+        int succeeded = (int) Arrays.stream(results).filter(TradeBatchItemResult::isSuccess).count();
+        log.info("Trade batch executed: succeeded={}, failed={}", succeeded, results.length - succeeded);
+
+        return new TradeBatchResponse(Arrays.asList(results), succeeded, results.length - succeeded);
+    }
+
+    /**
+     * Executes the trades at {@code indexes} in one transaction. If {@code stopOnFailure}, the first failing trade
+     * rolls back the transaction and every trade of the group is reported as failed.
+     */
+    private void executeGroup(List<TradeRequest> trades, List<Integer> indexes, PriceSnapshot snapshot,
+                              TradeBatchItemResult[] results, boolean stopOnFailure) {
+        Map<Integer, TradeResponse> executed = new LinkedHashMap<>();
+        int[] failedIndex = {-1};
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LockedWalletLedger ledger = new LockedWalletLedger(userRepository, walletBalanceRepository,
+                        tradeRepository, symbolRegistry, snapshot::getQuote, eventPublisher);
+                Map<String, TradeResponse> byClientOrderId = new HashMap<>();
+                ledger.lockWallets(indexes.stream().map(trades::get).toList());
+
+                for (int index : indexes) {
+                    try {
+                        executed.put(index, settle(trades.get(index), ledger, byClientOrderId));
+                    } catch (RuntimeException e) {
+                        if (stopOnFailure) {
+                            failedIndex[0] = index;
+                            throw e;
+                        }
+                        results[index] = TradeBatchItemResult.failed(index, errorMessage(e));
+                    }
+                }
+
+                ledger.write();
+            });
+        } catch (RuntimeException e) {
+            String error = errorMessage(e);
+            log.warn("Trade batch transaction rolled back for {} trades: {}", indexes.size(), error);
+            for (int index : indexes) {
+                if (Objects.isNull(results[index])) {
+                    boolean causedByOther = failedIndex[0] >= 0 && index != failedIndex[0];
+                    results[index] = TradeBatchItemResult.failed(index,
+                            causedByOther ? "Not executed: trade " + failedIndex[0] + " failed" : error);
+                }
+            }
+            return;
+        }
+
+        executed.forEach((index, response) -> results[index] = TradeBatchItemResult.executed(index, response));
+    }
+
+    private TradeBatchItemResult result(int index, CompletableFuture<TradeResponse> response) {
+        try {
+            return TradeBatchItemResult.executed(index, response.join());
+        } catch (CompletionException e) {
+            RuntimeException cause = e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            return TradeBatchItemResult.failed(index, errorMessage(cause));
+        }
+    }
+
+    private TradeResponse settle(TradeRequest request, LockedWalletLedger ledger, Map<String, TradeResponse> byClientOrderId) {
+        String clientOrderId = request.getClientOrderId();
+        if (Objects.isNull(clientOrderId)) {
+            return ledger.settle(request).response();
+        }
+
+        TradeResponse sameBatch = byClientOrderId.get(clientOrderId);
+        if (Objects.nonNull(sameBatch)) {
+            return sameBatch;
+        }
+
+        Optional<Trade> existingTrade = tradeRepository.findByClientOrderId(clientOrderId);
+        if (existingTrade.isPresent()) {
+            log.warn("Duplicate order detected for clientOrderId: {}", clientOrderId);
+            return new TradeResponse().toTradeResponse(existingTrade.get());
+        }
+
+        TradeResponse response = ledger.settle(request).response();
+        byClientOrderId.put(clientOrderId, response);
+
+        return response;
+    }
+
+    /**
+     * Reports business failures with their own message, like the single-trade endpoint does, and hides anything else.
+     */
+    private String errorMessage(RuntimeException e) {
+        if (e instanceof TradingException || e instanceof InsufficientBalanceException
+                || e instanceof PriceNotAvailableException || e instanceof ResourceNotFoundException
+                || e instanceof OptimisticLockRetryExhaustedException) {
+            return e.getMessage();
+        }
+
+        log.error("Unexpected error in trade batch: {}", e.getMessage(), e);
+        return "An internal server error occurred";
+    }
+}
@@ -0,0 +1,48 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Executes trade requests against the user's wallets. The active engine is chosen with
+ * {@code dce.trading.engine}; every engine applies the same checks and settlement rules.
+ */
+public interface TradeEngine {
+
+    /**
+     * Executes one trade and waits for it to be persisted.
+     *
+     * @param request the trade request
+     * @return the executed trade with the wallet balances right after it
+     * @throws com.vuongnguyen.fintech_project.exception.ResourceNotFoundException if the user does not exist
+     * @throws com.vuongnguyen.fintech_project.exception.PriceNotAvailableException if the symbol has no price yet
+     * @throws com.vuongnguyen.fintech_project.exception.InsufficientBalanceException if the paying wallet is short
+     * @throws com.vuongnguyen.fintech_project.exception.TradingException for unsupported symbols or missing wallets
+     */
+    TradeResponse execute(TradeRequest request);
+
+    /**
+     * Executes trades submitted together, each priced with {@code prices}, and waits for them. With
+     * {@code allOrNothing} either every trade executes or every result fails.
+     * <p>
+     * Engines that write wallets through the database under row locks or guarded updates return empty and leave the
+     * batch to {@link TradeBatchService}. An engine that keeps wallets in memory executes batches itself, so that no
+     * other writer changes its users' wallets behind its back.
+     *
+     * @param trades the trades, in request order
+     * @param prices the price lookup shared by every trade of the batch
+     * @param allOrNothing whether the trades must execute together
+     * @return one completed result per trade, in request order, or empty if the caller should execute the batch
+     */
+    default Optional<List<CompletableFuture<TradeResponse>>> executeBatch(List<TradeRequest> trades,
+                                                                          Function<String, Optional<PriceQuote>> prices,
+                                                                          boolean allOrNothing) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,198 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
+import com.vuongnguyen.fintech_project.enums.TradeExportFormat;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a user's whole trade history as NDJSON or CSV. Trades are read through a forward-only JDBC cursor
+ * fetching {@code dce.trading.export.fetch-size} rows per round trip and each row is written to the response as
+ * soon as it is read, so heap use stays flat whatever the size of the history.
+ * <p>
+ * Metrics: {@code dce.trading.export.rows} counts exported rows (its rate is the export throughput in rows per
+ * second) and {@code dce.trading.export} times whole exports; both are tagged with {@code format}.
+ */
+@Service
+@Slf4j
+public class TradeExportService {
+
+    static final String CSV_HEADER = "tradeId,symbol,side,price,quantity,totalAmount,createdAt,clientOrderId";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final TradeRepository tradeRepository;
+    private final UserRepository userRepository;
+    private final int fetchSize;
+    private final Map<TradeExportFormat, Counter> rowCounters = new EnumMap<>(TradeExportFormat.class);
+    private final Map<TradeExportFormat, Timer> exportTimers = new EnumMap<>(TradeExportFormat.class);
+
+    public TradeExportService(TradeRepository tradeRepository,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${dce.trading.export.fetch-size:500}") int fetchSize) {
+        this.tradeRepository = tradeRepository;
+        this.userRepository = userRepository;
+        this.fetchSize = Math.max(1, fetchSize);
+        for (TradeExportFormat format : TradeExportFormat.values()) {
+            String tag = format.getFileExtension();
+            rowCounters.put(format, meterRegistry.counter("dce.trading.export.rows", "format", tag));
+            exportTimers.put(format, meterRegistry.timer("dce.trading.export", "format", tag));
+        }
+    }
+
+    /**
+     * Checks the user up front, while an error can still become a normal error response, and returns the body
+     * that streams the trades once the response has started.
+     *
+     * @param userId the user
+     * @param symbol only trades of this symbol, or {@code null} for all symbols
+     * @param format the output format
+     * @return the response body writing the trades, newest first
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public StreamingResponseBody exportTradeHistory(Long userId, String symbol, TradeExportFormat format) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+
+        return outputStream -> writeTradeHistory(userId, symbol, format, outputStream);
+    }
+
+    /**
+     * Writes the user's trades to {@code outputStream} in {@code format}. The stream is flushed but not closed.
+     *
+     * @return the number of trades written
+     */
+    long writeTradeHistory(Long userId, String symbol, TradeExportFormat format, OutputStream outputStream)
+            throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows;
+
+        try {
+            if (format == TradeExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                rows = tradeRepository.forEachTrade(userId, symbol, fetchSize, trade -> writeCsv(writer, trade));
+            } else {
+                JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+                rows = tradeRepository.forEachTrade(userId, symbol, fetchSize, trade -> writeJson(generator, trade));
+                generator.flush();
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            log.warn("Trade export aborted: userId={}, format={}, error={}", userId, format, e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        rowCounters.get(format).increment(rows);
+        exportTimers.get(format).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Exported trade history: userId={}, symbol={}, format={}, rows={}, rowsPerSecond={}",
+                userId, symbol, format, rows, elapsedNanos == 0 ? rows : rows * 1_000_000_000L / elapsedNanos);
+
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator generator, TradeHistoryItem trade) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("tradeId", trade.getTradeId());
+            generator.writeStringField("symbol", trade.getSymbol());
+            generator.writeStringField("side", trade.getSide().name());
+            writeNumberField(generator, "price", trade.getPrice());
+            writeNumberField(generator, "quantity", trade.getQuantity());
+            writeNumberField(generator, "totalAmount", trade.getTotalAmount());
+            generator.writeStringField("createdAt", format(trade.getCreatedAt()));
+            generator.writeStringField("clientOrderId", trade.getClientOrderId());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        generator.writeFieldName(name);
+        if (Objects.isNull(value)) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeCsv(Writer writer, TradeHistoryItem trade) {
+        try {
+            writer.write(String.valueOf(trade.getTradeId()));
+            writer.write(',');
+            writer.write(csvField(trade.getSymbol()));
+            writer.write(',');
+            writer.write(trade.getSide().name());
+            writer.write(',');
+            writer.write(plain(trade.getPrice()));
+            writer.write(',');
+            writer.write(plain(trade.getQuantity()));
+            writer.write(',');
+            writer.write(plain(trade.getTotalAmount()));
+            writer.write(',');
+            writer.write(Objects.isNull(trade.getCreatedAt()) ? "" : format(trade.getCreatedAt()));
+            writer.write(',');
+            writer.write(csvField(trade.getClientOrderId()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quotes a field that contains a separator, a quote or a line break, doubling any quotes inside it.
+     */
+    static String csvField(String value) {
+        if (Objects.isNull(value)) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String plain(BigDecimal value) {
+        return Objects.isNull(value) ? "" : value.toPlainString();
+    }
+
+    private static String format(LocalDateTime value) {
+        return Objects.isNull(value) ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+}
@@ -0,0 +1,60 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeDetails;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+
+/**
+ * Applies the two wallet legs of a trade in memory. Shared by the trade engines so every engine checks and
+ * moves balances the same way; persisting the balances is up to the caller.
+ */
+final class TradeSettlement {
+
+    private TradeSettlement() {
+    }
+
+    /**
+     * Checks the paying wallet and moves the trade amount between the quote and asset wallets.
+     * Neither wallet is changed when the check fails.
+     *
+     * @param side the trade side
+     * @param quoteBalance the user's quote currency wallet, e.g. USDT
+     * @param assetBalance the user's asset wallet
+     * @param tradeDetails the price and total amount of the trade
+     * @param quantity the quantity of asset traded
+     * @throws InsufficientBalanceException if the paying wallet does not cover the trade
+     */
+    static void settle(TradeSide side, WalletBalance quoteBalance, WalletBalance assetBalance,
+                       TradeDetails tradeDetails, BigDecimal quantity) {
+        if (TradeSide.BUY.equals(side)) {
+            settleBuy(quoteBalance, assetBalance, tradeDetails, quantity);
+        } else {
+            settleSell(quoteBalance, assetBalance, tradeDetails, quantity);
+        }
+    }
+
+    private static void settleBuy(WalletBalance quoteBalance, WalletBalance assetBalance,
+                                  TradeDetails tradeDetails, BigDecimal quantity) {
+        if (quoteBalance.getBalance().compareTo(tradeDetails.getTotalAmount()) < 0) {
+            throw new InsufficientBalanceException(String.format("Insufficient %s balance. Required: %s, Available: %s",
+                    quoteBalance.getCurrency(), tradeDetails.getTotalAmount(), quoteBalance.getBalance()));
+        }
+
+        quoteBalance.setBalance(quoteBalance.getBalance().subtract(tradeDetails.getTotalAmount()));
+        assetBalance.setBalance(assetBalance.getBalance().add(quantity));
+    }
+
+    private static void settleSell(WalletBalance quoteBalance, WalletBalance assetBalance,
+                                   TradeDetails tradeDetails, BigDecimal quantity) {
+        if (assetBalance.getBalance().compareTo(quantity) < 0) {
+            throw new InsufficientBalanceException(String.format("Insufficient %s balance. Required: %s, Available: %s",
+                    assetBalance.getCurrency(), quantity, assetBalance.getBalance()));
+        }
+
+        assetBalance.setBalance(assetBalance.getBalance().subtract(quantity));
+        quoteBalance.setBalance(quoteBalance.getBalance().add(tradeDetails.getTotalAmount()));
+    }
+}
@@ -1,27 +1,31 @@
 package com.vuongnguyen.fintech_project.service;
 
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
 import com.vuongnguyen.fintech_project.dto.TradeDetails;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryCursorResponse;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
 import com.vuongnguyen.fintech_project.dto.TradeRequest;
 import com.vuongnguyen.fintech_project.dto.TradeResponse;
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
 import com.vuongnguyen.fintech_project.entity.Trade;
 import com.vuongnguyen.fintech_project.entity.User;
 import com.vuongnguyen.fintech_project.entity.WalletBalance;
-import com.vuongnguyen.fintech_project.enums.TradeSide;
 import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
 import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
 import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
 import com.vuongnguyen.fintech_project.exception.TradingException;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
 import com.vuongnguyen.fintech_project.repository.TradeRepository;
 import com.vuongnguyen.fintech_project.repository.UserRepository;
 import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import com.vuongnguyen.fintech_project.utility.TradeCursor;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,12 +34,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
-import static com.vuongnguyen.fintech_project.utility.Constant.BASE_CURRENCY;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -43,8 +45,10 @@ public class TradingService {
 
     private final UserRepository userRepository;
     private final WalletBalanceRepository walletBalanceRepository;
-    private final AggregatedPriceRepository aggregatedPriceRepository;
+    private final PriceSnapshotService priceSnapshotService;
     private final TradeRepository tradeRepository;
+    private final SymbolRegistry symbolRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Executes a user trading request with optimistic locking and retry mechanism.
@@ -76,7 +80,7 @@ public class TradingService {
             User user = userRepository.findById(request.getUserId())
                     .orElseThrow(() -> new ResourceNotFoundException("User not found: " + request.getUserId()));
 
-            AggregatedPrice latestPrice = aggregatedPriceRepository.findLatestBySymbol(request.getSymbol())
+            PriceQuote latestPrice = priceSnapshotService.getLatestQuote(request.getSymbol())
                     .orElseThrow(() -> new PriceNotAvailableException("No price data available for symbol: " + request.getSymbol()));
 
             TradeDetails tradeDetails = new TradeDetails().toTradeDetails(request.getSide(), request.getQuantity(), latestPrice);
@@ -101,25 +105,24 @@ public class TradingService {
      * @param request the trade request containing symbol, side, quantity, and client order ID
      * @param tradeDetails the calculated trade details including price and total amount
      * @return the {@link TradeResponse} containing the executed trade and updated wallet balances
-     * @throws TradingException if wallet balances are not found for the user
+     * @throws TradingException if the symbol is not supported or wallet balances are not found for the user
      * @throws InsufficientBalanceException if the user has insufficient funds for the trade
      */
     private TradeResponse executeTrade(User user, TradeRequest request, TradeDetails tradeDetails) {
-        String assetCurrency = request.getSymbol().replace(BASE_CURRENCY, "");
+        SymbolInfo symbolInfo = symbolRegistry.find(request.getSymbol())
+                .orElseThrow(() -> new TradingException("Unsupported symbol: " + request.getSymbol()));
+        String assetCurrency = symbolInfo.getBaseCurrency();
+        String quoteCurrency = symbolInfo.getQuoteCurrency();
 
         WalletBalance usdtBalance = walletBalanceRepository
-                .findByUserIdAndCurrencyWithLock(user.getId(), BASE_CURRENCY)
-                .orElseThrow(() -> new TradingException(BASE_CURRENCY + "wallet not found for user: " + user.getId()));
+                .findByUserIdAndCurrencyWithLock(user.getId(), quoteCurrency)
+                .orElseThrow(() -> new TradingException(quoteCurrency + " wallet not found for user: " + user.getId()));
 
         WalletBalance assetBalance = walletBalanceRepository
                 .findByUserIdAndCurrencyWithLock(user.getId(), assetCurrency)
                 .orElseThrow(() -> new TradingException(assetCurrency + " wallet not found for user: " + user.getId()));
 
-        if (TradeSide.BUY.equals(request.getSide())) {
-            validateAndExecuteBuyOrder(usdtBalance, assetBalance, tradeDetails, request.getQuantity());
-        } else {
-            validateAndExecuteSellOrder(usdtBalance, assetBalance, tradeDetails, request.getQuantity());
-        }
+        TradeSettlement.settle(request.getSide(), usdtBalance, assetBalance, tradeDetails, request.getQuantity());
 
         walletBalanceRepository.saveAll(List.of(usdtBalance, assetBalance));
 
@@ -130,47 +133,10 @@ public class TradingService {
                 savedTrade.getId(), user.getId(), request.getSymbol(), request.getSide(),
                 tradeDetails.getPrice(), request.getQuantity(), tradeDetails.getTotalAmount());
 
-        return new TradeResponse().toTradeResponse(savedTrade, usdtBalance, assetBalance, assetCurrency);
-    }
-
-    /**
-     * Validates and executes a buy order by checking USDT balance and updating wallet balances.
-     *
-     * @param usdtBalance the user's USDT wallet balance
-     * @param assetBalance the user's asset wallet balance
-     * @param tradeDetails the calculated trade details including total amount
-     * @param quantity the quantity of asset to buy
-     * @throws InsufficientBalanceException if USDT balance is insufficient for the trade
-     */
-    private void validateAndExecuteBuyOrder(WalletBalance usdtBalance, WalletBalance assetBalance,
-                                            TradeDetails tradeDetails, BigDecimal quantity) {
-        if (usdtBalance.getBalance().compareTo(tradeDetails.getTotalAmount()) < 0) {
-            throw new InsufficientBalanceException(String.format("Insufficient USDT balance. Required: %s, Available: %s",
-                    tradeDetails.getTotalAmount(), usdtBalance.getBalance()));
-        }
-
-        usdtBalance.setBalance(usdtBalance.getBalance().subtract(tradeDetails.getTotalAmount()));
-        assetBalance.setBalance(assetBalance.getBalance().add(quantity));
-    }
-
-    /**
-     * Validates and executes a sell order by checking asset balance and updating wallet balances.
-     *
-     * @param usdtBalance the user's USDT wallet balance
-     * @param assetBalance the user's asset wallet balance
-     * @param tradeDetails the calculated trade details including total amount
-     * @param quantity the quantity of asset to sell
-     * @throws InsufficientBalanceException if asset balance is insufficient for the trade
-     */
-    private void validateAndExecuteSellOrder(WalletBalance usdtBalance, WalletBalance assetBalance,
-                                             TradeDetails tradeDetails, BigDecimal quantity) {
-        if (assetBalance.getBalance().compareTo(quantity) < 0) {
-            throw new InsufficientBalanceException(String.format("Insufficient %s balance. Required: %s, Available: %s",
-                    assetBalance.getCurrency(), quantity, assetBalance.getBalance()));
-        }
+        TradeResponse response = new TradeResponse().toTradeResponse(savedTrade, usdtBalance, assetBalance, assetCurrency);
+        eventPublisher.publishEvent(new TradeExecutedEvent(response));
 
-        assetBalance.setBalance(assetBalance.getBalance().subtract(quantity));
-        usdtBalance.setBalance(usdtBalance.getBalance().add(tradeDetails.getTotalAmount()));
+        return response;
     }
 
     public TradeHistoryResponse getUserTradeHistory(Long userId, int page, int size, String symbol) {
@@ -189,4 +155,42 @@ public class TradingService {
         return new TradeHistoryResponse(tradeHistoryItems, trades.getNumber(), trades.getTotalPages(),
                 trades.getTotalElements(), trades.getSize());
     }
+
+    /**
+     * Returns a page of the user's trades, newest first, positioned by a cursor instead of a page number. Seeks
+     * straight to the cursor on the {@code (user_id, created_at, id)} index and runs no count query, so every page
+     * costs the same however deep it is.
+     *
+     * @param userId the user ID
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @param size the maximum number of trades to return
+     * @param symbol optional symbol filter
+     * @return the trades and the cursor of the next page, which is null on the last page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public TradeHistoryCursorResponse getUserTradeHistoryByCursor(Long userId, String cursor, int size, String symbol) {
+        log.debug("Fetching trade history for user: {}, cursor: {}, size: {}, symbol: {}", userId, cursor, size, symbol);
+
+        boolean bySymbol = symbol != null && !symbol.isEmpty();
+        Limit limit = Limit.of(size + 1);
+        List<Trade> trades;
+        if (Objects.isNull(cursor)) {
+            trades = bySymbol ? tradeRepository.findFirstPageBySymbol(userId, symbol, limit)
+                    : tradeRepository.findFirstPage(userId, limit);
+        } else {
+            TradeCursor position = TradeCursor.decode(cursor);
+            trades = bySymbol ? tradeRepository.findPageAfterBySymbol(userId, symbol, position.createdAt(), position.id(), limit)
+                    : tradeRepository.findPageAfter(userId, position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = trades.size() > size;
+        List<Trade> page = hasMore ? trades.subList(0, size) : trades;
+        String nextCursor = hasMore ? TradeCursor.after(page.get(page.size() - 1)).encode() : null;
+
+        List<TradeHistoryItem> tradeHistoryItems = page.stream()
+                .map(trade -> new TradeHistoryItem().toTradeHistoryItem(trade))
+                .toList();
+
+        return new TradeHistoryCursorResponse(tradeHistoryItems, nextCursor, hasMore, size);
+    }
 }
@@ -0,0 +1,196 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user Server-Sent Events streams of executed trades. Every trade engine publishes a
+ * {@link TradeExecutedEvent} inside the transaction that writes the trade, and it is delivered here only after
+ * that transaction commits, so a rolled-back trade is never sent. Each event carries the trade and the user's
+ * quote and asset wallet balances right after it, so clients need not re-read their history or wallets.
+ * <p>
+ * An idle stream costs an async request and a small entry in a map keyed by user ID: no thread, timer or buffer
+ * of its own. Writes run on the user stream pool, at most one per subscriber at a time. Trades cannot be
+ * conflated like prices, so a subscriber that falls {@code dce.user-stream.max-pending} events behind is
+ * disconnected and reloads its state when it reconnects. Heartbeats keep proxies from closing idle streams and
+ * let dead connections be found and dropped.
+ * <p>
+ * Metrics: {@code dce.user-stream.subscribers}, {@code dce.user-stream.sent} (trade events written) and
+ * {@code dce.user-stream.overflows} (subscribers disconnected for falling behind).
+ */
+@Service
+@Slf4j
+public class UserStreamService {
+
+    static final String EVENT_NAME = "trade";
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final UserRepository userRepository;
+    private final Executor userStreamExecutor;
+    private final Counter eventsSent;
+    private final Counter overflows;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${dce.user-stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${dce.user-stream.max-pending:256}")
+    private int maxPending;
+
+    public UserStreamService(UserRepository userRepository,
+                             @Qualifier("userStreamExecutor") Executor userStreamExecutor,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userStreamExecutor = userStreamExecutor;
+        this.eventsSent = meterRegistry.counter("dce.user-stream.sent");
+        this.overflows = meterRegistry.counter("dce.user-stream.overflows");
+        meterRegistry.gauge("dce.user-stream.subscribers", subscriberCount);
+    }
+
+    /**
+     * Opens a stream of the user's executed trades.
+     *
+     * @param userId the user
+     * @return the emitter to return from the controller
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+
+        return register(new SseEmitter(timeout.toMillis()), userId);
+    }
+
+    /**
+     * Queues a committed trade for every stream of its user.
+     *
+     * @param event the executed trade
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTradeExecuted(TradeExecutedEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.getTrade().getUserId());
+        if (Objects.isNull(userSubscribers)) {
+            return;
+        }
+
+        userSubscribers.forEach(subscriber -> subscriber.offer(event.getTrade()));
+    }
+
+    /**
+     * Queues a heartbeat comment for every stream with nothing else pending.
+     */
+    public void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.pending.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }));
+    }
+
+    SseEmitter register(SseEmitter emitter, Long userId) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        subscribers.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        log.debug("User {} subscribed to trade events, {} subscribers", userId, subscriberCount.get());
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            if (userSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Object event) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                log.warn("Trade stream of user {} fell {} events behind, disconnecting it", userId, maxPending);
+                overflows.increment();
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                userStreamExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Writes the pending events in order. Only one drain of a subscriber runs at a time; events offered while
+         * it runs are written by the drain it schedules when it finishes.
+         */
+        private void drain() {
+            try {
+                Object event;
+                while (Objects.nonNull(event = pending.poll())) {
+                    pendingCount.decrementAndGet();
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(EVENT_NAME).data((TradeResponse) event, MediaType.APPLICATION_JSON));
+                        eventsSent.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Trade stream of user {} disconnected: {}", userId, e.getMessage());
+                unsubscribe(this);
+                pending.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                userStreamExecutor.execute(this::drain);
+            }
+        }
+    }
+}
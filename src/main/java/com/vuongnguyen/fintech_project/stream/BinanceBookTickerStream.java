@@ -0,0 +1,77 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Binance {@code <symbol>@bookTicker} stream. Subscriptions are sent with the {@code SUBSCRIBE} method,
+ * so every reconnect re-subscribes on the fresh connection.
+ */
+public class BinanceBookTickerStream extends ExchangeStreamClient {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Binance symbol to symbol ID.
+     */
+    private final Map<String, String> symbols;
+
+    public BinanceBookTickerStream(URI uri, HttpClient httpClient, ScheduledExecutorService scheduler,
+                                   Consumer<PriceData> sink, Map<String, String> symbols, Duration initialBackoff,
+                                   Duration maxBackoff, Duration staleAfter) {
+        super(DCESource.BINANCE, uri, httpClient, scheduler, sink, initialBackoff, maxBackoff, staleAfter);
+        this.symbols = Map.copyOf(symbols);
+    }
+
+    @Override
+    protected List<String> subscribeMessages() {
+        String streams = symbols.keySet().stream()
+                .sorted()
+                .map(symbol -> "\"" + symbol.toLowerCase(Locale.ROOT) + "@bookTicker\"")
+                .collect(Collectors.joining(","));
+
+        return List.of("{\"method\":\"SUBSCRIBE\",\"params\":[" + streams + "],\"id\":1}");
+    }
+
+    /**
+     * Decodes a book ticker update: {@code {"u":400900217,"s":"BNBUSDT","b":"25.35","B":"31.21","a":"25.36","A":"40.66"}}.
+     * Subscription acknowledgements and updates for other symbols are ignored.
+     */
+    @Override
+    protected void handleText(String message) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        JsonNode data = node.has("data") ? node.get("data") : node;
+        if (!data.hasNonNull("s") || !data.hasNonNull("b") || !data.hasNonNull("a")) {
+            return;
+        }
+
+        String symbol = symbols.get(data.get("s").asText());
+        if (Objects.isNull(symbol)) {
+            return;
+        }
+
+        publish(new PriceData(symbol, FixedPoint.parse(data.get("b").asText()), FixedPoint.parse(data.get("a").asText()),
+                DCESource.BINANCE));
+    }
+}
@@ -0,0 +1,278 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Persistent WebSocket connection to one exchange market data stream.
+ * Subclasses supply the subscription messages and decode incoming frames into {@link PriceData}.
+ * The connection is re-established with exponential backoff whenever it drops, errors or goes silent
+ * for longer than the stale threshold, and every subscription is sent again on each new connection.
+ */
+@Slf4j
+public abstract class ExchangeStreamClient implements WebSocket.Listener {
+
+    private final DCESource source;
+    private final URI uri;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<PriceData> sink;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+
+    private final StringBuilder textBuffer = new StringBuilder();
+    private final ByteArrayOutputStream binaryBuffer = new ByteArrayOutputStream();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile WebSocket webSocket;
+    private volatile long lastMessageNanos;
+    private Duration nextBackoff;
+    private ScheduledFuture<?> reconnectTask;
+    private ScheduledFuture<?> staleCheckTask;
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+
+    /**
+     * What every stream client shares: the WebSocket client, the scheduler for reconnects and stale checks, where
+     * decoded quotes go and the reconnect and staleness settings.
+     */
+    public record Settings(HttpClient httpClient, ScheduledExecutorService scheduler, Consumer<PriceData> sink,
+                           Duration initialBackoff, Duration maxBackoff, Duration staleAfter) {
+    }
+
+    protected ExchangeStreamClient(DCESource source, URI uri, HttpClient httpClient, ScheduledExecutorService scheduler,
+                                   Consumer<PriceData> sink, Duration initialBackoff, Duration maxBackoff,
+                                   Duration staleAfter) {
+        this.source = source;
+        this.uri = uri;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.sink = sink;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.staleAfter = staleAfter;
+        this.nextBackoff = initialBackoff;
+    }
+
+    /**
+     * Messages sent right after every successful connect to (re)subscribe to the streams of interest.
+     */
+    protected abstract List<String> subscribeMessages();
+
+    /**
+     * Handles one complete text message.
+     */
+    protected abstract void handleText(String message);
+
+    /**
+     * Handles one complete binary message. Text-only streams can keep the default, which ignores it.
+     */
+    protected void handleBinary(byte[] message) {
+        log.debug("Ignoring binary message of {} bytes from {} stream", message.length, source);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        long checkMillis = Math.max(1, staleAfter.toMillis() / 2);
+        staleCheckTask = scheduler.scheduleWithFixedDelay(this::checkStale, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        connect();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (Objects.nonNull(reconnectTask)) {
+            reconnectTask.cancel(false);
+        }
+        if (Objects.nonNull(staleCheckTask)) {
+            staleCheckTask.cancel(false);
+        }
+        WebSocket current = webSocket;
+        webSocket = null;
+        if (Objects.nonNull(current)) {
+            current.abort();
+        }
+    }
+
+    public DCESource getSource() {
+        return source;
+    }
+
+    /**
+     * @return true if the connection is open and has delivered a message within the stale threshold
+     */
+    public boolean isLive() {
+        return Objects.nonNull(webSocket) && System.nanoTime() - lastMessageNanos < staleAfter.toNanos();
+    }
+
+    public long getConnectCount() {
+        return connects.get();
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    protected void publish(PriceData priceData) {
+        sink.accept(priceData);
+    }
+
+    /**
+     * Sends a text message on the current connection. Sends are chained because a WebSocket allows
+     * only one outstanding send at a time.
+     */
+    protected synchronized void send(String message) {
+        WebSocket current = webSocket;
+        if (Objects.isNull(current)) {
+            return;
+        }
+        sendChain = sendChain
+                .exceptionally(ex -> null)
+                .thenCompose(previous -> current.sendText(message, true));
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        log.info("Connecting to {} market data stream at {}", source, uri);
+
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, this)
+                .whenComplete((ws, ex) -> {
+                    if (Objects.nonNull(ex)) {
+                        log.warn("Failed to connect to {} market data stream: {}", source, ex.getMessage());
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private synchronized void scheduleReconnect() {
+        if (!running || (Objects.nonNull(reconnectTask) && !reconnectTask.isDone())) {
+            return;
+        }
+        Duration delay = nextBackoff;
+        nextBackoff = nextBackoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : nextBackoff.multipliedBy(2);
+
+        log.info("Reconnecting to {} market data stream in {} ms", source, delay.toMillis());
+        reconnectTask = scheduler.schedule(this::connect, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void checkStale() {
+        WebSocket current = webSocket;
+        if (running && Objects.nonNull(current) && System.nanoTime() - lastMessageNanos > staleAfter.toNanos()) {
+            log.warn("{} market data stream silent for more than {} ms, reconnecting", source, staleAfter.toMillis());
+            dropConnection(current);
+        }
+    }
+
+    private void dropConnection(WebSocket closed) {
+        synchronized (this) {
+            if (webSocket != closed) {
+                return;
+            }
+            webSocket = null;
+        }
+        closed.abort();
+        scheduleReconnect();
+    }
+
+    @Override
+    public void onOpen(WebSocket ws) {
+        synchronized (this) {
+            if (!running) {
+                ws.abort();
+                return;
+            }
+            webSocket = ws;
+            nextBackoff = initialBackoff;
+            lastMessageNanos = System.nanoTime();
+            sendChain = CompletableFuture.completedFuture(ws);
+            textBuffer.setLength(0);
+            binaryBuffer.reset();
+        }
+        connects.incrementAndGet();
+        log.info("Connected to {} market data stream", source);
+
+        subscribeMessages().forEach(this::send);
+        ws.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+        textBuffer.append(data);
+        if (last) {
+            String message = textBuffer.toString();
+            textBuffer.setLength(0);
+            onMessage(() -> handleText(message));
+        }
+        ws.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        binaryBuffer.write(chunk, 0, chunk.length);
+        if (last) {
+            byte[] message = binaryBuffer.toByteArray();
+            binaryBuffer.reset();
+            onMessage(() -> handleBinary(message));
+        }
+        ws.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onPing(WebSocket ws, ByteBuffer message) {
+        lastMessageNanos = System.nanoTime();
+        ws.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+        log.warn("{} market data stream closed: {} {}", source, statusCode, reason);
+        dropConnection(ws);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket ws, Throwable error) {
+        log.warn("{} market data stream error: {}", source, error.getMessage());
+        dropConnection(ws);
+    }
+
+    private void onMessage(Runnable handler) {
+        lastMessageNanos = System.nanoTime();
+        messages.incrementAndGet();
+        try {
+            handler.run();
+        } catch (Exception e) {
+            log.warn("Failed to handle {} market data message: {}", source, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Huobi {@code market.$symbol.bbo} stream. Huobi sends every message as a gzip-compressed binary frame
+ * and expects each {@code {"ping": ts}} heartbeat to be answered with {@code {"pong": ts}}.
+ */
+@Slf4j
+public class HuobiBboStream extends ExchangeStreamClient {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    /**
+     * Huobi symbol to symbol ID.
+     */
+    private final Map<String, String> symbols;
+
+    public HuobiBboStream(URI uri, HttpClient httpClient, ScheduledExecutorService scheduler,
+                          Consumer<PriceData> sink, Map<String, String> symbols, Duration initialBackoff,
+                          Duration maxBackoff, Duration staleAfter) {
+        super(DCESource.HUOBI, uri, httpClient, scheduler, sink, initialBackoff, maxBackoff, staleAfter);
+        this.symbols = Map.copyOf(symbols);
+    }
+
+    @Override
+    protected List<String> subscribeMessages() {
+        return symbols.keySet().stream()
+                .sorted()
+                .map(symbol -> String.format("{\"sub\":\"market.%s.bbo\",\"id\":\"%s\"}", symbol, symbol))
+                .toList();
+    }
+
+    @Override
+    protected void handleBinary(byte[] message) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(message))) {
+            handleMessage(objectMapper.readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void handleText(String message) {
+        try {
+            handleMessage(objectMapper.readTree(message));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Answers heartbeats and decodes best bid/offer updates:
+     * {@code {"ch":"market.btcusdt.bbo","ts":..,"tick":{"symbol":"btcusdt","bid":..,"ask":..}}}.
+     */
+    private void handleMessage(JsonNode node) {
+        if (node.has("ping")) {
+            send("{\"pong\":" + node.get("ping").asLong() + "}");
+            return;
+        }
+
+        if (node.has("status") && !"ok".equals(node.get("status").asText())) {
+            log.warn("Huobi stream rejected request: {}", node);
+            return;
+        }
+
+        JsonNode tick = node.get("tick");
+        if (tick == null || !tick.hasNonNull("symbol") || !tick.hasNonNull("bid") || !tick.hasNonNull("ask")) {
+            return;
+        }
+
+        String symbol = symbols.get(tick.get("symbol").asText());
+        if (Objects.isNull(symbol)) {
+            return;
+        }
+
+        publish(new PriceData(symbol, tick.get("bid").decimalValue(), tick.get("ask").decimalValue(), DCESource.HUOBI));
+    }
+}
@@ -0,0 +1,143 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
+import com.vuongnguyen.fintech_project.dto.SymbolsReloadedEvent;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.service.MarketDataSource;
+import com.vuongnguyen.fintech_project.service.PriceAggregationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Owns the persistent exchange WebSocket connections when streaming ingestion is enabled. Every enabled
+ * {@link MarketDataSource} with a {@code dce.market-data.sources.<source>.stream-url} contributes its own client.
+ * Every decoded quote is handed straight to {@link PriceAggregationService#onPriceUpdate}; the scheduled
+ * REST poll keeps running and covers any exchange whose stream is down or stale.
+ * <p>
+ * Clients copy their subscriptions from the {@link com.vuongnguyen.fintech_project.service.SymbolRegistry} when they
+ * are created, so a {@link SymbolsReloadedEvent} replaces them with clients subscribed to the reloaded symbols.
+ */
+@Component
+@ConditionalOnProperty(name = "dce.stream.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataStreamManager {
+
+    private final PriceAggregationService priceAggregationService;
+    private final List<MarketDataSource> marketDataSources;
+    private final MarketDataSourceProperties marketDataSourceProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${dce.stream.stale-after:30s}")
+    private Duration staleAfter;
+
+    @Value("${dce.stream.reconnect.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${dce.stream.reconnect.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    private final List<ExchangeStreamClient> clients = new ArrayList<>();
+    private final List<Meter> meters = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private ExchangeStreamClient.Settings settings;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!clients.isEmpty()) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "market-data-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        settings = new ExchangeStreamClient.Settings(HttpClient.newHttpClient(), scheduler,
+                priceAggregationService::onPriceUpdate, initialBackoff, maxBackoff, staleAfter);
+
+        startClients();
+        log.info("Started market data streams for {}", clients.stream().map(ExchangeStreamClient::getSource).toList());
+    }
+
+    /**
+     * Replaces the running clients with ones subscribed to the reloaded symbols. Quotes keep arriving through the
+     * REST poll while the new connections are opened.
+     */
+    @EventListener(SymbolsReloadedEvent.class)
+    public synchronized void restart() {
+        if (Objects.isNull(settings) || scheduler.isShutdown()) {
+            return;
+        }
+
+        stopClients();
+        startClients();
+        log.info("Restarted market data streams for {} after the symbols were reloaded",
+                clients.stream().map(ExchangeStreamClient::getSource).toList());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        stopClients();
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isLive(DCESource source) {
+        return clients.stream().anyMatch(client -> client.getSource() == source && client.isLive());
+    }
+
+    private void startClients() {
+        for (MarketDataSource source : marketDataSources) {
+            MarketDataSourceProperties.Source properties = marketDataSourceProperties.forSource(source.getSource());
+            if (properties.isEnabled() && Objects.nonNull(properties.getStreamUrl())) {
+                source.createStreamClient(URI.create(properties.getStreamUrl()), settings).ifPresent(clients::add);
+            }
+        }
+
+        for (ExchangeStreamClient client : clients) {
+            String exchange = client.getSource().name();
+            meters.add(FunctionCounter.builder("dce.stream.connects", client, ExchangeStreamClient::getConnectCount)
+                    .tag("exchange", exchange)
+                    .register(meterRegistry));
+            meters.add(FunctionCounter.builder("dce.stream.messages", client, ExchangeStreamClient::getMessageCount)
+                    .tag("exchange", exchange)
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("dce.stream.live", client, c -> c.isLive() ? 1 : 0)
+                    .tag("exchange", exchange)
+                    .register(meterRegistry));
+            client.start();
+        }
+    }
+
+    /**
+     * Stops the clients and removes their meters, which would otherwise keep reporting the stopped clients in place
+     * of their replacements.
+     */
+    private void stopClients() {
+        clients.forEach(ExchangeStreamClient::stop);
+        clients.clear();
+        meters.forEach(meterRegistry::remove);
+        meters.clear();
+    }
+}
@@ -1,11 +0,0 @@
-package com.vuongnguyen.fintech_project.utility;
-
-import java.util.Arrays;
-import java.util.List;
-
-public class Constant {
-
-    public static final List<String> SUPPORTED_SYMBOLS = Arrays.asList("ETHUSDT", "BTCUSDT");
-
-    public static final String BASE_CURRENCY = "USDT";
-}
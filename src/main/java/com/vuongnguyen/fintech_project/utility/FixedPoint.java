@@ -0,0 +1,115 @@
+package com.vuongnguyen.fintech_project.utility;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Prices as {@code long} values scaled by 10^8, the same scale as the {@code precision = 20, scale = 8}
+ * price columns. Ingestion and aggregation work on these values and convert to {@link BigDecimal} only when
+ * writing to the database or the API.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 8;
+
+    /**
+     * Marks a missing price. Lower than every real price, so it never wins a best-bid comparison.
+     */
+    public static final long UNSET = Long.MIN_VALUE;
+
+    private static final long ONE = 100_000_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Parses a plain decimal string such as {@code "50000.01000000"} without creating a {@link BigDecimal}.
+     * Digits beyond the eighth decimal are rounded half up.
+     *
+     * @param text the decimal text, may be null
+     * @return the scaled value, or {@link #UNSET} if the text is null or empty
+     * @throws NumberFormatException if the text is not a plain decimal number
+     * @throws ArithmeticException if the value does not fit in a scaled long
+     */
+    public static long parse(CharSequence text) {
+        if (Objects.isNull(text) || text.isEmpty()) {
+            return UNSET;
+        }
+
+        int length = text.length();
+        int index = 0;
+        boolean negative = text.charAt(0) == '-';
+        if (negative || text.charAt(0) == '+') {
+            index++;
+        }
+
+        long integerPart = 0;
+        int digits = 0;
+        while (index < length && text.charAt(index) != '.') {
+            integerPart = Math.addExact(Math.multiplyExact(integerPart, 10), digit(text, index++));
+            digits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (index < length) {
+            index++;
+            while (index < length) {
+                int digit = digit(text, index++);
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + digit;
+                } else if (fractionDigits == SCALE) {
+                    roundUp = digit >= 5;
+                }
+                fractionDigits++;
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            throw new NumberFormatException("Not a decimal number: " + text);
+        }
+
+        for (int i = Math.min(fractionDigits, SCALE); i < SCALE; i++) {
+            fraction *= 10;
+        }
+
+        long value = Math.addExact(Math.multiplyExact(integerPart, ONE), fraction + (roundUp ? 1 : 0));
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param value the decimal value, may be null
+     * @return the scaled value rounded half up, or {@link #UNSET} if the value is null
+     */
+    public static long of(BigDecimal value) {
+        if (Objects.isNull(value)) {
+            return UNSET;
+        }
+
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param value the scaled value
+     * @return the value as a {@link BigDecimal} with scale 8, or null if the value is {@link #UNSET}
+     */
+    public static BigDecimal toBigDecimal(long value) {
+        return value == UNSET ? null : BigDecimal.valueOf(value, SCALE);
+    }
+
+    public static boolean isSet(long value) {
+        return value != UNSET;
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not a decimal number: " + text);
+        }
+        return c - '0';
+    }
+}
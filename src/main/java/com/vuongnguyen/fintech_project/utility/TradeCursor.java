@@ -0,0 +1,60 @@
+package com.vuongnguyen.fintech_project.utility;
+
+import com.vuongnguyen.fintech_project.entity.Trade;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a user's trade history, ordered by {@code (createdAt, id)} descending. Clients only see the encoded
+ * form, an opaque URL-safe string, and pass it back to get the trades after it.
+ *
+ * @param createdAt the creation time of the last trade returned
+ * @param id the ID of the last trade returned, breaking ties between trades created at the same time
+ */
+public record TradeCursor(LocalDateTime createdAt, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @param trade the last trade of a page
+     * @return the cursor pointing after it
+     */
+    public static TradeCursor after(Trade trade) {
+        return new TradeCursor(trade.getCreatedAt(), trade.getId());
+    }
+
+    /**
+     * @return the opaque form handed to clients
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor a value produced by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static TradeCursor decode(String cursor) {
+        if (Objects.isNull(cursor)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            return new TradeCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE wallet_balances (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT         NOT NULL,
+    currency   VARCHAR(10)    NOT NULL,
+    balance    NUMERIC(20, 8) NOT NULL,
+    version    BIGINT,
+    updated_at TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_wallet_balances_user_currency UNIQUE (user_id, currency),
+    CONSTRAINT fk_wallet_balances_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE trades (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT         NOT NULL,
+    symbol          VARCHAR(20)    NOT NULL,
+    side            VARCHAR(4)     NOT NULL,
+    price           NUMERIC(20, 8) NOT NULL,
+    quantity        NUMERIC(20, 8) NOT NULL,
+    total_amount    NUMERIC(20, 8) NOT NULL,
+    created_at      TIMESTAMP(6)   NOT NULL,
+    client_order_id VARCHAR(50),
+    CONSTRAINT ck_trades_side CHECK (side IN ('BUY', 'SELL')),
+    CONSTRAINT uk_trades_client_order_id UNIQUE (client_order_id),
+    CONSTRAINT fk_trades_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE aggregated_prices (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol    VARCHAR(20)    NOT NULL,
+    best_bid  NUMERIC(20, 8) NOT NULL,
+    best_ask  NUMERIC(20, 8) NOT NULL,
+    timestamp TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE latest_prices (
+    symbol    VARCHAR(20) PRIMARY KEY,
+    best_bid  NUMERIC(20, 8) NOT NULL,
+    best_ask  NUMERIC(20, 8) NOT NULL,
+    timestamp TIMESTAMP(6)   NOT NULL
+);
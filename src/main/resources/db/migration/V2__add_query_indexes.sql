@@ -0,0 +1,9 @@
+-- Trade history, newest first, with (created_at, id) as the keyset for cursor pages and exports.
+CREATE INDEX idx_trades_user_created_id ON trades (user_id, created_at, id);
+CREATE INDEX idx_trades_user_symbol_created_id ON trades (user_id, symbol, created_at, id);
+
+-- Price history of one symbol over a time range.
+CREATE INDEX idx_aggregated_prices_symbol_timestamp ON aggregated_prices (symbol, timestamp);
+
+-- UserRepository.findByEmail.
+CREATE INDEX idx_users_email ON users (email);
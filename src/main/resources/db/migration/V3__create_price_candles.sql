@@ -0,0 +1,12 @@
+-- OHLC candles of the mid price, written by PriceCandleService when a candle closes. The primary key serves
+-- the range read of one symbol and interval.
+CREATE TABLE price_candles (
+    symbol          VARCHAR(20)    NOT NULL,
+    candle_interval VARCHAR(3)     NOT NULL,
+    open_time       TIMESTAMP(6)   NOT NULL,
+    open_price      NUMERIC(20, 8) NOT NULL,
+    high_price      NUMERIC(20, 8) NOT NULL,
+    low_price       NUMERIC(20, 8) NOT NULL,
+    close_price     NUMERIC(20, 8) NOT NULL,
+    CONSTRAINT pk_price_candles PRIMARY KEY (symbol, candle_interval, open_time)
+);
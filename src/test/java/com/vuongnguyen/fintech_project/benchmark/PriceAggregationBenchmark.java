@@ -0,0 +1,116 @@
+package com.vuongnguyen.fintech_project.benchmark;
+
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link BigDecimal} ingestion path with the fixed-point one: parsing exchange price text and
+ * picking the best bid and ask for one symbol across exchanges.
+ * <p>
+ * Not part of the unit test run. Start it with {@link #main(String[])} from the IDE after {@code mvn -B test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceAggregationBenchmark {
+
+    private final String[] bidTexts = {"50000.01000000", "49999.99000000", "50000.00500000", "50000.02000000"};
+    private final String[] askTexts = {"50001.00000000", "50000.99000000", "50001.50000000", "50000.98000000"};
+
+    private List<BigDecimal[]> decimalQuotes;
+    private long[] bids;
+    private long[] asks;
+
+    @Setup
+    public void setUp() {
+        decimalQuotes = Arrays.asList(new BigDecimal[bidTexts.length][]);
+        bids = new long[bidTexts.length];
+        asks = new long[askTexts.length];
+        for (int i = 0; i < bidTexts.length; i++) {
+            decimalQuotes.set(i, new BigDecimal[]{new BigDecimal(bidTexts[i]), new BigDecimal(askTexts[i])});
+            bids[i] = FixedPoint.parse(bidTexts[i]);
+            asks[i] = FixedPoint.parse(askTexts[i]);
+        }
+    }
+
+    @Benchmark
+    public void parseBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < bidTexts.length; i++) {
+            blackhole.consume(new BigDecimal(bidTexts[i]));
+            blackhole.consume(new BigDecimal(askTexts[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseFixedPoint(Blackhole blackhole) {
+        for (int i = 0; i < bidTexts.length; i++) {
+            blackhole.consume(FixedPoint.parse(bidTexts[i]));
+            blackhole.consume(FixedPoint.parse(askTexts[i]));
+        }
+    }
+
+    /**
+     * The previous kernel: one stream per side over {@link BigDecimal} quotes.
+     */
+    @Benchmark
+    public void bestPricesBigDecimal(Blackhole blackhole) {
+        blackhole.consume(decimalQuotes.stream()
+                .map(quote -> quote[0])
+                .filter(Objects::nonNull)
+                .max(BigDecimal::compareTo)
+                .orElseThrow());
+        blackhole.consume(decimalQuotes.stream()
+                .map(quote -> quote[1])
+                .filter(Objects::nonNull)
+                .min(BigDecimal::compareTo)
+                .orElseThrow());
+    }
+
+    /**
+     * The current kernel: a single pass over fixed-point longs.
+     */
+    @Benchmark
+    public void bestPricesFixedPoint(Blackhole blackhole) {
+        long bestBid = FixedPoint.UNSET;
+        long bestAsk = FixedPoint.UNSET;
+        for (int i = 0; i < bids.length; i++) {
+            if (bids[i] > bestBid) {
+                bestBid = bids[i];
+            }
+            if (FixedPoint.isSet(asks[i]) && (!FixedPoint.isSet(bestAsk) || asks[i] < bestAsk)) {
+                bestAsk = asks[i];
+            }
+        }
+        blackhole.consume(bestBid);
+        blackhole.consume(bestAsk);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceAggregationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
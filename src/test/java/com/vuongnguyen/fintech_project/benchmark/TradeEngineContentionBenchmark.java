@@ -0,0 +1,127 @@
+package com.vuongnguyen.fintech_project.benchmark;
+
+import com.vuongnguyen.fintech_project.FintechProjectApplication;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import com.vuongnguyen.fintech_project.service.PriceSnapshotService;
+import com.vuongnguyen.fintech_project.service.TradeEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trades per second when every benchmark thread trades for the same user, so all trades contend for the same two
+ * wallet rows. Each {@code engine} value starts the application on its own in-memory H2 database with
+ * {@code dce.trading.engine} set to it; {@code locking} is the default {@code SELECT ... FOR UPDATE} path and
+ * {@code conditional-update} the guarded {@code UPDATE} one. Threads alternate buys and sells so balances stay flat.
+ * <p>
+ * Not part of the unit test run. Start it with {@link #main(String[])} from the IDE after {@code mvn -B test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TradeEngineContentionBenchmark {
+
+    @Param({"locking", "conditional-update", "group-commit", "sequencer"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private TradeEngine tradeEngine;
+    private Long userId;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FintechProjectApplication.class)
+                .profiles("test")
+                .run("--dce.trading.engine=" + engine,
+                        "--spring.datasource.url=jdbc:h2:mem:contention-" + engine,
+                        "--spring.main.web-application-type=none",
+                        "--dce.market-data.sources.binance.enabled=false",
+                        "--dce.market-data.sources.huobi.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vuongnguyen=WARN");
+        tradeEngine = context.getBean(TradeEngine.class);
+
+        AggregatedPrice ethPrice = new AggregatedPrice();
+        ethPrice.setSymbol("ETHUSDT");
+        ethPrice.setBestBid(new BigDecimal("3000.00"));
+        ethPrice.setBestAsk(new BigDecimal("3000.00"));
+        ethPrice.setTimestamp(LocalDateTime.now());
+        context.getBean(PriceSnapshotService.class).publish(List.of(ethPrice));
+
+        User user = new User();
+        user.setUsername("contention");
+        user.setEmail("contention@test.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        WalletBalanceRepository walletBalanceRepository = context.getBean(WalletBalanceRepository.class);
+        walletBalanceRepository.save(wallet(user, "USDT", new BigDecimal("1000000000")));
+        walletBalanceRepository.save(wallet(user, "ETH", new BigDecimal("1000000")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void tradeSameUser(Blackhole blackhole) {
+        TradeRequest request = new TradeRequest();
+        request.setUserId(userId);
+        request.setSymbol("ETHUSDT");
+        request.setSide(sequence.getAndIncrement() % 2 == 0 ? TradeSide.BUY : TradeSide.SELL);
+        request.setQuantity(new BigDecimal("0.01"));
+        blackhole.consume(tradeEngine.execute(request));
+    }
+
+    private static WalletBalance wallet(User user, String currency, BigDecimal balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setUser(user);
+        wallet.setCurrency(currency);
+        wallet.setBalance(balance);
+        wallet.setUpdatedAt(LocalDateTime.now());
+        return wallet;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TradeEngineContentionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
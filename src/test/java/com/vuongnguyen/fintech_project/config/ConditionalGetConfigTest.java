@@ -0,0 +1,115 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import com.vuongnguyen.fintech_project.service.PriceSnapshotService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional-get")
+@ActiveProfiles("test")
+class ConditionalGetConfigTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void testWalletBalances_NotModifiedUntilAWalletChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/wallets/user/{userId}", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        double notModifiedBefore = notModified("wallets");
+
+        mockMvc.perform(get("/api/v1/wallets/user/{userId}", USER_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(1, notModified("wallets") - notModifiedBefore);
+
+        walletBalanceRepository.credit(USER_ID, "USDT", BigDecimal.ONE);
+
+        String changedETag = mockMvc.perform(get("/api/v1/wallets/user/{userId}", USER_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changedETag);
+    }
+
+    @Test
+    void testLatestPrices_NotModifiedUntilNextPublish() throws Exception {
+        priceSnapshotService.publish(List.of(price("50000")));
+        String eTag = mockMvc.perform(get("/api/v1/prices/latest").param("symbol", "BTCUSDT"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/v1/prices/latest/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/prices/latest").param("symbols", "BTCUSDT,ETHUSDT").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        priceSnapshotService.publish(List.of(price("50001")));
+
+        mockMvc.perform(get("/api/v1/prices/latest").param("symbol", "BTCUSDT").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, priceETag()));
+    }
+
+    @Test
+    void testCandles_NotTagged() throws Exception {
+        mockMvc.perform(get("/api/v1/prices/candles").param("symbol", "BTCUSDT"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String priceETag() {
+        return "\"" + priceSnapshotService.eTagOf(priceSnapshotService.getSnapshot()) + "\"";
+    }
+
+    private double notModified(String resource) {
+        return meterRegistry.counter("dce.http.not-modified", "resource", resource).count();
+    }
+
+    private static AggregatedPrice price(String bid) {
+        BigDecimal bestBid = new BigDecimal(bid);
+        return new AggregatedPrice(null, "BTCUSDT", bestBid, bestBid.add(BigDecimal.ONE), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,190 @@
+package com.vuongnguyen.fintech_project.config;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestTemplateConfigTest {
+
+    private static final String BODY = "[{\"symbol\":\"BTCUSDT\",\"bidPrice\":\"50000.00\",\"askPrice\":\"50001.00\"}]";
+
+    private HttpServer server;
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeHttpClientProperties properties;
+    private MarketDataSourceProperties marketDataSourceProperties;
+    private RestTemplateConfig config;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ticker", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            acceptEncodings.add(String.valueOf(acceptEncoding));
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = gzip(body);
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ExchangeHttpClientProperties();
+        config = new RestTemplateConfig();
+        marketDataSourceProperties = new MarketDataSourceProperties();
+        marketDataSourceProperties.getSources().put(DCESource.BINANCE,
+                source("http://127.0.0.1:" + server.getAddress().getPort() + "/ticker"));
+        marketDataSourceProperties.getSources().put(DCESource.HUOBI,
+                source("http://localhost:" + server.getAddress().getPort() + "/ticker"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testRestTemplate_RequestsAndDecodesGzip() throws Exception {
+        RestTemplate restTemplate = config.restTemplate(properties, marketDataSourceProperties, meterRegistry);
+
+        String body = restTemplate.getForObject(binanceUri("/ticker"), String.class);
+
+        assertEquals(BODY, body);
+        assertTrue(acceptEncodings.get(0).contains("gzip"));
+    }
+
+    @Test
+    void testRestTemplate_CompressionCanBeDisabled() throws Exception {
+        properties.setCompression(false);
+        RestTemplate restTemplate = config.restTemplate(properties, marketDataSourceProperties, meterRegistry);
+
+        String body = restTemplate.getForObject(binanceUri("/ticker"), String.class);
+
+        assertEquals(BODY, body);
+        assertEquals("null", acceptEncodings.get(0));
+    }
+
+    @Test
+    void testRestTemplate_CountsRequestsAndReusedConnectionsPerExchange() throws Exception {
+        RestTemplate restTemplate = config.restTemplate(properties, marketDataSourceProperties, meterRegistry);
+
+        restTemplate.getForObject(binanceUri("/ticker"), String.class);
+        restTemplate.getForObject(binanceUri("/ticker"), String.class);
+
+        assertEquals(2.0, meterRegistry.get("dce.http.requests").tag("exchange", "BINANCE").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("dce.http.requests").tag("exchange", "HUOBI").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("dce.http.tls.handshakes").tag("exchange", "BINANCE").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("dce.http.connections.reused").tag("exchange", "BINANCE").functionCounter().count());
+    }
+
+    @Test
+    void testRestTemplate_LimitsConcurrentConnectionsPerHost() throws Exception {
+        ExchangeHttpClientProperties.Client binance = new ExchangeHttpClientProperties.Client();
+        binance.setMaxConnections(1);
+        binance.setAcquireTimeout(Duration.ofMillis(100));
+        properties.getExchanges().put(DCESource.BINANCE, binance);
+        RestTemplate restTemplate = config.restTemplate(properties, marketDataSourceProperties, meterRegistry);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(
+                () -> restTemplate.getForObject(binanceUri("/slow"), String.class));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("dce.http.connections.in-use").tag("exchange", "BINANCE").gauge().value() < 1
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(binanceUri("/ticker"), String.class));
+        assertEquals(BODY, restTemplate.getForObject(huobiUri(), String.class));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, meterRegistry.get("dce.http.connections.in-use").tag("exchange", "BINANCE").gauge().value());
+    }
+
+    @Test
+    void testRestTemplate_GivesOwnClientOnlyToSourcesWithUrl() throws Exception {
+        marketDataSourceProperties.getSources().remove(DCESource.HUOBI);
+
+        RestTemplate restTemplate = config.restTemplate(properties, marketDataSourceProperties, meterRegistry);
+
+        assertEquals(BODY, restTemplate.getForObject(huobiUri(), String.class));
+        assertNull(meterRegistry.find("dce.http.requests").tag("exchange", "HUOBI").functionCounter());
+        assertEquals(0.0, meterRegistry.get("dce.http.requests").tag("exchange", "BINANCE").functionCounter().count());
+    }
+
+    @Test
+    void testHandshakeCountingSslContext_CountsEnginesCreated() throws Exception {
+        HandshakeCountingSslContext sslContext = HandshakeCountingSslContext.wrap(SSLContext.getDefault());
+
+        sslContext.createSSLEngine("api.binance.com", 443);
+        sslContext.createSSLEngine("api.huobi.pro", 443);
+
+        assertEquals(2, sslContext.getHandshakeCount());
+        assertEquals(SSLContext.getDefault().getProtocol(), sslContext.getProtocol());
+    }
+
+    private String binanceUri(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private String huobiUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/ticker";
+    }
+
+    private static MarketDataSourceProperties.Source source(String url) {
+        MarketDataSourceProperties.Source source = new MarketDataSourceProperties.Source();
+        source.setUrl(url);
+        return source;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+}
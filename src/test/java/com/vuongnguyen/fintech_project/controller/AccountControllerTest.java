@@ -0,0 +1,103 @@
+package com.vuongnguyen.fintech_project.controller;
+
+import com.vuongnguyen.fintech_project.dto.AccountHolding;
+import com.vuongnguyen.fintech_project.dto.AccountSnapshotResponse;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.exception.GlobalExceptionHandler;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.service.AccountSnapshotService;
+import com.vuongnguyen.fintech_project.service.PortfolioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AccountControllerTest {
+
+    @Mock
+    private AccountSnapshotService accountSnapshotService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @InjectMocks
+    private AccountController accountController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(accountController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetAccountSnapshot_Success() throws Exception {
+        AccountHolding usdt = new AccountHolding("USDT", new BigDecimal("1000"), null, null, new BigDecimal("1000"),
+                LocalDateTime.now());
+        when(accountSnapshotService.getAccountSnapshot(1L)).thenReturn(new AccountSnapshotResponse(1L, "USDT",
+                new BigDecimal("1000"), List.of(usdt), null, null, List.of()));
+
+        mockMvc.perform(get("/api/v1/accounts/1/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Account snapshot retrieved successfully"))
+                .andExpect(jsonPath("$.data.valuationCurrency").value("USDT"))
+                .andExpect(jsonPath("$.data.totalValue").value(1000))
+                .andExpect(jsonPath("$.data.holdings[0].currency").value("USDT"));
+    }
+
+    @Test
+    void testGetAccountSnapshot_PartiallyRetrieved() throws Exception {
+        when(accountSnapshotService.getAccountSnapshot(1L)).thenReturn(new AccountSnapshotResponse(1L, "USDT",
+                BigDecimal.ZERO, List.of(), null, null, List.of("trades")));
+
+        mockMvc.perform(get("/api/v1/accounts/1/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Account snapshot partially retrieved"))
+                .andExpect(jsonPath("$.data.missingSections[0]").value("trades"));
+    }
+
+    @Test
+    void testGetAccountSnapshot_UserNotFound() throws Exception {
+        when(accountSnapshotService.getAccountSnapshot(99L)).thenThrow(new ResourceNotFoundException("User not found: 99"));
+
+        mockMvc.perform(get("/api/v1/accounts/99/snapshot"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetPortfolioValuation_Success() throws Exception {
+        AccountHolding btc = new AccountHolding("BTC", new BigDecimal("0.5"), "BTCUSDT", new BigDecimal("50000"),
+                new BigDecimal("25000"), LocalDateTime.now());
+        when(portfolioService.getValuation(1L)).thenReturn(new PortfolioValuation(1L, "USDT", new BigDecimal("25000"),
+                List.of(btc), LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/v1/accounts/1/portfolio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalValue").value(25000))
+                .andExpect(jsonPath("$.data.holdings[0].symbol").value("BTCUSDT"));
+    }
+
+    @Test
+    void testGetPortfolioValuation_UserNotFound() throws Exception {
+        when(portfolioService.getValuation(99L)).thenThrow(new ResourceNotFoundException("User not found: 99"));
+
+        mockMvc.perform(get("/api/v1/accounts/99/portfolio"))
+                .andExpect(status().isBadRequest());
+    }
+}
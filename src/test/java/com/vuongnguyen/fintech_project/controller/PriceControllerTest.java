@@ -2,7 +2,12 @@ package com.vuongnguyen.fintech_project.controller;
 
 import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
 import com.vuongnguyen.fintech_project.dto.ApiResponse;
+import com.vuongnguyen.fintech_project.dto.PriceCandle;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshotResponse;
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import com.vuongnguyen.fintech_project.service.PriceCandleService;
 import com.vuongnguyen.fintech_project.service.PriceService;
+import com.vuongnguyen.fintech_project.service.PriceStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,17 +16,27 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class PriceControllerTest {
@@ -29,6 +44,12 @@ class PriceControllerTest {
     @Mock
     private PriceService priceService;
 
+    @Mock
+    private PriceCandleService priceCandleService;
+
+    @Mock
+    private PriceStreamService priceStreamService;
+
     @InjectMocks
     private PriceController priceController;
 
@@ -302,4 +323,75 @@ class PriceControllerTest {
 
         verify(priceService, times(1)).getLatestPrice("BTCUSDT");
     }
+
+    @Test
+    void testGetCandles_Success() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 10, 0);
+        LocalDateTime to = from.plusHours(1);
+        PriceCandle candle = new PriceCandle("BTCUSDT", CandleInterval.FIVE_MINUTES, from, new BigDecimal("50000.50"),
+                new BigDecimal("50100.50"), new BigDecimal("49900.50"), new BigDecimal("50050.50"));
+        when(priceCandleService.getCandles("BTCUSDT", CandleInterval.FIVE_MINUTES, from, to)).thenReturn(List.of(candle));
+
+        ResponseEntity<ApiResponse<List<PriceCandle>>> response = priceController.getCandles(" btcusdt ", "5m", from, to);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(List.of(candle), response.getBody().getData());
+    }
+
+    @Test
+    void testGetCandles_UnsupportedInterval() {
+        assertThrows(IllegalArgumentException.class, () -> priceController.getCandles("BTCUSDT", "2m", null, null));
+
+        verify(priceCandleService, never()).getCandles(any(), any(), any(), any());
+    }
+
+    @Test
+    void testStreamPrices_NormalizesSymbols() {
+        SseEmitter emitter = new SseEmitter();
+        when(priceStreamService.subscribe(List.of("BTCUSDT", "ETHUSDT"))).thenReturn(emitter);
+
+        assertEquals(emitter, priceController.streamPrices(List.of("btcusdt", " ethusdt ")));
+    }
+
+    @Test
+    void testStreamPrices_AllSymbols() {
+        SseEmitter emitter = new SseEmitter();
+        when(priceStreamService.subscribe(List.of())).thenReturn(emitter);
+
+        assertEquals(emitter, priceController.streamPrices(null));
+    }
+
+    @Test
+    void testGetLatestPrices_NormalizesSymbols() {
+        PriceSnapshotResponse snapshot = new PriceSnapshotResponse(7L, testTimestamp, List.of(mockPriceResponse), List.of("ETHUSDT"));
+        when(priceService.getLatestPrices(List.of("BTCUSDT", "ETHUSDT"))).thenReturn(snapshot);
+
+        ResponseEntity<ApiResponse<PriceSnapshotResponse>> response = priceController.getLatestPrices(List.of("btcusdt", " ethusdt"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(snapshot, response.getBody().getData());
+    }
+
+    @Test
+    void testGetLatestPrices_RoutesBySymbolsParameter() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(priceController).build();
+        when(priceService.getLatestPrices(List.of("BTCUSDT", "ETHUSDT")))
+                .thenReturn(new PriceSnapshotResponse(7L, testTimestamp, List.of(mockPriceResponse), List.of("ETHUSDT")));
+        when(priceService.getAllLatestPrices())
+                .thenReturn(new PriceSnapshotResponse(7L, testTimestamp, List.of(mockPriceResponse), List.of()));
+        when(priceService.getLatestPrice("BTCUSDT")).thenReturn(Optional.of(mockPriceResponse));
+
+        mockMvc.perform(get("/api/v1/prices/latest").param("symbols", "btcusdt,ethusdt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.sequence").value(7))
+                .andExpect(jsonPath("$.data.prices[0].symbol").value("BTCUSDT"))
+                .andExpect(jsonPath("$.data.missingSymbols[0]").value("ETHUSDT"));
+        mockMvc.perform(get("/api/v1/prices/latest/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.prices.length()").value(1));
+        mockMvc.perform(get("/api/v1/prices/latest").param("symbol", "btcusdt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.symbol").value("BTCUSDT"));
+    }
 }
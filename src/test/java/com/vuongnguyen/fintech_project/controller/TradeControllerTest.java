@@ -1,17 +1,27 @@
 package com.vuongnguyen.fintech_project.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryCursorResponse;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
+import com.vuongnguyen.fintech_project.dto.TradeBatchItemResult;
+import com.vuongnguyen.fintech_project.dto.TradeBatchRequest;
+import com.vuongnguyen.fintech_project.dto.TradeBatchResponse;
 import com.vuongnguyen.fintech_project.dto.TradeRequest;
 import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.enums.TradeExportFormat;
 import com.vuongnguyen.fintech_project.enums.TradeSide;
 import com.vuongnguyen.fintech_project.exception.GlobalExceptionHandler;
 import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
 import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
 import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.TradeEngineBusyException;
 import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.service.TradeBatchService;
+import com.vuongnguyen.fintech_project.service.TradeEngine;
+import com.vuongnguyen.fintech_project.service.TradeExportService;
 import com.vuongnguyen.fintech_project.service.TradingService;
+import com.vuongnguyen.fintech_project.service.UserStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,32 +31,52 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class TradeControllerTest {
 
+    @Mock
+    private TradeEngine tradeEngine;
+
     @Mock
     private TradingService tradingService;
 
+    @Mock
+    private TradeBatchService tradeBatchService;
+
+    @Mock
+    private TradeExportService tradeExportService;
+
+    @Mock
+    private UserStreamService userStreamService;
+
     @InjectMocks
     private TradeController tradeController;
 
@@ -86,7 +116,7 @@ class TradeControllerTest {
 
     @Test
     void testExecuteTrade_SuccessfulBuyOrder() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -101,7 +131,84 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.data.quantity").value(0.5))
                 .andExpect(jsonPath("$.data.clientOrderId").value("order-123"));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
+    }
+
+    @Test
+    void testExecuteTradeBatch_AllSucceeded() throws Exception {
+        TradeBatchResponse batchResponse = new TradeBatchResponse(
+                List.of(TradeBatchItemResult.executed(0, tradeResponse)), 1, 0);
+        when(tradeBatchService.executeBatch(any(TradeBatchRequest.class))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TradeBatchRequest(List.of(tradeRequest), false))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Trade batch executed successfully"))
+                .andExpect(jsonPath("$.data.succeeded").value(1))
+                .andExpect(jsonPath("$.data.results[0].index").value(0))
+                .andExpect(jsonPath("$.data.results[0].trade.tradeId").value(1));
+
+        verify(tradeBatchService, times(1)).executeBatch(any(TradeBatchRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
+    }
+
+    @Test
+    void testExecuteTradeBatch_PartialFailure() throws Exception {
+        TradeBatchResponse batchResponse = new TradeBatchResponse(List.of(
+                TradeBatchItemResult.executed(0, tradeResponse),
+                TradeBatchItemResult.failed(1, "Insufficient USDT balance")), 1, 1);
+        when(tradeBatchService.executeBatch(any(TradeBatchRequest.class))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TradeBatchRequest(List.of(tradeRequest, tradeRequest), false))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Trade batch executed with 1 failed trades"))
+                .andExpect(jsonPath("$.data.results[1].success").value(false))
+                .andExpect(jsonPath("$.data.results[1].error").value("Insufficient USDT balance"));
+    }
+
+    @Test
+    void testExecuteTradeBatch_AllOrNothingRolledBack() throws Exception {
+        TradeBatchResponse batchResponse = new TradeBatchResponse(List.of(
+                TradeBatchItemResult.failed(0, "Not executed: trade 1 failed"),
+                TradeBatchItemResult.failed(1, "Insufficient USDT balance")), 0, 2);
+        when(tradeBatchService.executeBatch(any(TradeBatchRequest.class))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TradeBatchRequest(List.of(tradeRequest, tradeRequest), true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Trade batch rolled back"))
+                .andExpect(jsonPath("$.data.failed").value(2));
+    }
+
+    @Test
+    void testExecuteTradeBatch_EmptyTrades() throws Exception {
+        mockMvc.perform(post("/api/v1/trades/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TradeBatchRequest(List.of(), false))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(tradeBatchService, never()).executeBatch(any(TradeBatchRequest.class));
+    }
+
+    @Test
+    void testExecuteTradeBatch_InvalidItem() throws Exception {
+        tradeRequest.setQuantity(BigDecimal.ZERO);
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TradeBatchRequest(List.of(tradeRequest), false))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(tradeBatchService, never()).executeBatch(any(TradeBatchRequest.class));
     }
 
     @Test
@@ -113,7 +220,7 @@ class TradeControllerTest {
         tradeResponse.setUpdatedUsdtBalance(new BigDecimal("125000.00"));
         tradeResponse.setUpdatedAssetBalance(new BigDecimal("0.5"));
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -122,12 +229,12 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.side").value("SELL"));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_Idempotency_DuplicateRequest() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -141,12 +248,12 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.tradeId").value(1));
 
-        verify(tradingService, times(2)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(2)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_UserNotFound() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenThrow(new ResourceNotFoundException("User not found: 1"));
 
         mockMvc.perform(post("/api/v1/trades")
@@ -154,12 +261,12 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_PriceNotAvailable() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenThrow(new PriceNotAvailableException("No price data available for symbol: BTCUSDT"));
 
         mockMvc.perform(post("/api/v1/trades")
@@ -167,12 +274,12 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_InsufficientBalance() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenThrow(new InsufficientBalanceException("Insufficient USDT balance. Required: 25000.50, Available: 1000.00"));
 
         mockMvc.perform(post("/api/v1/trades")
@@ -180,12 +287,12 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_TradingException() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenThrow(new TradingException("USDT wallet not found for user: 1"));
 
         mockMvc.perform(post("/api/v1/trades")
@@ -193,12 +300,26 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isInternalServerError());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
+    }
+
+    @Test
+    void testExecuteTrade_EngineQueueFull() throws Exception {
+        when(tradeEngine.execute(any(TradeRequest.class)))
+                .thenThrow(new TradeEngineBusyException("Too many pending trades, please retry later"));
+
+        mockMvc.perform(post("/api/v1/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tradeRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Too many pending trades, please retry later"));
+
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_RaceCondition_OptimisticLockingFailure() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenThrow(new OptimisticLockingFailureException("Concurrent modification detected"));
 
         mockMvc.perform(post("/api/v1/trades")
@@ -206,7 +327,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isInternalServerError());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -221,7 +342,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -236,7 +357,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -251,7 +372,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -266,7 +387,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -282,7 +403,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -298,7 +419,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -314,7 +435,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -330,7 +451,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -347,12 +468,12 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_ResponseContainsAllFields() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -371,12 +492,12 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.data.updatedAssetBalance", notNullValue()))
                 .andExpect(jsonPath("$.data.assetCurrency", notNullValue()));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_ResponseStructure() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -386,7 +507,7 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.message").exists())
                 .andExpect(jsonPath("$.data").exists());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -410,7 +531,7 @@ class TradeControllerTest {
         ethResponse.setClientOrderId("order-456");
         ethResponse.setAssetCurrency("ETH");
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(ethResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(ethResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -419,7 +540,7 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.data.symbol").value("ETHUSDT"))
                 .andExpect(jsonPath("$.data.assetCurrency").value("ETH"));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -446,7 +567,7 @@ class TradeControllerTest {
         response2.setTradeId(2L);
         response2.setClientOrderId("order-2");
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class)))
+        when(tradeEngine.execute(any(TradeRequest.class)))
                 .thenReturn(response1)
                 .thenReturn(response2);
 
@@ -462,7 +583,7 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.tradeId").value(2));
 
-        verify(tradingService, times(2)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(2)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -471,7 +592,7 @@ class TradeControllerTest {
         tradeResponse.setQuantity(new BigDecimal("100.5"));
         tradeResponse.setTotalAmount(new BigDecimal("5025050.50"));
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -479,7 +600,7 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.quantity").value(100.5));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -487,14 +608,14 @@ class TradeControllerTest {
         tradeRequest.setQuantity(new BigDecimal("0.00000001"));
         tradeResponse.setQuantity(new BigDecimal("0.00000001"));
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isOk());
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -502,7 +623,7 @@ class TradeControllerTest {
         tradeRequest.setClientOrderId(null);
         tradeResponse.setClientOrderId(null);
 
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -510,12 +631,12 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.tradeId").value(1));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_ContentTypeValidation() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -523,19 +644,19 @@ class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(tradingService, times(1)).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, times(1)).execute(any(TradeRequest.class));
     }
 
     @Test
     void testExecuteTrade_VerifyServiceCalledWithCorrectRequest() throws Exception {
-        when(tradingService.executeUserTrading(any(TradeRequest.class))).thenReturn(tradeResponse);
+        when(tradeEngine.execute(any(TradeRequest.class))).thenReturn(tradeResponse);
 
         mockMvc.perform(post("/api/v1/trades")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(tradeRequest)))
                 .andExpect(status().isOk());
 
-        verify(tradingService, times(1)).executeUserTrading(argThat(request ->
+        verify(tradeEngine, times(1)).execute(argThat(request ->
                 request.getUserId().equals(1L) &&
                 request.getSymbol().equals("BTCUSDT") &&
                 request.getSide().equals(TradeSide.BUY) &&
@@ -557,7 +678,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -573,7 +694,7 @@ class TradeControllerTest {
                 .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(tradingService, never()).executeUserTrading(any(TradeRequest.class));
+        verify(tradeEngine, never()).execute(any(TradeRequest.class));
     }
 
     @Test
@@ -763,4 +884,100 @@ class TradeControllerTest {
         mockMvc.perform(get("/api/v1/trades/history/user/1?page=-1"))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_FirstPage() throws Exception {
+        TradeHistoryItem trade = new TradeHistoryItem();
+        trade.setTradeId(2L);
+        trade.setSymbol("BTCUSDT");
+        TradeHistoryCursorResponse response = new TradeHistoryCursorResponse(
+                Collections.singletonList(trade), "next-cursor", true, 1);
+        when(tradingService.getUserTradeHistoryByCursor(1L, null, 1, "BTCUSDT")).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/trades/history/user/1/cursor")
+                .param("size", "1")
+                .param("symbol", "btcusdt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.trades[0].tradeId").value(2))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+
+        verify(tradingService, times(1)).getUserTradeHistoryByCursor(1L, null, 1, "BTCUSDT");
+        verify(tradingService, never()).getUserTradeHistory(anyLong(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_Empty() throws Exception {
+        TradeHistoryCursorResponse response = new TradeHistoryCursorResponse(Collections.emptyList(), null, false, 20);
+        when(tradingService.getUserTradeHistoryByCursor(2L, null, 20, null)).thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/trades/history/user/2/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("No trade history found"))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_InvalidCursor() throws Exception {
+        when(tradingService.getUserTradeHistoryByCursor(1L, "garbage", 20, null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/trades/history/user/1/cursor")
+                .param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void testExportUserTradeHistory_StreamsCsv() throws Exception {
+        StreamingResponseBody body = outputStream -> outputStream.write("tradeId\n1\n".getBytes());
+        when(tradeExportService.exportTradeHistory(1L, "BTCUSDT", TradeExportFormat.CSV)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/trades/history/user/1/export")
+                .param("format", "CSV")
+                .param("symbol", "btcusdt"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trades-1.csv\""))
+                .andExpect(content().string("tradeId\n1\n"));
+    }
+
+    @Test
+    void testExportUserTradeHistory_DefaultsToNdjson() throws Exception {
+        when(tradeExportService.exportTradeHistory(1L, null, TradeExportFormat.NDJSON))
+                .thenReturn(outputStream -> outputStream.write("{}\n".getBytes()));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/trades/history/user/1/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"));
+    }
+
+    @Test
+    void testExportUserTradeHistory_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/trades/history/user/1/export")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported export format: xml"));
+
+        verify(tradeExportService, never()).exportTradeHistory(anyLong(), any(), any());
+    }
+
+    @Test
+    void testExportUserTradeHistory_UserNotFound() throws Exception {
+        when(tradeExportService.exportTradeHistory(99L, null, TradeExportFormat.NDJSON))
+                .thenThrow(new ResourceNotFoundException("User not found: 99"));
+
+        mockMvc.perform(get("/api/v1/trades/history/user/99/export"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User not found: 99"));
+    }
 }
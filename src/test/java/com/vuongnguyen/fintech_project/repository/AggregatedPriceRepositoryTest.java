@@ -0,0 +1,94 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.LatestPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AggregatedPriceRepositoryTest {
+
+    @Autowired
+    private AggregatedPriceRepository aggregatedPriceRepository;
+
+    @Autowired
+    private LatestPriceRepository latestPriceRepository;
+
+    @BeforeEach
+    void setUp() {
+        aggregatedPriceRepository.deleteAllInBatch();
+        latestPriceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSaveTick_AppendsHistoryAndUpsertsLatest() {
+        aggregatedPriceRepository.saveTick(List.of(
+                aggregatedPrice("ETHUSDT", "3000.00", "3001.00"),
+                aggregatedPrice("BTCUSDT", "50000.00", "50001.00")));
+        aggregatedPriceRepository.saveTick(List.of(
+                aggregatedPrice("ETHUSDT", "3100.00", "3101.00"),
+                aggregatedPrice("BTCUSDT", "51000.00", "51001.00")));
+
+        assertEquals(4, aggregatedPriceRepository.count());
+        assertEquals(2, latestPriceRepository.count());
+
+        LatestPrice eth = latestPriceRepository.findLatestBySymbol("ETHUSDT").orElseThrow();
+        assertEquals(0, new BigDecimal("3100.00").compareTo(eth.getBestBid()));
+        assertEquals(0, new BigDecimal("3101.00").compareTo(eth.getBestAsk()));
+    }
+
+    @Test
+    void testSaveTick_KeepsNewerLatestPrice() {
+        AggregatedPrice newer = aggregatedPrice("ETHUSDT", "3100.00", "3101.00");
+        AggregatedPrice older = aggregatedPrice("ETHUSDT", "3000.00", "3001.00");
+        older.setTimestamp(newer.getTimestamp().minusSeconds(1));
+
+        aggregatedPriceRepository.saveTick(List.of(newer));
+        aggregatedPriceRepository.saveTick(List.of(older));
+
+        assertEquals(2, aggregatedPriceRepository.count());
+        LatestPrice eth = latestPriceRepository.findLatestBySymbol("ETHUSDT").orElseThrow();
+        assertEquals(0, new BigDecimal("3100.00").compareTo(eth.getBestBid()));
+    }
+
+    @Test
+    void testFindLatestBySymbolIn_ReturnsOneRowPerSymbol() {
+        aggregatedPriceRepository.saveTick(List.of(
+                aggregatedPrice("ETHUSDT", "3000.00", "3001.00"),
+                aggregatedPrice("BTCUSDT", "50000.00", "50001.00")));
+
+        List<LatestPrice> result = latestPriceRepository.findLatestBySymbolIn(List.of("ETHUSDT", "BTCUSDT"));
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(price -> price.getSymbol().equals("ETHUSDT")));
+        assertTrue(result.stream().anyMatch(price -> price.getSymbol().equals("BTCUSDT")));
+    }
+
+    @Test
+    void testSaveTick_EmptyTickWritesNothing() {
+        aggregatedPriceRepository.saveTick(List.of());
+
+        assertEquals(0, aggregatedPriceRepository.count());
+        assertEquals(0, latestPriceRepository.count());
+    }
+
+    private AggregatedPrice aggregatedPrice(String symbol, String bid, String ask) {
+        AggregatedPrice aggregatedPrice = new AggregatedPrice();
+        aggregatedPrice.setSymbol(symbol);
+        aggregatedPrice.setBestBid(new BigDecimal(bid));
+        aggregatedPrice.setBestAsk(new BigDecimal(ask));
+        aggregatedPrice.setTimestamp(LocalDateTime.now());
+        return aggregatedPrice;
+    }
+}
@@ -0,0 +1,177 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs H2 {@code EXPLAIN} on the SQL behind each repository query and checks that the plan reads through the
+ * expected index instead of scanning the table. Derived and JPQL queries are written out as the SQL Hibernate
+ * generates for them. The tables are filled with many users and symbols and analyzed first, so the planner costs
+ * the indexes with realistic selectivity.
+ * <p>
+ * Lookups by user alone only require some index on {@code user_id}: H2 serves them from the index backing the
+ * foreign key, which is narrower than {@code idx_trades_user_created_id}, and sorts the user's rows either way.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plan")
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final Timestamp CREATED_AT = Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 12, 0));
+
+    /**
+     * Above the ID of the default user created on startup.
+     */
+    private static final long FIRST_USER_ID = 1000L;
+    private static final int USERS = 50;
+    private static final String[] SYMBOLS = {"BTCUSDT", "ETHUSDT", "SOLUSDT", "BNBUSDT"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trades", Long.class) > 0) {
+            return;
+        }
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> wallets = new ArrayList<>();
+        List<Object[]> trades = new ArrayList<>();
+        List<Object[]> prices = new ArrayList<>();
+        List<Object[]> candles = new ArrayList<>();
+        for (long user = FIRST_USER_ID; user < FIRST_USER_ID + USERS; user++) {
+            users.add(new Object[]{user, "plan-" + user, "plan-" + user + "@test.com", CREATED_AT});
+            for (String currency : new String[]{"USDT", "BTC", "ETH", "SOL", "BNB"}) {
+                wallets.add(new Object[]{user, currency, CREATED_AT});
+            }
+            for (int i = 0; i < 40; i++) {
+                trades.add(new Object[]{user, SYMBOLS[i % SYMBOLS.length],
+                        Timestamp.valueOf(CREATED_AT.toLocalDateTime().plusMinutes(i)), "plan-" + user + "-" + i});
+            }
+        }
+        for (String symbol : SYMBOLS) {
+            for (int i = 0; i < 500; i++) {
+                prices.add(new Object[]{symbol, Timestamp.valueOf(CREATED_AT.toLocalDateTime().plusSeconds(i))});
+                for (String interval : new String[]{"1m", "5m"}) {
+                    candles.add(new Object[]{symbol, interval, Timestamp.valueOf(CREATED_AT.toLocalDateTime().plusMinutes(i))});
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, created_at) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO wallet_balances (user_id, currency, balance, version, updated_at) "
+                + "VALUES (?, ?, 100, 0, ?)", wallets);
+        jdbcTemplate.batchUpdate("INSERT INTO trades (user_id, symbol, side, price, quantity, total_amount, created_at, "
+                + "client_order_id) VALUES (?, ?, 'BUY', 1, 1, 1, ?, ?)", trades);
+        jdbcTemplate.batchUpdate("INSERT INTO aggregated_prices (symbol, best_bid, best_ask, timestamp) "
+                + "VALUES (?, 1, 1, ?)", prices);
+        jdbcTemplate.batchUpdate("INSERT INTO price_candles (symbol, candle_interval, open_time, open_price, high_price, "
+                + "low_price, close_price) VALUES (?, ?, ?, 1, 1, 1, 1)", candles);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testTradeHistoryQueries_SeekByUser() {
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT * FROM trades WHERE user_id = ? ORDER BY created_at DESC", 1000L);
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT * FROM trades WHERE user_id = ? ORDER BY created_at DESC OFFSET 40 ROWS FETCH FIRST 20 ROWS ONLY", 1000L);
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT COUNT(*) FROM trades WHERE user_id = ?", 1000L);
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT * FROM trades WHERE user_id = ? ORDER BY created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY", 1000L);
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT * FROM trades WHERE user_id = ? AND (created_at < ? OR (created_at = ? AND id < ?)) "
+                        + "ORDER BY created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY", 1000L, CREATED_AT, CREATED_AT, 100L);
+    }
+
+    @Test
+    void testTradeHistoryBySymbolQueries_SeekByUserAndSymbol() {
+        assertIndexLookup("IDX_TRADES_USER_SYMBOL_CREATED_ID", "USER_ID = ?1 AND SYMBOL = ?2",
+                "SELECT * FROM trades WHERE user_id = ? AND symbol = ? ORDER BY created_at DESC", 1000L, "BTCUSDT");
+        assertIndexLookup("IDX_TRADES_USER_SYMBOL_CREATED_ID", "USER_ID = ?1 AND SYMBOL = ?2",
+                "SELECT COUNT(*) FROM trades WHERE user_id = ? AND symbol = ?", 1000L, "BTCUSDT");
+        assertIndexLookup("IDX_TRADES_USER_SYMBOL_CREATED_ID", "USER_ID = ?1 AND SYMBOL = ?2",
+                "SELECT * FROM trades WHERE user_id = ? AND symbol = ? AND (created_at < ? OR (created_at = ? AND id < ?)) "
+                        + "ORDER BY created_at DESC, id DESC FETCH FIRST 21 ROWS ONLY",
+                1000L, "BTCUSDT", CREATED_AT, CREATED_AT, 100L);
+    }
+
+    @Test
+    void testTradeByClientOrderId_SeekByUniqueIndex() {
+        assertIndexLookup("UK_TRADES_CLIENT_ORDER_ID", "CLIENT_ORDER_ID = ?1",
+                "SELECT * FROM trades WHERE client_order_id = ?", "plan-1000-1");
+    }
+
+    @Test
+    void testWalletQueries_SeekByUserAndCurrency() {
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT * FROM wallet_balances WHERE user_id = ?", 1000L);
+        assertIndexLookup("UK_WALLET_BALANCES_USER_CURRENCY", "USER_ID = ?1 AND CURRENCY = ?2",
+                "SELECT * FROM wallet_balances WHERE user_id = ? AND currency = ?", 1000L, "USDT");
+        assertIndexLookup("UK_WALLET_BALANCES_USER_CURRENCY", "USER_ID = ?1 AND CURRENCY = ?2",
+                "SELECT id, currency, balance, version, updated_at FROM wallet_balances "
+                        + "WHERE user_id = ? AND currency = ? FOR UPDATE", 1000L, "USDT");
+        assertIndexLookup("UK_WALLET_BALANCES_USER_CURRENCY", "USER_ID = ?1",
+                "SELECT currency, balance FROM wallet_balances WHERE user_id = ? AND currency IN (?, ?)", 1000L, "USDT", "BTC");
+        assertIndexLookup("UK_WALLET_BALANCES_USER_CURRENCY", "USER_ID = ?3 AND CURRENCY = ?4",
+                "UPDATE wallet_balances SET balance = balance - ?, version = version + 1, updated_at = ? "
+                        + "WHERE user_id = ? AND currency = ? AND balance >= ?", 1, CREATED_AT, 1000L, "USDT", 1);
+        assertIndexLookup("PRIMARY_KEY", "ID = ?3",
+                "UPDATE wallet_balances SET balance = ?, version = version + 1, updated_at = ? WHERE id = ? AND version = ?",
+                1, CREATED_AT, 1L, 0L);
+        assertIndexLookup("", "USER_ID = ?1",
+                "SELECT COUNT(*) AS wallets, COALESCE(SUM(version), 0) AS version_sum, MAX(updated_at) AS last_updated_at "
+                        + "FROM wallet_balances WHERE user_id = ?", 1000L);
+    }
+
+    @Test
+    void testPriceQueries_SeekBySymbol() {
+        assertIndexLookup("IDX_AGGREGATED_PRICES_SYMBOL_TIMESTAMP", "SYMBOL = ?1 AND TIMESTAMP >= ?2",
+                "SELECT * FROM aggregated_prices WHERE symbol = ? AND timestamp >= ? ORDER BY timestamp", "BTCUSDT", CREATED_AT);
+        assertIndexLookup("IDX_AGGREGATED_PRICES_SYMBOL_TIMESTAMP", "SYMBOL = ?1 AND TIMESTAMP < ?2",
+                "DELETE FROM aggregated_prices WHERE symbol = ? AND timestamp < ? FETCH FIRST ? ROWS ONLY", "BTCUSDT", CREATED_AT, 1000);
+        String distinctSymbols = jdbcTemplate.queryForObject("EXPLAIN SELECT DISTINCT symbol FROM aggregated_prices", String.class)
+                .replaceAll("\\s+", " ");
+        assertTrue(distinctSymbols.contains("/* PUBLIC.IDX_AGGREGATED_PRICES_SYMBOL_TIMESTAMP */ /* distinct */"),
+                () -> "Expected a distinct index scan: " + distinctSymbols);
+        assertIndexLookup("PRIMARY_KEY", "SYMBOL IN(?1, ?2)",
+                "SELECT * FROM latest_prices WHERE symbol IN (?, ?)", "BTCUSDT", "ETHUSDT");
+        assertIndexLookup("PRIMARY_KEY", "OPEN_TIME >= ?3 AND OPEN_TIME < ?4 AND SYMBOL = ?1 AND CANDLE_INTERVAL = ?2",
+                "SELECT symbol, open_time, open_price, high_price, low_price, close_price FROM price_candles "
+                        + "WHERE symbol = ? AND candle_interval = ? AND open_time >= ? AND open_time < ? ORDER BY open_time",
+                "BTCUSDT", "1m", CREATED_AT, CREATED_AT);
+    }
+
+    @Test
+    void testUserQueries_SeekByUsernameAndEmail() {
+        assertIndexLookup("UK_USERS_USERNAME", "USERNAME = ?1", "SELECT * FROM users WHERE username = ?", "plan-1000");
+        assertIndexLookup("IDX_USERS_EMAIL", "EMAIL = ?1", "SELECT * FROM users WHERE email = ?", "plan-1000@test.com");
+    }
+
+    /**
+     * Asserts that the plan reads the table through an index whose name starts with {@code index} (empty for any
+     * index) using {@code condition}. H2 appends a number to the names of indexes it creates for constraints.
+     */
+    private void assertIndexLookup(String index, String condition, String sql, Object... args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args).replaceAll("\\s+", " ");
+        Pattern lookup = Pattern.compile("/\\* PUBLIC\\." + Pattern.quote(index) + "[A-Z0-9_]*: " + Pattern.quote(condition) + " \\*/");
+
+        assertTrue(lookup.matcher(plan).find(),
+                () -> "Expected a lookup on " + index + " [" + condition + "] for [" + sql + "]: " + plan);
+        assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan for [" + sql + "]: " + plan);
+    }
+}
@@ -0,0 +1,110 @@
+package com.vuongnguyen.fintech_project.repository;
+
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TradeRepositoryTest {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("history-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@test.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void testInsertBatch_SetsGeneratedIds() {
+        List<Trade> trades = List.of(
+                trade("BTCUSDT", LocalDateTime.of(2026, 1, 1, 10, 0)),
+                trade("ETHUSDT", LocalDateTime.of(2026, 1, 1, 10, 1)));
+
+        tradeRepository.insertBatch(trades);
+
+        assertNotNull(trades.get(0).getId());
+        assertEquals(trades.get(0).getId() + 1, trades.get(1).getId());
+        assertEquals("ETHUSDT", tradeRepository.findById(trades.get(1).getId()).orElseThrow().getSymbol());
+    }
+
+    @Test
+    void testKeysetPages_WalkEveryTradeOnceIncludingTies() {
+        LocalDateTime sameTime = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trades.add(trade(i % 2 == 0 ? "BTCUSDT" : "ETHUSDT", sameTime));
+        }
+        trades.add(trade("BTCUSDT", sameTime.plusMinutes(1)));
+        trades.add(trade("ETHUSDT", sameTime.minusMinutes(1)));
+        tradeRepository.insertBatch(trades);
+
+        List<Long> walked = new ArrayList<>();
+        List<Trade> page = tradeRepository.findFirstPage(user.getId(), Limit.of(3));
+        while (!page.isEmpty()) {
+            page.forEach(trade -> walked.add(trade.getId()));
+            Trade last = page.get(page.size() - 1);
+            page = tradeRepository.findPageAfter(user.getId(), last.getCreatedAt(), last.getId(), Limit.of(3));
+        }
+
+        List<Long> expected = List.of(trades.get(5).getId(), trades.get(4).getId(), trades.get(3).getId(),
+                trades.get(2).getId(), trades.get(1).getId(), trades.get(0).getId(), trades.get(6).getId());
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void testKeysetPages_FilterBySymbol() {
+        LocalDateTime sameTime = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Trade> trades = List.of(
+                trade("BTCUSDT", sameTime),
+                trade("ETHUSDT", sameTime),
+                trade("BTCUSDT", sameTime),
+                trade("BTCUSDT", sameTime.minusSeconds(1)));
+        tradeRepository.insertBatch(trades);
+
+        List<Trade> first = tradeRepository.findFirstPageBySymbol(user.getId(), "BTCUSDT", Limit.of(2));
+        Trade last = first.get(1);
+        List<Trade> second = tradeRepository.findPageAfterBySymbol(user.getId(), "BTCUSDT",
+                last.getCreatedAt(), last.getId(), Limit.of(2));
+
+        assertEquals(List.of(trades.get(2).getId(), trades.get(0).getId()), first.stream().map(Trade::getId).toList());
+        assertEquals(List.of(trades.get(3).getId()), second.stream().map(Trade::getId).toList());
+    }
+
+    private Trade trade(String symbol, LocalDateTime createdAt) {
+        Trade trade = new Trade();
+        trade.setUser(user);
+        trade.setSymbol(symbol);
+        trade.setSide(TradeSide.BUY);
+        trade.setPrice(new BigDecimal("100.00"));
+        trade.setQuantity(new BigDecimal("1"));
+        trade.setTotalAmount(new BigDecimal("100.00"));
+        trade.setCreatedAt(createdAt);
+        return trade;
+    }
+}
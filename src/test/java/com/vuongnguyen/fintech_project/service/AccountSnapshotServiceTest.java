@@ -0,0 +1,167 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AccountHolding;
+import com.vuongnguyen.fintech_project.dto.AccountSnapshotResponse;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountSnapshotServiceTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private TradingService tradingService;
+
+    @Mock
+    private PriceSnapshotService priceSnapshotService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SymbolRegistry symbolRegistry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+    private AccountSnapshotService accountSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        accountSnapshotService = new AccountSnapshotService(portfolioService, tradingService,
+                new PriceService(priceSnapshotService, symbolRegistry), executor, meterRegistry);
+        ReflectionTestUtils.setField(accountSnapshotService, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(accountSnapshotService, "tradePageSize", 20);
+
+        PriceSnapshot snapshot = PriceSnapshot.EMPTY.with(List.of(
+                new PriceQuote("BTCUSDT", new BigDecimal("50000"), new BigDecimal("50001"), LocalDateTime.now())));
+        lenient().when(priceSnapshotService.getSnapshot()).thenReturn(snapshot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGetAccountSnapshot_UsesPortfolioValuation() {
+        List<AccountHolding> holdings = List.of(
+                holding("USDT", "1000", null, "1000"),
+                holding("BTC", "0.5", "BTCUSDT", "25000"),
+                holding("ETH", "2", "ETHUSDT", null));
+        when(portfolioService.getValuation(1L)).thenReturn(valuation("26000", holdings));
+        TradeHistoryResponse trades = new TradeHistoryResponse(List.of(), 0, 0, 0, 20);
+        when(tradingService.getUserTradeHistory(1L, 0, 20, null)).thenReturn(trades);
+
+        AccountSnapshotResponse snapshot = accountSnapshotService.getAccountSnapshot(1L);
+
+        assertEquals(holdings, snapshot.getHoldings());
+        assertEquals(0, new BigDecimal("26000").compareTo(snapshot.getTotalValue()));
+        assertEquals(PortfolioService.VALUATION_CURRENCY, snapshot.getValuationCurrency());
+        assertEquals(1, snapshot.getPrices().getPrices().size());
+        assertEquals(List.of("ETHUSDT"), snapshot.getPrices().getMissingSymbols());
+        assertEquals(trades, snapshot.getRecentTrades());
+        assertTrue(snapshot.getMissingSections().isEmpty());
+    }
+
+    @Test
+    void testGetAccountSnapshot_LeavesOutSectionThatMissesBudget() {
+        ReflectionTestUtils.setField(accountSnapshotService, "timeout", Duration.ofMillis(100));
+        when(portfolioService.getValuation(1L))
+                .thenReturn(valuation("1000", List.of(holding("USDT", "1000", null, "1000"))));
+        when(tradingService.getUserTradeHistory(1L, 0, 20, null)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return new TradeHistoryResponse(List.of(), 0, 0, 0, 20);
+        });
+
+        AccountSnapshotResponse snapshot = accountSnapshotService.getAccountSnapshot(1L);
+
+        assertEquals(List.of(AccountSnapshotService.TRADES), snapshot.getMissingSections());
+        assertNull(snapshot.getRecentTrades());
+        assertEquals(0, new BigDecimal("1000").compareTo(snapshot.getTotalValue()));
+        assertEquals(1, meterRegistry.counter("dce.account-snapshot.missing", "section", "trades").count());
+    }
+
+    @Test
+    void testGetAccountSnapshot_LeavesOutFailedSection() {
+        when(portfolioService.getValuation(1L)).thenThrow(new IllegalStateException("Database unavailable"));
+        when(tradingService.getUserTradeHistory(1L, 0, 20, null))
+                .thenReturn(new TradeHistoryResponse(List.of(), 0, 0, 0, 20));
+
+        AccountSnapshotResponse snapshot = accountSnapshotService.getAccountSnapshot(1L);
+
+        assertEquals(List.of(AccountSnapshotService.WALLETS), snapshot.getMissingSections());
+        assertNull(snapshot.getHoldings());
+        assertNull(snapshot.getTotalValue());
+    }
+
+    @Test
+    void testGetAccountSnapshot_LeavesOutSectionRejectedBySaturatedExecutor() {
+        AtomicInteger submitted = new AtomicInteger();
+        Executor saturatedAfterFirst = task -> {
+            if (submitted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("Account snapshot pool is full");
+            }
+            executor.execute(task);
+        };
+        accountSnapshotService = new AccountSnapshotService(portfolioService, tradingService,
+                new PriceService(priceSnapshotService, symbolRegistry), saturatedAfterFirst, meterRegistry);
+        ReflectionTestUtils.setField(accountSnapshotService, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(accountSnapshotService, "tradePageSize", 20);
+        when(portfolioService.getValuation(1L))
+                .thenReturn(valuation("1000", List.of(holding("USDT", "1000", null, "1000"))));
+
+        AccountSnapshotResponse snapshot = accountSnapshotService.getAccountSnapshot(1L);
+
+        assertEquals(List.of(AccountSnapshotService.TRADES), snapshot.getMissingSections());
+        assertNull(snapshot.getRecentTrades());
+        verifyNoInteractions(tradingService);
+    }
+
+    @Test
+    void testGetAccountSnapshot_UserNotFound() {
+        when(portfolioService.getValuation(99L)).thenThrow(new ResourceNotFoundException("User not found: 99"));
+        lenient().when(tradingService.getUserTradeHistory(99L, 0, 20, null))
+                .thenReturn(new TradeHistoryResponse(List.of(), 0, 0, 0, 20));
+
+        assertThrows(ResourceNotFoundException.class, () -> accountSnapshotService.getAccountSnapshot(99L));
+    }
+
+    private static PortfolioValuation valuation(String totalValue, List<AccountHolding> holdings) {
+        return new PortfolioValuation(1L, PortfolioService.VALUATION_CURRENCY, new BigDecimal(totalValue), holdings,
+                LocalDateTime.now());
+    }
+
+    private static AccountHolding holding(String currency, String balance, String symbol, String value) {
+        return new AccountHolding(currency, new BigDecimal(balance), symbol, null,
+                value == null ? null : new BigDecimal(value), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,122 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinanceBookTickerParserTest {
+
+    private static final Set<String> SYMBOLS = Set.of("BTCUSDT", "ETHUSDT");
+
+    private SimpleMeterRegistry meterRegistry;
+    private BinanceBookTickerParser parser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        parser = new BinanceBookTickerParser(meterRegistry);
+    }
+
+    @Test
+    void testParse_KeepsOnlySubscribedSymbolsInResponseOrder() throws IOException {
+        String body = "["
+                + ticker("BNBUSDT", "400.00", "401.00") + ","
+                + ticker("ETHUSDT", "3000.00", "3001.00") + ","
+                + ticker("XRPUSDT", "0.50", "0.51") + ","
+                + ticker("BTCUSDT", "50000.00", "50001.00")
+                + "]";
+
+        List<BinanceTickerResponse> result = parse(body);
+
+        assertEquals(2, result.size());
+        assertEquals("ETHUSDT", result.get(0).getSymbol());
+        assertEquals(FixedPoint.parse("3000.00"), result.get(0).getBidPrice());
+        assertEquals(FixedPoint.parse("3001.00"), result.get(0).getAskPrice());
+        assertEquals("BTCUSDT", result.get(1).getSymbol());
+    }
+
+    @Test
+    void testParse_HandlesSymbolAfterPriceFields() throws IOException {
+        String body = "[{\"bidPrice\":\"3000.00\",\"askPrice\":\"3001.00\",\"symbol\":\"ETHUSDT\"},"
+                + "{\"bidPrice\":\"400.00\",\"askPrice\":\"401.00\",\"symbol\":\"BNBUSDT\"}]";
+
+        List<BinanceTickerResponse> result = parse(body);
+
+        assertEquals(1, result.size());
+        assertEquals("ETHUSDT", result.get(0).getSymbol());
+        assertEquals(FixedPoint.parse("3000.00"), result.get(0).getBidPrice());
+    }
+
+    @Test
+    void testParse_IgnoresUnknownAndNestedFields() throws IOException {
+        String body = "[{\"symbol\":\"BNBUSDT\",\"extra\":{\"a\":[1,2]}},"
+                + "{\"symbol\":\"ETHUSDT\",\"meta\":[{\"x\":1}],\"bidPrice\":\"3000.00\",\"askPrice\":null}]";
+
+        List<BinanceTickerResponse> result = parse(body);
+
+        assertEquals(1, result.size());
+        assertEquals(FixedPoint.parse("3000.00"), result.get(0).getBidPrice());
+        assertEquals(FixedPoint.UNSET, result.get(0).getAskPrice());
+    }
+
+    @Test
+    void testParse_EmptyBodyReturnsNull() throws IOException {
+        assertNull(parse(""));
+    }
+
+    @Test
+    void testParse_ReadsSingleTickerObject() throws IOException {
+        List<BinanceTickerResponse> result = parse(ticker("ETHUSDT", "3000.00", "3001.00"));
+
+        assertEquals(1, result.size());
+        assertEquals("ETHUSDT", result.get(0).getSymbol());
+        assertEquals(FixedPoint.parse("3001.00"), result.get(0).getAskPrice());
+        assertTrue(parse(ticker("BNBUSDT", "400.00", "401.00")).isEmpty());
+    }
+
+    @Test
+    void testParse_ErrorObjectThrows() {
+        assertThrows(IllegalStateException.class, () -> parse("{\"code\":-1121,\"msg\":\"Invalid symbol.\"}"));
+    }
+
+    @Test
+    void testParse_NonJsonContainerThrows() {
+        assertThrows(IllegalStateException.class, () -> parse("\"ETHUSDT\""));
+    }
+
+    @Test
+    void testParse_RecordsBytesAndObjectMetrics() throws IOException {
+        String body = "[" + ticker("BNBUSDT", "400.00", "401.00") + "," + ticker("ETHUSDT", "3000.00", "3001.00") + "]";
+
+        parse(body);
+
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length,
+                meterRegistry.summary("dce.binance.parse.bytes").totalAmount());
+        assertEquals(1.0, meterRegistry.summary("dce.binance.parse.objects").totalAmount());
+        assertEquals(1.0, meterRegistry.summary("dce.binance.parse.skipped").totalAmount());
+        assertTrue(meterRegistry.summary("dce.binance.parse.bytes").count() > 0);
+    }
+
+    private List<BinanceTickerResponse> parse(String body) throws IOException {
+        return parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), SYMBOLS);
+    }
+
+    private String ticker(String symbol, String bid, String ask) {
+        return String.format("{\"symbol\":\"%s\",\"bidPrice\":\"%s\",\"bidQty\":\"1.00\",\"askPrice\":\"%s\",\"askQty\":\"2.00\"}",
+                symbol, bid, ask);
+    }
+}
@@ -3,19 +3,21 @@ package com.vuongnguyen.fintech_project.service;
 import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
 import com.vuongnguyen.fintech_project.dto.PriceData;
 import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-import static com.vuongnguyen.fintech_project.utility.Constant.SUPPORTED_SYMBOLS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -29,6 +31,9 @@ class BinancePriceServiceTest {
     @Mock
     private ExternalService externalService;
 
+    @Spy
+    private SymbolRegistry symbolRegistry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
     @InjectMocks
     private BinancePriceService binancePriceService;
 
@@ -44,19 +49,19 @@ class BinancePriceServiceTest {
 
     @Test
     void testFetchPrices_Success() {
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(mockBinanceResponses);
 
         List<PriceData> result = binancePriceService.fetchPrices();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(externalService, times(1)).fetchBinancePrices(SUPPORTED_SYMBOLS);
+        verify(externalService, times(1)).fetchBinancePrices(symbolRegistry.getSymbols());
     }
 
     @Test
     void testFetchPrices_VerifyDataMapping() {
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(mockBinanceResponses);
 
         List<PriceData> result = binancePriceService.fetchPrices();
@@ -67,14 +72,14 @@ class BinancePriceServiceTest {
                 .orElseThrow();
 
         assertEquals("ETHUSDT", ethPrice.getSymbol());
-        assertEquals(new BigDecimal("3000.00"), ethPrice.getBid());
-        assertEquals(new BigDecimal("3001.00"), ethPrice.getAsk());
+        assertEquals(FixedPoint.parse("3000.00"), ethPrice.getBid());
+        assertEquals(FixedPoint.parse("3001.00"), ethPrice.getAsk());
         assertEquals(DCESource.BINANCE, ethPrice.getSource());
     }
 
     @Test
     void testFetchPrices_VerifyAllSymbolsMapped() {
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(mockBinanceResponses);
 
         List<PriceData> result = binancePriceService.fetchPrices();
@@ -85,14 +90,14 @@ class BinancePriceServiceTest {
 
     @Test
     void testFetchPrices_EmptyResponse() {
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(Collections.emptyList());
 
         List<PriceData> result = binancePriceService.fetchPrices();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(externalService, times(1)).fetchBinancePrices(SUPPORTED_SYMBOLS);
+        verify(externalService, times(1)).fetchBinancePrices(symbolRegistry.getSymbols());
     }
 
     @Test
@@ -101,7 +106,7 @@ class BinancePriceServiceTest {
                 createBinanceResponse("BTCUSDT", "50000.00", "50001.00")
         );
 
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(singleResponse);
 
         List<PriceData> result = binancePriceService.fetchPrices();
@@ -114,16 +119,16 @@ class BinancePriceServiceTest {
 
     @Test
     void testFetchPrices_VerifyBidAskPrices() {
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(mockBinanceResponses);
 
         List<PriceData> result = binancePriceService.fetchPrices();
 
         for (PriceData priceData : result) {
-            assertNotNull(priceData.getBid());
-            assertNotNull(priceData.getAsk());
-            assertTrue(priceData.getBid().compareTo(BigDecimal.ZERO) > 0);
-            assertTrue(priceData.getAsk().compareTo(BigDecimal.ZERO) > 0);
+            assertTrue(FixedPoint.isSet(priceData.getBid()));
+            assertTrue(FixedPoint.isSet(priceData.getAsk()));
+            assertTrue(priceData.getBid() > 0);
+            assertTrue(priceData.getAsk() > 0);
         }
     }
 
@@ -133,15 +138,15 @@ class BinancePriceServiceTest {
                 createBinanceResponse("BTCUSDT", "99999.99", "100000.01")
         );
 
-        when(externalService.fetchBinancePrices(SUPPORTED_SYMBOLS))
+        when(externalService.fetchBinancePrices(symbolRegistry.getSymbols()))
                 .thenReturn(largeValueResponses);
 
         List<PriceData> result = binancePriceService.fetchPrices();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(new BigDecimal("99999.99"), result.get(0).getBid());
-        assertEquals(new BigDecimal("100000.01"), result.get(0).getAsk());
+        assertEquals(FixedPoint.parse("99999.99"), result.get(0).getBid());
+        assertEquals(FixedPoint.parse("100000.01"), result.get(0).getAsk());
     }
 
     private BinanceTickerResponse createBinanceResponse(String symbol, String bid, String ask) {
@@ -0,0 +1,249 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "dce.trading.engine=conditional-update",
+        "spring.datasource.url=jdbc:h2:mem:conditional"
+})
+@ActiveProfiles("test")
+class ConditionalUpdateTradeEngineTest {
+
+    @Autowired
+    private TradeEngine tradeEngine;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserStreamService userStreamService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        AggregatedPrice ethPrice = new AggregatedPrice();
+        ethPrice.setSymbol("ETHUSDT");
+        ethPrice.setBestBid(new BigDecimal("3000.00"));
+        ethPrice.setBestAsk(new BigDecimal("3001.00"));
+        ethPrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(ethPrice));
+
+        user = new User();
+        user.setUsername("conditional-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@test.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+
+        createWallet("USDT", new BigDecimal("10000.00000000"));
+        createWallet("ETH", new BigDecimal("1.00000000"));
+    }
+
+    @Test
+    void testExecute_IsConditionalUpdateEngine() {
+        assertInstanceOf(ConditionalUpdateTradeEngine.class, tradeEngine);
+    }
+
+    @Test
+    void testExecute_BuyUpdatesBothWallets() {
+        TradeResponse response = tradeEngine.execute(request(TradeSide.BUY, "2", null));
+
+        assertNotNull(response.getTradeId());
+        assertEquals(0, new BigDecimal("3998.00").compareTo(response.getUpdatedUsdtBalance()));
+        assertEquals(0, new BigDecimal("3").compareTo(response.getUpdatedAssetBalance()));
+        assertEquals("ETH", response.getAssetCurrency());
+
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(1L, usdt.getVersion());
+    }
+
+    @Test
+    void testExecute_ConcurrentBuysAndSellsOfSameUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TradeResponse>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                TradeSide side = i % 2 == 0 ? TradeSide.BUY : TradeSide.SELL;
+                responses.add(executor.submit(() -> tradeEngine.execute(request(side, "0.1", null))));
+            }
+            for (Future<TradeResponse> response : responses) {
+                assertNotNull(response.get().getTradeId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        WalletBalance eth = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "ETH").orElseThrow();
+        assertEquals(0, new BigDecimal("9999.00").compareTo(usdt.getBalance()));
+        assertEquals(0, new BigDecimal("1").compareTo(eth.getBalance()));
+        assertEquals(20, tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    @Test
+    void testExecute_InsufficientBalanceLeavesWalletsUnchanged() {
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> tradeEngine.execute(request(TradeSide.SELL, "1.5", null)));
+
+        assertTrue(exception.getMessage().contains("Insufficient ETH balance"));
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        WalletBalance eth = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "ETH").orElseThrow();
+        assertEquals(0, new BigDecimal("10000").compareTo(usdt.getBalance()));
+        assertEquals(0, new BigDecimal("1").compareTo(eth.getBalance()));
+        assertTrue(tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).isEmpty());
+    }
+
+    @Test
+    void testExecute_StreamsTradeOnlyAfterCommit() throws Exception {
+        LinkedBlockingQueue<TradeResponse> streamed = new LinkedBlockingQueue<>();
+        userStreamService.register(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                builder.build().stream()
+                        .map(DataWithMediaType::getData)
+                        .filter(TradeResponse.class::isInstance)
+                        .map(TradeResponse.class::cast)
+                        .forEach(streamed::add);
+            }
+        }, user.getId());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            tradeEngine.execute(request(TradeSide.BUY, "1", null));
+            status.setRollbackOnly();
+        });
+        TradeResponse committed = tradeEngine.execute(request(TradeSide.BUY, "2", null));
+
+        TradeResponse trade = streamed.poll(5, TimeUnit.SECONDS);
+        assertNotNull(trade);
+        assertEquals(committed.getTradeId(), trade.getTradeId());
+        assertEquals(0, new BigDecimal("3998.00").compareTo(trade.getUpdatedUsdtBalance()));
+        assertNull(streamed.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testExecute_UpdatesLoadedPortfolioAfterCommit() {
+        assertEquals(0, new BigDecimal("13000").compareTo(portfolioService.getValuation(user.getId()).getTotalValue()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            tradeEngine.execute(request(TradeSide.SELL, "1", null));
+            status.setRollbackOnly();
+        });
+        assertEquals(0, new BigDecimal("13000").compareTo(portfolioService.getValuation(user.getId()).getTotalValue()));
+
+        tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        assertEquals(0, new BigDecimal("12999").compareTo(portfolioService.getValuation(user.getId()).getTotalValue()));
+    }
+
+    @Test
+    void testExecute_DuplicateClientOrderIdReturnsExistingTrade() {
+        String clientOrderId = "conditional-" + UUID.randomUUID();
+
+        TradeResponse first = tradeEngine.execute(request(TradeSide.BUY, "1", clientOrderId));
+        TradeResponse duplicate = tradeEngine.execute(request(TradeSide.BUY, "1", clientOrderId));
+
+        assertEquals(first.getTradeId(), duplicate.getTradeId());
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("6999.00").compareTo(usdt.getBalance()));
+    }
+
+    @Test
+    void testExecute_UserNotFound() {
+        TradeRequest request = request(TradeSide.BUY, "1", null);
+        request.setUserId(Long.MAX_VALUE);
+
+        assertThrows(ResourceNotFoundException.class, () -> tradeEngine.execute(request));
+    }
+
+    @Test
+    void testExecute_WalletNotFound() {
+        AggregatedPrice btcPrice = new AggregatedPrice();
+        btcPrice.setSymbol("BTCUSDT");
+        btcPrice.setBestBid(new BigDecimal("50000.00"));
+        btcPrice.setBestAsk(new BigDecimal("50001.00"));
+        btcPrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(btcPrice));
+        TradeRequest request = request(TradeSide.BUY, "0.01", null);
+        request.setSymbol("BTCUSDT");
+
+        TradingException exception = assertThrows(TradingException.class, () -> tradeEngine.execute(request));
+
+        assertTrue(exception.getMessage().contains("BTC wallet not found"));
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("10000").compareTo(usdt.getBalance()));
+    }
+
+    private TradeRequest request(TradeSide side, String quantity, String clientOrderId) {
+        TradeRequest request = new TradeRequest();
+        request.setUserId(user.getId());
+        request.setSymbol("ETHUSDT");
+        request.setSide(side);
+        request.setQuantity(new BigDecimal(quantity));
+        request.setClientOrderId(clientOrderId);
+        return request;
+    }
+
+    private void createWallet(String currency, BigDecimal balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setUser(user);
+        wallet.setCurrency(currency);
+        wallet.setBalance(balance);
+        wallet.setUpdatedAt(LocalDateTime.now());
+        walletBalanceRepository.save(wallet);
+    }
+}
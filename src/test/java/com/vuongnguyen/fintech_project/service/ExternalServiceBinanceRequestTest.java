@@ -0,0 +1,124 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
+import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.repository.LatestPriceRepository;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the Binance book ticker URLs built by {@link ExternalService} against a local stub server.
+ */
+class ExternalServiceBinanceRequestTest {
+
+    private static final String BODY = "["
+            + "{\"symbol\":\"BTCUSDT\",\"bidPrice\":\"50000.00\",\"bidQty\":\"1.0\",\"askPrice\":\"50001.00\",\"askQty\":\"1.0\"},"
+            + "{\"symbol\":\"ETHUSDT\",\"bidPrice\":\"3000.00\",\"bidQty\":\"1.0\",\"askPrice\":\"3001.00\",\"askQty\":\"1.0\"}"
+            + "]";
+
+    private static final String SINGLE_BODY =
+            "{\"symbol\":\"ETHUSDT\",\"bidPrice\":\"3000.00\",\"bidQty\":\"1.0\",\"askPrice\":\"3001.00\",\"askQty\":\"1.0\"}";
+
+    private HttpServer server;
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private ExternalService externalService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/ticker/bookTicker", exchange -> {
+            URI uri = exchange.getRequestURI();
+            requests.add(uri);
+            // Binance answers a single symbol request with one object instead of an array
+            boolean single = uri.getQuery() != null && uri.getQuery().startsWith("symbol=");
+            byte[] body = (single ? SINGLE_BODY : BODY).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        MarketDataSourceProperties.Source binance = new MarketDataSourceProperties.Source();
+        binance.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/v3/ticker/bookTicker");
+        MarketDataSourceProperties marketDataSourceProperties = new MarketDataSourceProperties();
+        marketDataSourceProperties.getSources().put(DCESource.BINANCE, binance);
+        externalService = new ExternalService(new RestTemplate(), mock(LatestPriceRepository.class),
+                new BinanceBookTickerParser(new SimpleMeterRegistry()),
+                new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json"), marketDataSourceProperties);
+        ReflectionTestUtils.setField(externalService, "binanceSymbolsChunkSize", 100);
+        ReflectionTestUtils.setField(externalService, "binanceSingleSymbolWeight", 2);
+        ReflectionTestUtils.setField(externalService, "binanceSymbolsWeight", 4);
+        ReflectionTestUtils.setField(externalService, "binanceFullBookWeight", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testFetchBinancePrices_RequestsOnlySubscribedSymbols() {
+        List<BinanceTickerResponse> result = externalService.fetchBinancePrices(List.of("BTCUSDT", "ETHUSDT"));
+
+        assertEquals(2, result.size());
+        assertEquals(1, requests.size());
+        assertEquals("symbols=[\"BTCUSDT\",\"ETHUSDT\"]", requests.get(0).getQuery());
+    }
+
+    @Test
+    void testFetchBinancePrices_SingleSymbolUsesSymbolParameter() {
+        List<BinanceTickerResponse> result = externalService.fetchBinancePrices(List.of("ETHUSDT"));
+
+        assertEquals(1, result.size());
+        assertEquals("ETHUSDT", result.get(0).getSymbol());
+        assertEquals(FixedPoint.parse("3000.00"), result.get(0).getBidPrice());
+        assertEquals("symbol=ETHUSDT", requests.get(0).getQuery());
+    }
+
+    @Test
+    void testFetchBinancePrices_SplitsLongSymbolListIntoChunks() {
+        ReflectionTestUtils.setField(externalService, "binanceSymbolsChunkSize", 2);
+        ReflectionTestUtils.setField(externalService, "binanceFullBookWeight", 40);
+
+        externalService.fetchBinancePrices(List.of("BTCUSDT", "ETHUSDT", "BNBUSDT", "XRPUSDT", "SOLUSDT"));
+
+        assertEquals(3, requests.size());
+        assertEquals("symbols=[\"BTCUSDT\",\"ETHUSDT\"]", requests.get(0).getQuery());
+        assertEquals("symbols=[\"BNBUSDT\",\"XRPUSDT\"]", requests.get(1).getQuery());
+        assertEquals("symbols=[\"SOLUSDT\"]", requests.get(2).getQuery());
+    }
+
+    @Test
+    void testFetchBinancePrices_FallsBackToFullDumpWhenChunksCostMore() {
+        ReflectionTestUtils.setField(externalService, "binanceSymbolsChunkSize", 2);
+
+        List<BinanceTickerResponse> result =
+                externalService.fetchBinancePrices(List.of("BTCUSDT", "ETHUSDT", "BNBUSDT"));
+
+        assertEquals(2, result.size());
+        assertEquals(1, requests.size());
+        assertNull(requests.get(0).getQuery());
+    }
+}
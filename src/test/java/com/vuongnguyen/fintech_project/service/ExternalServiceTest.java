@@ -3,30 +3,39 @@ package com.vuongnguyen.fintech_project.service;
 import com.vuongnguyen.fintech_project.dto.BinanceTickerResponse;
 import com.vuongnguyen.fintech_project.dto.HuobiTicker;
 import com.vuongnguyen.fintech_project.dto.HuobiTickerResponse;
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import com.vuongnguyen.fintech_project.entity.LatestPrice;
+import com.vuongnguyen.fintech_project.repository.LatestPriceRepository;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.StringJoiner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,7 +53,7 @@ class ExternalServiceTest {
     private RestTemplate restTemplate;
 
     @MockitoBean
-    private AggregatedPriceRepository aggregatedPriceRepository;
+    private LatestPriceRepository latestPriceRepository;
 
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
@@ -52,7 +61,7 @@ class ExternalServiceTest {
     private List<String> testSymbols;
     private BinanceTickerResponse[] binanceResponses;
     private HuobiTickerResponse huobiResponse;
-    private List<AggregatedPrice> fallbackPrices;
+    private List<LatestPrice> fallbackPrices;
 
     @BeforeEach
     void setUp() {
@@ -71,12 +80,12 @@ class ExternalServiceTest {
         ));
 
         fallbackPrices = Arrays.asList(
-                createAggregatedPrice(1L, "BTCUSDT", "49000.00", "49001.00"),
-                createAggregatedPrice(2L, "ETHUSDT", "2900.00", "2901.00")
+                createLatestPrice("BTCUSDT", "49000.00", "49001.00"),
+                createLatestPrice("ETHUSDT", "2900.00", "2901.00")
         );
 
         resetCircuitBreakers();
-        reset(restTemplate, aggregatedPriceRepository);
+        reset(restTemplate, latestPriceRepository);
     }
 
     private void resetCircuitBreakers() {
@@ -88,25 +97,24 @@ class ExternalServiceTest {
 
     @Test
     void testBinance_SuccessfulCall() {
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
-                .thenReturn(binanceResponses);
+        mockBinanceResponse(binanceResponses);
 
         List<BinanceTickerResponse> result = externalService.fetchBinancePrices(testSymbols);
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("BTCUSDT", result.get(0).getSymbol());
-        assertEquals(new BigDecimal("50000.00"), result.get(0).getBidPrice());
-        verify(restTemplate, times(1)).getForObject(anyString(), eq(BinanceTickerResponse[].class));
+        assertEquals(FixedPoint.parse("50000.00"), result.get(0).getBidPrice());
+        verify(restTemplate, times(1)).execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
     }
 
 
     @Test
     void testBinance_FallbackAfterAllRetriesFail() {
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
                 .thenThrow(new ResourceAccessException("Connection timeout"));
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         List<BinanceTickerResponse> result = externalService.fetchBinancePrices(testSymbols);
@@ -114,16 +122,16 @@ class ExternalServiceTest {
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("BTCUSDT", result.get(0).getSymbol());
-        assertEquals(new BigDecimal("49000.00"), result.get(0).getBidPrice());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+        assertEquals(FixedPoint.parse("49000.00"), result.get(0).getBidPrice());
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
     }
 
     @Test
     void testBinance_CircuitBreakerOpens() {
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
                 .thenThrow(new ResourceAccessException("Connection timeout"));
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         for (int i = 0; i < 6; i++) {
@@ -136,10 +144,10 @@ class ExternalServiceTest {
 
     @Test
     void testBinance_CircuitBreakerFallback() {
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
                 .thenThrow(new ResourceAccessException("Connection timeout"));
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         for (int i = 0; i < 6; i++) {
@@ -164,7 +172,7 @@ class ExternalServiceTest {
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("btcusdt", result.get(0).getSymbol());
+        assertEquals("BTCUSDT", result.get(0).getSymbol());
         assertEquals(new BigDecimal("50000.00"), result.get(0).getBid());
         verify(restTemplate, times(1)).getForObject(anyString(), eq(HuobiTickerResponse.class));
     }
@@ -175,7 +183,7 @@ class ExternalServiceTest {
         when(restTemplate.getForObject(anyString(), eq(HuobiTickerResponse.class)))
                 .thenThrow(new ResourceAccessException("Connection timeout"));
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         List<HuobiTicker> result = externalService.fetchHuobiPrices(testSymbols);
@@ -184,7 +192,7 @@ class ExternalServiceTest {
         assertEquals(2, result.size());
         assertEquals("BTCUSDT", result.get(0).getSymbol());
         assertEquals(new BigDecimal("49000.00"), result.get(0).getBid());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
     }
 
     @Test
@@ -192,7 +200,7 @@ class ExternalServiceTest {
         when(restTemplate.getForObject(anyString(), eq(HuobiTickerResponse.class)))
                 .thenThrow(new ResourceAccessException("Connection timeout"));
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         for (int i = 0; i < 6; i++) {
@@ -211,8 +219,7 @@ class ExternalServiceTest {
                 createBinanceResponse("BNBUSDT", "400.00", "401.00")
         };
 
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
-                .thenReturn(allResponses);
+        mockBinanceResponse(allResponses);
 
         List<BinanceTickerResponse> result = externalService.fetchBinancePrices(testSymbols);
 
@@ -226,9 +233,9 @@ class ExternalServiceTest {
         HuobiTickerResponse allResponse = new HuobiTickerResponse();
         allResponse.setStatus("ok");
         allResponse.setData(Arrays.asList(
-                createHuobiTicker("BTCUSDT", "50000.00", "50001.00"),
-                createHuobiTicker("ETHUSDT", "3000.00", "3001.00"),
-                createHuobiTicker("BNBUSDT", "400.00", "401.00")
+                createHuobiTicker("btcusdt", "50000.00", "50001.00"),
+                createHuobiTicker("ethusdt", "3000.00", "3001.00"),
+                createHuobiTicker("bnbusdt", "400.00", "401.00")
         ));
 
         when(restTemplate.getForObject(anyString(), eq(HuobiTickerResponse.class)))
@@ -243,17 +250,16 @@ class ExternalServiceTest {
 
     @Test
     void testBinance_NullResponseHandling() {
-        when(restTemplate.getForObject(anyString(), eq(BinanceTickerResponse[].class)))
-                .thenReturn(null);
+        mockBinanceBody("");
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         List<BinanceTickerResponse> result = externalService.fetchBinancePrices(testSymbols);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
     }
 
     @Test
@@ -261,14 +267,14 @@ class ExternalServiceTest {
         when(restTemplate.getForObject(anyString(), eq(HuobiTickerResponse.class)))
                 .thenReturn(null);
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         List<HuobiTicker> result = externalService.fetchHuobiPrices(testSymbols);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
     }
 
     @Test
@@ -280,14 +286,45 @@ class ExternalServiceTest {
         when(restTemplate.getForObject(anyString(), eq(HuobiTickerResponse.class)))
                 .thenReturn(nullDataResponse);
 
-        when(aggregatedPriceRepository.findLatestBySymbolIn(testSymbols))
+        when(latestPriceRepository.findLatestBySymbolIn(testSymbols))
                 .thenReturn(fallbackPrices);
 
         List<HuobiTicker> result = externalService.fetchHuobiPrices(testSymbols);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(testSymbols);
+    }
+
+    @Test
+    void testBinance_StreamingParseKeepsSubscribedTickersOnly() {
+        mockBinanceBody("[{\"symbol\":\"BNBUSDT\",\"bidPrice\":\"400.00\",\"bidQty\":\"1.0\",\"askPrice\":\"401.00\",\"askQty\":\"2.0\"},"
+                + "{\"symbol\":\"ETHUSDT\",\"bidPrice\":\"3000.00\",\"bidQty\":\"1.5\",\"askPrice\":\"3001.00\",\"askQty\":\"2.5\"}]");
+
+        List<BinanceTickerResponse> result = externalService.fetchBinancePrices(testSymbols);
+
+        assertEquals(1, result.size());
+        assertEquals("ETHUSDT", result.get(0).getSymbol());
+        assertEquals(FixedPoint.parse("3000.00"), result.get(0).getBidPrice());
+        assertEquals(FixedPoint.parse("3001.00"), result.get(0).getAskPrice());
+    }
+
+    private void mockBinanceResponse(BinanceTickerResponse[] tickers) {
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (BinanceTickerResponse ticker : tickers) {
+            body.add("{\"symbol\":\"" + ticker.getSymbol()
+                    + "\",\"bidPrice\":\"" + FixedPoint.toBigDecimal(ticker.getBidPrice()).toPlainString()
+                    + "\",\"askPrice\":\"" + FixedPoint.toBigDecimal(ticker.getAskPrice()).toPlainString() + "\"}");
+        }
+        mockBinanceBody(body.toString());
+    }
+
+    private void mockBinanceBody(String body) {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(body.getBytes(), HttpStatus.OK));
+                });
     }
 
     private BinanceTickerResponse createBinanceResponse(String symbol, String bid, String ask) {
@@ -298,7 +335,7 @@ class ExternalServiceTest {
         return new HuobiTicker(symbol, new BigDecimal(bid), new BigDecimal(ask));
     }
 
-    private AggregatedPrice createAggregatedPrice(Long id, String symbol, String bid, String ask) {
-        return new AggregatedPrice(id, symbol, new BigDecimal(bid), new BigDecimal(ask), LocalDateTime.now());
+    private LatestPrice createLatestPrice(String symbol, String bid, String ask) {
+        return new LatestPrice(symbol, new BigDecimal(bid), new BigDecimal(ask), LocalDateTime.now());
     }
 }
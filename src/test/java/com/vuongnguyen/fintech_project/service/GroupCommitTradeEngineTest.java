@@ -0,0 +1,201 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.TradingException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "dce.trading.engine=group-commit",
+        "dce.trading.group-commit.window=50ms",
+        "spring.datasource.url=jdbc:h2:mem:groupcommit"
+})
+@ActiveProfiles("test")
+class GroupCommitTradeEngineTest {
+
+    @Autowired
+    private TradeEngine tradeEngine;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        AggregatedPrice ethPrice = new AggregatedPrice();
+        ethPrice.setSymbol("ETHUSDT");
+        ethPrice.setBestBid(new BigDecimal("3000.00"));
+        ethPrice.setBestAsk(new BigDecimal("3001.00"));
+        ethPrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(ethPrice));
+
+        user = createUser();
+    }
+
+    @Test
+    void testExecute_IsGroupCommitEngine() {
+        assertInstanceOf(GroupCommitTradeEngine.class, tradeEngine);
+    }
+
+    @Test
+    void testExecute_ConcurrentTradesShareBatches() throws Exception {
+        User other = createUser();
+        int trades = 20;
+        long batchesBefore = meterRegistry.summary("dce.trading.group-commit.batch.size").count();
+
+        List<Future<TradeResponse>> responses = submitAll(trades, i -> request(i % 2 == 0 ? user : other, TradeSide.BUY, "0.1", null));
+        for (Future<TradeResponse> response : responses) {
+            assertNotNull(response.get().getTradeId());
+        }
+
+        long batches = meterRegistry.summary("dce.trading.group-commit.batch.size").count() - batchesBefore;
+        assertTrue(batches < trades, "expected trades to share batches, got " + batches + " batches");
+        for (User trader : List.of(user, other)) {
+            WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(trader.getId(), "USDT").orElseThrow();
+            WalletBalance eth = walletBalanceRepository.findByUserIdAndCurrency(trader.getId(), "ETH").orElseThrow();
+            assertEquals(0, new BigDecimal("6999.00").compareTo(usdt.getBalance()));
+            assertEquals(0, new BigDecimal("1.0").compareTo(eth.getBalance()));
+            assertEquals(trades / 2, tradeRepository.findByUserIdOrderByCreatedAtDesc(trader.getId()).size());
+        }
+    }
+
+    @Test
+    void testExecute_FailingTradeIsIsolatedFromBatch() throws Exception {
+        List<Future<TradeResponse>> responses = submitAll(10, i -> request(user, TradeSide.BUY, "1", null));
+
+        int succeeded = 0;
+        int insufficient = 0;
+        for (Future<TradeResponse> response : responses) {
+            try {
+                response.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InsufficientBalanceException.class, e.getCause());
+                insufficient++;
+            }
+        }
+
+        assertEquals(3, succeeded);
+        assertEquals(7, insufficient);
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("997.00").compareTo(usdt.getBalance()));
+        assertEquals(3, tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    @Test
+    void testExecute_DuplicateClientOrderIdInSameBatch() throws Exception {
+        String clientOrderId = "group-" + UUID.randomUUID();
+
+        List<Future<TradeResponse>> responses = submitAll(4, i -> request(user, TradeSide.BUY, "1", clientOrderId));
+
+        Long tradeId = responses.get(0).get().getTradeId();
+        for (Future<TradeResponse> response : responses) {
+            assertEquals(tradeId, response.get().getTradeId());
+        }
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("6999.00").compareTo(usdt.getBalance()));
+    }
+
+    @Test
+    void testExecute_UnsupportedSymbol() {
+        TradeRequest request = request(user, TradeSide.BUY, "1", null);
+        request.setSymbol("DOGEUSDT");
+        AggregatedPrice dogePrice = new AggregatedPrice();
+        dogePrice.setSymbol("DOGEUSDT");
+        dogePrice.setBestBid(new BigDecimal("0.10"));
+        dogePrice.setBestAsk(new BigDecimal("0.11"));
+        dogePrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(dogePrice));
+
+        assertThrows(TradingException.class, () -> tradeEngine.execute(request));
+    }
+
+    private List<Future<TradeResponse>> submitAll(int count, IntFunction<TradeRequest> requests) {
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<TradeResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                TradeRequest request = requests.apply(i);
+                responses.add(executor.submit(() -> tradeEngine.execute(request)));
+            }
+            return responses;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private TradeRequest request(User trader, TradeSide side, String quantity, String clientOrderId) {
+        TradeRequest request = new TradeRequest();
+        request.setUserId(trader.getId());
+        request.setSymbol("ETHUSDT");
+        request.setSide(side);
+        request.setQuantity(new BigDecimal(quantity));
+        request.setClientOrderId(clientOrderId);
+        return request;
+    }
+
+    private User createUser() {
+        User trader = new User();
+        trader.setUsername("group-" + UUID.randomUUID());
+        trader.setEmail(trader.getUsername() + "@test.com");
+        trader.setCreatedAt(LocalDateTime.now());
+        trader = userRepository.save(trader);
+
+        createWallet(trader, "USDT", new BigDecimal("10000.00000000"));
+        createWallet(trader, "ETH", BigDecimal.ZERO);
+
+        return trader;
+    }
+
+    private void createWallet(User trader, String currency, BigDecimal balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setUser(trader);
+        wallet.setCurrency(currency);
+        wallet.setBalance(balance);
+        wallet.setUpdatedAt(LocalDateTime.now());
+        walletBalanceRepository.save(wallet);
+    }
+}
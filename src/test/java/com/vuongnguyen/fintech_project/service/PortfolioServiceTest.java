@@ -0,0 +1,215 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AccountHolding;
+import com.vuongnguyen.fintech_project.dto.PortfolioValuation;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioServiceTest {
+
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PriceSnapshotService priceSnapshotService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PortfolioService portfolioService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioService = portfolioService(Duration.ofMinutes(30));
+
+        PriceSnapshot snapshot = PriceSnapshot.EMPTY.with(List.of(
+                new PriceQuote("BTCUSDT", new BigDecimal("50000"), new BigDecimal("50001"), LocalDateTime.now())));
+        lenient().when(priceSnapshotService.getSnapshot()).thenReturn(snapshot);
+        lenient().when(priceSnapshotService.getLatestQuote("ETHUSDT")).thenReturn(Optional.of(
+                new PriceQuote("ETHUSDT", new BigDecimal("3000"), new BigDecimal("3001"), LocalDateTime.now())));
+    }
+
+    @Test
+    void testGetValuation_LoadsWalletsOnceAndValuesThemAtBid() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000"), wallet("BTC", "0.5")));
+
+        portfolioService.getValuation(1L);
+        PortfolioValuation valuation = portfolioService.getValuation(1L);
+
+        assertEquals(0, new BigDecimal("26000").compareTo(valuation.getTotalValue()));
+        assertEquals(0, new BigDecimal("25000").compareTo(holdings(valuation).get("BTC").getValue()));
+        verify(walletBalanceRepository, times(1)).findByUserId(1L);
+        assertEquals(1, meterRegistry.get("dce.portfolio.users").gauge().value());
+    }
+
+    @Test
+    void testUpdate_RevaluesOnlyHoldersOfTheSymbol() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000"), wallet("BTC", "0.5")));
+        when(walletBalanceRepository.findByUserId(2L)).thenReturn(List.of(wallet("USDT", "500")));
+        portfolioService.getValuation(1L);
+        portfolioService.getValuation(2L);
+
+        portfolioService.update(List.of(price("BTCUSDT", "60000"), price("ETHUSDT", "3500")));
+
+        assertEquals(0, new BigDecimal("31000").compareTo(portfolioService.getValuation(1L).getTotalValue()));
+        assertEquals(0, new BigDecimal("500").compareTo(portfolioService.getValuation(2L).getTotalValue()));
+        assertEquals(1, meterRegistry.counter("dce.portfolio.revaluations").count());
+    }
+
+    @Test
+    void testOnTradeExecuted_AppliesBalancesAndIndexesNewAsset() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "10000")));
+        portfolioService.getValuation(1L);
+
+        portfolioService.onTradeExecuted(new TradeExecutedEvent(trade(5L, "3999", "ETH", "2")));
+        PortfolioValuation valuation = portfolioService.getValuation(1L);
+
+        assertEquals(0, new BigDecimal("9999").compareTo(valuation.getTotalValue()));
+        assertEquals(0, new BigDecimal("3000").compareTo(holdings(valuation).get("ETH").getPrice()));
+
+        portfolioService.update(List.of(price("ETHUSDT", "3500")));
+        assertEquals(0, new BigDecimal("10999").compareTo(portfolioService.getValuation(1L).getTotalValue()));
+    }
+
+    @Test
+    void testOnTradeExecuted_IgnoresOlderTradeCommittedLater() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "10000")));
+        portfolioService.getValuation(1L);
+
+        portfolioService.onTradeExecuted(new TradeExecutedEvent(trade(6L, "6998", "ETH", "2")));
+        portfolioService.onTradeExecuted(new TradeExecutedEvent(trade(5L, "9999", "ETH", "1")));
+
+        Map<String, AccountHolding> holdings = holdings(portfolioService.getValuation(1L));
+        assertEquals(0, new BigDecimal("6998").compareTo(holdings.get("USDT").getBalance()));
+        assertEquals(0, new BigDecimal("2").compareTo(holdings.get("ETH").getBalance()));
+    }
+
+    @Test
+    void testOnTradeExecuted_IgnoresPortfolioNotInMemory() {
+        portfolioService.onTradeExecuted(new TradeExecutedEvent(trade(5L, "3999", "ETH", "2")));
+
+        assertEquals(0, meterRegistry.get("dce.portfolio.users").gauge().value());
+    }
+
+    @Test
+    void testGetValuation_AssetWithoutPriceIsNotValued() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000"), wallet("ETH", "1")));
+
+        PortfolioValuation valuation = portfolioService.getValuation(1L);
+
+        assertNull(holdings(valuation).get("ETH").getValue());
+        assertEquals(0, new BigDecimal("1000").compareTo(valuation.getTotalValue()));
+    }
+
+    @Test
+    void testOnTradeExecuted_SoldOutPositionIsNotRevalued() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000"), wallet("ETH", "1")));
+        portfolioService.getValuation(1L);
+
+        portfolioService.onTradeExecuted(new TradeExecutedEvent(trade(5L, "4000", "ETH", "0")));
+        portfolioService.update(List.of(price("ETHUSDT", "3500")));
+
+        assertEquals(0, new BigDecimal("4000").compareTo(portfolioService.getValuation(1L).getTotalValue()));
+        assertEquals(0, meterRegistry.counter("dce.portfolio.revaluations").count());
+    }
+
+    @Test
+    void testEvictIdle_DropsPortfolioAndItsHolderEntries() {
+        PortfolioService expiring = portfolioService(Duration.ZERO);
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000"), wallet("BTC", "0.5")));
+        expiring.getValuation(1L);
+
+        assertEquals(1, expiring.evictIdle());
+        expiring.update(List.of(price("BTCUSDT", "60000")));
+
+        assertEquals(0, meterRegistry.counter("dce.portfolio.revaluations").count());
+        assertEquals(1, meterRegistry.counter("dce.portfolio.evictions").count());
+        expiring.getValuation(1L);
+        verify(walletBalanceRepository, times(2)).findByUserId(1L);
+    }
+
+    @Test
+    void testEvictIdle_KeepsRecentlyRequestedPortfolio() {
+        when(walletBalanceRepository.findByUserId(1L)).thenReturn(List.of(wallet("USDT", "1000")));
+        portfolioService.getValuation(1L);
+
+        assertEquals(0, portfolioService.evictIdle());
+        assertEquals(1, meterRegistry.get("dce.portfolio.users").gauge().value());
+    }
+
+    @Test
+    void testGetValuation_UserNotFound() {
+        when(walletBalanceRepository.findByUserId(99L)).thenReturn(List.of());
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> portfolioService.getValuation(99L));
+        assertEquals(0, meterRegistry.get("dce.portfolio.users").gauge().value());
+    }
+
+    private PortfolioService portfolioService(Duration idleTimeout) {
+        return new PortfolioService(walletBalanceRepository, userRepository, priceSnapshotService,
+                new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json"), meterRegistry, idleTimeout);
+    }
+
+    private static Map<String, AccountHolding> holdings(PortfolioValuation valuation) {
+        return valuation.getHoldings().stream().collect(Collectors.toMap(AccountHolding::getCurrency, holding -> holding));
+    }
+
+    private static WalletBalance wallet(String currency, String balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setCurrency(currency);
+        wallet.setBalance(new BigDecimal(balance));
+        wallet.setUpdatedAt(LocalDateTime.now());
+        return wallet;
+    }
+
+    private static TradeResponse trade(Long tradeId, String usdtBalance, String assetCurrency, String assetBalance) {
+        TradeResponse trade = new TradeResponse();
+        trade.setTradeId(tradeId);
+        trade.setUserId(1L);
+        trade.setCreatedAt(LocalDateTime.now());
+        trade.setUpdatedUsdtBalance(new BigDecimal(usdtBalance));
+        trade.setAssetCurrency(assetCurrency);
+        trade.setUpdatedAssetBalance(new BigDecimal(assetBalance));
+        return trade;
+    }
+
+    private static AggregatedPrice price(String symbol, String bid) {
+        BigDecimal bestBid = new BigDecimal(bid);
+        return new AggregatedPrice(null, symbol, bestBid, bestBid.add(BigDecimal.ONE), LocalDateTime.now());
+    }
+}
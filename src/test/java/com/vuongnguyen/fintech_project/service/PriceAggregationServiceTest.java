@@ -1,27 +1,45 @@
 package com.vuongnguyen.fintech_project.service;
 
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
 import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
 import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
 import com.vuongnguyen.fintech_project.enums.DCESource;
 import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,7 +57,26 @@ class PriceAggregationServiceTest {
     @Mock
     private AggregatedPriceRepository aggregatedPriceRepository;
 
-    @InjectMocks
+    @Mock
+    private PriceSnapshotService priceSnapshotService;
+
+    @Mock
+    private PriceCandleService priceCandleService;
+
+    @Mock
+    private PriceStreamService priceStreamService;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Spy
+    private Executor exchangeFetchExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MarketDataSourceProperties marketDataSourceProperties;
+
     private PriceAggregationService priceAggregationService;
 
     private List<PriceData> binancePrices;
@@ -47,6 +84,15 @@ class PriceAggregationServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(binancePriceService.getSource()).thenReturn(DCESource.BINANCE);
+        lenient().when(huobiPriceService.getSource()).thenReturn(DCESource.HUOBI);
+        marketDataSourceProperties = new MarketDataSourceProperties();
+        priceAggregationService = new PriceAggregationService(List.of(binancePriceService, huobiPriceService),
+                marketDataSourceProperties, new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json"),
+                aggregatedPriceRepository, priceSnapshotService, priceCandleService, priceStreamService, portfolioService,
+                exchangeFetchExecutor, meterRegistry);
+        ReflectionTestUtils.setField(priceAggregationService, "tickInterval", Duration.ofSeconds(10));
+
         binancePrices = Arrays.asList(
                 new PriceData("ETHUSDT", new BigDecimal("3000.00"), new BigDecimal("3001.00"), DCESource.BINANCE),
                 new PriceData("BTCUSDT", new BigDecimal("50000.00"), new BigDecimal("50001.00"), DCESource.BINANCE)
@@ -67,7 +113,7 @@ class PriceAggregationServiceTest {
 
         verify(binancePriceService, times(1)).fetchPrices();
         verify(huobiPriceService, times(1)).fetchPrices();
-        verify(aggregatedPriceRepository, times(2)).save(any(AggregatedPrice.class));
+        assertEquals(2, savedTickPrices().size());
     }
 
     @Test
@@ -75,19 +121,18 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         AggregatedPrice ethPrice = savedPrices.stream()
                 .filter(p -> p.getSymbol().equals("ETHUSDT"))
                 .findFirst()
                 .orElseThrow();
 
-        assertEquals(new BigDecimal("3000.00"), ethPrice.getBestBid());
+        assertEquals(0, new BigDecimal("3000.00").compareTo(ethPrice.getBestBid()));
     }
 
     @Test
@@ -95,19 +140,18 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         AggregatedPrice ethPrice = savedPrices.stream()
                 .filter(p -> p.getSymbol().equals("ETHUSDT"))
                 .findFirst()
                 .orElseThrow();
 
-        assertEquals(new BigDecimal("3000.50"), ethPrice.getBestAsk());
+        assertEquals(0, new BigDecimal("3000.50").compareTo(ethPrice.getBestAsk()));
     }
 
     @Test
@@ -115,13 +159,12 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         
         AggregatedPrice btcPrice = savedPrices.stream()
                 .filter(p -> p.getSymbol().equals("BTCUSDT"))
@@ -129,8 +172,8 @@ class PriceAggregationServiceTest {
                 .orElseThrow();
 
         assertEquals("BTCUSDT", btcPrice.getSymbol());
-        assertEquals(new BigDecimal("50000.00"), btcPrice.getBestBid());
-        assertEquals(new BigDecimal("50000.50"), btcPrice.getBestAsk());
+        assertEquals(0, new BigDecimal("50000.00").compareTo(btcPrice.getBestBid()));
+        assertEquals(0, new BigDecimal("50000.50").compareTo(btcPrice.getBestAsk()));
     }
 
     @Test
@@ -138,13 +181,12 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(Collections.emptyList());
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         assertEquals(2, savedPrices.size());
     }
 
@@ -153,13 +195,12 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(Collections.emptyList());
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         assertEquals(2, savedPrices.size());
     }
 
@@ -170,7 +211,7 @@ class PriceAggregationServiceTest {
 
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, never()).save(any(AggregatedPrice.class));
+        verify(aggregatedPriceRepository, never()).saveTick(anyList());
     }
 
     @Test
@@ -186,13 +227,12 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(singleSymbolBinance);
         when(huobiPriceService.fetchPrices()).thenReturn(singleSymbolHuobi);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(1)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(1, saved.size());
 
-        AggregatedPrice savedPrice = captor.getValue();
+        AggregatedPrice savedPrice = saved.get(0);
         assertEquals("ETHUSDT", savedPrice.getSymbol());
     }
 
@@ -201,20 +241,19 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(Collections.emptyList());
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         AggregatedPrice ethPrice = savedPrices.stream()
                 .filter(p -> p.getSymbol().equals("ETHUSDT"))
                 .findFirst()
                 .orElseThrow();
 
-        assertEquals(new BigDecimal("3000.00"), ethPrice.getBestBid());
-        assertEquals(new BigDecimal("3001.00"), ethPrice.getBestAsk());
+        assertEquals(0, new BigDecimal("3000.00").compareTo(ethPrice.getBestBid()));
+        assertEquals(0, new BigDecimal("3001.00").compareTo(ethPrice.getBestAsk()));
     }
 
     @Test
@@ -222,13 +261,12 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
 
-        List<AggregatedPrice> savedPrices = captor.getAllValues();
+        List<AggregatedPrice> savedPrices = saved;
         for (AggregatedPrice price : savedPrices) {
             assertNotNull(price.getTimestamp());
         }
@@ -244,14 +282,13 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(mixedPrices.subList(0, 1));
         when(huobiPriceService.fetchPrices()).thenReturn(mixedPrices.subList(1, 2));
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(1)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(1, saved.size());
 
-        AggregatedPrice savedPrice = captor.getValue();
-        assertEquals(new BigDecimal("3005.00"), savedPrice.getBestBid());
+        AggregatedPrice savedPrice = saved.get(0);
+        assertEquals(0, new BigDecimal("3005.00").compareTo(savedPrice.getBestBid()));
     }
 
     @Test
@@ -264,56 +301,63 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(mixedPrices.subList(0, 1));
         when(huobiPriceService.fetchPrices()).thenReturn(mixedPrices.subList(1, 2));
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(1)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(1, saved.size());
 
-        AggregatedPrice savedPrice = captor.getValue();
-        assertEquals(new BigDecimal("3000.50"), savedPrice.getBestAsk());
+        AggregatedPrice savedPrice = saved.get(0);
+        assertEquals(0, new BigDecimal("3000.50").compareTo(savedPrice.getBestAsk()));
     }
 
     @Test
     void testGetLatestPrice_Success() {
-        AggregatedPrice mockPrice = new AggregatedPrice();
-        mockPrice.setSymbol("ETHUSDT");
-        mockPrice.setBestBid(new BigDecimal("3000.00"));
-        mockPrice.setBestAsk(new BigDecimal("3001.00"));
+        PriceQuote mockPrice = new PriceQuote("ETHUSDT", new BigDecimal("3000.00"),
+                new BigDecimal("3001.00"), LocalDateTime.now());
 
-        when(aggregatedPriceRepository.findLatestBySymbol("ETHUSDT"))
+        when(priceSnapshotService.getLatestQuote("ETHUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
-        Optional<AggregatedPrice> result = priceAggregationService.getLatestPrice("ETHUSDT");
+        Optional<PriceQuote> result = priceAggregationService.getLatestPrice("ETHUSDT");
 
         assertTrue(result.isPresent());
         assertEquals("ETHUSDT", result.get().getSymbol());
-        assertEquals(new BigDecimal("3000.00"), result.get().getBestBid());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("ETHUSDT");
+        assertEquals(0, new BigDecimal("3000.00").compareTo(result.get().getBestBid()));
+        verify(priceSnapshotService, times(1)).getLatestQuote("ETHUSDT");
     }
 
     @Test
     void testGetLatestPrice_NotFound() {
-        when(aggregatedPriceRepository.findLatestBySymbol("UNKNOWN"))
+        when(priceSnapshotService.getLatestQuote("UNKNOWN"))
                 .thenReturn(Optional.empty());
 
-        Optional<AggregatedPrice> result = priceAggregationService.getLatestPrice("UNKNOWN");
+        Optional<PriceQuote> result = priceAggregationService.getLatestPrice("UNKNOWN");
 
         assertTrue(result.isEmpty());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("UNKNOWN");
+        verify(priceSnapshotService, times(1)).getLatestQuote("UNKNOWN");
     }
 
     @Test
     void testAggregateAndStorePrices_HandlesExceptionGracefully() {
         when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
         when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
-        when(aggregatedPriceRepository.save(any(AggregatedPrice.class)))
-                .thenThrow(new RuntimeException("Database error"))
-                .thenReturn(null);
+        doThrow(new RuntimeException("Database error")).when(aggregatedPriceRepository).saveTick(anyList());
 
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(2)).save(any(AggregatedPrice.class));
+        assertEquals(2, savedTickPrices().size());
+        verify(priceSnapshotService, never()).publish(any());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_SavesTickInOneBatch() {
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(aggregatedPriceRepository, times(1)).saveTick(anyList());
+        verify(aggregatedPriceRepository, never()).save(any(AggregatedPrice.class));
     }
 
     @Test
@@ -326,15 +370,313 @@ class PriceAggregationServiceTest {
         when(binancePriceService.fetchPrices()).thenReturn(allPrices.subList(0, 1));
         when(huobiPriceService.fetchPrices()).thenReturn(allPrices.subList(1, 2));
 
-        ArgumentCaptor<AggregatedPrice> captor = ArgumentCaptor.forClass(AggregatedPrice.class);
-
         priceAggregationService.aggregateAndStorePrices();
 
-        verify(aggregatedPriceRepository, times(1)).save(captor.capture());
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(1, saved.size());
 
-        AggregatedPrice savedPrice = captor.getValue();
+        AggregatedPrice savedPrice = saved.get(0);
         assertEquals("BTCUSDT", savedPrice.getSymbol());
-        assertEquals(new BigDecimal("50000.00"), savedPrice.getBestBid());
-        assertEquals(new BigDecimal("50000.50"), savedPrice.getBestAsk());
+        assertEquals(0, new BigDecimal("50000.00").compareTo(savedPrice.getBestBid()));
+        assertEquals(0, new BigDecimal("50000.50").compareTo(savedPrice.getBestAsk()));
+    }
+
+    @Test
+    void testAggregateAndStorePrices_FanOutQueriesExchangesConcurrently() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        enableFanOut(executor, Duration.ofSeconds(5));
+
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(binancePriceService.fetchPrices()).thenAnswer(invocation -> awaitPeer(bothStarted, binancePrices));
+        when(huobiPriceService.fetchPrices()).thenAnswer(invocation -> awaitPeer(bothStarted, huobiPrices));
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(3), priceAggregationService::aggregateAndStorePrices);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2, savedTickPrices().size());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_FanOutIsolatesFailingExchange() {
+        enableFanOut(new SyncTaskExecutor(), Duration.ofSeconds(5));
+        when(binancePriceService.fetchPrices()).thenThrow(new IllegalStateException("Binance down"));
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
+        AggregatedPrice ethPrice = saved.stream()
+                .filter(p -> p.getSymbol().equals("ETHUSDT"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("2999.00").compareTo(ethPrice.getBestBid()));
+    }
+
+    @Test
+    void testAggregateAndStorePrices_FanOutSkipsExchangeThatTimesOut() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        enableFanOut(executor, Duration.ofMillis(100));
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(binancePriceService.fetchPrices()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return binancePrices;
+        });
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        try {
+            priceAggregationService.aggregateAndStorePrices();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertEquals(2, savedTickPrices().size());
+        assertEquals(1.0, meterRegistry.counter("dce.fetch.timeouts", "exchange", "BINANCE").count());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_RecordsPerExchangeDuration() {
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        assertEquals(1, meterRegistry.timer("dce.fetch.duration", "exchange", "BINANCE", "outcome", "success").count());
+        assertEquals(1, meterRegistry.timer("dce.fetch.duration", "exchange", "HUOBI", "outcome", "success").count());
+    }
+
+    @Test
+    void testOnPriceUpdate_AggregatesAcrossStreamingExchanges() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ZERO);
+
+        priceAggregationService.onPriceUpdate(binancePrices.get(0));
+        priceAggregationService.onPriceUpdate(huobiPrices.get(0));
+
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(2, saved.size());
+
+        AggregatedPrice latest = saved.get(1);
+        assertEquals("ETHUSDT", latest.getSymbol());
+        assertEquals(0, new BigDecimal("3000.00").compareTo(latest.getBestBid()));
+        assertEquals(0, new BigDecimal("3000.50").compareTo(latest.getBestAsk()));
+    }
+
+    @Test
+    void testOnPriceUpdate_ThrottlesPersistencePerSymbol() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ofMinutes(1));
+
+        priceAggregationService.onPriceUpdate(binancePrices.get(0));
+        priceAggregationService.onPriceUpdate(huobiPrices.get(0));
+        priceAggregationService.onPriceUpdate(binancePrices.get(1));
+
+        assertEquals(2, savedTickPrices().size());
+    }
+
+    @Test
+    void testOnPriceUpdate_UpdatesCandlesAndStreamOnEveryUpdate() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ofMinutes(1));
+
+        priceAggregationService.onPriceUpdate(binancePrices.get(0));
+        priceAggregationService.onPriceUpdate(huobiPrices.get(0));
+
+        assertEquals(1, savedTickPrices().size());
+        verify(priceCandleService, times(2)).update(anyList());
+        verify(priceStreamService, times(2)).publish(anyList());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_SkipsRestPollForLiveStream() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ofMinutes(1));
+        binancePrices.forEach(priceAggregationService::onPriceUpdate);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(binancePriceService, never()).fetchPrices();
+        verify(huobiPriceService, times(1)).fetchPrices();
+
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(4, saved.size());
+
+        AggregatedPrice ethPrice = saved.subList(2, 4).stream()
+                .filter(p -> p.getSymbol().equals("ETHUSDT"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("3000.00").compareTo(ethPrice.getBestBid()));
+        assertEquals(0, new BigDecimal("3000.50").compareTo(ethPrice.getBestAsk()));
+    }
+
+    @Test
+    void testAggregateAndStorePrices_PollsExchangeWhenStreamIsStale() {
+        enableStreaming(Duration.ZERO, Duration.ofMinutes(1));
+        binancePrices.forEach(priceAggregationService::onPriceUpdate);
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(binancePriceService, times(1)).fetchPrices();
+        verify(huobiPriceService, times(1)).fetchPrices();
+    }
+
+    @Test
+    void testAggregateAndStorePrices_ReusesLastPollUntilSourceIsDue() {
+        MarketDataSourceProperties.Source slowSource = new MarketDataSourceProperties.Source();
+        slowSource.setPollInterval(Duration.ofMinutes(1));
+        marketDataSourceProperties.getSources().put(DCESource.HUOBI, slowSource);
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(binancePriceService, times(2)).fetchPrices();
+        verify(huobiPriceService, times(1)).fetchPrices();
+
+        List<AggregatedPrice> saved = savedTickPrices();
+        assertEquals(4, saved.size());
+        AggregatedPrice ethPrice = saved.subList(2, 4).stream()
+                .filter(p -> p.getSymbol().equals("ETHUSDT"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("3000.50").compareTo(ethPrice.getBestAsk()));
+        assertEquals(2.0, meterRegistry.counter("dce.fetch.quotes", "exchange", "HUOBI", "origin", "cached").count());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_DoesNotSaveReusedQuotesAgain() {
+        MarketDataSourceProperties.Source slowSource = new MarketDataSourceProperties.Source();
+        slowSource.setPollInterval(Duration.ofMinutes(1));
+        marketDataSourceProperties.getSources().put(DCESource.BINANCE, slowSource);
+        marketDataSourceProperties.getSources().put(DCESource.HUOBI, slowSource);
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(binancePriceService, times(1)).fetchPrices();
+        verify(huobiPriceService, times(1)).fetchPrices();
+        verify(aggregatedPriceRepository, times(1)).saveTick(any());
+        verify(priceSnapshotService, times(1)).publish(any());
+        assertEquals(2, savedTickPrices().size());
+    }
+
+    @Test
+    void testAggregateAndStorePrices_SkipsDisabledSource() {
+        MarketDataSourceProperties.Source disabled = new MarketDataSourceProperties.Source();
+        disabled.setEnabled(false);
+        marketDataSourceProperties.getSources().put(DCESource.BINANCE, disabled);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        verify(binancePriceService, never()).fetchPrices();
+        AggregatedPrice ethPrice = savedTickPrices().stream()
+                .filter(p -> p.getSymbol().equals("ETHUSDT"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("2999.00").compareTo(ethPrice.getBestBid()));
+    }
+
+    @Test
+    void testAggregateAndStorePrices_UsesPerSourceTimeout() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        enableFanOut(executor, Duration.ofSeconds(5));
+        MarketDataSourceProperties.Source impatient = new MarketDataSourceProperties.Source();
+        impatient.setTimeout(Duration.ofMillis(100));
+        marketDataSourceProperties.getSources().put(DCESource.BINANCE, impatient);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(binancePriceService.fetchPrices()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return binancePrices;
+        });
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(3), priceAggregationService::aggregateAndStorePrices);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertEquals(1.0, meterRegistry.counter("dce.fetch.timeouts", "exchange", "BINANCE").count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AggregatedPrice> savedTickPrices() {
+        ArgumentCaptor<List<AggregatedPrice>> captor = ArgumentCaptor.forClass(List.class);
+        verify(aggregatedPriceRepository, atLeast(0)).saveTick(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private void enableFanOut(Executor executor, Duration timeout) {
+        ReflectionTestUtils.setField(priceAggregationService, "exchangeFetchExecutor", executor);
+        ReflectionTestUtils.setField(priceAggregationService, "fanOutEnabled", true);
+        ReflectionTestUtils.setField(priceAggregationService, "fanOutTimeout", timeout);
+    }
+
+    @Test
+    void testAggregateAndStorePrices_PublishesSnapshotOncePerTick() {
+        when(binancePriceService.fetchPrices()).thenReturn(binancePrices);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+
+        priceAggregationService.aggregateAndStorePrices();
+
+        ArgumentCaptor<List<AggregatedPrice>> captor = ArgumentCaptor.forClass(List.class);
+        verify(priceSnapshotService, times(1)).publish(captor.capture());
+        assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    void testOnPriceUpdate_PublishesEveryUpdateToSnapshot() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ofMinutes(1));
+
+        priceAggregationService.onPriceUpdate(binancePrices.get(0));
+        priceAggregationService.onPriceUpdate(huobiPrices.get(0));
+
+        verify(priceSnapshotService, times(2)).publish(any());
+        assertEquals(1, savedTickPrices().size());
+    }
+
+    @Test
+    void testOnPriceUpdate_IncludesPolledQuotesOfExchangesNotStreaming() {
+        enableStreaming(Duration.ofSeconds(30), Duration.ofMinutes(1));
+        binancePrices.forEach(priceAggregationService::onPriceUpdate);
+        when(huobiPriceService.fetchPrices()).thenReturn(huobiPrices);
+        priceAggregationService.aggregateAndStorePrices();
+
+        priceAggregationService.onPriceUpdate(
+                new PriceData("ETHUSDT", new BigDecimal("2998.00"), new BigDecimal("3002.00"), DCESource.BINANCE));
+
+        ArgumentCaptor<List<AggregatedPrice>> captor = ArgumentCaptor.forClass(List.class);
+        verify(priceSnapshotService, atLeast(1)).publish(captor.capture());
+        AggregatedPrice latest = captor.getValue().get(0);
+        assertEquals("ETHUSDT", latest.getSymbol());
+        assertEquals(0, new BigDecimal("2999.00").compareTo(latest.getBestBid()));
+        assertEquals(0, new BigDecimal("3000.50").compareTo(latest.getBestAsk()));
+    }
+
+    private void enableStreaming(Duration staleAfter, Duration persistInterval) {
+        ReflectionTestUtils.setField(priceAggregationService, "streamStaleAfter", staleAfter);
+        ReflectionTestUtils.setField(priceAggregationService, "streamPersistInterval", persistInterval);
+    }
+
+    private List<PriceData> awaitPeer(CountDownLatch bothStarted, List<PriceData> prices) throws InterruptedException {
+        bothStarted.countDown();
+        bothStarted.await();
+        return prices;
     }
 }
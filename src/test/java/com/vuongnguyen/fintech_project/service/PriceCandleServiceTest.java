@@ -0,0 +1,111 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceCandle;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.enums.CandleInterval;
+import com.vuongnguyen.fintech_project.repository.PriceCandleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:price-candles",
+        "dce.candles.batch-size=2",
+        "dce.candles.max-candles=100"
+})
+@ActiveProfiles("test")
+class PriceCandleServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Autowired
+    private PriceCandleService priceCandleService;
+
+    @Autowired
+    private PriceCandleRepository priceCandleRepository;
+
+    @Test
+    void testUpdate_BuildsCandlesAndFlushesClosedOnes() {
+        priceCandleService.update(List.of(
+                price("CDLBTCUSDT", "100", "102", START.plusSeconds(5)),
+                price("CDLBTCUSDT", "110", "112", START.plusSeconds(20)),
+                price("CDLBTCUSDT", "90", "92", START.plusSeconds(40))));
+        priceCandleService.update(List.of(
+                price("CDLBTCUSDT", "95", "97", START.plusSeconds(50)),
+                price("CDLBTCUSDT", "120", "122", START.plusMinutes(1).plusSeconds(10))));
+
+        // Every interval of 2026-01-01 has ended, so the flush also closes the open 1m, 5m, 1h and 1d candles.
+        priceCandleService.flush();
+
+        List<PriceCandle> stored = priceCandleRepository.findRange("CDLBTCUSDT", CandleInterval.ONE_MINUTE,
+                START, START.plusMinutes(5));
+        assertEquals(2, stored.size());
+        assertCandle(stored.get(0), START, "101", "111", "91", "96");
+        assertCandle(stored.get(1), START.plusMinutes(1), "121", "121", "121", "121");
+
+        List<PriceCandle> hourly = priceCandleService.getCandles("CDLBTCUSDT", CandleInterval.ONE_HOUR,
+                START.plusMinutes(30), START.plusHours(2));
+        assertEquals(1, hourly.size());
+        assertCandle(hourly.get(0), START, "101", "121", "91", "121");
+    }
+
+    @Test
+    void testGetCandles_CombinesStoredAndOpenCandle() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime openTime = CandleInterval.ONE_DAY.openTimeOf(now);
+        priceCandleRepository.saveAll(List.of(new PriceCandle("CDLETHUSDT", CandleInterval.ONE_DAY, openTime,
+                new BigDecimal("50"), new BigDecimal("80"), new BigDecimal("40"), new BigDecimal("60"))));
+
+        priceCandleService.update(List.of(price("CDLETHUSDT", "70", "72", now)));
+
+        List<PriceCandle> candles = priceCandleService.getCandles("CDLETHUSDT", CandleInterval.ONE_DAY, null, null);
+
+        assertEquals(1, candles.size());
+        assertCandle(candles.get(0), openTime, "50", "80", "40", "71");
+    }
+
+    @Test
+    void testSaveAll_CombinesWithStoredCandle() {
+        PriceCandle first = new PriceCandle("CDLSOLUSDT", CandleInterval.FIVE_MINUTES, START,
+                new BigDecimal("10"), new BigDecimal("12"), new BigDecimal("9"), new BigDecimal("11"));
+        PriceCandle second = new PriceCandle("CDLSOLUSDT", CandleInterval.FIVE_MINUTES, START,
+                new BigDecimal("11"), new BigDecimal("15"), new BigDecimal("10"), new BigDecimal("14"));
+
+        priceCandleRepository.saveAll(List.of(first));
+        priceCandleRepository.saveAll(List.of(second, second));
+
+        List<PriceCandle> stored = priceCandleRepository.findRange("CDLSOLUSDT", CandleInterval.FIVE_MINUTES,
+                START, START.plusMinutes(5));
+        assertEquals(1, stored.size());
+        assertCandle(stored.get(0), START, "10", "15", "9", "14");
+    }
+
+    @Test
+    void testGetCandles_RejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> priceCandleService.getCandles("CDLBTCUSDT",
+                CandleInterval.ONE_MINUTE, START, START));
+        assertThrows(IllegalArgumentException.class, () -> priceCandleService.getCandles("CDLBTCUSDT",
+                CandleInterval.ONE_MINUTE, START, START.plusMinutes(101)));
+    }
+
+    private static AggregatedPrice price(String symbol, String bid, String ask, LocalDateTime timestamp) {
+        return new AggregatedPrice(null, symbol, new BigDecimal(bid), new BigDecimal(ask), timestamp);
+    }
+
+    private static void assertCandle(PriceCandle candle, LocalDateTime openTime, String open, String high, String low,
+                                     String close) {
+        assertEquals(openTime, candle.getOpenTime());
+        assertEquals(0, new BigDecimal(open).compareTo(candle.getOpen()));
+        assertEquals(0, new BigDecimal(high).compareTo(candle.getHigh()));
+        assertEquals(0, new BigDecimal(low).compareTo(candle.getLow()));
+        assertEquals(0, new BigDecimal(close).compareTo(candle.getClose()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.RetentionReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:price-retention",
+        "dce.retention.aggregated-prices.max-age=24h",
+        "dce.retention.aggregated-prices.chunk-size=2",
+        "dce.retention.aggregated-prices.symbols.RTNETHUSDT=2h"
+})
+@ActiveProfiles("test")
+class PriceRetentionServiceTest {
+
+    @Autowired
+    private PriceRetentionService priceRetentionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testPurge_DeletesExpiredRowsInChunksPerSymbolRetention() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        insert("RTNBTCUSDT", now.minusDays(3), now.minusDays(2), now.minusHours(25), now.minusHours(23), now.minusMinutes(1));
+        insert("RTNETHUSDT", now.minusHours(25), now.minusHours(3), now.minusHours(1));
+        double purgedBefore = meterRegistry.counter("dce.retention.rows.purged", "table", "aggregated_prices").count();
+
+        RetentionReport report = priceRetentionService.purge().orElseThrow();
+
+        assertEquals(Map.of("RTNBTCUSDT", 3L, "RTNETHUSDT", 2L), report.getRowsPurgedBySymbol());
+        assertEquals(5, report.getRowsPurged());
+        assertEquals(5 * PriceRetentionService.ESTIMATED_ROW_BYTES, report.getBytesReclaimed());
+        assertEquals(List.of(Timestamp.valueOf(now.minusHours(23)), Timestamp.valueOf(now.minusMinutes(1))),
+                timestamps("RTNBTCUSDT"));
+        assertEquals(List.of(Timestamp.valueOf(now.minusHours(1))), timestamps("RTNETHUSDT"));
+        assertEquals(5, meterRegistry.counter("dce.retention.rows.purged", "table", "aggregated_prices").count() - purgedBefore);
+        assertSame(report, priceRetentionService.getLastReport().orElseThrow());
+    }
+
+    @Test
+    void testPurge_NothingExpired() {
+        insert("RTNSOLUSDT", LocalDateTime.now().minusHours(1));
+
+        RetentionReport report = priceRetentionService.purge().orElseThrow();
+
+        assertFalse(report.getRowsPurgedBySymbol().containsKey("RTNSOLUSDT"));
+        assertEquals(1, timestamps("RTNSOLUSDT").size());
+        assertTrue(priceRetentionService.getLastReport().isPresent());
+    }
+
+    private void insert(String symbol, LocalDateTime... timestamps) {
+        for (LocalDateTime timestamp : timestamps) {
+            jdbcTemplate.update("INSERT INTO aggregated_prices (symbol, best_bid, best_ask, timestamp) VALUES (?, 1, 1, ?)",
+                    symbol, Timestamp.valueOf(timestamp));
+        }
+    }
+
+    private List<Timestamp> timestamps(String symbol) {
+        return jdbcTemplate.queryForList("SELECT timestamp FROM aggregated_prices WHERE symbol = ? ORDER BY timestamp",
+                Timestamp.class, symbol);
+    }
+}
@@ -1,8 +1,9 @@
 package com.vuongnguyen.fintech_project.service;
 
 import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshotResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,39 +28,38 @@ import static org.mockito.Mockito.when;
 class PriceServiceTest {
 
     @Mock
-    private AggregatedPriceRepository aggregatedPriceRepository;
+    private PriceSnapshotService priceSnapshotService;
+
+    @Mock
+    private SymbolRegistry symbolRegistry;
 
     @InjectMocks
     private PriceService priceService;
 
-    private AggregatedPrice mockPrice;
+    private PriceQuote mockPrice;
     private LocalDateTime testTimestamp;
 
     @BeforeEach
     void setUp() {
         testTimestamp = LocalDateTime.now();
-        mockPrice = new AggregatedPrice();
-        mockPrice.setId(1L);
-        mockPrice.setSymbol("BTCUSDT");
-        mockPrice.setBestBid(new BigDecimal("50000.00"));
-        mockPrice.setBestAsk(new BigDecimal("50001.00"));
-        mockPrice.setTimestamp(testTimestamp);
+        mockPrice = new PriceQuote("BTCUSDT", new BigDecimal("50000.00"),
+                new BigDecimal("50001.00"), testTimestamp);
     }
 
     @Test
     void testGetLatestPrice_Success() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
 
         assertTrue(result.isPresent());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("BTCUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("BTCUSDT");
     }
 
     @Test
     void testGetLatestPrice_VerifyDataMapping() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -73,25 +74,21 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_NotFound() {
-        when(aggregatedPriceRepository.findLatestBySymbol("UNKNOWN"))
+        when(priceSnapshotService.getLatestQuote("UNKNOWN"))
                 .thenReturn(Optional.empty());
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("UNKNOWN");
 
         assertFalse(result.isPresent());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("UNKNOWN");
+        verify(priceSnapshotService, times(1)).getLatestQuote("UNKNOWN");
     }
 
     @Test
     void testGetLatestPrice_ETHSymbol() {
-        AggregatedPrice ethPrice = new AggregatedPrice();
-        ethPrice.setId(2L);
-        ethPrice.setSymbol("ETHUSDT");
-        ethPrice.setBestBid(new BigDecimal("3000.00"));
-        ethPrice.setBestAsk(new BigDecimal("3001.00"));
-        ethPrice.setTimestamp(testTimestamp);
-
-        when(aggregatedPriceRepository.findLatestBySymbol("ETHUSDT"))
+        PriceQuote ethPrice = new PriceQuote("ETHUSDT", new BigDecimal("3000.00"),
+                new BigDecimal("3001.00"), testTimestamp);
+
+        when(priceSnapshotService.getLatestQuote("ETHUSDT"))
                 .thenReturn(Optional.of(ethPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("ETHUSDT");
@@ -104,7 +101,7 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_VerifyBidAskValues() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -119,7 +116,7 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_VerifyTimestamp() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -131,14 +128,10 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_LargePriceValues() {
-        AggregatedPrice largePrice = new AggregatedPrice();
-        largePrice.setId(3L);
-        largePrice.setSymbol("BTCUSDT");
-        largePrice.setBestBid(new BigDecimal("99999.99"));
-        largePrice.setBestAsk(new BigDecimal("100000.01"));
-        largePrice.setTimestamp(testTimestamp);
-
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        PriceQuote largePrice = new PriceQuote("BTCUSDT", new BigDecimal("99999.99"),
+                new BigDecimal("100000.01"), testTimestamp);
+
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(largePrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -150,14 +143,10 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_SmallPriceValues() {
-        AggregatedPrice smallPrice = new AggregatedPrice();
-        smallPrice.setId(4L);
-        smallPrice.setSymbol("BTCUSDT");
-        smallPrice.setBestBid(new BigDecimal("0.01"));
-        smallPrice.setBestAsk(new BigDecimal("0.02"));
-        smallPrice.setTimestamp(testTimestamp);
-
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        PriceQuote smallPrice = new PriceQuote("BTCUSDT", new BigDecimal("0.01"),
+                new BigDecimal("0.02"), testTimestamp);
+
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(smallPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -169,21 +158,15 @@ class PriceServiceTest {
 
     @Test
     void testGetLatestPrice_MultipleSymbolCalls() {
-        AggregatedPrice btcPrice = new AggregatedPrice();
-        btcPrice.setSymbol("BTCUSDT");
-        btcPrice.setBestBid(new BigDecimal("50000.00"));
-        btcPrice.setBestAsk(new BigDecimal("50001.00"));
-        btcPrice.setTimestamp(testTimestamp);
-
-        AggregatedPrice ethPrice = new AggregatedPrice();
-        ethPrice.setSymbol("ETHUSDT");
-        ethPrice.setBestBid(new BigDecimal("3000.00"));
-        ethPrice.setBestAsk(new BigDecimal("3001.00"));
-        ethPrice.setTimestamp(testTimestamp);
-
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        PriceQuote btcPrice = new PriceQuote("BTCUSDT", new BigDecimal("50000.00"),
+                new BigDecimal("50001.00"), testTimestamp);
+
+        PriceQuote ethPrice = new PriceQuote("ETHUSDT", new BigDecimal("3000.00"),
+                new BigDecimal("3001.00"), testTimestamp);
+
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(btcPrice));
-        when(aggregatedPriceRepository.findLatestBySymbol("ETHUSDT"))
+        when(priceSnapshotService.getLatestQuote("ETHUSDT"))
                 .thenReturn(Optional.of(ethPrice));
 
         Optional<AggregatedPriceResponse> btcResult = priceService.getLatestPrice("BTCUSDT");
@@ -193,24 +176,24 @@ class PriceServiceTest {
         assertTrue(ethResult.isPresent());
         assertEquals("BTCUSDT", btcResult.get().getSymbol());
         assertEquals("ETHUSDT", ethResult.get().getSymbol());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("BTCUSDT");
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("ETHUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("BTCUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("ETHUSDT");
     }
 
     @Test
     void testGetLatestPrice_CaseInsensitiveSymbol() {
-        when(aggregatedPriceRepository.findLatestBySymbol("btcusdt"))
+        when(priceSnapshotService.getLatestQuote("btcusdt"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("btcusdt");
 
         assertTrue(result.isPresent());
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("btcusdt");
+        verify(priceSnapshotService, times(1)).getLatestQuote("btcusdt");
     }
 
     @Test
     void testGetLatestPrice_ResponseIsNotNull() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         Optional<AggregatedPriceResponse> result = priceService.getLatestPrice("BTCUSDT");
@@ -224,12 +207,39 @@ class PriceServiceTest {
     }
 
     @Test
-    void testGetLatestPrice_RepositoryCalledOnce() {
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT"))
+    void testGetLatestPrice_SnapshotReadOnce() {
+        when(priceSnapshotService.getLatestQuote("BTCUSDT"))
                 .thenReturn(Optional.of(mockPrice));
 
         priceService.getLatestPrice("BTCUSDT");
 
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("BTCUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("BTCUSDT");
+    }
+
+    @Test
+    void testGetLatestPrices_ReadsOneSnapshot() {
+        PriceQuote ethPrice = new PriceQuote("ETHUSDT", new BigDecimal("3000.00"), new BigDecimal("3001.00"), testTimestamp);
+        PriceSnapshot snapshot = PriceSnapshot.EMPTY.with(List.of(mockPrice, ethPrice));
+        when(priceSnapshotService.getSnapshot()).thenReturn(snapshot);
+
+        PriceSnapshotResponse result = priceService.getLatestPrices(List.of("ETHUSDT", "SOLUSDT", "BTCUSDT", "ETHUSDT"));
+
+        assertEquals(snapshot.getSequence(), result.getSequence());
+        assertEquals(snapshot.getPublishedAt(), result.getTimestamp());
+        assertEquals(List.of("ETHUSDT", "BTCUSDT"), result.getPrices().stream().map(AggregatedPriceResponse::getSymbol).toList());
+        assertEquals(List.of("SOLUSDT"), result.getMissingSymbols());
+        verify(priceSnapshotService, times(1)).getSnapshot();
+    }
+
+    @Test
+    void testGetAllLatestPrices_ReturnsEverySupportedSymbol() {
+        when(symbolRegistry.getSymbols()).thenReturn(List.of("BTCUSDT", "ETHUSDT"));
+        when(priceSnapshotService.getSnapshot()).thenReturn(PriceSnapshot.EMPTY.with(List.of(mockPrice)));
+
+        PriceSnapshotResponse result = priceService.getAllLatestPrices();
+
+        assertEquals(1, result.getPrices().size());
+        assertEquals("BTCUSDT", result.getPrices().get(0).getSymbol());
+        assertEquals(List.of("ETHUSDT"), result.getMissingSymbols());
     }
 }
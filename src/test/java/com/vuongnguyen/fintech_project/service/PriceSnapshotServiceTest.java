@@ -0,0 +1,121 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.LatestPrice;
+import com.vuongnguyen.fintech_project.repository.LatestPriceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceSnapshotServiceTest {
+
+    @Mock
+    private LatestPriceRepository latestPriceRepository;
+
+    @Spy
+    private SymbolRegistry symbolRegistry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+    @InjectMocks
+    private PriceSnapshotService priceSnapshotService;
+
+    private long published;
+
+    @Test
+    void testGetLatestQuote_ColdStartLoadsFromDatabaseOnce() {
+        when(latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols())).thenReturn(List.of(
+                new LatestPrice("ETHUSDT", new BigDecimal("3000.00"), new BigDecimal("3001.00"), LocalDateTime.now())));
+
+        Optional<PriceQuote> first = priceSnapshotService.getLatestQuote("ETHUSDT");
+        Optional<PriceQuote> second = priceSnapshotService.getLatestQuote("ETHUSDT");
+        Optional<PriceQuote> missing = priceSnapshotService.getLatestQuote("BTCUSDT");
+
+        assertTrue(first.isPresent());
+        assertEquals(new BigDecimal("3000.00"), first.get().getBestBid());
+        assertSame(first.get(), second.get());
+        assertFalse(missing.isPresent());
+        verify(latestPriceRepository, times(1)).findLatestBySymbolIn(symbolRegistry.getSymbols());
+    }
+
+    @Test
+    void testPublish_ReplacesQuotesAndKeepsOthers() {
+        when(latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols())).thenReturn(List.of());
+
+        priceSnapshotService.publish(List.of(aggregatedPrice("ETHUSDT", "3000.00", "3001.00"),
+                aggregatedPrice("BTCUSDT", "50000.00", "50001.00")));
+        priceSnapshotService.publish(List.of(aggregatedPrice("ETHUSDT", "3100.00", "3101.00")));
+
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+
+        assertEquals(2, snapshot.getQuotes().size());
+        assertEquals(new BigDecimal("3100.00"), snapshot.getQuote("ETHUSDT").orElseThrow().getBestBid());
+        assertEquals(new BigDecimal("50000.00"), snapshot.getQuote("BTCUSDT").orElseThrow().getBestBid());
+    }
+
+    @Test
+    void testPublish_SwapsInNewSnapshotWithNextSequence() {
+        when(latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols())).thenReturn(List.of());
+        PriceSnapshot before = priceSnapshotService.getSnapshot();
+
+        priceSnapshotService.publish(List.of(aggregatedPrice("ETHUSDT", "3000.00", "3001.00")));
+        PriceSnapshot after = priceSnapshotService.getSnapshot();
+
+        assertEquals(before.getSequence() + 1, after.getSequence());
+        assertTrue(before.getQuotes().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> after.getQuotes().clear());
+    }
+
+    @Test
+    void testPublish_IgnoresOlderQuote() {
+        when(latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols())).thenReturn(List.of());
+        AggregatedPrice newer = aggregatedPrice("ETHUSDT", "3100.00", "3101.00");
+        AggregatedPrice older = aggregatedPrice("ETHUSDT", "3000.00", "3001.00");
+        older.setTimestamp(newer.getTimestamp().minusSeconds(1));
+
+        priceSnapshotService.publish(List.of(newer));
+        PriceSnapshot before = priceSnapshotService.getSnapshot();
+        priceSnapshotService.publish(List.of(older));
+
+        assertSame(before, priceSnapshotService.getSnapshot());
+        assertEquals(new BigDecimal("3100.00"), before.getQuote("ETHUSDT").orElseThrow().getBestBid());
+    }
+
+    @Test
+    void testPublish_EmptyTickKeepsSnapshot() {
+        when(latestPriceRepository.findLatestBySymbolIn(symbolRegistry.getSymbols())).thenReturn(List.of());
+        PriceSnapshot before = priceSnapshotService.getSnapshot();
+
+        priceSnapshotService.publish(List.of());
+
+        assertSame(before, priceSnapshotService.getSnapshot());
+    }
+
+    private AggregatedPrice aggregatedPrice(String symbol, String bid, String ask) {
+        AggregatedPrice aggregatedPrice = new AggregatedPrice();
+        aggregatedPrice.setSymbol(symbol);
+        aggregatedPrice.setBestBid(new BigDecimal(bid));
+        aggregatedPrice.setBestAsk(new BigDecimal(ask));
+        aggregatedPrice.setTimestamp(LocalDateTime.now().plusNanos(1000L * ++published));
+        return aggregatedPrice;
+    }
+}
@@ -0,0 +1,213 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.AggregatedPriceResponse;
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.PriceSnapshot;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class PriceStreamServiceTest {
+
+    @Mock
+    private PriceSnapshotService priceSnapshotService;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PriceStreamService priceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        priceStreamService = new PriceStreamService(priceSnapshotService,
+                new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json"), tasks::add, meterRegistry);
+        lenient().when(priceSnapshotService.getSnapshot()).thenReturn(PriceSnapshot.EMPTY);
+    }
+
+    @Test
+    void testPublish_KeepsOnlyNewestPricePerSymbolForSlowSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        priceStreamService.register(emitter, List.of());
+
+        priceStreamService.publish(List.of(price("BTCUSDT", "50000"), price("ETHUSDT", "3000")));
+        priceStreamService.publish(List.of(price("BTCUSDT", "50001")));
+        priceStreamService.publish(List.of(price("BTCUSDT", "50002")));
+
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        Map<String, BigDecimal> bids = emitter.prices.stream()
+                .collect(Collectors.toMap(AggregatedPriceResponse::getSymbol, AggregatedPriceResponse::getBestBid));
+        assertEquals(Map.of("BTCUSDT", new BigDecimal("50002"), "ETHUSDT", new BigDecimal("3000")), bids);
+        assertEquals(2, meterRegistry.counter("dce.price-stream.dropped").count());
+        assertEquals(2, meterRegistry.counter("dce.price-stream.sent").count());
+        assertEquals(1, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testRegister_SendsLatestPricesAndFiltersBySymbol() {
+        PriceSnapshot snapshot = PriceSnapshot.EMPTY.with(List.of(PriceQuote.from(price("BTCUSDT", "50000")),
+                PriceQuote.from(price("ETHUSDT", "3000"))));
+        lenient().when(priceSnapshotService.getSnapshot()).thenReturn(snapshot);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        priceStreamService.register(emitter, List.of("BTCUSDT"));
+        runTasks();
+        priceStreamService.publish(List.of(price("ETHUSDT", "3001")));
+        assertTrue(tasks.isEmpty());
+        priceStreamService.publish(List.of(price("BTCUSDT", "50001")));
+        runTasks();
+
+        assertEquals(List.of(new BigDecimal("50000"), new BigDecimal("50001")),
+                emitter.prices.stream().map(AggregatedPriceResponse::getBestBid).toList());
+    }
+
+    @Test
+    void testPublish_RemovesDisconnectedSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.disconnected = true;
+        priceStreamService.register(emitter, List.of());
+
+        priceStreamService.publish(List.of(price("BTCUSDT", "50000")));
+        runTasks();
+        priceStreamService.publish(List.of(price("BTCUSDT", "50001")));
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testEvictStalled_DropsSubscriberBlockedInWrite() throws Exception {
+        BlockingEmitter emitter = new BlockingEmitter();
+        priceStreamService.register(emitter, List.of());
+        priceStreamService.publish(List.of(price("BTCUSDT", "50000")));
+        Thread drain = new Thread(tasks.remove(0));
+        drain.start();
+        assertTrue(emitter.writing.await(5, TimeUnit.SECONDS));
+
+        ReflectionTestUtils.setField(priceStreamService, "sendTimeout", Duration.ofMinutes(1));
+        priceStreamService.evictStalled();
+        assertEquals(1, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+
+        ReflectionTestUtils.setField(priceStreamService, "sendTimeout", Duration.ZERO);
+        priceStreamService.evictStalled();
+        drain.join(5000);
+
+        assertFalse(drain.isAlive());
+        assertTrue(emitter.completed);
+        assertEquals(0, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+        assertEquals(1, meterRegistry.counter("dce.price-stream.evicted").count());
+        priceStreamService.publish(List.of(price("BTCUSDT", "50001")));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void testPublish_DropsSubscriberWhenWriteIsRejected() {
+        PriceStreamService rejecting = new PriceStreamService(priceSnapshotService,
+                new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json"),
+                task -> {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }, meterRegistry);
+        RecordingEmitter emitter = new RecordingEmitter();
+        rejecting.register(emitter, List.of());
+
+        assertDoesNotThrow(() -> rejecting.publish(List.of(price("BTCUSDT", "50000"))));
+
+        assertTrue(emitter.completed);
+        assertEquals(0, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testRegister_RejectsUnsupportedSymbol() {
+        assertThrows(IllegalArgumentException.class,
+                () -> priceStreamService.register(new RecordingEmitter(), List.of("BTCUSDT", "DOGEUSDT")));
+        assertEquals(0, meterRegistry.get("dce.price-stream.subscribers").gauge().value());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            List<Runnable> running = new ArrayList<>(tasks);
+            tasks.clear();
+            running.forEach(Runnable::run);
+        }
+    }
+
+    private static AggregatedPrice price(String symbol, String bid) {
+        BigDecimal bestBid = new BigDecimal(bid);
+        return new AggregatedPrice(null, symbol, bestBid, bestBid.add(BigDecimal.ONE), LocalDateTime.now());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<AggregatedPriceResponse> prices = new ArrayList<>();
+        private boolean disconnected;
+        private boolean completed;
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(AggregatedPriceResponse.class::isInstance)
+                    .map(AggregatedPriceResponse.class::cast)
+                    .forEach(prices::add);
+        }
+    }
+
+    /**
+     * Emitter of a client that stopped reading: every write blocks until the writing thread is interrupted.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new IOException("Write interrupted", e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
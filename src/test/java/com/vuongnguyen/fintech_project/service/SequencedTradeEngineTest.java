@@ -0,0 +1,222 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeBatchRequest;
+import com.vuongnguyen.fintech_project.dto.TradeBatchResponse;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "dce.trading.engine=sequencer",
+        "dce.trading.sequencer.threads=2",
+        "dce.trading.sequencer.max-cached-users=1",
+        "spring.datasource.url=jdbc:h2:mem:sequencer"
+})
+@ActiveProfiles("test")
+class SequencedTradeEngineTest {
+
+    @Autowired
+    private TradeEngine tradeEngine;
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        AggregatedPrice ethPrice = new AggregatedPrice();
+        ethPrice.setSymbol("ETHUSDT");
+        ethPrice.setBestBid(new BigDecimal("3000.00"));
+        ethPrice.setBestAsk(new BigDecimal("3001.00"));
+        ethPrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(ethPrice));
+
+        user = new User();
+        user.setUsername("sequencer-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@test.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+
+        createWallet("USDT", new BigDecimal("10000.00000000"));
+        createWallet("ETH", BigDecimal.ZERO);
+    }
+
+    @Test
+    void testExecute_IsSequencedEngine() {
+        assertInstanceOf(SequencedTradeEngine.class, tradeEngine);
+    }
+
+    @Test
+    void testExecute_ConcurrentTradesOfSameUser() throws Exception {
+        int trades = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TradeResponse>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < trades; i++) {
+                responses.add(executor.submit(() -> tradeEngine.execute(request(TradeSide.BUY, "0.1", null))));
+            }
+            for (Future<TradeResponse> response : responses) {
+                assertNotNull(response.get().getTradeId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        WalletBalance eth = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "ETH").orElseThrow();
+
+        assertEquals(0, new BigDecimal("3998.00").compareTo(usdt.getBalance()));
+        assertEquals(0, new BigDecimal("2.0").compareTo(eth.getBalance()));
+        assertEquals(trades, tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    @Test
+    void testExecute_InsufficientBalanceDoesNotAffectOtherTrades() {
+        TradeResponse first = tradeEngine.execute(request(TradeSide.BUY, "3", null));
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> tradeEngine.execute(request(TradeSide.BUY, "1", null)));
+        TradeResponse sell = tradeEngine.execute(request(TradeSide.SELL, "1", null));
+
+        assertEquals(0, new BigDecimal("997.00").compareTo(first.getUpdatedUsdtBalance()));
+        assertEquals(0, new BigDecimal("3997.00").compareTo(sell.getUpdatedUsdtBalance()));
+        assertEquals(0, new BigDecimal("2").compareTo(sell.getUpdatedAssetBalance()));
+        assertEquals(2, tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    @Test
+    void testExecute_DuplicateClientOrderIdReturnsExistingTrade() {
+        String clientOrderId = "seq-" + UUID.randomUUID();
+
+        TradeResponse first = tradeEngine.execute(request(TradeSide.BUY, "1", clientOrderId));
+        TradeResponse duplicate = tradeEngine.execute(request(TradeSide.BUY, "1", clientOrderId));
+
+        assertEquals(first.getTradeId(), duplicate.getTradeId());
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("6999.00").compareTo(usdt.getBalance()));
+    }
+
+    @Test
+    void testExecute_EvictedUserIsReloadedWithCurrentBalances() {
+        User first = user;
+        tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        for (int i = 0; i < 4; i++) {
+            setUp();
+            tradeEngine.execute(request(TradeSide.BUY, "1", null));
+        }
+
+        user = first;
+        TradeResponse second = tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        assertEquals(0, new BigDecimal("3998.00").compareTo(second.getUpdatedUsdtBalance()));
+        assertEquals(0, new BigDecimal("2").compareTo(second.getUpdatedAssetBalance()));
+    }
+
+    @Test
+    void testExecute_WalletChangedOutsideEngineIsReloaded() {
+        tradeEngine.execute(request(TradeSide.BUY, "1", null));
+        walletBalanceRepository.credit(user.getId(), "USDT", new BigDecimal("1000"));
+
+        TradeResponse second = tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        assertEquals(0, new BigDecimal("4998.00").compareTo(second.getUpdatedUsdtBalance()));
+        WalletBalance usdt = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), "USDT").orElseThrow();
+        assertEquals(0, new BigDecimal("4998.00").compareTo(usdt.getBalance()));
+    }
+
+    @Test
+    void testExecuteBatch_GoesThroughSequencer() {
+        tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        TradeBatchResponse batch = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(TradeSide.BUY, "1", null),
+                request(TradeSide.BUY, "100", null),
+                request(TradeSide.SELL, "1", null)), false));
+        TradeResponse after = tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        assertEquals(2, batch.getSucceeded());
+        assertEquals(1, batch.getFailed());
+        assertEquals(0, new BigDecimal("3997.00").compareTo(after.getUpdatedUsdtBalance()));
+        assertEquals(4, tradeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    @Test
+    void testExecuteBatch_AllOrNothingLeavesWalletsUnchangedOnFailure() {
+        TradeBatchResponse batch = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(TradeSide.BUY, "1", null),
+                request(TradeSide.BUY, "100", null)), true));
+        TradeResponse after = tradeEngine.execute(request(TradeSide.BUY, "1", null));
+
+        assertEquals(0, batch.getSucceeded());
+        assertEquals("Not executed: trade 1 failed", batch.getResults().get(0).getError());
+        assertEquals(0, new BigDecimal("6999.00").compareTo(after.getUpdatedUsdtBalance()));
+    }
+
+    @Test
+    void testExecute_UserNotFound() {
+        TradeRequest request = request(TradeSide.BUY, "1", null);
+        request.setUserId(Long.MAX_VALUE);
+
+        assertThrows(ResourceNotFoundException.class, () -> tradeEngine.execute(request));
+    }
+
+    private TradeRequest request(TradeSide side, String quantity, String clientOrderId) {
+        TradeRequest request = new TradeRequest();
+        request.setUserId(user.getId());
+        request.setSymbol("ETHUSDT");
+        request.setSide(side);
+        request.setQuantity(new BigDecimal(quantity));
+        request.setClientOrderId(clientOrderId);
+        return request;
+    }
+
+    private void createWallet(String currency, BigDecimal balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setUser(user);
+        wallet.setCurrency(currency);
+        wallet.setBalance(balance);
+        wallet.setUpdatedAt(LocalDateTime.now());
+        walletBalanceRepository.save(wallet);
+    }
+}
@@ -0,0 +1,107 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.SymbolInfo;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLoad_DefaultDefinitions() {
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+        assertEquals(List.of("ETHUSDT", "BTCUSDT"), registry.getSymbols());
+
+        SymbolInfo btc = registry.find("BTCUSDT").orElseThrow();
+        assertEquals("BTC", btc.getBaseCurrency());
+        assertEquals("USDT", btc.getQuoteCurrency());
+        assertEquals(0, new BigDecimal("0.01").compareTo(btc.getTickSize()));
+        assertEquals(0, new BigDecimal("0.00001").compareTo(btc.getLotSize()));
+    }
+
+    @Test
+    void testFind_UnknownSymbol() {
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+        assertTrue(registry.find("DOGEUSDT").isEmpty());
+        assertTrue(registry.find(null).isEmpty());
+    }
+
+    @Test
+    void testFindByExchangeSymbol_ReturnsInternedSymbolId() {
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+        SymbolInfo eth = registry.findByExchangeSymbol(DCESource.HUOBI, "ethusdt").orElseThrow();
+
+        assertSame("ETHUSDT", eth.getSymbol());
+        assertTrue(registry.findByExchangeSymbol(DCESource.HUOBI, "ETHUSDT").isEmpty());
+        assertEquals(Map.of("ethusdt", "ETHUSDT", "btcusdt", "BTCUSDT"), registry.getExchangeSymbols(DCESource.HUOBI));
+    }
+
+    @Test
+    void testReload_PicksUpChangedDefinitions() throws IOException {
+        Path definitions = tempDir.resolve("symbols.json");
+        Files.writeString(definitions, "[{\"symbol\":\"BTCUSDT\",\"baseCurrency\":\"BTC\",\"quoteCurrency\":\"USDT\"}]");
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), definitions.toUri().toString());
+        assertEquals(List.of("BTCUSDT"), registry.getSymbols());
+
+        Files.writeString(definitions, "[{\"symbol\":\"BTCUSDT\",\"baseCurrency\":\"BTC\",\"quoteCurrency\":\"USDT\"},"
+                + "{\"symbol\":\"SOLUSDT\",\"baseCurrency\":\"SOL\",\"quoteCurrency\":\"USDT\"}]");
+
+        assertEquals(2, registry.reload());
+        assertEquals("SOL", registry.find("SOLUSDT").orElseThrow().getBaseCurrency());
+        assertEquals("SOLUSDT", registry.findByExchangeSymbol(DCESource.BINANCE, "SOLUSDT").orElseThrow().getSymbol());
+    }
+
+    @Test
+    void testReload_KeepsCurrentRegistryOnInvalidDefinitions() throws IOException {
+        Path definitions = tempDir.resolve("symbols.json");
+        Files.writeString(definitions, "[{\"symbol\":\"BTCUSDT\",\"baseCurrency\":\"BTC\",\"quoteCurrency\":\"USDT\"}]");
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), definitions.toUri().toString());
+
+        Files.writeString(definitions, "[{\"symbol\":\"ETHUSDT\"}]");
+
+        assertThrows(IllegalStateException.class, registry::reload);
+        assertEquals(List.of("BTCUSDT"), registry.getSymbols());
+    }
+
+    @Test
+    void testLoad_DuplicateSymbolFails() {
+        assertThrows(IllegalStateException.class,
+                () -> new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols/duplicate.json"));
+    }
+
+    @Test
+    void testLoad_DuplicateExchangeSymbolFails() {
+        assertThrows(IllegalStateException.class,
+                () -> new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols/duplicate-exchange-symbol.json"));
+    }
+
+    @Test
+    void testFind_ReturnsUnmodifiableInfo() {
+        SymbolRegistry registry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
+        SymbolInfo eth = registry.find("ETHUSDT").orElseThrow();
+
+        assertThrows(UnsupportedOperationException.class, () -> eth.getExchangeSymbols().put(DCESource.HUOBI, "btcusdt"));
+        assertThrows(UnsupportedOperationException.class, () -> registry.getAll().clear());
+        assertEquals("ethusdt", registry.find("ETHUSDT").orElseThrow().exchangeSymbol(DCESource.HUOBI));
+    }
+}
@@ -0,0 +1,223 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeBatchRequest;
+import com.vuongnguyen.fintech_project.dto.TradeBatchResponse;
+import com.vuongnguyen.fintech_project.dto.TradeRequest;
+import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.entity.WalletBalance;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TradeBatchServiceTest {
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        AggregatedPrice ethPrice = new AggregatedPrice();
+        ethPrice.setSymbol("ETHUSDT");
+        ethPrice.setBestBid(new BigDecimal("3000.00"));
+        ethPrice.setBestAsk(new BigDecimal("3001.00"));
+        ethPrice.setTimestamp(LocalDateTime.now());
+        priceSnapshotService.publish(List.of(ethPrice));
+
+        alice = createUser();
+        bob = createUser();
+    }
+
+    @Test
+    void testExecuteBatch_PerItemIsolatesFailures() {
+        TradeBatchResponse response = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(alice, TradeSide.BUY, "3", null),
+                request(bob, TradeSide.BUY, "1", null),
+                request(alice, TradeSide.BUY, "1", null),
+                request(alice, TradeSide.SELL, "1", null)), false));
+
+        assertEquals(3, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertTrue(response.getResults().get(1).isSuccess());
+        assertFalse(response.getResults().get(2).isSuccess());
+        assertTrue(response.getResults().get(2).getError().contains("Insufficient USDT balance"));
+        assertNull(response.getResults().get(2).getTrade());
+        assertNotNull(response.getResults().get(3).getTrade().getTradeId());
+        assertEquals(0, new BigDecimal("997.00").compareTo(response.getResults().get(0).getTrade().getUpdatedUsdtBalance()));
+        assertEquals(0, new BigDecimal("3997.00").compareTo(response.getResults().get(3).getTrade().getUpdatedUsdtBalance()));
+
+        assertBalance(alice, "USDT", "3997.00");
+        assertBalance(alice, "ETH", "2");
+        assertBalance(bob, "USDT", "6999.00");
+        assertEquals(2, tradeRepository.findByUserIdOrderByCreatedAtDesc(alice.getId()).size());
+    }
+
+    @Test
+    void testExecuteBatch_AllOrNothingRollsBackEveryTrade() {
+        TradeBatchResponse response = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(alice, TradeSide.BUY, "1", null),
+                request(bob, TradeSide.BUY, "1", null),
+                request(alice, TradeSide.SELL, "5", null)), true));
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertEquals("Not executed: trade 2 failed", response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(2).getError().contains("Insufficient ETH balance"));
+
+        assertBalance(alice, "USDT", "10000");
+        assertBalance(bob, "USDT", "10000");
+        assertTrue(tradeRepository.findByUserIdOrderByCreatedAtDesc(alice.getId()).isEmpty());
+        assertTrue(tradeRepository.findByUserIdOrderByCreatedAtDesc(bob.getId()).isEmpty());
+    }
+
+    @Test
+    void testExecuteBatch_AllOrNothingCommitsEveryTrade() {
+        TradeBatchResponse response = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(alice, TradeSide.BUY, "1", null),
+                request(bob, TradeSide.BUY, "2", null)), true));
+
+        assertEquals(2, response.getSucceeded());
+        assertBalance(alice, "USDT", "6999.00");
+        assertBalance(bob, "USDT", "3998.00");
+    }
+
+    @Test
+    void testExecuteBatch_OppositeOrderAllOrNothingBatchesDoNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<TradeBatchResponse> aliceFirst = executor.submit(() -> {
+                    start.await();
+                    return tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                            request(alice, TradeSide.BUY, "0.1", null),
+                            request(bob, TradeSide.BUY, "0.1", null)), true));
+                });
+                Future<TradeBatchResponse> bobFirst = executor.submit(() -> {
+                    start.await();
+                    return tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                            request(bob, TradeSide.BUY, "0.1", null),
+                            request(alice, TradeSide.BUY, "0.1", null)), true));
+                });
+                start.countDown();
+
+                assertEquals(2, aliceFirst.get(10, TimeUnit.SECONDS).getSucceeded());
+                assertEquals(2, bobFirst.get(10, TimeUnit.SECONDS).getSucceeded());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertBalance(alice, "ETH", "2");
+        assertBalance(bob, "ETH", "2");
+        assertBalance(alice, "USDT", "3998.00");
+    }
+
+    @Test
+    void testExecuteBatch_DuplicateClientOrderIdExecutesOnce() {
+        String clientOrderId = "batch-" + UUID.randomUUID();
+
+        TradeBatchResponse response = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(alice, TradeSide.BUY, "1", clientOrderId),
+                request(alice, TradeSide.BUY, "1", clientOrderId)), false));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(response.getResults().get(0).getTrade().getTradeId(), response.getResults().get(1).getTrade().getTradeId());
+        assertBalance(alice, "USDT", "6999.00");
+
+        TradeBatchResponse resubmitted = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                request(alice, TradeSide.BUY, "1", clientOrderId)), false));
+
+        assertEquals(response.getResults().get(0).getTrade().getTradeId(), resubmitted.getResults().get(0).getTrade().getTradeId());
+        assertBalance(alice, "USDT", "6999.00");
+    }
+
+    @Test
+    void testExecuteBatch_UnknownUser() {
+        TradeRequest unknown = request(alice, TradeSide.BUY, "1", null);
+        unknown.setUserId(Long.MAX_VALUE);
+
+        TradeBatchResponse response = tradeBatchService.executeBatch(new TradeBatchRequest(List.of(
+                unknown, request(alice, TradeSide.BUY, "1", null)), false));
+
+        assertEquals("User not found: " + Long.MAX_VALUE, response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(1).isSuccess());
+    }
+
+    private void assertBalance(User user, String currency, String expected) {
+        WalletBalance wallet = walletBalanceRepository.findByUserIdAndCurrency(user.getId(), currency).orElseThrow();
+        assertEquals(0, new BigDecimal(expected).compareTo(wallet.getBalance()));
+    }
+
+    private TradeRequest request(User trader, TradeSide side, String quantity, String clientOrderId) {
+        TradeRequest request = new TradeRequest();
+        request.setUserId(trader.getId());
+        request.setSymbol("ETHUSDT");
+        request.setSide(side);
+        request.setQuantity(new BigDecimal(quantity));
+        request.setClientOrderId(clientOrderId);
+        return request;
+    }
+
+    private User createUser() {
+        User trader = new User();
+        trader.setUsername("batch-" + UUID.randomUUID());
+        trader.setEmail(trader.getUsername() + "@test.com");
+        trader.setCreatedAt(LocalDateTime.now());
+        trader = userRepository.save(trader);
+
+        createWallet(trader, "USDT", new BigDecimal("10000.00000000"));
+        createWallet(trader, "ETH", BigDecimal.ZERO);
+
+        return trader;
+    }
+
+    private void createWallet(User trader, String currency, BigDecimal balance) {
+        WalletBalance wallet = new WalletBalance();
+        wallet.setUser(trader);
+        wallet.setCurrency(currency);
+        wallet.setBalance(balance);
+        wallet.setUpdatedAt(LocalDateTime.now());
+        walletBalanceRepository.save(wallet);
+    }
+}
@@ -0,0 +1,128 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vuongnguyen.fintech_project.entity.Trade;
+import com.vuongnguyen.fintech_project.entity.User;
+import com.vuongnguyen.fintech_project.enums.TradeExportFormat;
+import com.vuongnguyen.fintech_project.enums.TradeSide;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.TradeRepository;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:trade-export")
+@ActiveProfiles("test")
+class TradeExportServiceTest {
+
+    @Autowired
+    private TradeExportService tradeExportService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("export-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@test.com");
+        user.setCreatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void testExportTradeHistory_NdjsonNewestFirst() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            trades.add(trade("BTCUSDT", createdAt.plusSeconds(i), null));
+        }
+        tradeRepository.insertBatch(trades);
+        double exportedBefore = meterRegistry.counter("dce.trading.export.rows", "format", "ndjson").count();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tradeExportService.exportTradeHistory(user.getId(), null, TradeExportFormat.NDJSON).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1200, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(trades.get(1199).getId(), first.get("tradeId").asLong());
+        assertEquals("BUY", first.get("side").asText());
+        assertEquals("2026-01-01T12:19:59", first.get("createdAt").asText());
+        assertEquals(0, new BigDecimal("100.50").compareTo(first.get("price").decimalValue()));
+        assertTrue(first.get("clientOrderId").isNull());
+        assertEquals(trades.get(0).getId(), new ObjectMapper().readTree(lines[1199]).get("tradeId").asLong());
+        assertEquals(1200, meterRegistry.counter("dce.trading.export.rows", "format", "ndjson").count() - exportedBefore);
+    }
+
+    @Test
+    void testExportTradeHistory_CsvWithSymbolFilterAndQuoting() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Trade> trades = List.of(
+                trade("BTCUSDT", createdAt, "plain-" + user.getId()),
+                trade("ETHUSDT", createdAt.plusMinutes(1), null),
+                trade("BTCUSDT", createdAt.plusMinutes(2), "a,\"b\"-" + user.getId()));
+        tradeRepository.insertBatch(trades);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tradeExportService.exportTradeHistory(user.getId(), "BTCUSDT", TradeExportFormat.CSV).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(TradeExportService.CSV_HEADER, lines[0]);
+        assertEquals(trades.get(2).getId() + ",BTCUSDT,BUY,100.50000000,1.00000000,100.50000000,2026-01-01T12:02:00,\"a,\"\"b\"\"-" + user.getId() + "\"", lines[1]);
+        assertEquals(trades.get(0).getId() + ",BTCUSDT,BUY,100.50000000,1.00000000,100.50000000,2026-01-01T12:00:00,plain-" + user.getId(), lines[2]);
+    }
+
+    @Test
+    void testExportTradeHistory_EmptyHistoryCsvHasHeaderOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tradeExportService.exportTradeHistory(user.getId(), null, TradeExportFormat.CSV).writeTo(out);
+
+        assertEquals(TradeExportService.CSV_HEADER + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportTradeHistory_UnknownUser() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> tradeExportService.exportTradeHistory(Long.MAX_VALUE, null, TradeExportFormat.NDJSON));
+    }
+
+    private Trade trade(String symbol, LocalDateTime createdAt, String clientOrderId) {
+        Trade trade = new Trade();
+        trade.setUser(user);
+        trade.setSymbol(symbol);
+        trade.setSide(TradeSide.BUY);
+        trade.setPrice(new BigDecimal("100.50"));
+        trade.setQuantity(new BigDecimal("1"));
+        trade.setTotalAmount(new BigDecimal("100.50"));
+        trade.setCreatedAt(createdAt);
+        trade.setClientOrderId(clientOrderId);
+        return trade;
+    }
+}
@@ -1,10 +1,12 @@
 package com.vuongnguyen.fintech_project.service;
 
+import com.vuongnguyen.fintech_project.dto.PriceQuote;
+import com.vuongnguyen.fintech_project.dto.TradeHistoryCursorResponse;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryItem;
 import com.vuongnguyen.fintech_project.dto.TradeHistoryResponse;
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
 import com.vuongnguyen.fintech_project.dto.TradeRequest;
 import com.vuongnguyen.fintech_project.dto.TradeResponse;
-import com.vuongnguyen.fintech_project.entity.AggregatedPrice;
 import com.vuongnguyen.fintech_project.entity.Trade;
 import com.vuongnguyen.fintech_project.entity.User;
 import com.vuongnguyen.fintech_project.entity.WalletBalance;
@@ -13,17 +15,20 @@ import com.vuongnguyen.fintech_project.exception.InsufficientBalanceException;
 import com.vuongnguyen.fintech_project.exception.PriceNotAvailableException;
 import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
 import com.vuongnguyen.fintech_project.exception.TradingException;
-import com.vuongnguyen.fintech_project.repository.AggregatedPriceRepository;
 import com.vuongnguyen.fintech_project.repository.TradeRepository;
 import com.vuongnguyen.fintech_project.repository.UserRepository;
 import com.vuongnguyen.fintech_project.repository.WalletBalanceRepository;
+import com.vuongnguyen.fintech_project.utility.TradeCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
@@ -33,6 +38,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,8 +46,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.anyLong;
@@ -61,17 +70,23 @@ class TradingServiceTest {
     private WalletBalanceRepository walletBalanceRepository;
 
     @Mock
-    private AggregatedPriceRepository aggregatedPriceRepository;
+    private PriceSnapshotService priceSnapshotService;
 
     @Mock
     private TradeRepository tradeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SymbolRegistry symbolRegistry = new SymbolRegistry(new DefaultResourceLoader(), "classpath:symbols.json");
+
     @InjectMocks
     private TradingService tradingService;
 
     private User testUser;
     private TradeRequest tradeRequest;
-    private AggregatedPrice aggregatedPrice;
+    private PriceQuote latestQuote;
     private WalletBalance usdtBalance;
     private WalletBalance btcBalance;
     private Trade savedTrade;
@@ -91,12 +106,8 @@ class TradingServiceTest {
         tradeRequest.setQuantity(new BigDecimal("0.5"));
         tradeRequest.setClientOrderId("order-123");
 
-        aggregatedPrice = new AggregatedPrice();
-        aggregatedPrice.setId(1L);
-        aggregatedPrice.setSymbol("BTCUSDT");
-        aggregatedPrice.setBestBid(new BigDecimal("50000.00"));
-        aggregatedPrice.setBestAsk(new BigDecimal("50001.00"));
-        aggregatedPrice.setTimestamp(LocalDateTime.now());
+        latestQuote = new PriceQuote("BTCUSDT", new BigDecimal("50000.00"),
+                new BigDecimal("50001.00"), LocalDateTime.now());
 
         usdtBalance = new WalletBalance();
         usdtBalance.setId(1L);
@@ -130,7 +141,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_SuccessfulBuyOrder() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
         when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
@@ -146,21 +157,21 @@ class TradingServiceTest {
 
         verify(tradeRepository, times(1)).findByClientOrderId("order-123");
         verify(userRepository, times(1)).findById(1L);
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("BTCUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("BTCUSDT");
         verify(walletBalanceRepository, times(2)).findByUserIdAndCurrencyWithLock(anyLong(), anyString());
         verify(walletBalanceRepository, times(1)).saveAll(anyList());
         verify(tradeRepository, times(1)).save(any(Trade.class));
+        verify(eventPublisher, times(1)).publishEvent(any(TradeExecutedEvent.class));
     }
 
     @Test
     void testExecuteUserTrading_SuccessfulSellOrder() {
         tradeRequest.setSide(TradeSide.SELL);
-        aggregatedPrice.setBestBid(new BigDecimal("50000.00"));
         btcBalance.setBalance(new BigDecimal("1.0"));
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -188,9 +199,10 @@ class TradingServiceTest {
 
         verify(tradeRepository, times(1)).findByClientOrderId("order-123");
         verify(userRepository, never()).findById(anyLong());
-        verify(aggregatedPriceRepository, never()).findLatestBySymbol(anyString());
+        verify(priceSnapshotService, never()).getLatestQuote(anyString());
         verify(walletBalanceRepository, never()).findByUserIdAndCurrencyWithLock(anyLong(), anyString());
         verify(tradeRepository, never()).save(any(Trade.class));
+        verify(eventPublisher, never()).publishEvent(any(TradeExecutedEvent.class));
     }
 
     @Test
@@ -208,11 +220,24 @@ class TradingServiceTest {
     void testExecuteUserTrading_PriceNotAvailable() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.empty());
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.empty());
 
         assertThrows(PriceNotAvailableException.class, () -> tradingService.executeUserTrading(tradeRequest));
 
-        verify(aggregatedPriceRepository, times(1)).findLatestBySymbol("BTCUSDT");
+        verify(priceSnapshotService, times(1)).getLatestQuote("BTCUSDT");
+        verify(tradeRepository, never()).save(any(Trade.class));
+    }
+
+    @Test
+    void testExecuteUserTrading_UnsupportedSymbol() {
+        tradeRequest.setSymbol("DOGEUSDT");
+        when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(priceSnapshotService.getLatestQuote("DOGEUSDT")).thenReturn(Optional.of(latestQuote));
+
+        assertThrows(TradingException.class, () -> tradingService.executeUserTrading(tradeRequest));
+
+        verify(walletBalanceRepository, never()).findByUserIdAndCurrencyWithLock(anyLong(), anyString());
         verify(tradeRepository, never()).save(any(Trade.class));
     }
 
@@ -222,7 +247,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -239,7 +264,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -253,7 +278,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_USDTWalletNotFound() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.empty());
 
         assertThrows(TradingException.class, () -> tradingService.executeUserTrading(tradeRequest));
@@ -265,7 +290,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_AssetWalletNotFound() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.empty());
 
@@ -278,7 +303,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_RaceCondition_OptimisticLockingFailure() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
         when(walletBalanceRepository.saveAll(anyList())).thenThrow(new OptimisticLockingFailureException("Concurrent modification detected"));
@@ -292,7 +317,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_BalanceUpdatedCorrectly_Buy() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
         when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
@@ -334,7 +359,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -377,7 +402,7 @@ class TradingServiceTest {
         tradeRequest.setClientOrderId(null);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
         when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
@@ -395,7 +420,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -413,12 +438,8 @@ class TradingServiceTest {
     void testExecuteUserTrading_DifferentSymbols() {
         tradeRequest.setSymbol("ETHUSDT");
 
-        AggregatedPrice ethPrice = new AggregatedPrice();
-        ethPrice.setId(2L);
-        ethPrice.setSymbol("ETHUSDT");
-        ethPrice.setBestBid(new BigDecimal("3000.00"));
-        ethPrice.setBestAsk(new BigDecimal("3001.00"));
-        ethPrice.setTimestamp(LocalDateTime.now());
+        PriceQuote ethPrice = new PriceQuote("ETHUSDT", new BigDecimal("3000.00"),
+                new BigDecimal("3001.00"), LocalDateTime.now());
 
         WalletBalance ethBalance = new WalletBalance();
         ethBalance.setId(3L);
@@ -430,7 +451,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("ETHUSDT")).thenReturn(Optional.of(ethPrice));
+        when(priceSnapshotService.getLatestQuote("ETHUSDT")).thenReturn(Optional.of(ethPrice));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "ETH")).thenReturn(Optional.of(ethBalance));
 
@@ -471,7 +492,7 @@ class TradingServiceTest {
     void testExecuteUserTrading_VerifyTradeDetailsCalculation() {
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
         when(tradeRepository.save(any(Trade.class))).thenReturn(savedTrade);
@@ -494,7 +515,7 @@ class TradingServiceTest {
 
         when(tradeRepository.findByClientOrderId("order-123")).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(aggregatedPriceRepository.findLatestBySymbol("BTCUSDT")).thenReturn(Optional.of(aggregatedPrice));
+        when(priceSnapshotService.getLatestQuote("BTCUSDT")).thenReturn(Optional.of(latestQuote));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "USDT")).thenReturn(Optional.of(usdtBalance));
         when(walletBalanceRepository.findByUserIdAndCurrencyWithLock(1L, "BTC")).thenReturn(Optional.of(btcBalance));
 
@@ -735,4 +756,65 @@ class TradingServiceTest {
         assertEquals("BTCUSDT", response.getTrades().get(0).getSymbol());
         assertEquals("ETHUSDT", response.getTrades().get(1).getSymbol());
     }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_FirstPageWithMore() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        when(tradeRepository.findFirstPage(1L, Limit.of(3))).thenReturn(List.of(
+                historyTrade(30L, createdAt), historyTrade(20L, createdAt), historyTrade(10L, createdAt.minusMinutes(1))));
+
+        TradeHistoryCursorResponse response = tradingService.getUserTradeHistoryByCursor(1L, null, 2, null);
+
+        assertEquals(2, response.getTrades().size());
+        assertEquals(30L, response.getTrades().get(0).getTradeId());
+        assertTrue(response.isHasMore());
+        assertEquals(new TradeCursor(createdAt, 20L), TradeCursor.decode(response.getNextCursor()));
+        verify(tradeRepository, never()).findByUserId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_LastPage() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        String cursor = new TradeCursor(createdAt, 20L).encode();
+        when(tradeRepository.findPageAfter(1L, createdAt, 20L, Limit.of(3)))
+                .thenReturn(List.of(historyTrade(10L, createdAt.minusMinutes(1))));
+
+        TradeHistoryCursorResponse response = tradingService.getUserTradeHistoryByCursor(1L, cursor, 2, null);
+
+        assertEquals(1, response.getTrades().size());
+        assertFalse(response.isHasMore());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_WithSymbolFilter() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        String cursor = new TradeCursor(createdAt, 20L).encode();
+        when(tradeRepository.findPageAfterBySymbol(1L, "BTCUSDT", createdAt, 20L, Limit.of(21)))
+                .thenReturn(List.of(historyTrade(10L, createdAt)));
+
+        TradeHistoryCursorResponse response = tradingService.getUserTradeHistoryByCursor(1L, cursor, 20, "BTCUSDT");
+
+        assertEquals(1, response.getTrades().size());
+        assertEquals("BTCUSDT", response.getTrades().get(0).getSymbol());
+    }
+
+    @Test
+    void testGetUserTradeHistoryByCursor_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> tradingService.getUserTradeHistoryByCursor(1L, "garbage!", 20, null));
+    }
+
+    private Trade historyTrade(Long id, LocalDateTime createdAt) {
+        Trade trade = new Trade();
+        trade.setId(id);
+        trade.setUser(testUser);
+        trade.setSymbol("BTCUSDT");
+        trade.setSide(TradeSide.BUY);
+        trade.setPrice(new BigDecimal("50001.00"));
+        trade.setQuantity(new BigDecimal("0.5"));
+        trade.setTotalAmount(new BigDecimal("25000.50"));
+        trade.setCreatedAt(createdAt);
+        return trade;
+    }
 }
@@ -0,0 +1,153 @@
+package com.vuongnguyen.fintech_project.service;
+
+import com.vuongnguyen.fintech_project.dto.TradeExecutedEvent;
+import com.vuongnguyen.fintech_project.dto.TradeResponse;
+import com.vuongnguyen.fintech_project.exception.ResourceNotFoundException;
+import com.vuongnguyen.fintech_project.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserStreamServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserStreamService userStreamService;
+
+    @BeforeEach
+    void setUp() {
+        userStreamService = new UserStreamService(userRepository, tasks::add, meterRegistry);
+        ReflectionTestUtils.setField(userStreamService, "maxPending", 3);
+    }
+
+    @Test
+    void testOnTradeExecuted_SendsTradesInOrderToSubscribersOfTheUser() {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        RecordingEmitter otherUser = new RecordingEmitter();
+        userStreamService.register(first, 1L);
+        userStreamService.register(second, 1L);
+        userStreamService.register(otherUser, 2L);
+
+        userStreamService.onTradeExecuted(new TradeExecutedEvent(trade(1L, 10L)));
+        userStreamService.onTradeExecuted(new TradeExecutedEvent(trade(1L, 11L)));
+        assertEquals(2, tasks.size());
+        runTasks();
+
+        assertEquals(List.of(10L, 11L), first.tradeIds());
+        assertEquals(List.of(10L, 11L), second.tradeIds());
+        assertTrue(otherUser.trades.isEmpty());
+        assertEquals(4, meterRegistry.counter("dce.user-stream.sent").count());
+        assertEquals(3, meterRegistry.get("dce.user-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testOnTradeExecuted_DisconnectsSubscriberThatFallsBehind() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        userStreamService.register(emitter, 1L);
+
+        for (long tradeId = 1; tradeId <= 4; tradeId++) {
+            userStreamService.onTradeExecuted(new TradeExecutedEvent(trade(1L, tradeId)));
+        }
+
+        assertEquals(1, meterRegistry.counter("dce.user-stream.overflows").count());
+        assertEquals(0, meterRegistry.get("dce.user-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testSendHeartbeats_SkipsSubscribersWithPendingEvents() {
+        RecordingEmitter idle = new RecordingEmitter();
+        RecordingEmitter busy = new RecordingEmitter();
+        userStreamService.register(idle, 1L);
+        userStreamService.register(busy, 2L);
+        userStreamService.onTradeExecuted(new TradeExecutedEvent(trade(2L, 20L)));
+
+        userStreamService.sendHeartbeats();
+        runTasks();
+
+        assertEquals(1, idle.events);
+        assertTrue(idle.trades.isEmpty());
+        assertEquals(1, busy.events);
+        assertEquals(List.of(20L), busy.tradeIds());
+    }
+
+    @Test
+    void testSendHeartbeats_RemovesDisconnectedSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.disconnected = true;
+        userStreamService.register(emitter, 1L);
+
+        userStreamService.sendHeartbeats();
+        runTasks();
+        userStreamService.onTradeExecuted(new TradeExecutedEvent(trade(1L, 10L)));
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, meterRegistry.get("dce.user-stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testSubscribe_UserNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> userStreamService.subscribe(99L));
+        assertEquals(0, meterRegistry.get("dce.user-stream.subscribers").gauge().value());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            List<Runnable> running = new ArrayList<>(tasks);
+            tasks.clear();
+            running.forEach(Runnable::run);
+        }
+    }
+
+    private static TradeResponse trade(Long userId, Long tradeId) {
+        TradeResponse trade = new TradeResponse();
+        trade.setUserId(userId);
+        trade.setTradeId(tradeId);
+        return trade;
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<TradeResponse> trades = new ArrayList<>();
+        private int events;
+        private boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            events++;
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(TradeResponse.class::isInstance)
+                    .map(TradeResponse.class::cast)
+                    .forEach(trades::add);
+        }
+
+        private List<Long> tradeIds() {
+            return trades.stream().map(TradeResponse::getTradeId).toList();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinanceBookTickerStreamTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String SUBSCRIBE =
+            "{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@bookTicker\",\"ethusdt@bookTicker\"],\"id\":1}";
+
+    private LocalWebSocketServer server;
+    private ScheduledExecutorService scheduler;
+    private BlockingQueue<PriceData> received;
+    private BinanceBookTickerStream stream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalWebSocketServer();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        received = new LinkedBlockingQueue<>();
+        stream = new BinanceBookTickerStream(server.uri(), HttpClient.newHttpClient(), scheduler, received::add,
+                Map.of("BTCUSDT", "BTCUSDT", "ETHUSDT", "ETHUSDT"), Duration.ofMillis(50), Duration.ofMillis(200), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stream.stop();
+        scheduler.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    void testStream_SubscribesToBookTickerOnConnect() throws InterruptedException {
+        stream.start();
+
+        assertEquals(SUBSCRIBE, server.nextMessage(TIMEOUT));
+    }
+
+    @Test
+    void testStream_PublishesBookTickerUpdates() throws Exception {
+        stream.start();
+        server.nextMessage(TIMEOUT);
+
+        server.sendText("{\"result\":null,\"id\":1}");
+        server.sendText("{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35\",\"B\":\"31.21\",\"a\":\"25.36\",\"A\":\"40.66\"}");
+        server.sendText("{\"u\":400900218,\"s\":\"ETHUSDT\",\"b\":\"3000.10\",\"B\":\"1.5\",\"a\":\"3000.20\",\"A\":\"2.5\"}");
+
+        PriceData priceData = received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertNotNull(priceData);
+        assertEquals("ETHUSDT", priceData.getSymbol());
+        assertEquals(FixedPoint.parse("3000.10"), priceData.getBid());
+        assertEquals(FixedPoint.parse("3000.20"), priceData.getAsk());
+        assertEquals(DCESource.BINANCE, priceData.getSource());
+        assertTrue(received.isEmpty());
+        assertTrue(stream.isLive());
+    }
+
+    @Test
+    void testStream_ReconnectsAndResubscribesAfterDrop() throws Exception {
+        stream.start();
+        assertEquals(SUBSCRIBE, server.nextMessage(TIMEOUT));
+
+        server.dropConnection();
+
+        assertTrue(server.awaitConnections(2, TIMEOUT));
+        assertEquals(SUBSCRIBE, server.nextMessage(TIMEOUT));
+
+        server.sendText("{\"u\":1,\"s\":\"BTCUSDT\",\"b\":\"50000.00\",\"B\":\"1\",\"a\":\"50001.00\",\"A\":\"1\"}");
+        PriceData priceData = received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertNotNull(priceData);
+        assertEquals("BTCUSDT", priceData.getSymbol());
+        assertEquals(2, stream.getConnectCount());
+    }
+}
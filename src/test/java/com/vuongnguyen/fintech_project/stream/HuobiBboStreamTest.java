@@ -0,0 +1,117 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.vuongnguyen.fintech_project.dto.PriceData;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.utility.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HuobiBboStreamTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Set<String> SUBSCRIPTIONS = Set.of(
+            "{\"sub\":\"market.btcusdt.bbo\",\"id\":\"btcusdt\"}",
+            "{\"sub\":\"market.ethusdt.bbo\",\"id\":\"ethusdt\"}");
+
+    private LocalWebSocketServer server;
+    private ScheduledExecutorService scheduler;
+    private BlockingQueue<PriceData> received;
+    private HuobiBboStream stream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalWebSocketServer();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        received = new LinkedBlockingQueue<>();
+        stream = new HuobiBboStream(server.uri(), HttpClient.newHttpClient(), scheduler, received::add,
+                Map.of("btcusdt", "BTCUSDT", "ethusdt", "ETHUSDT"), Duration.ofMillis(50), Duration.ofMillis(200), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stream.stop();
+        scheduler.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    void testStream_SubscribesToBboChannels() throws InterruptedException {
+        stream.start();
+
+        assertTrue(SUBSCRIPTIONS.contains(server.nextMessage(TIMEOUT)));
+        assertTrue(SUBSCRIPTIONS.contains(server.nextMessage(TIMEOUT)));
+    }
+
+    @Test
+    void testStream_AnswersGzipPingWithPong() throws Exception {
+        stream.start();
+        server.nextMessage(TIMEOUT);
+        server.nextMessage(TIMEOUT);
+
+        server.sendBinary(gzip("{\"ping\":1492420473027}"));
+
+        assertEquals("{\"pong\":1492420473027}", server.nextMessage(TIMEOUT));
+    }
+
+    @Test
+    void testStream_PublishesGzipBboUpdates() throws Exception {
+        stream.start();
+        server.nextMessage(TIMEOUT);
+        server.nextMessage(TIMEOUT);
+
+        server.sendBinary(gzip("{\"id\":\"btcusdt\",\"status\":\"ok\",\"subbed\":\"market.btcusdt.bbo\",\"ts\":1}"));
+        server.sendBinary(gzip("{\"ch\":\"market.btcusdt.bbo\",\"ts\":1630998026649,\"tick\":{\"seqId\":1,"
+                + "\"ask\":50001.01,\"askSize\":0.5,\"bid\":50000.99,\"bidSize\":0.7,\"quoteTime\":1630998026649,"
+                + "\"symbol\":\"btcusdt\"}}"));
+
+        PriceData priceData = received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertNotNull(priceData);
+        assertEquals("BTCUSDT", priceData.getSymbol());
+        assertEquals(FixedPoint.parse("50000.99"), priceData.getBid());
+        assertEquals(FixedPoint.parse("50001.01"), priceData.getAsk());
+        assertEquals(DCESource.HUOBI, priceData.getSource());
+    }
+
+    @Test
+    void testStream_ResubscribesAfterReconnect() throws Exception {
+        stream.start();
+        server.nextMessage(TIMEOUT);
+        server.nextMessage(TIMEOUT);
+
+        server.dropConnection();
+
+        assertTrue(server.awaitConnections(2, TIMEOUT));
+        assertTrue(SUBSCRIPTIONS.contains(server.nextMessage(TIMEOUT)));
+        assertTrue(SUBSCRIPTIONS.contains(server.nextMessage(TIMEOUT)));
+    }
+
+    private byte[] gzip(String message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(message.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
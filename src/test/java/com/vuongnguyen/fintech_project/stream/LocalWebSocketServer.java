@@ -0,0 +1,214 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal RFC 6455 server used as a local stand-in for exchange WebSocket endpoints.
+ * It accepts one client connection at a time, records every text frame the client sends and lets
+ * a test push text or binary frames or drop the connection abruptly.
+ */
+class LocalWebSocketServer implements AutoCloseable {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile Socket client;
+
+    LocalWebSocketServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptLoop, "local-websocket-server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    URI uri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/ws");
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    boolean awaitConnections(int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (connections.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    String nextMessage(Duration timeout) throws InterruptedException {
+        return received.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void sendText(String message) throws IOException {
+        sendFrame(0x1, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void sendBinary(byte[] message) throws IOException {
+        sendFrame(0x2, message);
+    }
+
+    void dropConnection() throws IOException {
+        Socket current = client;
+        if (Objects.nonNull(current)) {
+            current.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        dropConnection();
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                handshake(socket);
+                client = socket;
+                connections.incrementAndGet();
+
+                Thread reader = new Thread(() -> readLoop(socket), "local-websocket-reader");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handshake(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        while (!header.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed during handshake");
+            }
+            header.write(b);
+        }
+
+        String key = header.toString(StandardCharsets.ISO_8859_1).lines()
+                .filter(line -> line.toLowerCase().startsWith("sec-websocket-key:"))
+                .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                .findFirst()
+                .orElseThrow(() -> new IOException("Missing Sec-WebSocket-Key"));
+
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    private void readLoop(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            while (!socket.isClosed()) {
+                int first = in.readUnsignedByte();
+                int second = in.readUnsignedByte();
+                int opcode = first & 0x0F;
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+
+                switch (opcode) {
+                    case 0x1 -> received.add(new String(payload, StandardCharsets.UTF_8));
+                    case 0x8 -> {
+                        writeFrame(socket, 0x8, payload);
+                        socket.close();
+                    }
+                    case 0x9 -> writeFrame(socket, 0xA, payload);
+                    default -> {
+                        // continuation and pong frames are not needed by the tests
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // connection dropped
+        }
+    }
+
+    private void sendFrame(int opcode, byte[] payload) throws IOException {
+        Socket current = client;
+        if (Objects.isNull(current)) {
+            throw new IOException("No client connected");
+        }
+        writeFrame(current, opcode, payload);
+    }
+
+    private static void writeFrame(Socket socket, int opcode, byte[] payload) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x80 | opcode);
+        if (payload.length < 126) {
+            frame.write(payload.length);
+        } else if (payload.length <= 0xFFFF) {
+            frame.write(126);
+            frame.write(payload.length >>> 8);
+            frame.write(payload.length & 0xFF);
+        } else {
+            frame.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                frame.write((int) ((long) payload.length >>> shift) & 0xFF);
+            }
+        }
+        frame.write(payload);
+
+        synchronized (socket) {
+            OutputStream out = socket.getOutputStream();
+            out.write(frame.toByteArray());
+            out.flush();
+        }
+    }
+
+    private static String accept(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
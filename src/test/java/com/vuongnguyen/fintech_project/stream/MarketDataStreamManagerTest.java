@@ -0,0 +1,83 @@
+package com.vuongnguyen.fintech_project.stream;
+
+import com.vuongnguyen.fintech_project.config.MarketDataSourceProperties;
+import com.vuongnguyen.fintech_project.enums.DCESource;
+import com.vuongnguyen.fintech_project.service.BinancePriceService;
+import com.vuongnguyen.fintech_project.service.ExternalService;
+import com.vuongnguyen.fintech_project.service.PriceAggregationService;
+import com.vuongnguyen.fintech_project.service.SymbolRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class MarketDataStreamManagerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String BTC = "{\"symbol\":\"BTCUSDT\",\"baseCurrency\":\"BTC\",\"quoteCurrency\":\"USDT\"}";
+    private static final String SOL = "{\"symbol\":\"SOLUSDT\",\"baseCurrency\":\"SOL\",\"quoteCurrency\":\"USDT\"}";
+
+    @TempDir
+    Path tempDir;
+
+    private LocalWebSocketServer server;
+    private Path definitions;
+    private SymbolRegistry symbolRegistry;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MarketDataStreamManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalWebSocketServer();
+        definitions = tempDir.resolve("symbols.json");
+        Files.writeString(definitions, "[" + BTC + "]");
+        symbolRegistry = new SymbolRegistry(new DefaultResourceLoader(), definitions.toUri().toString());
+
+        MarketDataSourceProperties properties = new MarketDataSourceProperties();
+        MarketDataSourceProperties.Source binance = new MarketDataSourceProperties.Source();
+        binance.setStreamUrl(server.uri().toString());
+        properties.getSources().put(DCESource.BINANCE, binance);
+
+        manager = new MarketDataStreamManager(mock(PriceAggregationService.class),
+                List.of(new BinancePriceService(mock(ExternalService.class), symbolRegistry)), properties, meterRegistry);
+        ReflectionTestUtils.setField(manager, "staleAfter", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(manager, "initialBackoff", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(manager, "maxBackoff", Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.stop();
+        server.close();
+    }
+
+    @Test
+    void testRestart_SubscribesToReloadedSymbols() throws Exception {
+        manager.start();
+        assertEquals("{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@bookTicker\"],\"id\":1}", server.nextMessage(TIMEOUT));
+
+        Files.writeString(definitions, "[" + BTC + "," + SOL + "]");
+        symbolRegistry.reload();
+        manager.restart();
+
+        assertTrue(server.awaitConnections(2, TIMEOUT));
+        assertEquals("{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@bookTicker\",\"solusdt@bookTicker\"],\"id\":1}",
+                server.nextMessage(TIMEOUT));
+        assertEquals(1, meterRegistry.find("dce.stream.connects").functionCounters().size());
+        assertEquals(1, meterRegistry.get("dce.stream.connects").tag("exchange", "BINANCE").functionCounter().count());
+    }
+}
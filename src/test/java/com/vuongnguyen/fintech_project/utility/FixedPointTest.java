@@ -0,0 +1,69 @@
+package com.vuongnguyen.fintech_project.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixedPointTest {
+
+    @Test
+    void testParse_PlainAndPaddedDecimals() {
+        assertEquals(5_000_001_000_000L, FixedPoint.parse("50000.01"));
+        assertEquals(5_000_001_000_000L, FixedPoint.parse("50000.01000000"));
+        assertEquals(300_000_000_000L, FixedPoint.parse("3000"));
+        assertEquals(50_000_000L, FixedPoint.parse(".5"));
+    }
+
+    @Test
+    void testParse_RoundsHalfUpBeyondScale() {
+        assertEquals(1L, FixedPoint.parse("0.000000005"));
+        assertEquals(0L, FixedPoint.parse("0.000000004"));
+        assertEquals(100_000_000L, FixedPoint.parse("0.999999995"));
+    }
+
+    @Test
+    void testParse_Signs() {
+        assertEquals(-150_000_000L, FixedPoint.parse("-1.5"));
+        assertEquals(150_000_000L, FixedPoint.parse("+1.5"));
+    }
+
+    @Test
+    void testParse_NullOrEmptyIsUnset() {
+        assertEquals(FixedPoint.UNSET, FixedPoint.parse(null));
+        assertEquals(FixedPoint.UNSET, FixedPoint.parse(""));
+        assertFalse(FixedPoint.isSet(FixedPoint.parse(null)));
+    }
+
+    @Test
+    void testParse_InvalidInput() {
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("-"));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1e5"));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.parse("999999999999999999999"));
+    }
+
+    @Test
+    void testOfAndToBigDecimal_RoundTrip() {
+        BigDecimal price = new BigDecimal("50000.01");
+
+        long scaled = FixedPoint.of(price);
+
+        assertEquals(FixedPoint.parse("50000.01"), scaled);
+        assertTrue(FixedPoint.isSet(scaled));
+        assertEquals(0, price.compareTo(FixedPoint.toBigDecimal(scaled)));
+        assertEquals(FixedPoint.SCALE, FixedPoint.toBigDecimal(scaled).scale());
+    }
+
+    @Test
+    void testOfAndToBigDecimal_Unset() {
+        assertEquals(FixedPoint.UNSET, FixedPoint.of(null));
+        assertNull(FixedPoint.toBigDecimal(FixedPoint.UNSET));
+    }
+}
@@ -0,0 +1,31 @@
+package com.vuongnguyen.fintech_project.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TradeCursorTest {
+
+    @Test
+    void testEncode_RoundTrips() {
+        TradeCursor cursor = new TradeCursor(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertEquals(cursor, TradeCursor.decode(encoded));
+        assertFalse(encoded.contains("|"));
+        assertFalse(encoded.contains("="));
+    }
+
+    @Test
+    void testDecode_RejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> TradeCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> TradeCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> TradeCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> TradeCursor.decode("MjAyNi0wMS0wMnw0Mg"));
+    }
+}